@@ -0,0 +1,95 @@
+package dev.roshin.openliberty.repl.benchmarks;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonReader;
+import dev.roshin.openliberty.repl.controllers.jmx.rest.JsonStreamDecoder;
+import dev.roshin.openliberty.repl.controllers.jmx.rest.domain.MBeanInfo;
+import dev.roshin.openliberty.repl.controllers.jmx.rest.domain.attributes.Attribute;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decoding the MBean and attribute lists returned by the REST connector, with the streaming decoder and with the
+ * Gson data binding it replaced.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class JsonDecodingBenchmark {
+
+    @Param({"100", "10000"})
+    private int mBeanCount;
+
+    private byte[] mBeansJson;
+    private byte[] attributesJson;
+    private final Gson gson = new Gson();
+
+    @Setup
+    public void setup() {
+        JsonArray mBeans = new JsonArray();
+        JsonArray attributes = new JsonArray();
+        for (int i = 0; i < mBeanCount; i++) {
+            JsonObject mBean = new JsonObject();
+            String objectName = "WebSphere:service=com.ibm.websphere.application.ApplicationMBean,name=app" + i;
+            mBean.addProperty("objectName", objectName);
+            mBean.addProperty("className", "com.ibm.ws.app.manager.internal.ApplicationMBeanImpl");
+            mBean.addProperty("URL", "/IBMJMXConnectorREST/mbeans/" + objectName.replace(":", "%3A").replace(",", "%2C").replace("=", "%3D"));
+            mBeans.add(mBean);
+
+            JsonObject value = new JsonObject();
+            value.addProperty("value", i % 2 == 0 ? "STARTED" : "STOPPED");
+            value.addProperty("type", "java.lang.String");
+            JsonObject attribute = new JsonObject();
+            attribute.addProperty("name", "State" + i);
+            attribute.add("value", value);
+            attributes.add(attribute);
+        }
+        mBeansJson = mBeans.toString().getBytes(StandardCharsets.UTF_8);
+        attributesJson = attributes.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static JsonReader reader(byte[] json) {
+        return new JsonReader(new InputStreamReader(new ByteArrayInputStream(json), StandardCharsets.UTF_8));
+    }
+
+    @Benchmark
+    public List<MBeanInfo> streamMBeanInfoList() throws IOException {
+        return JsonStreamDecoder.readMBeanInfoList(reader(mBeansJson));
+    }
+
+    @Benchmark
+    public MBeanInfo[] bindMBeanInfoList() {
+        return gson.fromJson(reader(mBeansJson), MBeanInfo[].class);
+    }
+
+    @Benchmark
+    public List<Attribute> streamAttributeList() throws IOException {
+        return JsonStreamDecoder.readAttributeList(reader(attributesJson));
+    }
+
+    @Benchmark
+    public Attribute[] bindAttributeList() {
+        return gson.fromJson(reader(attributesJson), Attribute[].class);
+    }
+}
@@ -0,0 +1,58 @@
+package dev.roshin.openliberty.repl.benchmarks;
+
+import dev.roshin.openliberty.repl.config.exceptions.ConfigurationReaderException;
+import dev.roshin.openliberty.repl.config.generated.LibertyPluginConfigs;
+import dev.roshin.openliberty.repl.testing.FakeLibertyInstallation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Loading the liberty-plugin-config.xml file of a project, done each time the REPL looks for the server directories.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class LibertyPluginConfigsBenchmark {
+
+    private Path projectDirectory;
+    private Path libertyPluginConfigFile;
+
+    @Setup
+    public void createProject() throws IOException {
+        projectDirectory = Files.createTempDirectory("liberty-plugin-configs-benchmark");
+        libertyPluginConfigFile = new FakeLibertyInstallation(projectDirectory).getLibertyPluginConfigFile();
+    }
+
+    @TearDown
+    public void deleteProject() throws IOException {
+        try (Stream<Path> paths = Files.walk(projectDirectory)) {
+            for (Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    @Benchmark
+    public LibertyPluginConfigs loadLibertyPluginConfigs() throws ConfigurationReaderException {
+        return new LibertyPluginConfigs(libertyPluginConfigFile);
+    }
+}
@@ -0,0 +1,89 @@
+package dev.roshin.openliberty.repl.benchmarks;
+
+import dev.roshin.openliberty.repl.controllers.utils.ProcessUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link ProcessUtils#enforceLogFileLimit(String, Path, int)} over a log directory with many files of the same
+ * command, half of them matching the prefix. The deleted files are created again before each invocation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class LogFileLimitBenchmark {
+    private static final String PREFIX = "status_defaultServer";
+    private static final long FIRST_MODIFIED_TIME = 1_700_000_000_000L;
+
+    @Param({"100", "5000"})
+    private int fileCount;
+
+    private Path logDirectory;
+    private final List<Path> matchingFiles = new ArrayList<>();
+
+    @Setup(Level.Trial)
+    public void createLogDirectory() throws IOException {
+        logDirectory = Files.createTempDirectory("log-file-limit-benchmark");
+        for (int i = 0; i < fileCount; i++) {
+            // Every other file belongs to another command
+            String prefix = i % 2 == 0 ? PREFIX : "version_defaultServer";
+            Path logFile = logDirectory.resolve(prefix + "_" + (FIRST_MODIFIED_TIME + i) + ".log");
+            if (i % 2 == 0) {
+                matchingFiles.add(logFile);
+            }
+        }
+        restoreLogFiles();
+        for (int i = 1; i < fileCount; i += 2) {
+            Path logFile = logDirectory.resolve("version_defaultServer_" + (FIRST_MODIFIED_TIME + i) + ".log");
+            Files.writeString(logFile, "Open Liberty 23.0.0.6");
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void restoreLogFiles() throws IOException {
+        for (int i = 0; i < matchingFiles.size(); i++) {
+            Path logFile = matchingFiles.get(i);
+            if (Files.notExists(logFile)) {
+                Files.writeString(logFile, "Server defaultServer is running with process ID 1234.");
+                Files.setLastModifiedTime(logFile, FileTime.fromMillis(FIRST_MODIFIED_TIME + i * 1000L));
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteLogDirectory() throws IOException {
+        try (var files = Files.list(logDirectory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(logDirectory);
+    }
+
+    @Benchmark
+    public void enforceLogFileLimit() throws IOException {
+        ProcessUtils.enforceLogFileLimit(PREFIX, logDirectory, 5);
+    }
+}
@@ -0,0 +1,83 @@
+package dev.roshin.openliberty.repl.benchmarks;
+
+import dev.roshin.openliberty.repl.util.StartStopUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Looking for the server ready message in a large server log, with the ready message on the last line, as when the
+ * server writes a lot while starting.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ReadinessDetectionBenchmark {
+    private static final String[] LINES = {
+            "[INFO] [AUDIT   ] CWWKE0001I: The server defaultServer has been launched.",
+            "[INFO] [AUDIT   ] CWWKZ0058I: Monitoring dropins for applications.",
+            "[INFO] [AUDIT   ] CWWKT0016I: Web application available (default_host): http://localhost:9080/sample/",
+            "[INFO] [AUDIT   ] CWWKZ0001I: Application sample started in 0.512 seconds.",
+            "[INFO] CWWKO0219I: TCP Channel defaultHttpEndpoint has been started and is now listening for requests on host localhost  (IPv4: 127.0.0.1) port 9080.",
+            "[INFO] [WARNING ] CWWKS9103W: The basic user registry contains a user without a password."
+    };
+
+    @Param({"1", "8"})
+    private int megabytes;
+
+    private Path logFile;
+
+    @Setup
+    public void createLogFile() throws IOException {
+        logFile = Files.createTempFile("readiness-benchmark", ".log");
+        // The same content on every run
+        Random random = new Random(42);
+        long size = megabytes * 1024L * 1024L;
+        long written = 0;
+        try (BufferedWriter writer = Files.newBufferedWriter(logFile)) {
+            while (written < size) {
+                String line = LINES[random.nextInt(LINES.length)];
+                writer.write(line);
+                writer.newLine();
+                written += line.length() + 1;
+            }
+            writer.write("[INFO] [AUDIT   ] CWWKF0011I: The defaultServer server is ready to run a smarter planet. The defaultServer server started in 9.876 seconds.");
+            writer.newLine();
+        }
+    }
+
+    @TearDown
+    public void deleteLogFile() throws IOException {
+        Files.delete(logFile);
+    }
+
+    @Benchmark
+    public long scanForServerReady() throws IOException {
+        File file = logFile.toFile();
+        long position = StartStopUtil.scanForServerReady(file, 0);
+        if (position >= 0) {
+            throw new IllegalStateException("The server ready message was not found");
+        }
+        return position;
+    }
+}
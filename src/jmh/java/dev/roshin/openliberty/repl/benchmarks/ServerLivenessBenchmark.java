@@ -0,0 +1,71 @@
+package dev.roshin.openliberty.repl.benchmarks;
+
+import dev.roshin.openliberty.repl.controllers.shell.ServerLivenessChecker;
+import dev.roshin.openliberty.repl.testing.FakeLibertyInstallation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Telling whether the server is running, done before most commands of the REPL, from the files of the server and by
+ * running the status command of the server script.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ServerLivenessBenchmark {
+
+    private Path projectDirectory;
+    private FakeLibertyInstallation installation;
+    private ServerLivenessChecker checker;
+
+    @Setup
+    public void createServer() throws IOException {
+        projectDirectory = Files.createTempDirectory("server-liveness-benchmark");
+        installation = new FakeLibertyInstallation(projectDirectory);
+        installation.setRunning(true);
+        checker = new ServerLivenessChecker(installation.getServerDirectory(), installation.getServerName());
+    }
+
+    @TearDown
+    public void deleteServer() throws IOException {
+        try (Stream<Path> paths = Files.walk(projectDirectory)) {
+            for (Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    @Benchmark
+    public ServerLivenessChecker.Liveness checkFiles() {
+        return checker.check();
+    }
+
+    @Benchmark
+    public int runStatusScript() throws IOException, InterruptedException {
+        Path script = installation.getInstallDirectory().resolve("bin").resolve("server");
+        return new ProcessBuilder(script.toString(), "status", installation.getServerName())
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .start()
+                .waitFor();
+    }
+}
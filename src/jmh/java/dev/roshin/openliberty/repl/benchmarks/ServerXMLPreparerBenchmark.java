@@ -0,0 +1,97 @@
+package dev.roshin.openliberty.repl.benchmarks;
+
+import dev.roshin.openliberty.repl.preparers.ServerXMLPreparer;
+import org.jline.terminal.Terminal;
+import org.jline.terminal.TerminalBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * {@link ServerXMLPreparer#prepareServerXML(Path, Terminal)} on a server.xml with a growing basic registry. The
+ * original server.xml is written again before each invocation, so every invocation adds the features and the user.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ServerXMLPreparerBenchmark {
+
+    @Param({"10", "1000"})
+    private int registryUsers;
+
+    private Path serverSource;
+    private Path serverXml;
+    private String originalServerXml;
+    private Terminal terminal;
+
+    @Setup(Level.Trial)
+    public void createServerSource() throws IOException {
+        serverSource = Files.createTempDirectory("server-xml-benchmark");
+        serverXml = serverSource.resolve("src/main/liberty/config/server.xml");
+        Files.createDirectories(serverXml.getParent());
+
+        StringBuilder xml = new StringBuilder()
+                .append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n")
+                .append("<server description=\"defaultServer\">\n")
+                .append("    <featureManager>\n")
+                .append("        <feature>jakartaee-10.0</feature>\n")
+                .append("        <feature>microProfile-6.0</feature>\n")
+                .append("    </featureManager>\n")
+                .append("    <basicRegistry id=\"basic\" realm=\"BasicRealm\">\n");
+        for (int i = 0; i < registryUsers; i++) {
+            xml.append("        <user name=\"user").append(i).append("\" password=\"password").append(i).append("\"/>\n");
+        }
+        xml.append("    </basicRegistry>\n")
+                .append("    <httpEndpoint id=\"defaultHttpEndpoint\" httpPort=\"29080\" httpsPort=\"29443\"/>\n")
+                .append("</server>\n");
+        originalServerXml = xml.toString();
+
+        // The messages of the preparer are thrown away
+        terminal = TerminalBuilder.builder()
+                .dumb(true)
+                .streams(InputStream.nullInputStream(), OutputStream.nullOutputStream())
+                .build();
+    }
+
+    @Setup(Level.Invocation)
+    public void restoreServerXml() throws IOException {
+        Files.writeString(serverXml, originalServerXml);
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteServerSource() throws IOException {
+        terminal.close();
+        try (Stream<Path> paths = Files.walk(serverSource)) {
+            for (Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    @Benchmark
+    public void prepareServerXML() {
+        ServerXMLPreparer.prepareServerXML(serverSource, terminal);
+    }
+}
@@ -0,0 +1,55 @@
+package dev.roshin.openliberty.repl.benchmarks;
+
+import dev.roshin.openliberty.repl.metrics.TimeSeries;
+import dev.roshin.openliberty.repl.metrics.TimeSeriesStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Recording a value in a {@link TimeSeries}, which must not allocate, and the statistics of the last 15 minutes of a
+ * full series. Run with -prof gc to see the allocation rate of recording.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class TimeSeriesBenchmark {
+    private static final long INTERVAL_MILLIS = 1000;
+
+    private TimeSeries series;
+    private long timestamp;
+
+    @Setup
+    public void fillSeries() {
+        series = new TimeSeries("benchmark", TimeSeriesStore.DEFAULT_RAW_CAPACITY,
+                TimeSeriesStore.DEFAULT_TEN_SECONDS_CAPACITY, TimeSeriesStore.DEFAULT_ONE_MINUTE_CAPACITY);
+        // Two days of values, every ring wrapped
+        for (int i = 0; i < 2 * 24 * 3600; i++) {
+            series.record(timestamp, i % 100);
+            timestamp += INTERVAL_MILLIS;
+        }
+    }
+
+    @Benchmark
+    public void record() {
+        series.record(timestamp, timestamp % 100);
+        timestamp += INTERVAL_MILLIS;
+    }
+
+    @Benchmark
+    public double lastFifteenMinutesP99() {
+        return series.getStats(timestamp - TimeUnit.MINUTES.toMillis(15), timestamp).getPercentile(99);
+    }
+}
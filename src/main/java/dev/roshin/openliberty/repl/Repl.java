@@ -1,21 +1,71 @@
 package dev.roshin.openliberty.repl;
 
+import com.google.common.primitives.Ints;
+import com.google.common.primitives.Longs;
+import dev.roshin.openliberty.repl.config.exceptions.ConfigurationReaderException;
+import dev.roshin.openliberty.repl.config.generated.LibertyPluginConfigs;
+import dev.roshin.openliberty.repl.controllers.deploy.ApplicationFingerprinter;
+import dev.roshin.openliberty.repl.controllers.jmx.ApplicationRestartEngine;
+import dev.roshin.openliberty.repl.controllers.jmx.ApplicationRestartListener;
+import dev.roshin.openliberty.repl.controllers.jmx.ApplicationStateWatcher;
 import dev.roshin.openliberty.repl.controllers.jmx.JMXServerManager;
+import dev.roshin.openliberty.repl.controllers.jmx.MonitorSampler;
+import dev.roshin.openliberty.repl.controllers.jmx.domain.ApplicationRestartResult;
+import dev.roshin.openliberty.repl.controllers.jmx.domain.ApplicationRestartSummary;
+import dev.roshin.openliberty.repl.controllers.jmx.domain.ApplicationStateChange;
+import dev.roshin.openliberty.repl.controllers.jmx.domain.ApplicationStatus;
+import dev.roshin.openliberty.repl.controllers.jmx.domain.JvmTelemetry;
+import dev.roshin.openliberty.repl.controllers.jmx.domain.JvmTelemetryRates;
+import dev.roshin.openliberty.repl.controllers.jmx.domain.MonitorSample;
+import dev.roshin.openliberty.repl.controllers.jmx.domain.ServerInfo;
+import dev.roshin.openliberty.repl.controllers.jmx.fleet.FleetEndpoint;
+import dev.roshin.openliberty.repl.controllers.jmx.fleet.FleetManager;
+import dev.roshin.openliberty.repl.controllers.jmx.fleet.FleetResult;
+import dev.roshin.openliberty.repl.controllers.jmx.rest.JMXConstants;
+import dev.roshin.openliberty.repl.controllers.jmx.rest.JmxClient;
+import dev.roshin.openliberty.repl.controllers.jmx.rest.domain.JmxNotification;
 import dev.roshin.openliberty.repl.controllers.maven.OpenLibertyMavenWrapper;
 import dev.roshin.openliberty.repl.controllers.shell.OpenLibertyServerScriptWrapper;
+import dev.roshin.openliberty.repl.metrics.TimeSeriesStore;
+import dev.roshin.openliberty.repl.top.TopDashboard;
+import dev.roshin.openliberty.repl.top.TopMetricsRecorder;
 import dev.roshin.openliberty.repl.util.StartStopUtil;
 import org.jline.reader.LineReader;
 import org.jline.reader.LineReaderBuilder;
 import org.jline.reader.impl.DefaultParser;
 import org.jline.terminal.Terminal;
+import org.jline.utils.AttributedStringBuilder;
+import org.jline.utils.AttributedStyle;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.File;
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 
 public class Repl {
+    private static final int DEFAULT_RESTART_MAX_IN_FLIGHT = 8;
+    private static final Duration MIN_TOP_SAMPLE_INTERVAL = Duration.ofMillis(500);
+    private static final Duration JVM_RATES_INTERVAL = Duration.ofSeconds(1);
+    private static final Duration FLEET_RESTART_TIMEOUT = Duration.ofMinutes(5);
+    private static final String FLEET_USERNAME = "todd";
+    private static final String FLEET_PASSWORD = "toddpassword";
 
     private final File serverSourceRunningFile;
     private final Path serverSource;
@@ -26,6 +76,15 @@ public class Repl {
     private final OpenLibertyMavenWrapper openLibertyMavenWrapper;
     private final OpenLibertyServerScriptWrapper openLibertyServerScriptWrapper;
     private final Logger logger;
+    private AutoCloseable applicationEvents;
+    private ApplicationStateWatcher applicationStateWatcher;
+    private ApplicationFingerprinter applicationFingerprinter;
+    private CompletableFuture<Void> deployedFingerprintsRecorded = CompletableFuture.completedFuture(null);
+    private final TimeSeriesStore metricsStore = new TimeSeriesStore();
+    private MonitorSampler monitorSampler;
+    private Duration monitorSamplerInterval;
+    private volatile boolean dashboardShown;
+    private FleetManager fleetManager;
 
     public Repl(File serverSourceRunningFile, Path logFile, Path libertyPluginFile, OpenLibertyMavenWrapper openLibertyMavenWrapper, OpenLibertyServerScriptWrapper openLibertyServerScriptWrapper, JMXServerManager jmxServerManager, Terminal terminal) {
         this.serverSourceRunningFile = serverSourceRunningFile;
@@ -48,10 +107,15 @@ public class Repl {
                 .variable(LineReader.HISTORY_FILE, Paths.get(System.getProperty("user.home"), ".myapp_history"))
                 .build();
 
+        // The server runs the applications as they are now, later changes are redeployed by the redeploy command
+        recordDeployedFingerprints();
+
         String line;
         while (true) {
-            line = lineReader.readLine("Enter command (start, stop, status, exit): ");
-            switch (line.trim()) {
+            line = lineReader.readLine("Enter command (start, stop, status, restart, redeploy, watch, events, metrics, monitor, jvm, top, fleet, exit): ");
+            // The first word is the command, the others are its arguments
+            String[] words = line.trim().split("\\s+");
+            switch (words[0]) {
                 case "start":
                     // If the server is already running, do not start it again
                     if (openLibertyServerScriptWrapper.isTheServerRunning()) {
@@ -73,6 +137,9 @@ public class Repl {
                     }
                     return;
                 case "stop":
+                    stopWatch();
+                    stopApplicationEvents();
+                    stopMonitorSampler();
                     StartStopUtil.stopServer(openLibertyServerScriptWrapper, openLibertyMavenWrapper, terminal);
                     // Delete the running file
                     if (serverSourceRunningFile.exists()) {
@@ -81,23 +148,650 @@ public class Repl {
                     break;
                 case "status":
                     if (openLibertyServerScriptWrapper.isTheServerRunning()) {
-                        terminal.writer().println(jmxServerManager.getServerInfo().toTerminalString());
-                        terminal.writer().println(openLibertyServerScriptWrapper.version());
+                        terminal.writer().println(jmxServerManager.probe(JmxClient.DEFAULT_PROBE_TIMEOUT).toTerminalString());
+                        // The version comes from the cached server information, no need to run server version
+                        ServerInfo serverInfo = jmxServerManager.getServerInfo();
+                        if (serverInfo != null) {
+                            terminal.writer().println(serverInfo.toTerminalString());
+                            terminal.writer().println(serverInfo.getVersionDescription());
+                            printApplicationStatus();
+                        } else {
+                            // The script runs while the applications are read, the version is printed first as above
+                            CompletableFuture<String> version = openLibertyServerScriptWrapper.versionAsync();
+                            List<ApplicationStatus> applicationStatusList;
+                            try {
+                                applicationStatusList = jmxServerManager.getAllApplicationStatus();
+                            } catch (Exception e) {
+                                // Kills the script
+                                version.cancel(true);
+                                throw e;
+                            }
+                            terminal.writer().println(OpenLibertyServerScriptWrapper.await(version));
+                            printApplicationStatus(applicationStatusList);
+                        }
+                    } else {
+                        terminal.writer().println("Server is not running");
+                    }
+                    break;
+                case "restart":
+                    if (openLibertyServerScriptWrapper.isTheServerRunning()) {
+                        restartApplications(words);
+                    } else {
+                        terminal.writer().println("Server is not running");
+                    }
+                    break;
+                case "redeploy":
+                    if (openLibertyServerScriptWrapper.isTheServerRunning()) {
+                        redeployChangedApplications(words);
+                    } else {
+                        terminal.writer().println("Server is not running");
+                    }
+                    break;
+                case "watch":
+                    toggleWatch(lineReader);
+                    break;
+                case "events":
+                    // Toggle printing the application events pushed by the server
+                    if (applicationEvents != null) {
+                        stopApplicationEvents();
+                        terminal.writer().println("Stopped printing application events");
+                    } else if (openLibertyServerScriptWrapper.isTheServerRunning()) {
+                        applicationEvents = jmxServerManager.addNotificationListener(JMXConstants.APPLICATION_MBEAN_OBJECT_QUERY,
+                                notifications -> printApplicationEvents(notifications, lineReader));
+                        terminal.writer().println("Printing application events, enter events again to stop");
+                    } else {
+                        terminal.writer().println("Server is not running");
+                    }
+                    break;
+                case "metrics":
+                    printMetrics(words);
+                    break;
+                case "monitor":
+                    if (openLibertyServerScriptWrapper.isTheServerRunning()) {
+                        printMonitorSample();
+                    } else {
+                        terminal.writer().println("Server is not running");
+                    }
+                    break;
+                case "jvm":
+                    if (openLibertyServerScriptWrapper.isTheServerRunning()) {
+                        printJvmTelemetry();
+                    } else {
+                        terminal.writer().println("Server is not running");
+                    }
+                    break;
+                case "top":
+                    if (openLibertyServerScriptWrapper.isTheServerRunning()) {
+                        showTop(words);
                     } else {
                         terminal.writer().println("Server is not running");
                     }
                     break;
+                case "fleet":
+                    runFleetCommand(words);
+                    break;
                 case "exit":
+                    stopWatch();
+                    stopApplicationEvents();
+                    stopMonitorSampler();
+                    if (fleetManager != null) {
+                        fleetManager.close();
+                    }
                     StartStopUtil.stopServer(openLibertyServerScriptWrapper, openLibertyMavenWrapper, terminal);
+                    // Close the local connector, or the notification client, of the manager
+                    jmxServerManager.close();
                     // Delete the running file
                     if (serverSourceRunningFile.exists()) {
                         serverSourceRunningFile.delete();
                     }
                     return;
                 default:
-                    System.out.println("Invalid command. Please enter start, stop, status, or exit.");
+                    System.out.println("Invalid command. Please enter start, stop, status, restart, redeploy, watch, events, metrics, monitor, jvm, top, fleet, or exit.");
+                    break;
+            }
+        }
+    }
+
+    /**
+     * Prints the status of all the applications, those whose status could not be read are printed with their error
+     *
+     * @throws Exception If the applications cannot be listed
+     */
+    private void printApplicationStatus() throws Exception {
+        printApplicationStatus(jmxServerManager.getAllApplicationStatus());
+    }
+
+    /**
+     * Prints the summary of the applications, then each application
+     *
+     * @param applicationStatusList The status of the applications
+     */
+    private void printApplicationStatus(List<ApplicationStatus> applicationStatusList) {
+        long failed = applicationStatusList.stream().filter(ApplicationStatus::isFailed).count();
+        AttributedStringBuilder summary = new AttributedStringBuilder()
+                .append("Applications: ").append(String.valueOf(applicationStatusList.size()));
+        if (failed > 0) {
+            summary.append(", ").append(failed + " failed", AttributedStyle.BOLD.foreground(AttributedStyle.RED));
+        }
+        terminal.writer().println(summary.toAnsi());
+        for (ApplicationStatus applicationStatus : applicationStatusList) {
+            terminal.writer().print(applicationStatus.toTerminalString());
+        }
+        terminal.writer().flush();
+    }
+
+    /**
+     * Starts watching the application states, printing the changes above the prompt, or stops watching if already
+     * watching
+     *
+     * @param lineReader The line reader
+     * @throws Exception If the application states cannot be read
+     */
+    private void toggleWatch(LineReader lineReader) throws Exception {
+        if (applicationStateWatcher != null) {
+            stopWatch();
+            terminal.writer().println("Stopped watching application states");
+        } else if (openLibertyServerScriptWrapper.isTheServerRunning()) {
+            ApplicationStateWatcher watcher = new ApplicationStateWatcher(jmxServerManager, changes -> {
+                for (ApplicationStateChange change : changes) {
+                    if (dashboardShown) {
+                        // The dashboard shows the states, printing would garble it
+                        break;
+                    }
+                    lineReader.printAbove(change.toTerminalString());
+                }
+            });
+            Map<String, String> states;
+            try {
+                states = watcher.start();
+            } catch (Exception e) {
+                watcher.close();
+                throw e;
+            }
+            applicationStateWatcher = watcher;
+            long started = states.values().stream().filter("STARTED"::equals).count();
+            terminal.writer().println("Watching " + states.size() + " applications, " + started
+                    + " started, enter watch again to stop");
+        } else {
+            terminal.writer().println("Server is not running");
+        }
+        terminal.writer().flush();
+    }
+
+    /**
+     * Stops printing the application events, if printing
+     *
+     * @throws Exception If the notification listener cannot be removed
+     */
+    private void stopApplicationEvents() throws Exception {
+        if (applicationEvents != null) {
+            try {
+                applicationEvents.close();
+            } finally {
+                applicationEvents = null;
+            }
+        }
+    }
+
+    /**
+     * Stops watching the application states, if watching
+     */
+    private void stopWatch() {
+        if (applicationStateWatcher != null) {
+            applicationStateWatcher.close();
+            applicationStateWatcher = null;
+        }
+    }
+
+    /**
+     * Shows the top dashboard until the user quits it
+     * <p>
+     * top takes the refresh interval in milliseconds as optional argument. The metrics are sampled at the same
+     * interval, at least {@link #MIN_TOP_SAMPLE_INTERVAL} apart, and keep being sampled in the background once the
+     * dashboard is closed, so it shows the history when it is opened again
+     *
+     * @param words The command and its arguments
+     * @throws Exception If the application states cannot be read
+     */
+    private void showTop(String[] words) throws Exception {
+        Duration refreshInterval = TopDashboard.DEFAULT_REFRESH_INTERVAL;
+        if (words.length > 1 && words[1].chars().allMatch(Character::isDigit)) {
+            // Null if it does not fit in a long
+            Long value = Longs.tryParse(words[1]);
+            if (value == null) {
+                terminal.writer().println("Please enter top [refresh interval in milliseconds], at most " + Long.MAX_VALUE);
+                terminal.writer().flush();
+                return;
+            }
+            refreshInterval = Duration.ofMillis(Math.max(TopDashboard.MIN_REFRESH_INTERVAL.toMillis(), value));
+        }
+        Duration sampleInterval = refreshInterval.compareTo(MIN_TOP_SAMPLE_INTERVAL) < 0 ? MIN_TOP_SAMPLE_INTERVAL : refreshInterval;
+        if (monitorSampler == null || !monitorSamplerInterval.equals(sampleInterval)) {
+            // The store keeps its history, only the sampler writing it changes
+            stopMonitorSampler();
+            monitorSampler = new MonitorSampler(jmxServerManager, new TopMetricsRecorder(metricsStore, jmxServerManager),
+                    sampleInterval, MonitorSampler.DEFAULT_REDISCOVERY_INTERVAL);
+            monitorSamplerInterval = sampleInterval;
+            monitorSampler.start();
+        }
+
+        // Application states kept up to date by a watcher, for as long as the dashboard is shown
+        Map<String, String> applicationStates = new ConcurrentHashMap<>();
+        ServerInfo serverInfo = jmxServerManager.getServerInfo();
+        String title = serverInfo != null ? serverInfo.getServerName() : serverSource.getFileName().toString();
+        try (ApplicationStateWatcher watcher = new ApplicationStateWatcher(jmxServerManager, changes -> {
+            for (ApplicationStateChange change : changes) {
+                if (change.getNewState() == null) {
+                    applicationStates.remove(change.getApplicationName());
+                } else {
+                    applicationStates.put(change.getApplicationName(), change.getNewState());
+                }
+            }
+        })) {
+            watcher.start().forEach((applicationName, state) -> {
+                if (state != null) {
+                    applicationStates.put(applicationName, state);
+                }
+            });
+            dashboardShown = true;
+            new TopDashboard(terminal, metricsStore, applicationStates, title, refreshInterval, sampleInterval).run();
+        } finally {
+            dashboardShown = false;
+        }
+    }
+
+    /**
+     * Stops sampling the metrics, if sampling
+     */
+    private void stopMonitorSampler() {
+        if (monitorSampler != null) {
+            monitorSampler.close();
+            monitorSampler = null;
+        }
+    }
+
+    /**
+     * Restarts all the applications, printing each application as it is done and a timing summary at the end
+     * <p>
+     * restart takes the maximum number of applications restarting at the same time and the ordering groups as
+     * optional arguments, e.g. restart 4 db,auth;web restarts db and auth first, then web, then the others
+     *
+     * @param words The command and its arguments
+     * @throws Exception If the applications cannot be listed
+     */
+    private void restartApplications(String[] words) throws Exception {
+        int maxInFlight = DEFAULT_RESTART_MAX_IN_FLIGHT;
+        List<List<String>> orderingGroups = new ArrayList<>();
+        for (int i = 1; i < words.length; i++) {
+            if (words[i].chars().allMatch(Character::isDigit)) {
+                // Null if it does not fit in an int
+                Integer value = Ints.tryParse(words[i]);
+                if (value == null) {
+                    terminal.writer().println("Please enter restart [max in flight] [groups], max in flight at most "
+                            + Integer.MAX_VALUE);
+                    terminal.writer().flush();
+                    return;
+                }
+                maxInFlight = Math.max(1, value);
+            } else {
+                // Groups are separated by semicolons, the applications of a group by commas
+                for (String group : words[i].split(";")) {
+                    if (!group.isBlank()) {
+                        orderingGroups.add(List.of(group.split(",")));
+                    }
+                }
+            }
+        }
+        terminal.writer().println("Restarting applications, at most " + maxInFlight + " at a time");
+        terminal.writer().flush();
+        ApplicationRestartSummary summary = jmxServerManager.restartAllApplications(maxInFlight, orderingGroups,
+                createRestartProgressPrinter());
+        terminal.writer().println(summary.toTerminalString());
+        terminal.writer().flush();
+    }
+
+    /**
+     * @return A restart listener printing one line per application as it is done
+     */
+    private ApplicationRestartListener createRestartProgressPrinter() {
+        return new ApplicationRestartListener() {
+            @Override
+            public void restarted(ApplicationRestartResult result, int completed, int total) {
+                // Called concurrently, one line per application
+                synchronized (terminal) {
+                    terminal.writer().println("[" + completed + "/" + total + "] " + result.toTerminalString());
+                    terminal.writer().flush();
+                }
+            }
+        };
+    }
+
+    /**
+     * Records the fingerprints of the applications as deployed now, in the background
+     */
+    private void recordDeployedFingerprints() {
+        deployedFingerprintsRecorded = CompletableFuture.runAsync(() -> {
+            try {
+                ApplicationFingerprinter fingerprinter = getApplicationFingerprinter();
+                fingerprinter.recordDeployed(fingerprinter.fingerprintApplications());
+            } catch (Exception e) {
+                // Without them, the first redeploy restarts every application
+                logger.error("Failed to record the fingerprints of the deployed applications", e);
+            }
+        }, runnable -> {
+            Thread thread = new Thread(runnable, "application-fingerprints");
+            thread.setDaemon(true);
+            thread.start();
+        });
+    }
+
+    /**
+     * Restarts only the applications whose artifacts changed since they were last deployed
+     * <p>
+     * redeploy takes the maximum number of applications restarting at the same time as optional argument
+     *
+     * @param words The command and its arguments
+     * @throws Exception If the applications cannot be fingerprinted or listed
+     */
+    private void redeployChangedApplications(String[] words) throws Exception {
+        int maxInFlight = DEFAULT_RESTART_MAX_IN_FLIGHT;
+        if (words.length > 1 && words[1].chars().allMatch(Character::isDigit)) {
+            // Null if it does not fit in an int
+            Integer value = Ints.tryParse(words[1]);
+            if (value == null) {
+                terminal.writer().println("Please enter redeploy [max in flight], max in flight at most " + Integer.MAX_VALUE);
+                terminal.writer().flush();
+                return;
+            }
+            maxInFlight = Math.max(1, value);
+        }
+        // Wait for the fingerprints of the deployed applications
+        deployedFingerprintsRecorded.join();
+
+        ApplicationFingerprinter fingerprinter = getApplicationFingerprinter();
+        Map<String, String> fingerprints = fingerprinter.fingerprintApplications();
+        Set<String> changed = fingerprinter.findChangedApplications(fingerprints);
+        if (changed.isEmpty()) {
+            terminal.writer().println("No application changed since it was deployed");
+            terminal.writer().flush();
+            return;
+        }
+        terminal.writer().println("Redeploying " + changed.size() + " changed application(s): " + String.join(", ", new TreeSet<>(changed)));
+        terminal.writer().flush();
+
+        ApplicationRestartSummary summary = jmxServerManager.restartApplications(changed, maxInFlight,
+                createRestartProgressPrinter());
+        // Only the restarted applications are deployed, the failed ones are tried again next time
+        Map<String, String> deployed = new HashMap<>();
+        for (ApplicationRestartResult result : summary.getResults()) {
+            if (!result.isFailed()) {
+                deployed.put(result.getApplicationName(), fingerprints.get(result.getApplicationName()));
+            }
+            changed.remove(result.getApplicationName());
+        }
+        fingerprinter.recordDeployed(deployed);
+        if (!changed.isEmpty()) {
+            terminal.writer().println(new AttributedStringBuilder()
+                    .append("Not running on the server: " + String.join(", ", new TreeSet<>(changed)),
+                            AttributedStyle.DEFAULT.foreground(AttributedStyle.YELLOW))
+                    .toAnsi());
+        }
+        terminal.writer().println(summary.toTerminalString());
+        terminal.writer().flush();
+    }
+
+    /**
+     * @return The fingerprinter of the applications of the server, created the first time
+     * @throws ConfigurationReaderException If the liberty plugin file cannot be read
+     */
+    private synchronized ApplicationFingerprinter getApplicationFingerprinter() throws ConfigurationReaderException {
+        if (applicationFingerprinter == null) {
+            applicationFingerprinter = new ApplicationFingerprinter(new LibertyPluginConfigs(libertyPluginFile));
+        }
+        return applicationFingerprinter;
+    }
+
+    /**
+     * Prints the metrics of the JMX requests
+     * <p>
+     * metrics prints them as a table, metrics json prints them as JSON or writes them to the given file, and
+     * metrics reset clears them. A file that cannot be written is reported, the session goes on
+     *
+     * @param words The command and its arguments
+     */
+    private void printMetrics(String[] words) {
+        String argument = words.length > 1 ? words[1] : "";
+        switch (argument) {
+            case "" -> terminal.writer().println(jmxServerManager.getMetrics().toTerminalString());
+            case "json" -> {
+                String json = jmxServerManager.getMetrics().toJson();
+                if (words.length > 2) {
+                    try {
+                        Path metricsFile = Paths.get(words[2]);
+                        Files.writeString(metricsFile, json);
+                        terminal.writer().println("Metrics written to " + metricsFile.toAbsolutePath());
+                    } catch (IOException | InvalidPathException e) {
+                        logger.debug("Cannot write the metrics to " + words[2], e);
+                        terminal.writer().println("Cannot write the metrics to " + words[2] + ": " + e);
+                    }
+                } else {
+                    terminal.writer().println(json);
+                }
+            }
+            case "reset" -> {
+                jmxServerManager.resetMetrics();
+                terminal.writer().println("Metrics reset");
+            }
+            default -> terminal.writer().println("Invalid metrics argument. Please enter metrics, metrics json [file], or metrics reset.");
+        }
+        terminal.writer().flush();
+    }
+
+    /**
+     * Runs a fleet command: list, discover, add, remove, or status, restart and jvm on all the servers of the fleet
+     *
+     * @param words The words of the command line
+     * @throws Exception If the fleet cannot be discovered or the command cannot be run
+     */
+    private void runFleetCommand(String[] words) throws Exception {
+        String argument = words.length > 1 ? words[1] : "list";
+        FleetManager fleet = getFleetManager();
+        switch (argument) {
+            case "list" -> {
+                if (fleet.getEndpoints().isEmpty()) {
+                    terminal.writer().println("No servers in the fleet, enter fleet discover or fleet add");
+                }
+                fleet.getEndpoints().forEach(endpoint -> terminal.writer().println(new AttributedStringBuilder()
+                        .append(endpoint.getName(), AttributedStyle.BOLD.foreground(AttributedStyle.CYAN))
+                        .append(" ").append(endpoint.getBaseURL().toString()).toAnsi()));
+            }
+            case "discover" -> {
+                List<FleetEndpoint> endpoints = discoverFleet(fleet);
+                terminal.writer().println("Found " + endpoints.size() + " running servers");
+            }
+            case "add" -> {
+                if (words.length != 4 && words.length != 6) {
+                    terminal.writer().println("Please enter fleet add <name> <url> [username password]");
                     break;
+                }
+                URL baseURL = parseFleetURL(words[3]);
+                if (baseURL == null) {
+                    terminal.writer().println("Invalid URL " + words[3] + ", please enter an http or https URL, e.g. https://localhost:9443");
+                    break;
+                }
+                fleet.register(new FleetEndpoint(words[2], baseURL,
+                        words.length == 6 ? words[4] : FLEET_USERNAME, words.length == 6 ? words[5] : FLEET_PASSWORD));
+                terminal.writer().println("Added " + words[2]);
+            }
+            case "remove" -> {
+                if (words.length != 3) {
+                    terminal.writer().println("Please enter fleet remove <name>");
+                } else {
+                    terminal.writer().println(fleet.unregister(words[2]) ? "Removed " + words[2] : "No server named " + words[2]);
+                }
+            }
+            case "status" -> printFleetResults(fleet.getAllApplicationStatusAsync(result -> printFleetResult(result,
+                    applicationStatusList -> {
+                        AttributedStringBuilder builder = new AttributedStringBuilder();
+                        for (ApplicationStatus applicationStatus : applicationStatusList) {
+                            builder.append("  ").append(applicationStatus.getApplicationName()).append(" ");
+                            if (applicationStatus.isFailed()) {
+                                builder.append(applicationStatus.getError(), AttributedStyle.DEFAULT.foreground(AttributedStyle.RED));
+                            } else {
+                                builder.append(applicationStatus.getStatus(), ApplicationRestartEngine.APPLICATION_STATE_STARTED
+                                        .equals(applicationStatus.getStatus())
+                                        ? AttributedStyle.DEFAULT.foreground(AttributedStyle.GREEN)
+                                        : AttributedStyle.DEFAULT.foreground(AttributedStyle.YELLOW));
+                            }
+                            builder.append("\n");
+                        }
+                        return builder.toAnsi();
+                    })));
+            case "restart" -> printFleetResults(fleet.restartAllApplicationsAsync(FLEET_RESTART_TIMEOUT,
+                    result -> printFleetResult(result, ApplicationRestartSummary::toTerminalString)));
+            case "jvm" -> printFleetResults(fleet.sampleJvmTelemetryAsync(
+                    result -> printFleetResult(result, JvmTelemetry::toTerminalString)));
+            default -> terminal.writer().println("Invalid fleet argument. Please enter fleet [list], fleet discover, "
+                    + "fleet add <name> <url> [username password], fleet remove <name>, fleet status, fleet restart, or fleet jvm.");
+        }
+        terminal.writer().flush();
+    }
+
+    /**
+     * @param value The URL entered by the user
+     * @return The URL, null if it is not an http or https URL with a host
+     */
+    private static URL parseFleetURL(String value) {
+        try {
+            URL url = new URL(value);
+            boolean http = "http".equalsIgnoreCase(url.getProtocol()) || "https".equalsIgnoreCase(url.getProtocol());
+            return http && !url.getHost().isEmpty() ? url : null;
+        } catch (MalformedURLException e) {
+            return null;
+        }
+    }
+
+    /**
+     * @return The fleet manager, filled with the running servers next to this one the first time
+     * @throws IOException If the servers directory cannot be listed
+     */
+    private FleetManager getFleetManager() throws IOException {
+        if (fleetManager == null) {
+            fleetManager = new FleetManager();
+            discoverFleet(fleetManager);
+        }
+        return fleetManager;
+    }
+
+    /**
+     * Registers the running servers of the servers directory of this server
+     *
+     * @param fleet The fleet manager
+     * @return The servers found
+     * @throws IOException If the servers directory cannot be listed
+     */
+    private List<FleetEndpoint> discoverFleet(FleetManager fleet) throws IOException {
+        Path serversDirectory = openLibertyServerScriptWrapper.getLibertyPluginConfig().getServerOutputDirectory().getParent();
+        List<FleetEndpoint> endpoints = FleetManager.discoverEndpoints(serversDirectory, FLEET_USERNAME, FLEET_PASSWORD);
+        endpoints.forEach(fleet::register);
+        return endpoints;
+    }
+
+    /**
+     * Prints the result of one server, as soon as it is known
+     *
+     * @param result    The result
+     * @param formatter Formats the value of a successful result
+     * @param <T>       The result of the command on one server
+     */
+    private <T> void printFleetResult(FleetResult<T> result, Function<T, String> formatter) {
+        AttributedStringBuilder builder = new AttributedStringBuilder()
+                .append(result.getServerName(), AttributedStyle.BOLD.foreground(AttributedStyle.CYAN))
+                .append(" (").append(String.valueOf(result.getElapsedMillis())).append(" ms)");
+        if (result.isFailed()) {
+            builder.append(" ").append(result.getError(), AttributedStyle.DEFAULT.foreground(AttributedStyle.RED));
+        }
+        // Called by the fleet threads, one server at a time
+        synchronized (terminal) {
+            terminal.writer().println(builder.toAnsi());
+            if (!result.isFailed()) {
+                terminal.writer().print(formatter.apply(result.getValue()));
+            }
+            terminal.writer().flush();
+        }
+    }
+
+    /**
+     * Waits for all the servers, then prints how many failed
+     *
+     * @param results The future of the results of all the servers
+     * @param <T>     The result of the command on one server
+     */
+    private <T> void printFleetResults(CompletableFuture<List<FleetResult<T>>> results) {
+        final long start = System.nanoTime();
+        List<FleetResult<T>> fleetResults = results.join();
+        long failedCount = fleetResults.stream().filter(FleetResult::isFailed).count();
+        synchronized (terminal) {
+            terminal.writer().println(new AttributedStringBuilder()
+                    .append(fleetResults.size() + " servers in " + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + " ms, ")
+                    .append(failedCount + " failed", failedCount > 0
+                            ? AttributedStyle.BOLD.foreground(AttributedStyle.RED)
+                            : AttributedStyle.DEFAULT.foreground(AttributedStyle.GREEN))
+                    .toAnsi());
+        }
+    }
+
+    /**
+     * Prints one sample of the thread pool, servlet, session and connection pool statistics of the monitor-1.0 feature
+     *
+     * @throws Exception If the monitor MBeans cannot be read
+     */
+    private void printMonitorSample() throws Exception {
+        MonitorSample sample = jmxServerManager.sampleMonitorStats(jmxServerManager.discoverMonitorMBeans());
+        terminal.writer().println(sample.toTerminalString());
+        terminal.writer().flush();
+    }
+
+    /**
+     * Prints the memory, threads, classes and garbage collectors of the server JVM, and the rates over one second
+     *
+     * @throws Exception If the platform MBeans cannot be read
+     */
+    private void printJvmTelemetry() throws Exception {
+        JvmTelemetry first = jmxServerManager.sampleJvmTelemetry();
+        Thread.sleep(JVM_RATES_INTERVAL.toMillis());
+        JvmTelemetry second = jmxServerManager.sampleJvmTelemetry();
+        terminal.writer().print(second.toTerminalString());
+        terminal.writer().println(JvmTelemetryRates.between(first, second).toTerminalString());
+        terminal.writer().flush();
+    }
+
+    /**
+     * Prints the application notifications above the prompt, without disturbing the line being typed
+     *
+     * @param notifications The notifications
+     * @param lineReader    The line reader
+     */
+    private void printApplicationEvents(List<JmxNotification> notifications, LineReader lineReader) {
+        for (JmxNotification notification : notifications) {
+            if (dashboardShown) {
+                return;
+            }
+            // The objectName with like "WebSphere:service=com.ibm.websphere.application.ApplicationMBean,name=sample" carve out the application name
+            String source = notification.getSource();
+            String applicationName = source.contains("name=") ? source.split("name=")[1] : source;
+            AttributedStringBuilder event = new AttributedStringBuilder()
+                    .style(AttributedStyle.DEFAULT.foreground(AttributedStyle.CYAN))
+                    .append(applicationName)
+                    .style(AttributedStyle.DEFAULT)
+                    .append(" ")
+                    .append(notification.getType());
+            if (notification.getNewValue() != null) {
+                event.append(" ").append(notification.getNewValue());
+            } else if (notification.getMessage() != null) {
+                event.append(" ").append(notification.getMessage());
             }
+            lineReader.printAbove(event.toAttributedString());
         }
     }
 }
@@ -0,0 +1,326 @@
+package dev.roshin.openliberty.repl.controllers.deploy;
+
+import com.google.common.base.Preconditions;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.google.common.io.MoreFiles;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
+import dev.roshin.openliberty.repl.config.generated.LibertyPluginConfigs;
+import org.jdom2.Document;
+import org.jdom2.Element;
+import org.jdom2.JDOMException;
+import org.jdom2.input.SAXBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+/**
+ * Fingerprints the applications deployed in the apps directory of the server, to tell which of them changed since
+ * they were last deployed.
+ * <p>
+ * The fingerprint of an application is a hash of what the server loads: the archive or exploded directory, or for a
+ * loose application, the loose application file and every file and directory it points to. The content hash of each
+ * file is cached on disk with its size and modification time, so only the files that changed are read again.
+ * <p>
+ * The fingerprints of the deployed applications are kept in the same cache file.
+ */
+public class ApplicationFingerprinter {
+    public static final String CACHE_FILE_NAME = "ol-repl-fingerprints.json";
+    private static final String LOOSE_APPLICATION_SUFFIX = ".xml";
+
+    private final Path appsDirectory;
+    private final boolean looseApplication;
+    private final Path cacheFile;
+    private final Gson gson = new GsonBuilder().setPrettyPrinting().create();
+    private final Logger logger;
+    private FingerprintCache cache;
+
+    /**
+     * The content of the cache file
+     */
+    private static class FingerprintCache {
+        // Content hash of each file, by absolute path
+        Map<String, FileHash> files = new HashMap<>();
+        // Fingerprint of each application, as last deployed, by application name
+        Map<String, String> deployed = new TreeMap<>();
+    }
+
+    private static class FileHash {
+        long size;
+        long lastModified;
+        String hash;
+    }
+
+    /**
+     * Fingerprints the applications of the server of the given project, caching the hashes next to its
+     * liberty-plugin-config.xml file
+     *
+     * @param libertyPluginConfigs The configuration of the project
+     */
+    public ApplicationFingerprinter(LibertyPluginConfigs libertyPluginConfigs) {
+        this(libertyPluginConfigs.getServerDirectory().resolve(libertyPluginConfigs.getAppsDirectory()),
+                libertyPluginConfigs.isLooseApplication(),
+                libertyPluginConfigs.getFilePath().toAbsolutePath().getParent().resolve(CACHE_FILE_NAME));
+    }
+
+    /**
+     * @param appsDirectory    The apps directory of the server
+     * @param looseApplication Whether the applications are deployed as loose applications
+     * @param cacheFile        The cache file, created if it does not exist
+     */
+    public ApplicationFingerprinter(Path appsDirectory, boolean looseApplication, Path cacheFile) {
+        Preconditions.checkNotNull(appsDirectory, "appsDirectory cannot be null");
+        Preconditions.checkNotNull(cacheFile, "cacheFile cannot be null");
+        this.appsDirectory = appsDirectory;
+        this.looseApplication = looseApplication;
+        this.cacheFile = cacheFile;
+        this.logger = LoggerFactory.getLogger(getClass());
+    }
+
+    /**
+     * Fingerprints the applications in the apps directory
+     *
+     * @return The fingerprint of each application, by application name
+     * @throws IOException If the applications cannot be read
+     */
+    public synchronized Map<String, String> fingerprintApplications() throws IOException {
+        logger.debug("Starting fingerprintApplications in {}", appsDirectory);
+        loadCache();
+        Map<String, String> fingerprints = new TreeMap<>();
+        if (!Files.isDirectory(appsDirectory)) {
+            logger.debug("Apps directory {} does not exist", appsDirectory);
+            return fingerprints;
+        }
+        Set<String> seenFiles = new HashSet<>();
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(appsDirectory)) {
+            for (Path entry : entries) {
+                String fileName = entry.getFileName().toString();
+                if (fileName.startsWith(".")) {
+                    continue;
+                }
+                Hasher hasher = Hashing.sha256().newHasher();
+                if (looseApplication && fileName.endsWith(LOOSE_APPLICATION_SUFFIX) && Files.isRegularFile(entry)) {
+                    hashLooseApplication(entry, hasher, seenFiles);
+                } else {
+                    hashPath("", entry, hasher, seenFiles);
+                }
+                fingerprints.put(toApplicationName(fileName), hasher.hash().toString());
+            }
+        }
+        // Forget the files that are not part of any application anymore
+        cache.files.keySet().retainAll(seenFiles);
+        saveCache();
+        logger.debug("Fingerprinted {} applications", fingerprints.size());
+        return fingerprints;
+    }
+
+    /**
+     * Compares the given fingerprints with those of the deployed applications
+     *
+     * @param fingerprints The current fingerprints, by application name
+     * @return The names of the applications whose fingerprint differs, or that were never deployed
+     * @throws IOException If the cache cannot be read
+     */
+    public synchronized Set<String> findChangedApplications(Map<String, String> fingerprints) throws IOException {
+        loadCache();
+        Set<String> changed = new HashSet<>();
+        fingerprints.forEach((applicationName, fingerprint) -> {
+            if (!fingerprint.equals(cache.deployed.get(applicationName))) {
+                changed.add(applicationName);
+            }
+        });
+        return changed;
+    }
+
+    /**
+     * Records the fingerprints of deployed applications, the others keep their recorded fingerprint
+     *
+     * @param fingerprints The fingerprints, by application name
+     * @throws IOException If the cache cannot be written
+     */
+    public synchronized void recordDeployed(Map<String, String> fingerprints) throws IOException {
+        logger.debug("Recording the fingerprints of {} deployed applications", fingerprints.size());
+        loadCache();
+        cache.deployed.putAll(fingerprints);
+        saveCache();
+    }
+
+    /**
+     * @return Whether fingerprints of deployed applications were recorded
+     * @throws IOException If the cache cannot be read
+     */
+    public synchronized boolean hasDeployedFingerprints() throws IOException {
+        loadCache();
+        return !cache.deployed.isEmpty();
+    }
+
+    /**
+     * The application name Liberty gives an application by default: its file name without the extensions, e.g.
+     * sample for sample.war or sample.war.xml
+     *
+     * @param fileName The file name in the apps directory
+     * @return The application name
+     */
+    static String toApplicationName(String fileName) {
+        String name = fileName;
+        if (name.endsWith(LOOSE_APPLICATION_SUFFIX)) {
+            name = name.substring(0, name.length() - LOOSE_APPLICATION_SUFFIX.length());
+        }
+        int dot = name.lastIndexOf('.');
+        return dot > 0 ? name.substring(0, dot) : name;
+    }
+
+    /**
+     * Hashes a loose application file and the files and directories it points to
+     *
+     * @param looseApplicationFile The loose application file
+     * @param hasher               The hasher of the application
+     * @param seenFiles            The paths of the hashed files
+     * @throws IOException If a file cannot be read
+     */
+    private void hashLooseApplication(Path looseApplicationFile, Hasher hasher, Set<String> seenFiles) throws IOException {
+        hashPath("", looseApplicationFile, hasher, seenFiles);
+        Document document;
+        try {
+            document = new SAXBuilder().build(looseApplicationFile.toFile());
+        } catch (JDOMException e) {
+            throw new IOException("Invalid loose application file " + looseApplicationFile, e);
+        }
+        hashArchiveElement(document.getRootElement(), "", hasher, seenFiles);
+    }
+
+    /**
+     * Hashes the dir and file entries of an archive element of a loose application file, and its nested archives
+     *
+     * @param archive   The archive element
+     * @param prefix    The target path of the archive in the application
+     * @param hasher    The hasher of the application
+     * @param seenFiles The paths of the hashed files
+     * @throws IOException If a file cannot be read
+     */
+    private void hashArchiveElement(Element archive, String prefix, Hasher hasher, Set<String> seenFiles) throws IOException {
+        for (Element child : archive.getChildren()) {
+            String target = prefix + child.getAttributeValue("targetInArchive", "");
+            switch (child.getName()) {
+                case "dir", "file" -> {
+                    String source = child.getAttributeValue("sourceOnDisk");
+                    if (source != null) {
+                        hashPath(target, Path.of(source), hasher, seenFiles);
+                    }
+                }
+                case "archive" -> hashArchiveElement(child, target, hasher, seenFiles);
+                default -> hasher.putString(child.getName(), StandardCharsets.UTF_8);
+            }
+        }
+    }
+
+    /**
+     * Hashes a file, or every file of a directory in a stable order, with their paths
+     *
+     * @param target    The path of the file or directory in the application
+     * @param path      The file or directory on disk
+     * @param hasher    The hasher of the application
+     * @param seenFiles The paths of the hashed files
+     * @throws IOException If a file cannot be read
+     */
+    private void hashPath(String target, Path path, Hasher hasher, Set<String> seenFiles) throws IOException {
+        if (!Files.exists(path)) {
+            // A missing output directory is a state too
+            hasher.putString(target, StandardCharsets.UTF_8).putString("<missing>", StandardCharsets.UTF_8);
+            return;
+        }
+        if (Files.isRegularFile(path)) {
+            hasher.putString(target, StandardCharsets.UTF_8).putString(hashFile(path, seenFiles), StandardCharsets.UTF_8);
+            return;
+        }
+        List<Path> files = new ArrayList<>();
+        try (Stream<Path> walk = Files.walk(path)) {
+            walk.filter(Files::isRegularFile).forEach(files::add);
+        }
+        files.sort(null);
+        for (Path file : files) {
+            String relative = path.relativize(file).toString().replace('\\', '/');
+            hasher.putString(target + "/" + relative, StandardCharsets.UTF_8)
+                    .putString(hashFile(file, seenFiles), StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Gets the content hash of a file, from the cache if its size and modification time did not change
+     *
+     * @param file      The file
+     * @param seenFiles The paths of the hashed files
+     * @return The content hash
+     * @throws IOException If the file cannot be read
+     */
+    private String hashFile(Path file, Set<String> seenFiles) throws IOException {
+        String key = file.toAbsolutePath().toString();
+        seenFiles.add(key);
+        BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        FileHash cached = cache.files.get(key);
+        if (cached != null && cached.size == attributes.size()
+                && cached.lastModified == attributes.lastModifiedTime().toMillis()) {
+            return cached.hash;
+        }
+        FileHash fileHash = new FileHash();
+        fileHash.size = attributes.size();
+        fileHash.lastModified = attributes.lastModifiedTime().toMillis();
+        fileHash.hash = MoreFiles.asByteSource(file).hash(Hashing.sha256()).toString();
+        cache.files.put(key, fileHash);
+        return fileHash.hash;
+    }
+
+    /**
+     * Loads the cache file the first time, an unreadable cache file is ignored
+     */
+    private void loadCache() {
+        if (cache != null) {
+            return;
+        }
+        cache = new FingerprintCache();
+        if (!Files.exists(cacheFile)) {
+            return;
+        }
+        try (Reader reader = Files.newBufferedReader(cacheFile)) {
+            FingerprintCache loaded = gson.fromJson(reader, FingerprintCache.class);
+            if (loaded != null && loaded.files != null && loaded.deployed != null) {
+                cache = loaded;
+            }
+        } catch (IOException | JsonParseException e) {
+            logger.warn("Ignoring unreadable fingerprint cache " + cacheFile, e);
+        }
+    }
+
+    /**
+     * Writes the cache file, through a temporary file so it is never half written
+     *
+     * @throws IOException If the cache file cannot be written
+     */
+    private void saveCache() throws IOException {
+        Files.createDirectories(cacheFile.toAbsolutePath().getParent());
+        Path temporaryFile = cacheFile.resolveSibling(cacheFile.getFileName() + ".tmp");
+        try (Writer writer = Files.newBufferedWriter(temporaryFile)) {
+            gson.toJson(cache, writer);
+        }
+        Files.move(temporaryFile, cacheFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
@@ -0,0 +1,270 @@
+package dev.roshin.openliberty.repl.controllers.jmx;
+
+import com.google.common.base.Preconditions;
+import dev.roshin.openliberty.repl.controllers.jmx.domain.ApplicationRestartResult;
+import dev.roshin.openliberty.repl.controllers.jmx.domain.ApplicationRestartSummary;
+import dev.roshin.openliberty.repl.controllers.jmx.rest.JMXConstants;
+import dev.roshin.openliberty.repl.controllers.jmx.rest.JmxClient;
+import dev.roshin.openliberty.repl.controllers.jmx.rest.JmxHttpClients;
+import dev.roshin.openliberty.repl.controllers.jmx.rest.domain.MBeanInfo;
+import dev.roshin.openliberty.repl.controllers.jmx.rest.domain.attributes.AttributeValue;
+import dev.roshin.openliberty.repl.controllers.utils.ConcurrencyLimiter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Restarts many applications concurrently, with at most a given number of them restarting at the same time.
+ * <p>
+ * An application is restarting from the invocation of its restart operation until its State attribute reads
+ * STARTED, so the whole restart takes about as long as the slowest application instead of the sum of all of them.
+ * <p>
+ * Applications can be put in ordering groups: the applications of a group are restarted once all the applications of
+ * the previous groups are done, whether they succeeded or not. The applications that are in no group are restarted
+ * last. A failure of one application never stops the others.
+ */
+public class ApplicationRestartEngine {
+    public static final String APPLICATION_STATE_STARTED = "STARTED";
+    public static final Duration DEFAULT_STARTED_TIMEOUT = Duration.ofMinutes(2);
+    public static final Duration DEFAULT_POLL_INTERVAL = Duration.ofMillis(250);
+
+    private final JmxClient jmxClient;
+    private final int maxInFlight;
+    private final Duration startedTimeout;
+    private final Duration pollInterval;
+    private final Logger logger;
+
+    public ApplicationRestartEngine(JmxClient jmxClient, int maxInFlight) {
+        this(jmxClient, maxInFlight, DEFAULT_STARTED_TIMEOUT, DEFAULT_POLL_INTERVAL);
+    }
+
+    /**
+     * @param jmxClient      The client of the server
+     * @param maxInFlight    The maximum number of applications restarting at the same time
+     * @param startedTimeout How long to wait for an application to be STARTED after its restart operation returned
+     * @param pollInterval   How often the State attribute of a restarting application is read
+     */
+    public ApplicationRestartEngine(JmxClient jmxClient, int maxInFlight, Duration startedTimeout, Duration pollInterval) {
+        Preconditions.checkNotNull(jmxClient, "jmxClient cannot be null");
+        Preconditions.checkArgument(maxInFlight > 0, "maxInFlight must be greater than 0");
+        Preconditions.checkNotNull(startedTimeout, "startedTimeout cannot be null");
+        Preconditions.checkNotNull(pollInterval, "pollInterval cannot be null");
+        this.jmxClient = jmxClient;
+        this.maxInFlight = maxInFlight;
+        this.startedTimeout = startedTimeout;
+        this.pollInterval = pollInterval;
+        this.logger = LoggerFactory.getLogger(getClass());
+    }
+
+    /**
+     * Restarts the given applications, without blocking the calling thread
+     *
+     * @param applications   The application MBeans, cannot be null
+     * @param orderingGroups The names of the applications of each ordering group, in restart order, can be empty.
+     *                       Names that match no application are ignored
+     * @param listener       Follows the progress, cannot be null
+     * @return A future completed with the summary once all the applications are done, never exceptionally
+     */
+    public CompletableFuture<ApplicationRestartSummary> restartAsync(List<MBeanInfo> applications,
+                                                                     List<List<String>> orderingGroups,
+                                                                     ApplicationRestartListener listener) {
+        Preconditions.checkNotNull(applications, "applications cannot be null");
+        Preconditions.checkNotNull(orderingGroups, "orderingGroups cannot be null");
+        Preconditions.checkNotNull(listener, "listener cannot be null");
+        logger.debug("Starting restartAsync of {} applications in {} ordering groups", applications.size(), orderingGroups.size());
+
+        final List<List<MBeanInfo>> groups = toGroups(applications, orderingGroups);
+        final long start = System.nanoTime();
+        final ConcurrencyLimiter limiter = new ConcurrencyLimiter(maxInFlight);
+        final AtomicInteger completed = new AtomicInteger();
+        final Map<String, ApplicationRestartResult> results = new LinkedHashMap<>();
+
+        // Each group starts once the previous one is done
+        CompletableFuture<Void> chain = CompletableFuture.completedFuture(null);
+        for (int i = 0; i < groups.size(); i++) {
+            final int group = i;
+            chain = chain.thenCompose(ignored -> {
+                List<CompletableFuture<ApplicationRestartResult>> futures = new ArrayList<>();
+                for (MBeanInfo application : groups.get(group)) {
+                    futures.add(limiter.submit(() -> restartApplicationAsync(application, group, listener))
+                            .thenApply(result -> {
+                                notifyRestarted(listener, result, completed.incrementAndGet(), applications.size());
+                                return result;
+                            }));
+                }
+                return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0]))
+                        .thenRun(() -> {
+                            synchronized (results) {
+                                futures.forEach(future -> {
+                                    ApplicationRestartResult result = future.join();
+                                    results.put(result.getApplicationName(), result);
+                                });
+                            }
+                        });
+            });
+        }
+        return chain.thenApply(ignored -> {
+            long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            synchronized (results) {
+                logger.debug("Restarted {} applications in {} ms", results.size(), elapsedMillis);
+                return new ApplicationRestartSummary(new ArrayList<>(results.values()), elapsedMillis);
+            }
+        });
+    }
+
+    /**
+     * Splits the applications in their ordering groups, the applications in no group are put in a last group
+     *
+     * @param applications   The application MBeans
+     * @param orderingGroups The names of the applications of each group
+     * @return The application MBeans of each group, empty groups left out
+     */
+    private List<List<MBeanInfo>> toGroups(List<MBeanInfo> applications, List<List<String>> orderingGroups) {
+        Map<String, MBeanInfo> remaining = new LinkedHashMap<>();
+        applications.forEach(application -> remaining.put(getApplicationName(application), application));
+
+        List<List<MBeanInfo>> groups = new ArrayList<>();
+        for (List<String> orderingGroup : orderingGroups) {
+            List<MBeanInfo> group = new ArrayList<>();
+            for (String applicationName : orderingGroup) {
+                MBeanInfo application = remaining.remove(applicationName);
+                if (application != null) {
+                    group.add(application);
+                } else {
+                    logger.warn("Application {} of an ordering group not found, or already in a group", applicationName);
+                }
+            }
+            if (!group.isEmpty()) {
+                groups.add(group);
+            }
+        }
+        if (!remaining.isEmpty()) {
+            groups.add(new ArrayList<>(remaining.values()));
+        }
+        return groups;
+    }
+
+    /**
+     * Invokes the restart operation of an application, then waits for it to be STARTED
+     *
+     * @param application The application MBean
+     * @param group       The index of the ordering group of the application
+     * @param listener    Follows the progress
+     * @return A future completed with the result of the application, never exceptionally
+     */
+    private CompletableFuture<ApplicationRestartResult> restartApplicationAsync(MBeanInfo application, int group,
+                                                                              ApplicationRestartListener listener) {
+        final ApplicationRestartResult result = new ApplicationRestartResult();
+        result.setApplicationName(getApplicationName(application));
+        result.setGroup(group);
+        notifyRestarting(listener, result.getApplicationName(), group);
+        final long start = System.nanoTime();
+
+        CompletableFuture<String> restarted;
+        try {
+            restarted = jmxClient.invokeOperationAsync(application, JMXConstants.APPLICATION_MBEAN_RESTART_OPERATION)
+                    .thenCompose(invoked -> {
+                        result.setRestartMillis(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+                        if (!invoked) {
+                            throw new CompletionException(new IllegalStateException("The restart operation failed"));
+                        }
+                        return waitForStartedAsync(application, System.nanoTime() + startedTimeout.toNanos(), null);
+                    });
+        } catch (RuntimeException e) {
+            restarted = CompletableFuture.failedFuture(e);
+        }
+        return restarted.handle((state, throwable) -> {
+            result.setTotalMillis(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            if (throwable != null) {
+                Throwable cause = JmxClient.unwrap(throwable);
+                logger.error("Failed to restart application " + result.getApplicationName(), cause);
+                result.setError(cause.getMessage() != null ? cause.getMessage() : cause.toString());
+            } else {
+                result.setState(state);
+            }
+            return result;
+        });
+    }
+
+    /**
+     * Reads the State attribute of an application until it is STARTED, waiting the poll interval between the reads
+     *
+     * @param application   The application MBean
+     * @param deadlineNanos The {@link System#nanoTime()} after which to give up
+     * @param lastState     The state read the previous time, null at first
+     * @return A future completed with the STARTED state, or exceptionally if the deadline passed or the application
+     * no longer exists
+     */
+    private CompletableFuture<String> waitForStartedAsync(MBeanInfo application, long deadlineNanos, String lastState) {
+        if (System.nanoTime() - deadlineNanos > 0) {
+            return CompletableFuture.failedFuture(new TimeoutException("Not STARTED after " + startedTimeout.toMillis()
+                    + " ms, state is " + lastState));
+        }
+        return jmxClient.readAttributesAsync(application, List.of(JMXConstants.APPLICATION_MBEAN_STATE_ATTRIBUTE))
+                .thenCompose(attributes -> {
+                    if (attributes == null) {
+                        throw new CompletionException(new IllegalStateException("The application no longer exists"));
+                    }
+                    AttributeValue stateValue = attributes.get(JMXConstants.APPLICATION_MBEAN_STATE_ATTRIBUTE);
+                    String state = stateValue != null ? stateValue.getValue() : null;
+                    if (APPLICATION_STATE_STARTED.equals(state)) {
+                        return CompletableFuture.completedFuture(state);
+                    }
+                    // Not started yet, read again after the poll interval, without holding a thread
+                    return CompletableFuture.runAsync(() -> {
+                            }, CompletableFuture.delayedExecutor(pollInterval.toMillis(), TimeUnit.MILLISECONDS,
+                                    JmxHttpClients.getExecutor()))
+                            .thenCompose(ignored -> waitForStartedAsync(application, deadlineNanos, state));
+                });
+    }
+
+    /**
+     * @param application The application MBean
+     * @return The application name, carved out of an object name like
+     * "WebSphere:service=com.ibm.websphere.application.ApplicationMBean,name=sample"
+     */
+    private static String getApplicationName(MBeanInfo application) {
+        return application.getObjectName().split("name=")[1];
+    }
+
+    /**
+     * Tells the listener an application is restarting, a listener failure does not stop the restarts
+     *
+     * @param listener        The listener
+     * @param applicationName The name of the application
+     * @param group           The index of the ordering group of the application
+     */
+    private void notifyRestarting(ApplicationRestartListener listener, String applicationName, int group) {
+        try {
+            listener.restarting(applicationName, group);
+        } catch (RuntimeException e) {
+            logger.error("Restart listener failed on the restart of " + applicationName, e);
+        }
+    }
+
+    /**
+     * Tells the listener an application is done, a listener failure does not lose the result nor the next groups
+     *
+     * @param listener  The listener
+     * @param result    The result of the application
+     * @param completed The number of applications done
+     * @param total     The number of applications
+     */
+    private void notifyRestarted(ApplicationRestartListener listener, ApplicationRestartResult result, int completed, int total) {
+        try {
+            listener.restarted(result, completed, total);
+        } catch (RuntimeException e) {
+            logger.error("Restart listener failed on the result of " + result.getApplicationName(), e);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package dev.roshin.openliberty.repl.controllers.jmx;
+
+import dev.roshin.openliberty.repl.controllers.jmx.domain.ApplicationRestartResult;
+
+/**
+ * Follows the progress of an {@link ApplicationRestartEngine}, called on background threads, possibly concurrently
+ */
+public interface ApplicationRestartListener {
+
+    /**
+     * Called when the restart operation of an application is about to be invoked
+     *
+     * @param applicationName The application name
+     * @param group           The index of the ordering group of the application
+     */
+    default void restarting(String applicationName, int group) {
+    }
+
+    /**
+     * Called when an application reached the STARTED state, or failed to
+     *
+     * @param result    The result of the application
+     * @param completed The number of applications done so far, including this one
+     * @param total     The number of applications to restart
+     */
+    default void restarted(ApplicationRestartResult result, int completed, int total) {
+    }
+}
@@ -0,0 +1,19 @@
+package dev.roshin.openliberty.repl.controllers.jmx;
+
+import dev.roshin.openliberty.repl.controllers.jmx.domain.ApplicationStateChange;
+
+import java.util.List;
+
+/**
+ * Receives the changes of the application states seen by an {@link ApplicationStateWatcher}
+ */
+@FunctionalInterface
+public interface ApplicationStateListener {
+
+    /**
+     * Called on the watcher thread, with the changes of one refresh
+     *
+     * @param changes The changes, never empty
+     */
+    void applicationStatesChanged(List<ApplicationStateChange> changes);
+}
@@ -0,0 +1,259 @@
+package dev.roshin.openliberty.repl.controllers.jmx;
+
+import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import dev.roshin.openliberty.repl.controllers.jmx.domain.ApplicationStateChange;
+import dev.roshin.openliberty.repl.controllers.jmx.rest.JMXConstants;
+import dev.roshin.openliberty.repl.controllers.jmx.rest.domain.attributes.AttributeValue;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps a snapshot of the State attribute of every application in the background, and tells a listener only about
+ * the states that changed.
+ * <p>
+ * The snapshot is refreshed with an adaptive interval: the minimum interval while states are changing, doubling up to
+ * the maximum interval while they are stable. The notifications pushed by the application MBeans trigger a refresh
+ * right away, so changes are usually seen without waiting for the interval.
+ */
+public class ApplicationStateWatcher implements AutoCloseable {
+    public static final Duration DEFAULT_MIN_INTERVAL = Duration.ofMillis(500);
+    public static final Duration DEFAULT_MAX_INTERVAL = Duration.ofSeconds(10);
+
+    private final JMXServerManager jmxServerManager;
+    private final ApplicationStateListener listener;
+    private final long minIntervalMillis;
+    private final long maxIntervalMillis;
+    private final ScheduledExecutorService scheduler;
+    private final Logger logger;
+
+    // Guarded by this, a refresh runs only if its generation is the current one, so there is one chain of refreshes
+    private long generation;
+    private boolean refreshing;
+    private boolean refreshRequested;
+    private boolean closed;
+    private ScheduledFuture<?> nextRefresh;
+
+    // Only used by the watcher thread
+    private Map<String, String> states = Collections.emptyMap();
+    private volatile long intervalMillis;
+    private AutoCloseable notificationSubscription;
+
+    public ApplicationStateWatcher(JMXServerManager jmxServerManager, ApplicationStateListener listener) {
+        this(jmxServerManager, listener, DEFAULT_MIN_INTERVAL, DEFAULT_MAX_INTERVAL);
+    }
+
+    /**
+     * @param jmxServerManager The manager of the server to watch
+     * @param listener         Receives the changes
+     * @param minInterval      The refresh interval while states are changing
+     * @param maxInterval      The refresh interval once states are stable
+     */
+    public ApplicationStateWatcher(JMXServerManager jmxServerManager, ApplicationStateListener listener,
+                                   Duration minInterval, Duration maxInterval) {
+        Preconditions.checkNotNull(jmxServerManager, "jmxServerManager cannot be null");
+        Preconditions.checkNotNull(listener, "listener cannot be null");
+        Preconditions.checkArgument(minInterval != null && !minInterval.isNegative() && !minInterval.isZero(),
+                "minInterval must be positive");
+        Preconditions.checkArgument(maxInterval != null && maxInterval.compareTo(minInterval) >= 0,
+                "maxInterval must not be less than minInterval");
+        this.jmxServerManager = jmxServerManager;
+        this.listener = listener;
+        this.minIntervalMillis = minInterval.toMillis();
+        this.maxIntervalMillis = maxInterval.toMillis();
+        this.intervalMillis = minIntervalMillis;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder()
+                .setNameFormat("application-state-watcher")
+                .setDaemon(true)
+                .build());
+        this.logger = LoggerFactory.getLogger(getClass());
+    }
+
+    /**
+     * Takes the first snapshot and starts refreshing it in the background
+     *
+     * @return The application states of the first snapshot, by application name
+     * @throws Exception If the first snapshot cannot be taken
+     */
+    public Map<String, String> start() throws Exception {
+        logger.debug("Starting application state watcher");
+        Map<String, String> firstStates = readStates();
+        // Published to the watcher thread by the executor
+        states = firstStates;
+        try {
+            notificationSubscription = jmxServerManager.addNotificationListener(JMXConstants.APPLICATION_MBEAN_OBJECT_QUERY,
+                    notifications -> requestRefresh());
+        } catch (Exception e) {
+            // Polling alone still sees the changes, only later
+            logger.warn("Cannot listen to the application notifications, polling only", e);
+        }
+        synchronized (this) {
+            scheduleRefresh(intervalMillis);
+        }
+        return firstStates;
+    }
+
+    /**
+     * @return The current refresh interval, in milliseconds
+     */
+    public long getIntervalMillis() {
+        return intervalMillis;
+    }
+
+    /**
+     * Refreshes the snapshot as soon as possible, and goes back to the minimum interval
+     */
+    public void requestRefresh() {
+        intervalMillis = minIntervalMillis;
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            if (refreshing) {
+                // The running refresh schedules the next one right away
+                refreshRequested = true;
+                return;
+            }
+            if (nextRefresh != null) {
+                nextRefresh.cancel(false);
+            }
+            scheduleRefresh(0);
+        }
+    }
+
+    /**
+     * Schedules the next refresh, the previous chain of refreshes ends, must hold the lock
+     *
+     * @param delayMillis The delay before the refresh
+     */
+    private void scheduleRefresh(long delayMillis) {
+        final long refreshGeneration = ++generation;
+        nextRefresh = scheduler.schedule(() -> refresh(refreshGeneration), delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Reads the states, tells the listener about the changes and schedules the next refresh
+     *
+     * @param refreshGeneration The generation of this refresh, it does nothing if another one was scheduled since
+     */
+    private void refresh(long refreshGeneration) {
+        synchronized (this) {
+            if (closed || refreshGeneration != generation) {
+                return;
+            }
+            refreshing = true;
+        }
+        try {
+            Map<String, String> newStates = readStates();
+            List<ApplicationStateChange> changes = diff(states, newStates);
+            states = newStates;
+            if (changes.isEmpty()) {
+                // Stable, refresh less and less often
+                intervalMillis = Math.min(intervalMillis * 2, maxIntervalMillis);
+            } else {
+                intervalMillis = minIntervalMillis;
+                listener.applicationStatesChanged(changes);
+            }
+        } catch (Exception e) {
+            // The server may be restarting, keep the snapshot and try again
+            logger.debug("Failed to refresh the application states", e);
+        } finally {
+            synchronized (this) {
+                refreshing = false;
+                if (!closed) {
+                    scheduleRefresh(refreshRequested ? 0 : intervalMillis);
+                    refreshRequested = false;
+                }
+            }
+        }
+    }
+
+    /**
+     * @return The State attribute of every application, by application name
+     * @throws Exception If the states cannot be read
+     */
+    private Map<String, String> readStates() throws Exception {
+        Map<String, Map<String, AttributeValue>> attributesByObjectName = jmxServerManager.readAttributes(
+                JMXConstants.APPLICATION_MBEAN_OBJECT_QUERY, List.of(JMXConstants.APPLICATION_MBEAN_STATE_ATTRIBUTE));
+        Map<String, String> newStates = new LinkedHashMap<>();
+        attributesByObjectName.forEach((objectName, attributes) -> {
+            // The objectName with like "WebSphere:service=com.ibm.websphere.application.ApplicationMBean,name=sample" carve out the application name
+            String applicationName = objectName.split("name=")[1];
+            AttributeValue state = attributes.get(JMXConstants.APPLICATION_MBEAN_STATE_ATTRIBUTE);
+            newStates.put(applicationName, state == null ? null : state.getValue());
+        });
+        return newStates;
+    }
+
+    /**
+     * Compares two snapshots
+     *
+     * @param oldStates The previous states, by application name
+     * @param newStates The new states, by application name
+     * @return The changed, added and removed applications
+     */
+    static List<ApplicationStateChange> diff(Map<String, String> oldStates, Map<String, String> newStates) {
+        List<ApplicationStateChange> changes = new ArrayList<>();
+        newStates.forEach((applicationName, newState) -> {
+            boolean known = oldStates.containsKey(applicationName);
+            String oldState = oldStates.get(applicationName);
+            if (!known || !Objects.equals(oldState, newState)) {
+                changes.add(createChange(applicationName, oldState, newState));
+            }
+        });
+        oldStates.forEach((applicationName, oldState) -> {
+            if (!newStates.containsKey(applicationName)) {
+                changes.add(createChange(applicationName, oldState, null));
+            }
+        });
+        return changes;
+    }
+
+    private static ApplicationStateChange createChange(String applicationName, String oldState, String newState) {
+        ApplicationStateChange change = new ApplicationStateChange();
+        change.setApplicationName(applicationName);
+        change.setOldState(oldState);
+        change.setNewState(newState);
+        return change;
+    }
+
+    /**
+     * Stops watching, the listener is not called anymore once this returns
+     */
+    @Override
+    public void close() {
+        logger.debug("Closing application state watcher");
+        synchronized (this) {
+            closed = true;
+            if (nextRefresh != null) {
+                nextRefresh.cancel(false);
+            }
+        }
+        if (notificationSubscription != null) {
+            try {
+                notificationSubscription.close();
+            } catch (Exception e) {
+                logger.debug("Failed to remove the notification listener", e);
+            }
+        }
+        scheduler.shutdown();
+        try {
+            // Let a running refresh finish, so the listener is not called after this returns
+            scheduler.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
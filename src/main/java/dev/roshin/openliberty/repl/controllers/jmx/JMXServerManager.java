@@ -1,19 +1,160 @@
 package dev.roshin.openliberty.repl.controllers.jmx;
 
+import dev.roshin.openliberty.repl.controllers.jmx.domain.ApplicationRestartSummary;
 import dev.roshin.openliberty.repl.controllers.jmx.domain.ApplicationStatus;
+import dev.roshin.openliberty.repl.controllers.jmx.domain.JvmTelemetry;
+import dev.roshin.openliberty.repl.controllers.jmx.domain.JvmTelemetryRates;
+import dev.roshin.openliberty.repl.controllers.jmx.domain.MonitorSample;
+import dev.roshin.openliberty.repl.controllers.jmx.domain.MonitorStatsType;
 import dev.roshin.openliberty.repl.controllers.jmx.domain.ServerInfo;
+import dev.roshin.openliberty.repl.controllers.jmx.rest.JmxNotificationListener;
+import dev.roshin.openliberty.repl.controllers.jmx.rest.domain.MBeanInfo;
+import dev.roshin.openliberty.repl.controllers.jmx.rest.domain.ProbeResult;
+import dev.roshin.openliberty.repl.controllers.jmx.rest.domain.attributes.AttributeValue;
+import dev.roshin.openliberty.repl.controllers.jmx.rest.metrics.JmxClientMetricsSnapshot;
 
+import java.time.Duration;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
-public interface JMXServerManager {
+public interface JMXServerManager extends AutoCloseable {
 
+    /**
+     * @return Whether the REST connector answers a health probe, see {@link #probe(Duration)}
+     */
     public boolean isConnectable();
 
+    /**
+     * Probes the REST connector with one small request, without retries
+     *
+     * @param timeout The timeout of the probe, connecting included
+     * @return The result of the probe, telling connection, authentication and latency apart
+     * @throws InterruptedException If the calling thread is interrupted while waiting
+     */
+    public ProbeResult probe(Duration timeout) throws InterruptedException;
+
+    /**
+     * Gets the information of the running server
+     * <p>
+     * The information is cached until another server process is running, only the PID and start time of the server
+     * are read from the second call
+     *
+     * @return The server information, or null if it cannot be read
+     */
     public ServerInfo getServerInfo();
 
     public boolean stopServer() throws Exception;
 
+    /**
+     * Gets the status of all the applications, read concurrently
+     * <p>
+     * An application whose status cannot be read in time is still in the list, with its error set
+     *
+     * @return The status of each application
+     * @throws Exception If the applications cannot be listed
+     */
     public List<ApplicationStatus> getAllApplicationStatus() throws Exception;
 
-    public void restartAllApplications() throws Exception;
+    /**
+     * Restarts all the applications concurrently and waits for them to be STARTED
+     *
+     * @return The result and timing of each application
+     * @throws Exception If the applications cannot be listed
+     */
+    public ApplicationRestartSummary restartAllApplications() throws Exception;
+
+    /**
+     * Restarts all the applications concurrently, group after group, and waits for them to be STARTED
+     *
+     * @param maxInFlight    The maximum number of applications restarting at the same time
+     * @param orderingGroups The names of the applications of each ordering group, in restart order, the applications
+     *                       in no group are restarted last
+     * @param listener       Follows the progress, called on background threads
+     * @return The result and timing of each application
+     * @throws Exception If the applications cannot be listed
+     */
+    public ApplicationRestartSummary restartAllApplications(int maxInFlight, List<List<String>> orderingGroups,
+                                                            ApplicationRestartListener listener) throws Exception;
+
+    /**
+     * Restarts the given applications concurrently and waits for them to be STARTED
+     *
+     * @param applicationNames The names of the applications to restart, names of applications not on the server are
+     *                         ignored
+     * @param maxInFlight      The maximum number of applications restarting at the same time
+     * @param listener         Follows the progress, called on background threads
+     * @return The result and timing of each application found on the server
+     * @throws Exception If the applications cannot be listed
+     */
+    public ApplicationRestartSummary restartApplications(Collection<String> applicationNames, int maxInFlight,
+                                                         ApplicationRestartListener listener) throws Exception;
+
+    /**
+     * Reads the given attributes of all the MBeans matching the object name pattern, in one bulk call
+     *
+     * @param objectNamePattern The object name pattern
+     * @param attributeNames    The names of the attributes to read, all the attributes if empty
+     * @return The attribute values by attribute name, keyed by object name
+     * @throws Exception If the attributes cannot be read
+     */
+    public Map<String, Map<String, AttributeValue>> readAttributes(String objectNamePattern, List<String> attributeNames) throws Exception;
+
+    /**
+     * Finds the statistics MBeans registered by the monitor-1.0 feature
+     * <p>
+     * Some of them are only registered once used, e.g. the statistics of a servlet after its first request, so they
+     * should be discovered again from time to time
+     *
+     * @return The MBeans of each kind of statistics, empty lists if the feature is not enabled
+     * @throws Exception If the MBeans cannot be queried
+     */
+    public Map<MonitorStatsType, List<MBeanInfo>> discoverMonitorMBeans() throws Exception;
+
+    /**
+     * Reads the numeric attributes of the given monitor MBeans, all the requests in flight at once
+     *
+     * @param monitorMBeans The MBeans of each kind of statistics, as discovered by {@link #discoverMonitorMBeans()}
+     * @return The sample, MBeans that no longer exist are counted as missing
+     * @throws Exception If the attributes cannot be read
+     */
+    public MonitorSample sampleMonitorStats(Map<MonitorStatsType, List<MBeanInfo>> monitorMBeans) throws Exception;
+
+    /**
+     * Reads the memory, garbage collector, threading, class loading and operating system MBeans of the server JVM, all
+     * the requests in flight at once
+     * <p>
+     * The garbage collector MBeans are discovered on the first call only, see {@link JvmTelemetryRates} for the rates
+     * between two samples
+     *
+     * @return The sample
+     * @throws Exception If the MBeans cannot be read
+     */
+    public JvmTelemetry sampleJvmTelemetry() throws Exception;
+
+    /**
+     * Adds a listener for the notifications pushed by the MBeans matching the object name pattern
+     *
+     * @param objectNamePattern The object name pattern
+     * @param listener          The listener, called on a background thread
+     * @return The subscription, close it to remove the listener
+     * @throws Exception If the listener cannot be registered with the server
+     */
+    public AutoCloseable addNotificationListener(String objectNamePattern, JmxNotificationListener listener) throws Exception;
+
+    /**
+     * @return The latencies, retries, failures and bytes received of the JMX requests sent so far
+     */
+    public JmxClientMetricsSnapshot getMetrics();
+
+    /**
+     * Clears the metrics of the JMX requests
+     */
+    public void resetMetrics();
+
+    /**
+     * Closes the connections of the manager, e.g. when the REPL exits, the manager cannot be used afterwards
+     */
+    @Override
+    public void close();
 }
@@ -1,30 +1,77 @@
 package dev.roshin.openliberty.repl.controllers.jmx;
 
+import com.google.common.base.Preconditions;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import dev.roshin.openliberty.repl.controllers.jmx.domain.ApplicationRestartSummary;
 import dev.roshin.openliberty.repl.controllers.jmx.domain.ApplicationStatus;
+import dev.roshin.openliberty.repl.controllers.jmx.domain.JvmTelemetry;
+import dev.roshin.openliberty.repl.controllers.jmx.domain.MonitorSample;
+import dev.roshin.openliberty.repl.controllers.jmx.domain.MonitorStats;
+import dev.roshin.openliberty.repl.controllers.jmx.domain.MonitorStatsType;
 import dev.roshin.openliberty.repl.controllers.jmx.domain.ServerInfo;
 import dev.roshin.openliberty.repl.controllers.jmx.rest.JMXConstants;
 import dev.roshin.openliberty.repl.controllers.jmx.rest.JmxClient;
+import dev.roshin.openliberty.repl.controllers.jmx.rest.JmxNotificationClient;
+import dev.roshin.openliberty.repl.controllers.jmx.rest.JmxNotificationListener;
 import dev.roshin.openliberty.repl.controllers.jmx.rest.domain.MBeanInfo;
+import dev.roshin.openliberty.repl.controllers.jmx.rest.domain.ProbeResult;
 import dev.roshin.openliberty.repl.controllers.jmx.rest.domain.attributes.Attribute;
+import dev.roshin.openliberty.repl.controllers.jmx.rest.domain.attributes.AttributeValue;
+import dev.roshin.openliberty.repl.controllers.jmx.rest.metrics.JmxClientMetricsSnapshot;
+import dev.roshin.openliberty.repl.controllers.utils.ConcurrencyLimiter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.management.MalformedObjectNameException;
+import javax.management.ObjectName;
 import java.io.IOException;
+import java.io.Reader;
 import java.net.URISyntaxException;
 import java.net.URL;
+import java.net.http.HttpTimeoutException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 public class JMXServerManagerImpl implements JMXServerManager {
+    public static final Duration DEFAULT_APPLICATION_STATUS_TIMEOUT = Duration.ofSeconds(10);
+    // Added to the bound of all the application status reads, for the listing, scheduling and decoding
+    static final Duration APPLICATION_STATUS_SLACK = Duration.ofSeconds(2);
+    private static final String DEFAULT_PRODUCT_NAME = "Liberty";
+    private static final String OPEN_LIBERTY_PRODUCT_FILE = "openliberty.properties";
+    private static final String PRODUCT_NAME_PROPERTY = "com.ibm.websphere.productName";
 
     private final URL baseURL;
     private final String username;
     private final String password;
     private final Duration timeout;
     private final int retries;
+    private final int maxConcurrentRequests;
+    private final Duration applicationStatusTimeout;
     private JmxClient jmxClient;
+    private JmxNotificationClient notificationClient;
+    // The information of the running server process, refreshed when another process is running
+    private volatile ServerInfo serverInfo;
+    private volatile List<MBeanInfo> garbageCollectorMBeans;
 
     private final Logger logger;
 
@@ -33,11 +80,36 @@ public class JMXServerManagerImpl implements JMXServerManager {
     }
 
     public JMXServerManagerImpl(URL baseURL, String username, String password, Duration timeout, int retries) throws Exception {
+        this(baseURL, username, password, timeout, retries, JmxClient.DEFAULT_MAX_CONCURRENT_REQUESTS);
+    }
+
+    public JMXServerManagerImpl(URL baseURL, String username, String password, Duration timeout, int retries,
+                                int maxConcurrentRequests) throws Exception {
+        this(baseURL, username, password, timeout, retries, maxConcurrentRequests, DEFAULT_APPLICATION_STATUS_TIMEOUT);
+    }
+
+    /**
+     * @param baseURL                  The base URL of the REST connector
+     * @param username                 The user name
+     * @param password                 The password
+     * @param timeout                  The timeout of each request
+     * @param retries                  The number of retries of a failed request
+     * @param maxConcurrentRequests    The maximum number of requests in flight when reading many MBeans
+     * @param applicationStatusTimeout How long to wait for the status of one application before reporting it as
+     *                                 failed
+     * @throws Exception If the JMX client cannot be created
+     */
+    public JMXServerManagerImpl(URL baseURL, String username, String password, Duration timeout, int retries,
+                                int maxConcurrentRequests, Duration applicationStatusTimeout) throws Exception {
+        Preconditions.checkArgument(maxConcurrentRequests > 0, "maxConcurrentRequests must be greater than 0");
+        Preconditions.checkNotNull(applicationStatusTimeout, "applicationStatusTimeout cannot be null");
         this.baseURL = baseURL;
         this.username = username;
         this.password = password;
         this.timeout = timeout;
         this.retries = retries;
+        this.maxConcurrentRequests = maxConcurrentRequests;
+        this.applicationStatusTimeout = applicationStatusTimeout;
 
         this.jmxClient = new JmxClient(baseURL, username, password, timeout, retries);
         this.logger = LoggerFactory.getLogger(getClass());
@@ -50,7 +122,8 @@ public class JMXServerManagerImpl implements JMXServerManager {
         logger.debug("Shutting down framework internal");
         try {
             // Get the Framework MBeans
-            List<MBeanInfo> frameworkMBeans = jmxClient.queryMBeans(JMXConstants.FRAMEWORK_MBEAN_OBJECT_QUERY, null);
+            List<MBeanInfo> frameworkMBeans = JmxClient.await(
+                    jmxClient.queryMBeansAsync(JMXConstants.FRAMEWORK_MBEAN_OBJECT_QUERY, null, true));
             // We should get only one MBean
             if (frameworkMBeans.size() != 1) {
                 logger.error("Expected 1 Framework MBean, found " + frameworkMBeans.size());
@@ -77,7 +150,8 @@ public class JMXServerManagerImpl implements JMXServerManager {
     private List<Attribute> getServerInfoInternal() throws IOException, URISyntaxException, InterruptedException {
         logger.debug("Getting Server Info Internal");
         // Get the ServerInfo MBean
-        List<MBeanInfo> serverInfoMBeans = jmxClient.queryMBeans(JMXConstants.SERVER_INFO_MBEAN_OBJECT_QUERY, null);
+        List<MBeanInfo> serverInfoMBeans = JmxClient.await(
+                jmxClient.queryMBeansAsync(JMXConstants.SERVER_INFO_MBEAN_OBJECT_QUERY, null, true));
         // We should get only one MBean
         if (serverInfoMBeans.size() != 1) {
             logger.error("Expected 1 ServerInfo MBean, found " + serverInfoMBeans.size());
@@ -96,7 +170,7 @@ public class JMXServerManagerImpl implements JMXServerManager {
     private List<MBeanInfo> getApplicationMBeansInternal() {
         logger.debug("Starting getApplicationMBeansInternal");
         try {
-            return jmxClient.queryMBeans(JMXConstants.APPLICATION_MBEAN_OBJECT_QUERY, null);
+            return JmxClient.await(jmxClient.queryMBeansAsync(JMXConstants.APPLICATION_MBEAN_OBJECT_QUERY, null, true));
         } catch (Exception e) {
             logger.error("Failed to get Application MBeans", e);
             throw new RuntimeException(e);
@@ -106,44 +180,140 @@ public class JMXServerManagerImpl implements JMXServerManager {
     @Override
     public boolean isConnectable() {
         logger.debug("Trying to connect to JMX Server");
-        // Try to get all MBeans, if we get an ConnectException, return false
+        // One small request with a short timeout, rather than listing all the MBeans
         try {
-            jmxClient.getMBeans();
-            logger.debug("Successfully connected to JMX Server");
-            return true;
-        } catch (Exception e) {
-            logger.error("Failed to connect to JMX Server", e);
+            ProbeResult probeResult = probe(JmxClient.DEFAULT_PROBE_TIMEOUT);
+            if (probeResult.isUp()) {
+                logger.debug("Successfully connected to JMX Server in {} us", probeResult.getLatencyMicros());
+                return true;
+            }
+            logger.error("Failed to connect to JMX Server: {}", probeResult);
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
             return false;
         }
     }
 
+    @Override
+    public ProbeResult probe(Duration timeout) throws InterruptedException {
+        logger.debug("Starting probe");
+        return jmxClient.probe(timeout);
+    }
+
     @Override
     public ServerInfo getServerInfo() {
         logger.debug("Getting Server Info");
         try {
-            List<Attribute> serverInfo = getServerInfoInternal();
-            ServerInfo serverInfoObj = new ServerInfo();
-            //Loop through all the attributes and set the values
-            for (Attribute attribute : serverInfo) {
-                switch (attribute.getName()) {
-                    case "Name" -> serverInfoObj.setServerName(attribute.getValue().getValue());
-                    case "DefaultHostname" -> serverInfoObj.setDefaultHostname(attribute.getValue().getValue());
-                    case "UserDirectory" -> serverInfoObj.setUserDirectory(Paths.get(attribute.getValue().getValue()));
-                    case "InstallDirectory" ->
-                            serverInfoObj.setInstallDirectory(Paths.get(attribute.getValue().getValue()));
-                    case "LibertyVersion" -> serverInfoObj.setLibertyVersion(attribute.getValue().getValue());
-                    case "JavaSpecVersion" ->
-                            serverInfoObj.setJavaSpecificationVersion(attribute.getValue().getValue());
-                    case "JavaRuntimeVersion" -> serverInfoObj.setJavaRuntimeVersion(attribute.getValue().getValue());
-                }
+            // One request tells which server process is running, the rest cannot change while it lives
+            Map<String, AttributeValue> runtime = JmxClient.await(jmxClient.readAttributesAsync(
+                    JmxClient.toMBeanInfo(JMXConstants.RUNTIME_MBEAN_OBJECT_NAME),
+                    List.of(JMXConstants.RUNTIME_MBEAN_NAME_ATTRIBUTE, JMXConstants.RUNTIME_MBEAN_START_TIME_ATTRIBUTE,
+                            JMXConstants.RUNTIME_MBEAN_VM_NAME_ATTRIBUTE)));
+            if (runtime == null) {
+                throw new IllegalStateException("The " + JMXConstants.RUNTIME_MBEAN_OBJECT_NAME + " MBean was not found");
+            }
+            long pid = parsePid(getValue(runtime, JMXConstants.RUNTIME_MBEAN_NAME_ATTRIBUTE));
+            String startTimeValue = getValue(runtime, JMXConstants.RUNTIME_MBEAN_START_TIME_ATTRIBUTE);
+            long startTime = startTimeValue == null ? 0 : Long.parseLong(startTimeValue);
+
+            ServerInfo cached = serverInfo;
+            if (cached != null && cached.isSameProcess(pid, startTime)) {
+                logger.debug("Server Info of process {} taken from the cache", pid);
+                return cached;
+            }
+
+            // A new server process, or the first call, load everything again
+            logger.debug("Loading Server Info of process {} started at {}", pid, startTime);
+            Map<String, String> values = new HashMap<>();
+            for (Attribute attribute : getServerInfoInternal()) {
+                values.put(attribute.getName(), attribute.getValue() == null ? null : attribute.getValue().getValue());
             }
-            return serverInfoObj;
+            Path installDirectory = toPath(values.get("InstallDirectory"));
+            ServerInfo loaded = new ServerInfo(values.get("Name"), values.get("DefaultHostname"),
+                    toPath(values.get("UserDirectory")), installDirectory, readProductName(installDirectory),
+                    values.get("LibertyVersion"), values.get("JavaSpecVersion"), values.get("JavaRuntimeVersion"),
+                    getValue(runtime, JMXConstants.RUNTIME_MBEAN_VM_NAME_ATTRIBUTE), pid, startTime);
+            serverInfo = loaded;
+            return loaded;
         } catch (Exception e) {
             logger.error("Failed to get Server Info", e);
             return null;
         }
     }
 
+    /**
+     * @param attributes The attribute values by attribute name
+     * @param name       The attribute name
+     * @return The value of the attribute, or null if it is missing
+     */
+    private static String getValue(Map<String, AttributeValue> attributes, String name) {
+        AttributeValue value = attributes.get(name);
+        return value == null ? null : value.getValue();
+    }
+
+    /**
+     * @param runtimeName The name of the runtime, like "1234@hostname"
+     * @return The PID, or -1 if the name does not start with it
+     */
+    private static long parsePid(String runtimeName) {
+        if (runtimeName == null) {
+            return -1;
+        }
+        int at = runtimeName.indexOf('@');
+        try {
+            return Long.parseLong(at < 0 ? runtimeName : runtimeName.substring(0, at));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * @param path A path, can be null
+     * @return The path, or null if the given path is null
+     */
+    private static Path toPath(String path) {
+        return path == null ? null : Paths.get(path);
+    }
+
+    /**
+     * Reads the product name from the product files of the installation, as the server version command does
+     *
+     * @param installDirectory The install directory, can be null
+     * @return The product name, or {@link #DEFAULT_PRODUCT_NAME} if it cannot be read
+     */
+    private String readProductName(Path installDirectory) {
+        if (installDirectory == null) {
+            return DEFAULT_PRODUCT_NAME;
+        }
+        Path versionsDirectory = installDirectory.resolve("lib").resolve("versions");
+        // Open Liberty has one product file, other editions add theirs next to it, read theirs first
+        List<Path> productFiles = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(versionsDirectory, "*.properties")) {
+            files.forEach(productFiles::add);
+        } catch (IOException e) {
+            logger.debug("Cannot list the product files in " + versionsDirectory, e);
+            return DEFAULT_PRODUCT_NAME;
+        }
+        productFiles.sort((first, second) -> Boolean.compare(
+                first.getFileName().toString().equals(OPEN_LIBERTY_PRODUCT_FILE),
+                second.getFileName().toString().equals(OPEN_LIBERTY_PRODUCT_FILE)));
+        for (Path productFile : productFiles) {
+            Properties properties = new Properties();
+            try (Reader reader = Files.newBufferedReader(productFile)) {
+                properties.load(reader);
+            } catch (IOException e) {
+                logger.debug("Cannot read the product file " + productFile, e);
+                continue;
+            }
+            String productName = properties.getProperty(PRODUCT_NAME_PROPERTY);
+            if (productName != null) {
+                return productName;
+            }
+        }
+        return DEFAULT_PRODUCT_NAME;
+    }
+
 
     @Override
     public boolean stopServer() {
@@ -155,53 +325,396 @@ public class JMXServerManagerImpl implements JMXServerManager {
         logger.debug("Stopping Server");
         shutdownFrameworkInternal();
         logger.debug("Server shutdown initiated");
+        // The MBeans will be registered again when the server is started
+        jmxClient.invalidateMetadataCache();
+        serverInfo = null;
+        garbageCollectorMBeans = null;
+        closeNotificationClient();
         return isConnectable();
     }
 
 
     @Override
     public List<ApplicationStatus> getAllApplicationStatus() throws Exception {
-        // Get all the applications MBeans
-        // Loop through all the MBeans and get the attributes
-        // Create a ApplicationStatus object and set the values
-        // Add the ApplicationStatus object to the list
-        List<ApplicationStatus> applicationStatusList = new ArrayList<>();
-
-        getApplicationMBeansInternal().forEach(application -> {
-            ApplicationStatus applicationStatus = new ApplicationStatus();
-            // The objectName with like "WebSphere:service=com.ibm.websphere.application.ApplicationMBean,name=sample" carve out the application name
-            String applicationName = application.getObjectName().split("name=")[1];
-            applicationStatus.setApplicationName(applicationName);
-            try {
-                List<Attribute> serverInfo = jmxClient.getMBeanAttributes(application);
-                //Loop through all the attributes and set the values
-                for (Attribute attribute : serverInfo) {
-                    if (attribute.getName().equals("State")) {
-                        applicationStatus.setStatus(attribute.getValue().getValue());
-                        break;
-                    }
-                }
-            } catch (Exception e) {
-                logger.error("Failed to get Application Status", e);
-                throw new RuntimeException(e);
+        logger.debug("Starting getAllApplicationStatus");
+        // List the applications MBeans, without them there is nothing to report
+        List<MBeanInfo> applicationMBeans = getApplicationMBeansInternal();
+
+        // Read only the State attribute of each application concurrently, with at most maxConcurrentRequests in flight
+        // Each read is one request bounded by its own timeout, so it holds its slot until the exchange really ends, and
+        // a slow or failing application is reported as failed without affecting the others
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(maxConcurrentRequests);
+        List<CompletableFuture<ApplicationStatus>> futures = new ArrayList<>(applicationMBeans.size());
+        for (MBeanInfo applicationMBean : applicationMBeans) {
+            futures.add(limiter.submit(() -> jmxClient.readAttributesAsync(applicationMBean,
+                            List.of(JMXConstants.APPLICATION_MBEAN_STATE_ATTRIBUTE), applicationStatusTimeout))
+                    .handle((attributes, throwable) -> toApplicationStatus(applicationMBean, attributes, throwable)));
+        }
+        // The reads queued behind the limiter take at most one timeout per round, the overall bound, with one more
+        // timeout and a fixed slack to spare, only stops a future that never completes from hanging the caller
+        long rounds = (applicationMBeans.size() + maxConcurrentRequests - 1) / maxConcurrentRequests;
+        Duration overallTimeout = applicationStatusTimeout.multipliedBy(rounds + 1).plus(APPLICATION_STATUS_SLACK);
+        JmxClient.await(CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0]))
+                .orTimeout(overallTimeout.toMillis(), TimeUnit.MILLISECONDS));
+
+        // Loop through all the results, in the order of the MBeans, and add them to the list
+        List<ApplicationStatus> applicationStatusList = new ArrayList<>(futures.size());
+        for (CompletableFuture<ApplicationStatus> future : futures) {
+            ApplicationStatus applicationStatus = future.join();
+            // Applications removed since they were listed are left out
+            if (applicationStatus != null) {
+                applicationStatusList.add(applicationStatus);
             }
-            applicationStatusList.add(applicationStatus);
+        }
+        return applicationStatusList;
+    }
+
+    /**
+     * Creates the status of one application from the result of reading its State attribute
+     *
+     * @param applicationMBean The application MBean
+     * @param attributes       The attributes read, null if the MBean no longer exists or the read failed
+     * @param throwable        Why the read failed, null if it succeeded
+     * @return The application status, with the error set if the read failed, or null if the MBean no longer exists
+     */
+    private ApplicationStatus toApplicationStatus(MBeanInfo applicationMBean, Map<String, AttributeValue> attributes,
+                                                  Throwable throwable) {
+        if (throwable == null && attributes == null) {
+            return null;
+        }
+        ApplicationStatus applicationStatus = new ApplicationStatus();
+        // The objectName with like "WebSphere:service=com.ibm.websphere.application.ApplicationMBean,name=sample" carve out the application name
+        applicationStatus.setApplicationName(applicationMBean.getObjectName().split("name=")[1]);
+        if (throwable != null) {
+            Throwable cause = throwable;
+            while ((cause instanceof CompletionException || cause instanceof ExecutionException) && cause.getCause() != null) {
+                cause = cause.getCause();
+            }
+            if (cause instanceof HttpTimeoutException || cause instanceof TimeoutException) {
+                applicationStatus.setError("Timed out after " + applicationStatusTimeout.toMillis() + " ms");
+            } else {
+                applicationStatus.setError(cause.getMessage() != null ? cause.getMessage() : cause.toString());
+            }
+            logger.error("Failed to get the status of application " + applicationStatus.getApplicationName(), cause);
+            return applicationStatus;
+        }
+        AttributeValue state = attributes.get(JMXConstants.APPLICATION_MBEAN_STATE_ATTRIBUTE);
+        if (state != null) {
+            applicationStatus.setStatus(state.getValue());
+        }
+        return applicationStatus;
+    }
+
+
+    @Override
+    public ApplicationRestartSummary restartAllApplications() throws Exception {
+        return restartAllApplications(maxConcurrentRequests, List.of(), new ApplicationRestartListener() {
         });
+    }
 
-        return applicationStatusList;
+
+    @Override
+    public ApplicationRestartSummary restartAllApplications(int maxInFlight, List<List<String>> orderingGroups,
+                                                            ApplicationRestartListener listener) throws Exception {
+        logger.debug("Starting restartAllApplications with at most {} in flight", maxInFlight);
+
+        // Restart all the applications concurrently, a failure for one application does not stop the others
+        List<MBeanInfo> applicationMBeans = getApplicationMBeansInternal();
+        ApplicationRestartSummary summary = JmxClient.await(new ApplicationRestartEngine(jmxClient, maxInFlight)
+                .restartAsync(applicationMBeans, orderingGroups, listener));
+        logger.debug("Restarted {} applications in {} ms, {} failed", summary.getResults().size(),
+                summary.getElapsedMillis(), summary.getFailedCount());
+        return summary;
     }
 
 
     @Override
-    public void restartAllApplications() throws Exception {
-        logger.debug("Starting restartAllApplications");
+    public ApplicationRestartSummary restartApplications(Collection<String> applicationNames, int maxInFlight,
+                                                         ApplicationRestartListener listener) throws Exception {
+        logger.debug("Starting restartApplications of {}", applicationNames);
+        Preconditions.checkNotNull(applicationNames, "applicationNames cannot be null");
 
-        getApplicationMBeansInternal().forEach(application -> {
-            try {
-                jmxClient.invokeOperation(application, JMXConstants.APPLICATION_MBEAN_RESTART_OPERATION);
-            } catch (Exception e) {
-                logger.error("Failed to restart application", e);
+        // Only the given applications, the others are left running
+        Set<String> names = new HashSet<>(applicationNames);
+        List<MBeanInfo> applicationMBeans = new ArrayList<>();
+        for (MBeanInfo applicationMBean : getApplicationMBeansInternal()) {
+            if (names.contains(applicationMBean.getObjectName().split("name=")[1])) {
+                applicationMBeans.add(applicationMBean);
             }
-        });
+        }
+        return JmxClient.await(new ApplicationRestartEngine(jmxClient, maxInFlight)
+                .restartAsync(applicationMBeans, List.of(), listener));
+    }
+
+
+    @Override
+    public Map<String, Map<String, AttributeValue>> readAttributes(String objectNamePattern, List<String> attributeNames) throws Exception {
+        logger.debug("Starting readAttributes for {}", objectNamePattern);
+        return JmxClient.await(jmxClient.readAttributesAsync(objectNamePattern, attributeNames, maxConcurrentRequests));
+    }
+
+
+    @Override
+    public Map<MonitorStatsType, List<MBeanInfo>> discoverMonitorMBeans() throws Exception {
+        logger.debug("Starting discoverMonitorMBeans");
+        // One query per kind, all in flight at once, never from the query cache so new MBeans are seen
+        Map<MonitorStatsType, CompletableFuture<List<MBeanInfo>>> futures = new EnumMap<>(MonitorStatsType.class);
+        for (MonitorStatsType type : MonitorStatsType.values()) {
+            futures.put(type, jmxClient.queryMBeansAsync(type.getObjectNameQuery(), null, false));
+        }
+        Map<MonitorStatsType, List<MBeanInfo>> monitorMBeans = new EnumMap<>(MonitorStatsType.class);
+        for (Map.Entry<MonitorStatsType, CompletableFuture<List<MBeanInfo>>> entry : futures.entrySet()) {
+            monitorMBeans.put(entry.getKey(), JmxClient.await(entry.getValue()));
+        }
+        logger.debug("Discovered monitor MBeans {}", monitorMBeans);
+        return monitorMBeans;
+    }
+
+    @Override
+    public MonitorSample sampleMonitorStats(Map<MonitorStatsType, List<MBeanInfo>> monitorMBeans) throws Exception {
+        logger.debug("Starting sampleMonitorStats");
+        Preconditions.checkNotNull(monitorMBeans, "monitorMBeans cannot be null");
+        final long timestamp = System.currentTimeMillis();
+        final long start = System.nanoTime();
+
+        // The connector reads the attributes of one MBean per request, so the batch is every request in flight at
+        // once, multiplexed on the shared connection, with at most maxConcurrentRequests of them
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(maxConcurrentRequests);
+        List<MonitorStats> stats = new ArrayList<>();
+        List<CompletableFuture<Map<String, AttributeValue>>> futures = new ArrayList<>();
+        for (Map.Entry<MonitorStatsType, List<MBeanInfo>> entry : monitorMBeans.entrySet()) {
+            for (MBeanInfo mBean : entry.getValue()) {
+                MonitorStats stat = new MonitorStats();
+                stat.setType(entry.getKey());
+                stat.setObjectName(mBean.getObjectName());
+                stat.setName(getMonitorName(mBean.getObjectName()));
+                stats.add(stat);
+                futures.add(limiter.submit(() -> jmxClient.readAttributesAsync(mBean, entry.getKey().getAttributeNames())));
+            }
+        }
+        JmxClient.await(CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])));
+
+        List<MonitorStats> sampled = new ArrayList<>(stats.size());
+        int missingCount = 0;
+        for (int i = 0; i < stats.size(); i++) {
+            Map<String, AttributeValue> attributes = futures.get(i).join();
+            if (attributes == null) {
+                // Unregistered since it was discovered, e.g. its application was stopped
+                missingCount++;
+                continue;
+            }
+            MonitorStats stat = stats.get(i);
+            attributes.forEach((name, value) -> {
+                Double number = toDouble(value);
+                if (number != null) {
+                    stat.getValues().put(name, number);
+                }
+            });
+            sampled.add(stat);
+        }
+        return new MonitorSample(timestamp, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), sampled, missingCount);
+    }
+
+    /**
+     * @param objectName The object name of a monitor MBean
+     * @return The value of its name key, or the object name if it has none
+     */
+    static String getMonitorName(String objectName) {
+        try {
+            String name = new ObjectName(objectName).getKeyProperty(JMXConstants.MONITOR_MBEAN_NAME_KEY);
+            return name == null ? objectName : name;
+        } catch (MalformedObjectNameException e) {
+            return objectName;
+        }
+    }
+
+    /**
+     * @param value The attribute value, can be null
+     * @return The value as a number, or null if it is not a number
+     */
+    private static Double toDouble(AttributeValue value) {
+        if (value == null || value.getValue() == null) {
+            return null;
+        }
+        try {
+            return Double.valueOf(value.getValue());
+        } catch (NumberFormatException e) {
+            // Composite values, e.g. the statistics details, are not sampled
+            return null;
+        }
+    }
+
+    @Override
+    public JvmTelemetry sampleJvmTelemetry() throws Exception {
+        logger.debug("Starting sampleJvmTelemetry");
+        List<MBeanInfo> garbageCollectors = garbageCollectorMBeans;
+        if (garbageCollectors == null) {
+            // The collectors cannot change while the JVM lives
+            garbageCollectors = JmxClient.await(jmxClient.queryMBeansAsync(JMXConstants.GARBAGE_COLLECTOR_MBEAN_OBJECT_QUERY, null, false));
+            garbageCollectorMBeans = garbageCollectors;
+        }
+        final long timestamp = System.currentTimeMillis();
+
+        // Every MBean read at once, the platform MBeans have fixed object names so they are not queried
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(maxConcurrentRequests);
+        CompletableFuture<Map<String, AttributeValue>> memory = limiter.submit(() -> jmxClient.readAttributesAsync(
+                JmxClient.toMBeanInfo(JMXConstants.MEMORY_MBEAN_OBJECT_NAME), JvmTelemetryMapping.MEMORY_ATTRIBUTES));
+        CompletableFuture<Map<String, AttributeValue>> threading = limiter.submit(() -> jmxClient.readAttributesAsync(
+                JmxClient.toMBeanInfo(JMXConstants.THREADING_MBEAN_OBJECT_NAME), JvmTelemetryMapping.THREADING_ATTRIBUTES));
+        CompletableFuture<Map<String, AttributeValue>> classLoading = limiter.submit(() -> jmxClient.readAttributesAsync(
+                JmxClient.toMBeanInfo(JMXConstants.CLASS_LOADING_MBEAN_OBJECT_NAME), JvmTelemetryMapping.CLASS_LOADING_ATTRIBUTES));
+        CompletableFuture<Map<String, AttributeValue>> operatingSystem = limiter.submit(() -> jmxClient.readAttributesAsync(
+                JmxClient.toMBeanInfo(JMXConstants.OPERATING_SYSTEM_MBEAN_OBJECT_NAME), JvmTelemetryMapping.OPERATING_SYSTEM_ATTRIBUTES));
+        List<CompletableFuture<Map<String, AttributeValue>>> collectors = new ArrayList<>(garbageCollectors.size());
+        for (MBeanInfo garbageCollector : garbageCollectors) {
+            collectors.add(limiter.submit(() -> jmxClient.readAttributesAsync(garbageCollector,
+                    JvmTelemetryMapping.GARBAGE_COLLECTOR_ATTRIBUTES)));
+        }
+        List<CompletableFuture<?>> all = new ArrayList<>(collectors);
+        all.addAll(List.of(memory, threading, classLoading, operatingSystem));
+        JmxClient.await(CompletableFuture.allOf(all.toArray(new CompletableFuture<?>[0])));
+
+        JvmTelemetry telemetry = JvmTelemetryMapping.toJvmTelemetry(timestamp, toAttributeSource(memory.join()),
+                toAttributeSource(threading.join()), toAttributeSource(classLoading.join()),
+                toAttributeSource(operatingSystem.join()));
+        for (int i = 0; i < garbageCollectors.size(); i++) {
+            Map<String, AttributeValue> attributes = collectors.get(i).join();
+            if (attributes == null) {
+                // Another JVM, with other collectors, discover them again next time
+                garbageCollectorMBeans = null;
+                continue;
+            }
+            telemetry.getGarbageCollectors().add(JvmTelemetryMapping.toGarbageCollectorStats(
+                    getMonitorName(garbageCollectors.get(i).getObjectName()), toAttributeSource(attributes)));
+        }
+        return telemetry;
+    }
+
+    /**
+     * @param attributes The attributes read over the REST connector, null if the MBean does not exist
+     * @return The attributes for {@link JvmTelemetryMapping}, the composite values parsed once
+     */
+    private static JvmTelemetryMapping.AttributeSource toAttributeSource(Map<String, AttributeValue> attributes) {
+        Map<String, AttributeValue> values = orEmpty(attributes);
+        Map<String, JsonObject> composites = new HashMap<>();
+        return new JvmTelemetryMapping.AttributeSource() {
+            @Override
+            public long getLong(String name) {
+                return JMXServerManagerImpl.getLong(values, name);
+            }
+
+            @Override
+            public double getDouble(String name) {
+                return JMXServerManagerImpl.getDouble(values, name);
+            }
+
+            @Override
+            public long getCompositeLong(String name, String key) {
+                return JMXServerManagerImpl.getCompositeLong(
+                        composites.computeIfAbsent(name, ignored -> parseComposite(values.get(name))), key);
+            }
+        };
+    }
+
+    private static Map<String, AttributeValue> orEmpty(Map<String, AttributeValue> attributes) {
+        return attributes == null ? Map.of() : attributes;
+    }
+
+    /**
+     * @param attributes The attribute values by name
+     * @param name       The attribute name
+     * @return The value as a whole number, -1 if it is missing or not a number
+     */
+    private static long getLong(Map<String, AttributeValue> attributes, String name) {
+        double value = getDouble(attributes, name);
+        return Double.isNaN(value) ? -1 : (long) value;
+    }
+
+    /**
+     * @param attributes The attribute values by name
+     * @param name       The attribute name
+     * @return The value as a number, NaN if it is missing or not a number
+     */
+    private static double getDouble(Map<String, AttributeValue> attributes, String name) {
+        Double value = toDouble(attributes.get(name));
+        return value == null ? Double.NaN : value;
+    }
+
+    /**
+     * @param value A composite attribute value, e.g. a memory usage, can be null
+     * @return Its items, empty if the value is missing or not a composite
+     */
+    private static JsonObject parseComposite(AttributeValue value) {
+        if (value == null || value.getValue() == null) {
+            return new JsonObject();
+        }
+        try {
+            JsonElement element = JsonParser.parseString(value.getValue());
+            return element.isJsonObject() ? element.getAsJsonObject() : new JsonObject();
+        } catch (JsonParseException e) {
+            return new JsonObject();
+        }
+    }
+
+    /**
+     * @param composite The items of a composite value
+     * @param key       The key of the item
+     * @return The item as a whole number, unwrapping an encoded value, -1 if it is missing
+     */
+    private static long getCompositeLong(JsonObject composite, String key) {
+        JsonElement element = composite.get(key);
+        if (element != null && element.isJsonObject() && element.getAsJsonObject().has("value")) {
+            element = element.getAsJsonObject().get("value");
+        }
+        if (element == null || !element.isJsonPrimitive()) {
+            return -1;
+        }
+        try {
+            return element.getAsLong();
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    @Override
+    public AutoCloseable addNotificationListener(String objectNamePattern, JmxNotificationListener listener) throws Exception {
+        logger.debug("Starting addNotificationListener for {}", objectNamePattern);
+        JmxNotificationClient client;
+        synchronized (this) {
+            // One notification area is shared by all the listeners
+            if (notificationClient == null) {
+                notificationClient = jmxClient.createNotificationClient();
+            }
+            client = notificationClient;
+        }
+        return client.addListener(objectNamePattern, listener);
+    }
+
+    @Override
+    public JmxClientMetricsSnapshot getMetrics() {
+        logger.debug("Starting getMetrics");
+        return jmxClient.getMetrics().snapshot();
+    }
+
+    @Override
+    public void resetMetrics() {
+        logger.debug("Starting resetMetrics");
+        jmxClient.getMetrics().reset();
+    }
+
+    /**
+     * Closes the notification client, its listeners are not called anymore
+     */
+    @Override
+    public void close() {
+        logger.debug("Starting close");
+        closeNotificationClient();
+    }
+
+    private synchronized void closeNotificationClient() {
+        if (notificationClient != null) {
+            notificationClient.close();
+            notificationClient = null;
+        }
     }
 }
@@ -0,0 +1,114 @@
+package dev.roshin.openliberty.repl.controllers.jmx;
+
+import dev.roshin.openliberty.repl.controllers.jmx.domain.GarbageCollectorStats;
+import dev.roshin.openliberty.repl.controllers.jmx.domain.JvmTelemetry;
+import dev.roshin.openliberty.repl.controllers.jmx.rest.JMXConstants;
+
+import java.util.List;
+
+/**
+ * Maps the attributes of the platform MBeans to a {@link JvmTelemetry}, whichever connector read them.
+ * <p>
+ * The managers read the attributes listed here, each in its own way, and give them through an
+ * {@link AttributeSource}.
+ */
+final class JvmTelemetryMapping {
+    static final List<String> MEMORY_ATTRIBUTES = List.of(JMXConstants.MEMORY_MBEAN_HEAP_MEMORY_USAGE_ATTRIBUTE,
+            JMXConstants.MEMORY_MBEAN_NON_HEAP_MEMORY_USAGE_ATTRIBUTE);
+    static final List<String> THREADING_ATTRIBUTES = List.of(JMXConstants.THREADING_MBEAN_THREAD_COUNT_ATTRIBUTE,
+            JMXConstants.THREADING_MBEAN_PEAK_THREAD_COUNT_ATTRIBUTE,
+            JMXConstants.THREADING_MBEAN_DAEMON_THREAD_COUNT_ATTRIBUTE,
+            JMXConstants.THREADING_MBEAN_TOTAL_THREAD_ALLOCATED_BYTES_ATTRIBUTE);
+    static final List<String> CLASS_LOADING_ATTRIBUTES = List.of(JMXConstants.CLASS_LOADING_MBEAN_LOADED_CLASS_COUNT_ATTRIBUTE,
+            JMXConstants.CLASS_LOADING_MBEAN_TOTAL_LOADED_CLASS_COUNT_ATTRIBUTE,
+            JMXConstants.CLASS_LOADING_MBEAN_UNLOADED_CLASS_COUNT_ATTRIBUTE);
+    static final List<String> OPERATING_SYSTEM_ATTRIBUTES = List.of(JMXConstants.OPERATING_SYSTEM_MBEAN_PROCESS_CPU_LOAD_ATTRIBUTE,
+            JMXConstants.OPERATING_SYSTEM_MBEAN_PROCESS_CPU_TIME_ATTRIBUTE,
+            JMXConstants.OPERATING_SYSTEM_MBEAN_CPU_LOAD_ATTRIBUTE,
+            JMXConstants.OPERATING_SYSTEM_MBEAN_SYSTEM_CPU_LOAD_ATTRIBUTE,
+            JMXConstants.OPERATING_SYSTEM_MBEAN_AVAILABLE_PROCESSORS_ATTRIBUTE,
+            JMXConstants.OPERATING_SYSTEM_MBEAN_SYSTEM_LOAD_AVERAGE_ATTRIBUTE);
+    static final List<String> GARBAGE_COLLECTOR_ATTRIBUTES = List.of(JMXConstants.GARBAGE_COLLECTOR_MBEAN_COLLECTION_COUNT_ATTRIBUTE,
+            JMXConstants.GARBAGE_COLLECTOR_MBEAN_COLLECTION_TIME_ATTRIBUTE);
+
+    /**
+     * The attributes read from one MBean
+     */
+    interface AttributeSource {
+
+        /**
+         * @param name The attribute name
+         * @return The value as a whole number, -1 if it is missing or not a number
+         */
+        long getLong(String name);
+
+        /**
+         * @param name The attribute name
+         * @return The value as a number, NaN if it is missing or not a number
+         */
+        double getDouble(String name);
+
+        /**
+         * @param name The name of a composite attribute, e.g. a memory usage
+         * @param key  The key of the item
+         * @return The item as a whole number, -1 if it is missing
+         */
+        long getCompositeLong(String name, String key);
+    }
+
+    private JvmTelemetryMapping() {
+    }
+
+    /**
+     * @param timestamp       When the sample was taken
+     * @param memory          The attributes of the Memory MBean
+     * @param threading       The attributes of the Threading MBean
+     * @param classLoading    The attributes of the ClassLoading MBean
+     * @param operatingSystem The attributes of the OperatingSystem MBean
+     * @return The sample, without its garbage collectors
+     */
+    static JvmTelemetry toJvmTelemetry(long timestamp, AttributeSource memory, AttributeSource threading,
+                                       AttributeSource classLoading, AttributeSource operatingSystem) {
+        JvmTelemetry telemetry = new JvmTelemetry();
+        telemetry.setTimestamp(timestamp);
+        String heap = JMXConstants.MEMORY_MBEAN_HEAP_MEMORY_USAGE_ATTRIBUTE;
+        telemetry.setHeapUsed(memory.getCompositeLong(heap, "used"));
+        telemetry.setHeapCommitted(memory.getCompositeLong(heap, "committed"));
+        telemetry.setHeapMax(memory.getCompositeLong(heap, "max"));
+        String nonHeap = JMXConstants.MEMORY_MBEAN_NON_HEAP_MEMORY_USAGE_ATTRIBUTE;
+        telemetry.setNonHeapUsed(memory.getCompositeLong(nonHeap, "used"));
+        telemetry.setNonHeapCommitted(memory.getCompositeLong(nonHeap, "committed"));
+
+        telemetry.setThreadCount(threading.getLong(JMXConstants.THREADING_MBEAN_THREAD_COUNT_ATTRIBUTE));
+        telemetry.setPeakThreadCount(threading.getLong(JMXConstants.THREADING_MBEAN_PEAK_THREAD_COUNT_ATTRIBUTE));
+        telemetry.setDaemonThreadCount(threading.getLong(JMXConstants.THREADING_MBEAN_DAEMON_THREAD_COUNT_ATTRIBUTE));
+        telemetry.setTotalAllocatedBytes(threading.getLong(JMXConstants.THREADING_MBEAN_TOTAL_THREAD_ALLOCATED_BYTES_ATTRIBUTE));
+
+        telemetry.setLoadedClassCount(classLoading.getLong(JMXConstants.CLASS_LOADING_MBEAN_LOADED_CLASS_COUNT_ATTRIBUTE));
+        telemetry.setTotalLoadedClassCount(classLoading.getLong(JMXConstants.CLASS_LOADING_MBEAN_TOTAL_LOADED_CLASS_COUNT_ATTRIBUTE));
+        telemetry.setUnloadedClassCount(classLoading.getLong(JMXConstants.CLASS_LOADING_MBEAN_UNLOADED_CLASS_COUNT_ATTRIBUTE));
+
+        telemetry.setProcessCpuLoad(operatingSystem.getDouble(JMXConstants.OPERATING_SYSTEM_MBEAN_PROCESS_CPU_LOAD_ATTRIBUTE));
+        telemetry.setProcessCpuTimeNanos(operatingSystem.getLong(JMXConstants.OPERATING_SYSTEM_MBEAN_PROCESS_CPU_TIME_ATTRIBUTE));
+        // CpuLoad replaced SystemCpuLoad in JDK 14
+        double cpuLoad = operatingSystem.getDouble(JMXConstants.OPERATING_SYSTEM_MBEAN_CPU_LOAD_ATTRIBUTE);
+        telemetry.setSystemCpuLoad(Double.isNaN(cpuLoad)
+                ? operatingSystem.getDouble(JMXConstants.OPERATING_SYSTEM_MBEAN_SYSTEM_CPU_LOAD_ATTRIBUTE) : cpuLoad);
+        telemetry.setAvailableProcessors(operatingSystem.getLong(JMXConstants.OPERATING_SYSTEM_MBEAN_AVAILABLE_PROCESSORS_ATTRIBUTE));
+        telemetry.setSystemLoadAverage(operatingSystem.getDouble(JMXConstants.OPERATING_SYSTEM_MBEAN_SYSTEM_LOAD_AVERAGE_ATTRIBUTE));
+        return telemetry;
+    }
+
+    /**
+     * @param name       The name of the collector
+     * @param attributes The attributes of its GarbageCollector MBean
+     * @return The statistics of the collector
+     */
+    static GarbageCollectorStats toGarbageCollectorStats(String name, AttributeSource attributes) {
+        GarbageCollectorStats stats = new GarbageCollectorStats();
+        stats.setName(name);
+        stats.setCollectionCount(attributes.getLong(JMXConstants.GARBAGE_COLLECTOR_MBEAN_COLLECTION_COUNT_ATTRIBUTE));
+        stats.setCollectionTimeMillis(attributes.getLong(JMXConstants.GARBAGE_COLLECTOR_MBEAN_COLLECTION_TIME_ATTRIBUTE));
+        return stats;
+    }
+}
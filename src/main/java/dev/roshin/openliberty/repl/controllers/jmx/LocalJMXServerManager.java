@@ -0,0 +1,740 @@
+package dev.roshin.openliberty.repl.controllers.jmx;
+
+import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.gson.Gson;
+import dev.roshin.openliberty.repl.config.generated.LibertyPluginConfigs;
+import dev.roshin.openliberty.repl.controllers.jmx.domain.ApplicationRestartSummary;
+import dev.roshin.openliberty.repl.controllers.jmx.domain.ApplicationStatus;
+import dev.roshin.openliberty.repl.controllers.jmx.domain.JvmTelemetry;
+import dev.roshin.openliberty.repl.controllers.jmx.domain.MonitorSample;
+import dev.roshin.openliberty.repl.controllers.jmx.domain.MonitorStats;
+import dev.roshin.openliberty.repl.controllers.jmx.domain.MonitorStatsType;
+import dev.roshin.openliberty.repl.controllers.jmx.domain.ServerInfo;
+import dev.roshin.openliberty.repl.controllers.jmx.rest.JMXConstants;
+import dev.roshin.openliberty.repl.controllers.jmx.rest.JmxClient;
+import dev.roshin.openliberty.repl.controllers.jmx.rest.JmxNotificationListener;
+import dev.roshin.openliberty.repl.controllers.jmx.rest.domain.MBeanInfo;
+import dev.roshin.openliberty.repl.controllers.jmx.rest.domain.ProbeResult;
+import dev.roshin.openliberty.repl.controllers.jmx.rest.domain.attributes.AttributeValue;
+import dev.roshin.openliberty.repl.controllers.jmx.rest.metrics.JmxClientMetricsSnapshot;
+import dev.roshin.openliberty.repl.controllers.utils.ConcurrencyLimiter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.InstanceNotFoundException;
+import javax.management.MBeanAttributeInfo;
+import javax.management.MBeanServerConnection;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+import javax.management.remote.JMXConnector;
+import javax.management.remote.JMXConnectorFactory;
+import javax.management.remote.JMXServiceURL;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Manages the server through the local connector of the localConnector-1.0 feature, the standard RMI connector of the
+ * JVM, bound to the loopback interface.
+ * <p>
+ * The REPL always runs on the same host as the server, and the local connector has no TLS, no JSON and no HTTP
+ * request per call, so the frequent reads, the monitor and JVM samples, the application states and the attribute
+ * reads, go through it. The rest, stopping the server, restarting applications, the server information, which is
+ * cached anyway, and the notifications, is done by the REST manager given, which also takes over any call when the
+ * local connector cannot be reached, e.g. while the server restarts.
+ * <p>
+ * The connection is opened on first use and opened again, from the address file, after it failed. It is opened on
+ * another thread, one attempt shared by the callers, and waited for at most {@link #CONNECT_TIMEOUT}, so a connector
+ * that does not answer never blocks the callers for long nor holds the lock of the manager.
+ */
+public class LocalJMXServerManager implements JMXServerManager {
+    public static final String LOCAL_CONNECTOR_ADDRESS_FILE = "logs/state/com.ibm.ws.jmx.local.address";
+    public static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(5);
+
+    // Daemon threads connecting to the local connector, they must not keep the REPL alive
+    private static final ExecutorService executor = Executors.newCachedThreadPool(new ThreadFactoryBuilder()
+            .setNameFormat("local-jmx-%d")
+            .setDaemon(true)
+            .build());
+
+    // The key of the application and garbage collector names in their object names
+    private static final String NAME_KEY = "name";
+    private static final Gson GSON = new Gson();
+
+    private final Path addressFile;
+    private final JMXServerManager restServerManager;
+    private final Duration applicationStatusTimeout;
+    private final Logger logger;
+
+    private JMXConnector connector;
+    private MBeanServerConnection connection;
+    // The connection being opened, shared by the callers waiting for it
+    private CompletableFuture<JMXConnector> connecting;
+    private volatile Set<ObjectName> garbageCollectorNames;
+
+    /**
+     * @param addressFile       The file the server writes the local connector address to
+     * @param restServerManager The manager used for what the local connector does not do, and when it cannot be
+     *                          reached
+     */
+    public LocalJMXServerManager(Path addressFile, JMXServerManager restServerManager) {
+        this(addressFile, restServerManager, JMXServerManagerImpl.DEFAULT_APPLICATION_STATUS_TIMEOUT);
+    }
+
+    /**
+     * @param addressFile              The file the server writes the local connector address to
+     * @param restServerManager        The manager used for what the local connector does not do, and when it cannot
+     *                                 be reached
+     * @param applicationStatusTimeout How long to wait for the status of one application before reporting it as
+     *                                 failed
+     */
+    public LocalJMXServerManager(Path addressFile, JMXServerManager restServerManager, Duration applicationStatusTimeout) {
+        Preconditions.checkNotNull(addressFile, "addressFile cannot be null");
+        Preconditions.checkNotNull(restServerManager, "restServerManager cannot be null");
+        Preconditions.checkNotNull(applicationStatusTimeout, "applicationStatusTimeout cannot be null");
+        this.addressFile = addressFile;
+        this.restServerManager = restServerManager;
+        this.applicationStatusTimeout = applicationStatusTimeout;
+        this.logger = LoggerFactory.getLogger(getClass());
+    }
+
+    /**
+     * Chooses the local connector if the server has one that can be connected to, the REST connector otherwise
+     *
+     * @param addressFile       The file the server writes the local connector address to, may not exist
+     * @param restServerManager The manager using the REST connector
+     * @return A {@link LocalJMXServerManager} backed by the REST manager, or the REST manager itself
+     */
+    public static JMXServerManager createPreferringLocal(Path addressFile, JMXServerManager restServerManager) {
+        Logger logger = LoggerFactory.getLogger(LocalJMXServerManager.class);
+        LocalJMXServerManager localServerManager = new LocalJMXServerManager(addressFile, restServerManager);
+        try {
+            localServerManager.getConnection();
+            logger.debug("Using the local connector at {}", addressFile);
+            return localServerManager;
+        } catch (IOException e) {
+            logger.debug("The local connector is not available, using the REST connector", e);
+            // A connection still being opened is closed when it is
+            localServerManager.disconnect();
+            return restServerManager;
+        }
+    }
+
+    /**
+     * Gets the path of the file the server writes the local connector address to, once the connector is available
+     *
+     * @param libertyPluginConfigs The liberty plugin configuration
+     * @return The path to ${server.output.dir}/logs/state/com.ibm.ws.jmx.local.address, which may not exist
+     */
+    public static Path getLocalConnectorAddressFile(LibertyPluginConfigs libertyPluginConfigs) {
+        return libertyPluginConfigs.getServerOutputDirectory().resolve(LOCAL_CONNECTOR_ADDRESS_FILE);
+    }
+
+    /**
+     * Reads the local connector address from the com.ibm.ws.jmx.local.address file
+     *
+     * @param addressFile The path to the com.ibm.ws.jmx.local.address file
+     * @return The JMX service URL of the local connector
+     * @throws IOException If the file cannot be read or does not contain a valid JMX service URL
+     */
+    public static JMXServiceURL readLocalConnectorURL(Path addressFile) throws IOException {
+        return new JMXServiceURL(Files.readString(addressFile).trim());
+    }
+
+    /**
+     * @return The connection, opened from the address file if there is none
+     * @throws IOException If the address file cannot be read or the connector cannot be reached in time
+     */
+    private MBeanServerConnection getConnection() throws IOException {
+        CompletableFuture<JMXConnector> attempt;
+        synchronized (this) {
+            if (connection != null) {
+                return connection;
+            }
+            attempt = connecting;
+            if (attempt == null) {
+                CompletableFuture<JMXConnector> started = CompletableFuture.supplyAsync(this::connect, executor);
+                connecting = started;
+                // May complete at once, the lock is reentrant
+                started.whenComplete((opened, throwable) -> connected(started, opened));
+                attempt = started;
+            }
+        }
+        try {
+            attempt.get(CONNECT_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new IOException("The local connector did not answer within " + CONNECT_TIMEOUT.toMillis() + " ms", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause() instanceof UncheckedIOException ? e.getCause().getCause() : e.getCause();
+            throw cause instanceof IOException ? (IOException) cause : new IOException(cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while connecting to the local connector");
+        }
+        synchronized (this) {
+            if (connection == null) {
+                // Disconnected while connecting
+                throw new IOException("The local connection was closed");
+            }
+            return connection;
+        }
+    }
+
+    /**
+     * Opens a connection, without holding the lock
+     *
+     * @return The connector, its connection opened
+     */
+    private JMXConnector connect() {
+        JMXConnector opened = null;
+        try {
+            // The address changes each time the server starts
+            JMXServiceURL url = readLocalConnectorURL(addressFile);
+            logger.debug("Connecting to the local connector at {}", url);
+            opened = JMXConnectorFactory.connect(url);
+            opened.getMBeanServerConnection();
+            return opened;
+        } catch (IOException e) {
+            if (opened != null) {
+                closeQuietly(opened);
+            }
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Keeps the connection of an attempt that completed, or closes it if the attempt is no longer wanted
+     *
+     * @param attempt The attempt
+     * @param opened  Its connector, null if it failed
+     */
+    private void connected(CompletableFuture<JMXConnector> attempt, JMXConnector opened) {
+        synchronized (this) {
+            if (connecting == attempt) {
+                connecting = null;
+                if (opened != null) {
+                    try {
+                        connection = opened.getMBeanServerConnection();
+                        connector = opened;
+                        return;
+                    } catch (IOException e) {
+                        logger.debug("The local connection failed as soon as it was opened", e);
+                    }
+                }
+            }
+        }
+        if (opened != null) {
+            closeQuietly(opened);
+        }
+    }
+
+    /**
+     * Closes the connection, or the one being opened, the next call opens a new one
+     */
+    private synchronized void disconnect() {
+        if (connector != null) {
+            closeQuietly(connector);
+        }
+        connector = null;
+        connection = null;
+        // Closed when it completes, it is no longer the current attempt
+        connecting = null;
+        garbageCollectorNames = null;
+    }
+
+    @Override
+    public void close() {
+        logger.debug("Starting close");
+        disconnect();
+        restServerManager.close();
+    }
+
+    private void closeQuietly(JMXConnector jmxConnector) {
+        try {
+            jmxConnector.close();
+        } catch (IOException e) {
+            logger.debug("Failed to close the local connector", e);
+        }
+    }
+
+    /**
+     * Runs an operation with the local connection, or with the REST manager if the local connector cannot be reached
+     *
+     * @param operation The operation over the local connection
+     * @param fallback  The same operation over the REST connector
+     * @param <T>       The result type
+     * @return The result of the operation
+     * @throws Exception If the operation fails for another reason than the connection
+     */
+    private <T> T callLocally(LocalOperation<T> operation, RestOperation<T> fallback) throws Exception {
+        MBeanServerConnection mBeanServer;
+        try {
+            mBeanServer = getConnection();
+        } catch (IOException e) {
+            logger.debug("The local connector cannot be reached, using the REST connector", e);
+            return fallback.call();
+        }
+        try {
+            return operation.call(mBeanServer);
+        } catch (IOException e) {
+            // The server stopped or restarted, the address is read again next time
+            logger.debug("The local connection failed, using the REST connector", e);
+            disconnect();
+            return fallback.call();
+        }
+    }
+
+    @Override
+    public boolean isConnectable() {
+        logger.debug("Trying to connect to JMX Server");
+        try {
+            ProbeResult probeResult = probe(JmxClient.DEFAULT_PROBE_TIMEOUT);
+            if (probeResult.isUp()) {
+                logger.debug("Successfully connected to JMX Server in {} us", probeResult.getLatencyMicros());
+                return true;
+            }
+            logger.error("Failed to connect to JMX Server: {}", probeResult);
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    @Override
+    public ProbeResult probe(Duration timeout) throws InterruptedException {
+        logger.debug("Starting probe");
+        long start = System.nanoTime();
+        // Connecting can block on an address that is no longer listened to, so the wait is bounded, on the threads of
+        // the manager as the call blocks
+        CompletableFuture<Long> startTime = CompletableFuture.supplyAsync(() -> {
+            try {
+                return ((Number) getConnection().getAttribute(new ObjectName(JMXConstants.RUNTIME_MBEAN_OBJECT_NAME),
+                        JMXConstants.RUNTIME_MBEAN_START_TIME_ATTRIBUTE)).longValue();
+            } catch (IOException e) {
+                disconnect();
+                throw new IllegalStateException(e);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        }, executor);
+        ProbeResult result = new ProbeResult();
+        try {
+            result.setServerStartTime(startTime.get(timeout.toMillis(), TimeUnit.MILLISECONDS));
+            result.setStatus(ProbeResult.Status.UP);
+        } catch (TimeoutException e) {
+            // Still connecting or hung, the server may still answer over REST
+            startTime.cancel(true);
+            logger.debug("The local connector did not answer within {} ms, probing the REST connector", timeout.toMillis());
+            return restServerManager.probe(timeout);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause().getCause() != null ? e.getCause().getCause() : e.getCause();
+            if (!(cause instanceof IOException)) {
+                result.setStatus(ProbeResult.Status.ERROR);
+                result.setMessage(cause.toString());
+            } else {
+                // The local connector is gone, the server may still answer over REST
+                logger.debug("The local connector cannot be reached, probing the REST connector", cause);
+                return restServerManager.probe(timeout);
+            }
+        }
+        result.setLatencyMicros(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start));
+        return result;
+    }
+
+    /**
+     * Creates the status of one application from the result of reading its State attribute
+     *
+     * @param applicationName   The object name of the application MBean
+     * @param state             The state read, null if the read failed
+     * @param throwable         Why the read failed, null if it succeeded
+     * @param connectionFailure Set to the failure of the connection, if the read failed because of it
+     * @return The application status, with the error set if the read failed, or null if the MBean no longer exists
+     */
+    private ApplicationStatus toApplicationStatus(ObjectName applicationName, Object state, Throwable throwable,
+                                                  AtomicReference<IOException> connectionFailure) {
+        ApplicationStatus applicationStatus = new ApplicationStatus();
+        applicationStatus.setApplicationName(applicationName.getKeyProperty(NAME_KEY));
+        if (throwable == null) {
+            applicationStatus.setStatus(String.valueOf(state));
+            return applicationStatus;
+        }
+        Throwable cause = JmxClient.unwrap(throwable);
+        if (cause instanceof InstanceNotFoundException) {
+            // Removed since it was listed
+            return null;
+        }
+        if (cause instanceof IOException) {
+            connectionFailure.compareAndSet(null, (IOException) cause);
+        } else if (cause instanceof TimeoutException) {
+            applicationStatus.setError("Timed out after " + applicationStatusTimeout.toMillis() + " ms");
+        } else {
+            applicationStatus.setError(cause.getMessage() != null ? cause.getMessage() : cause.toString());
+        }
+        logger.error("Failed to get the status of application " + applicationStatus.getApplicationName(), cause);
+        return applicationStatus;
+    }
+
+    @Override
+    public ServerInfo getServerInfo() {
+        // Cached per server process by the REST manager, only read once
+        return restServerManager.getServerInfo();
+    }
+
+    @Override
+    public boolean stopServer() throws Exception {
+        logger.debug("Starting stopServer");
+        disconnect();
+        return restServerManager.stopServer();
+    }
+
+    @Override
+    public List<ApplicationStatus> getAllApplicationStatus() throws Exception {
+        logger.debug("Starting getAllApplicationStatus");
+        return callLocally(mBeanServer -> {
+            // Read the State attribute of each application concurrently, as the REST manager does, with at most
+            // DEFAULT_MAX_CONCURRENT_REQUESTS calls in flight. An RMI call cannot be cancelled, so a slow application
+            // is reported as failed after its timeout while its call keeps its slot until it returns
+            List<ObjectName> applicationNames = new ArrayList<>(queryNames(mBeanServer, JMXConstants.APPLICATION_MBEAN_OBJECT_QUERY));
+            ConcurrencyLimiter limiter = new ConcurrencyLimiter(JmxClient.DEFAULT_MAX_CONCURRENT_REQUESTS);
+            AtomicReference<IOException> connectionFailure = new AtomicReference<>();
+            List<CompletableFuture<ApplicationStatus>> futures = new ArrayList<>(applicationNames.size());
+            for (ObjectName applicationName : applicationNames) {
+                CompletableFuture<Object> state = new CompletableFuture<>();
+                limiter.submit(() -> {
+                    CompletableFuture<Object> read = CompletableFuture.supplyAsync(() -> {
+                        try {
+                            return mBeanServer.getAttribute(applicationName, JMXConstants.APPLICATION_MBEAN_STATE_ATTRIBUTE);
+                        } catch (Exception e) {
+                            throw new CompletionException(e);
+                        }
+                    }, executor);
+                    read.copy().orTimeout(applicationStatusTimeout.toMillis(), TimeUnit.MILLISECONDS)
+                            .whenComplete((value, throwable) -> {
+                                if (throwable != null) {
+                                    state.completeExceptionally(throwable);
+                                } else {
+                                    state.complete(value);
+                                }
+                            });
+                    return read;
+                });
+                futures.add(state.handle((value, throwable) ->
+                        toApplicationStatus(applicationName, value, throwable, connectionFailure)));
+            }
+            // As the REST manager, one timeout per round, one more and a fixed slack to spare
+            long rounds = (applicationNames.size() + JmxClient.DEFAULT_MAX_CONCURRENT_REQUESTS - 1)
+                    / JmxClient.DEFAULT_MAX_CONCURRENT_REQUESTS;
+            Duration overallTimeout = applicationStatusTimeout.multipliedBy(rounds + 1)
+                    .plus(JMXServerManagerImpl.APPLICATION_STATUS_SLACK);
+            JmxClient.await(CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0]))
+                    .orTimeout(overallTimeout.toMillis(), TimeUnit.MILLISECONDS));
+            if (connectionFailure.get() != null) {
+                // The connection failed, all the applications are read again over REST
+                throw connectionFailure.get();
+            }
+
+            List<ApplicationStatus> applicationStatusList = new ArrayList<>(futures.size());
+            for (CompletableFuture<ApplicationStatus> future : futures) {
+                ApplicationStatus applicationStatus = future.join();
+                // Applications removed since they were listed are left out
+                if (applicationStatus != null) {
+                    applicationStatusList.add(applicationStatus);
+                }
+            }
+            return applicationStatusList;
+        }, restServerManager::getAllApplicationStatus);
+    }
+
+    @Override
+    public ApplicationRestartSummary restartAllApplications() throws Exception {
+        return restServerManager.restartAllApplications();
+    }
+
+    @Override
+    public ApplicationRestartSummary restartAllApplications(int maxInFlight, List<List<String>> orderingGroups,
+                                                            ApplicationRestartListener listener) throws Exception {
+        return restServerManager.restartAllApplications(maxInFlight, orderingGroups, listener);
+    }
+
+    @Override
+    public ApplicationRestartSummary restartApplications(Collection<String> applicationNames, int maxInFlight,
+                                                         ApplicationRestartListener listener) throws Exception {
+        return restServerManager.restartApplications(applicationNames, maxInFlight, listener);
+    }
+
+    @Override
+    public Map<String, Map<String, AttributeValue>> readAttributes(String objectNamePattern, List<String> attributeNames) throws Exception {
+        logger.debug("Starting readAttributes for {}", objectNamePattern);
+        return callLocally(mBeanServer -> {
+            Map<String, Map<String, AttributeValue>> values = new LinkedHashMap<>();
+            for (ObjectName objectName : queryNames(mBeanServer, objectNamePattern)) {
+                String[] names = attributeNames.isEmpty()
+                        ? Arrays.stream(mBeanServer.getMBeanInfo(objectName).getAttributes())
+                        .map(MBeanAttributeInfo::getName).toArray(String[]::new)
+                        : attributeNames.toArray(new String[0]);
+                Map<String, Object> attributes = getAttributes(mBeanServer, objectName, names);
+                if (attributes == null) {
+                    continue;
+                }
+                Map<String, AttributeValue> mBeanValues = new LinkedHashMap<>();
+                attributes.forEach((name, value) -> mBeanValues.put(name, toAttributeValue(value)));
+                values.put(objectName.toString(), mBeanValues);
+            }
+            return values;
+        }, () -> restServerManager.readAttributes(objectNamePattern, attributeNames));
+    }
+
+    @Override
+    public Map<MonitorStatsType, List<MBeanInfo>> discoverMonitorMBeans() throws Exception {
+        logger.debug("Starting discoverMonitorMBeans");
+        return callLocally(mBeanServer -> {
+            Map<MonitorStatsType, List<MBeanInfo>> monitorMBeans = new EnumMap<>(MonitorStatsType.class);
+            for (MonitorStatsType type : MonitorStatsType.values()) {
+                List<MBeanInfo> mBeans = new ArrayList<>();
+                // Described as the REST connector would, so the sample can be read by either
+                for (ObjectName objectName : queryNames(mBeanServer, type.getObjectNameQuery())) {
+                    mBeans.add(JmxClient.toMBeanInfo(objectName.toString()));
+                }
+                monitorMBeans.put(type, mBeans);
+            }
+            return monitorMBeans;
+        }, restServerManager::discoverMonitorMBeans);
+    }
+
+    @Override
+    public MonitorSample sampleMonitorStats(Map<MonitorStatsType, List<MBeanInfo>> monitorMBeans) throws Exception {
+        logger.debug("Starting sampleMonitorStats");
+        Preconditions.checkNotNull(monitorMBeans, "monitorMBeans cannot be null");
+        return callLocally(mBeanServer -> {
+            final long timestamp = System.currentTimeMillis();
+            final long start = System.nanoTime();
+            // One call per MBean, each a round trip on the loopback interface
+            List<MonitorStats> sampled = new ArrayList<>();
+            int missingCount = 0;
+            for (Map.Entry<MonitorStatsType, List<MBeanInfo>> entry : monitorMBeans.entrySet()) {
+                String[] attributeNames = entry.getKey().getAttributeNames().toArray(new String[0]);
+                for (MBeanInfo mBean : entry.getValue()) {
+                    Map<String, Object> attributes = getAttributes(mBeanServer, new ObjectName(mBean.getObjectName()), attributeNames);
+                    if (attributes == null) {
+                        // Unregistered since it was discovered, e.g. its application was stopped
+                        missingCount++;
+                        continue;
+                    }
+                    MonitorStats stat = new MonitorStats();
+                    stat.setType(entry.getKey());
+                    stat.setObjectName(mBean.getObjectName());
+                    stat.setName(JMXServerManagerImpl.getMonitorName(mBean.getObjectName()));
+                    attributes.forEach((name, value) -> {
+                        if (value instanceof Number) {
+                            stat.getValues().put(name, ((Number) value).doubleValue());
+                        }
+                    });
+                    sampled.add(stat);
+                }
+            }
+            return new MonitorSample(timestamp, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), sampled, missingCount);
+        }, () -> restServerManager.sampleMonitorStats(monitorMBeans));
+    }
+
+    @Override
+    public JvmTelemetry sampleJvmTelemetry() throws Exception {
+        logger.debug("Starting sampleJvmTelemetry");
+        return callLocally(this::sampleJvmTelemetry, restServerManager::sampleJvmTelemetry);
+    }
+
+    /**
+     * Reads the platform MBeans of the server JVM over the local connection
+     *
+     * @param mBeanServer The local connection
+     * @return The sample
+     * @throws Exception If the MBeans cannot be read
+     */
+    private JvmTelemetry sampleJvmTelemetry(MBeanServerConnection mBeanServer) throws Exception {
+        Set<ObjectName> garbageCollectors = garbageCollectorNames;
+        if (garbageCollectors == null) {
+            // The collectors cannot change while the JVM lives
+            garbageCollectors = queryNames(mBeanServer, JMXConstants.GARBAGE_COLLECTOR_MBEAN_OBJECT_QUERY);
+            garbageCollectorNames = garbageCollectors;
+        }
+        long timestamp = System.currentTimeMillis();
+        JvmTelemetry telemetry = JvmTelemetryMapping.toJvmTelemetry(timestamp,
+                readAttributeSource(mBeanServer, JMXConstants.MEMORY_MBEAN_OBJECT_NAME, JvmTelemetryMapping.MEMORY_ATTRIBUTES),
+                readAttributeSource(mBeanServer, JMXConstants.THREADING_MBEAN_OBJECT_NAME, JvmTelemetryMapping.THREADING_ATTRIBUTES),
+                readAttributeSource(mBeanServer, JMXConstants.CLASS_LOADING_MBEAN_OBJECT_NAME, JvmTelemetryMapping.CLASS_LOADING_ATTRIBUTES),
+                readAttributeSource(mBeanServer, JMXConstants.OPERATING_SYSTEM_MBEAN_OBJECT_NAME,
+                        JvmTelemetryMapping.OPERATING_SYSTEM_ATTRIBUTES));
+
+        for (ObjectName garbageCollector : garbageCollectors) {
+            Map<String, Object> attributes = getAttributes(mBeanServer, garbageCollector,
+                    JvmTelemetryMapping.GARBAGE_COLLECTOR_ATTRIBUTES.toArray(new String[0]));
+            if (attributes == null) {
+                garbageCollectorNames = null;
+                continue;
+            }
+            telemetry.getGarbageCollectors().add(JvmTelemetryMapping.toGarbageCollectorStats(
+                    garbageCollector.getKeyProperty(NAME_KEY), toAttributeSource(attributes)));
+        }
+        return telemetry;
+    }
+
+    /**
+     * @param mBeanServer    The connection
+     * @param objectName     The MBean
+     * @param attributeNames The attribute names
+     * @return The attributes for {@link JvmTelemetryMapping}
+     */
+    private static JvmTelemetryMapping.AttributeSource readAttributeSource(MBeanServerConnection mBeanServer, String objectName,
+                                                                         List<String> attributeNames) throws Exception {
+        return toAttributeSource(getAttributes(mBeanServer, objectName, attributeNames.toArray(new String[0])));
+    }
+
+    /**
+     * @param attributes The attribute values read over the local connection
+     * @return The attributes for {@link JvmTelemetryMapping}
+     */
+    private static JvmTelemetryMapping.AttributeSource toAttributeSource(Map<String, Object> attributes) {
+        return new JvmTelemetryMapping.AttributeSource() {
+            @Override
+            public long getLong(String name) {
+                Object value = attributes.get(name);
+                return value instanceof Number ? ((Number) value).longValue() : -1;
+            }
+
+            @Override
+            public double getDouble(String name) {
+                Object value = attributes.get(name);
+                return value instanceof Number ? ((Number) value).doubleValue() : Double.NaN;
+            }
+
+            @Override
+            public long getCompositeLong(String name, String key) {
+                Object composite = attributes.get(name);
+                if (!(composite instanceof CompositeData) || !((CompositeData) composite).containsKey(key)) {
+                    return -1;
+                }
+                Object value = ((CompositeData) composite).get(key);
+                return value instanceof Number ? ((Number) value).longValue() : -1;
+            }
+        };
+    }
+
+    @Override
+    public AutoCloseable addNotificationListener(String objectNamePattern, JmxNotificationListener listener) throws Exception {
+        // The REST notification area follows the MBeans matching a pattern as they come and go
+        return restServerManager.addNotificationListener(objectNamePattern, listener);
+    }
+
+    @Override
+    public JmxClientMetricsSnapshot getMetrics() {
+        return restServerManager.getMetrics();
+    }
+
+    @Override
+    public void resetMetrics() {
+        restServerManager.resetMetrics();
+    }
+
+    /**
+     * @param mBeanServer       The connection
+     * @param objectNamePattern The object name pattern
+     * @return The names of the matching MBeans, sorted
+     */
+    private static Set<ObjectName> queryNames(MBeanServerConnection mBeanServer, String objectNamePattern) throws Exception {
+        return new TreeSet<>(mBeanServer.queryNames(new ObjectName(objectNamePattern), null));
+    }
+
+    private static Map<String, Object> getAttributes(MBeanServerConnection mBeanServer, String objectName,
+                                                     String... attributeNames) throws Exception {
+        Map<String, Object> attributes = getAttributes(mBeanServer, new ObjectName(objectName), attributeNames);
+        return attributes == null ? Map.of() : attributes;
+    }
+
+    /**
+     * Reads attributes of one MBean in one call, the attributes that cannot be read are left out
+     *
+     * @param mBeanServer    The connection
+     * @param objectName     The MBean
+     * @param attributeNames The attribute names
+     * @return The attribute values by name, or null if the MBean does not exist
+     */
+    private static Map<String, Object> getAttributes(MBeanServerConnection mBeanServer, ObjectName objectName,
+                                                     String[] attributeNames) throws Exception {
+        AttributeList attributeList;
+        try {
+            attributeList = mBeanServer.getAttributes(objectName, attributeNames);
+        } catch (InstanceNotFoundException e) {
+            return null;
+        }
+        Map<String, Object> attributes = new LinkedHashMap<>();
+        for (Attribute attribute : attributeList.asList()) {
+            attributes.put(attribute.getName(), attribute.getValue());
+        }
+        return attributes;
+    }
+
+    /**
+     * Describes a value as the REST connector would: composite values as a JSON object of their items, the others as
+     * their string form
+     *
+     * @param value The value, can be null
+     * @return The attribute value
+     */
+    private static AttributeValue toAttributeValue(Object value) {
+        AttributeValue attributeValue = new AttributeValue();
+        if (value == null) {
+            return attributeValue;
+        }
+        attributeValue.setType(value.getClass().getName());
+        attributeValue.setValue(value instanceof CompositeData ? GSON.toJson(toMap((CompositeData) value)) : String.valueOf(value));
+        return attributeValue;
+    }
+
+    private static Map<String, Object> toMap(CompositeData composite) {
+        Map<String, Object> items = new LinkedHashMap<>();
+        for (String key : composite.getCompositeType().keySet()) {
+            Object item = composite.get(key);
+            items.put(key, item instanceof CompositeData ? toMap((CompositeData) item) : item);
+        }
+        return items;
+    }
+
+    /**
+     * An operation over the local connection, an {@link IOException} means the connection failed
+     */
+    @FunctionalInterface
+    private interface LocalOperation<T> {
+        T call(MBeanServerConnection mBeanServer) throws Exception;
+    }
+
+    /**
+     * The same operation over the REST connector
+     */
+    @FunctionalInterface
+    private interface RestOperation<T> {
+        T call() throws Exception;
+    }
+}
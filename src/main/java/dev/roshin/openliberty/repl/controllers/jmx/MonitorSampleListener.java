@@ -0,0 +1,17 @@
+package dev.roshin.openliberty.repl.controllers.jmx;
+
+import dev.roshin.openliberty.repl.controllers.jmx.domain.MonitorSample;
+
+/**
+ * Receives the samples taken by a {@link MonitorSampler}
+ */
+@FunctionalInterface
+public interface MonitorSampleListener {
+
+    /**
+     * Called on the sampler thread, once per tick
+     *
+     * @param sample The sample
+     */
+    void sampled(MonitorSample sample);
+}
@@ -0,0 +1,124 @@
+package dev.roshin.openliberty.repl.controllers.jmx;
+
+import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import dev.roshin.openliberty.repl.controllers.jmx.domain.MonitorSample;
+import dev.roshin.openliberty.repl.controllers.jmx.domain.MonitorStatsType;
+import dev.roshin.openliberty.repl.controllers.jmx.rest.domain.MBeanInfo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Samples the statistics of the monitor-1.0 MBeans on a fixed schedule, in the background.
+ * <p>
+ * The MBeans are discovered when the sampler starts, then again every rediscovery interval and whenever some of them
+ * disappeared, so each tick only reads the attributes of MBeans already known, in one batch.
+ */
+public class MonitorSampler implements AutoCloseable {
+    public static final Duration DEFAULT_INTERVAL = Duration.ofSeconds(1);
+    public static final Duration DEFAULT_REDISCOVERY_INTERVAL = Duration.ofSeconds(30);
+
+    private final JMXServerManager jmxServerManager;
+    private final MonitorSampleListener listener;
+    private final long intervalMillis;
+    private final long rediscoveryIntervalMillis;
+    private final ScheduledExecutorService scheduler;
+    private final Logger logger;
+
+    // Only used by the sampler thread
+    private Map<MonitorStatsType, List<MBeanInfo>> monitorMBeans;
+    private long discoveredAtMillis;
+
+    private volatile MonitorSample lastSample;
+
+    public MonitorSampler(JMXServerManager jmxServerManager, MonitorSampleListener listener) {
+        this(jmxServerManager, listener, DEFAULT_INTERVAL, DEFAULT_REDISCOVERY_INTERVAL);
+    }
+
+    /**
+     * @param jmxServerManager    The manager of the server to sample
+     * @param listener            Receives the samples
+     * @param interval            The time between two samples
+     * @param rediscoveryInterval The time between two discoveries of the MBeans
+     */
+    public MonitorSampler(JMXServerManager jmxServerManager, MonitorSampleListener listener, Duration interval,
+                          Duration rediscoveryInterval) {
+        Preconditions.checkNotNull(jmxServerManager, "jmxServerManager cannot be null");
+        Preconditions.checkNotNull(listener, "listener cannot be null");
+        Preconditions.checkArgument(interval != null && !interval.isNegative() && !interval.isZero(),
+                "interval must be positive");
+        Preconditions.checkArgument(rediscoveryInterval != null && rediscoveryInterval.compareTo(interval) >= 0,
+                "rediscoveryInterval must not be less than interval");
+        this.jmxServerManager = jmxServerManager;
+        this.listener = listener;
+        this.intervalMillis = interval.toMillis();
+        this.rediscoveryIntervalMillis = rediscoveryInterval.toMillis();
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder()
+                .setNameFormat("monitor-sampler")
+                .setDaemon(true)
+                .build());
+        this.logger = LoggerFactory.getLogger(getClass());
+    }
+
+    /**
+     * Starts sampling in the background, the first sample is taken right away
+     */
+    public void start() {
+        logger.debug("Starting monitor sampler every {} ms", intervalMillis);
+        // Fixed delay, a slow server is not sent overlapping batches
+        scheduler.scheduleWithFixedDelay(this::tick, 0, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * @return The last sample taken, or null if none was taken yet
+     */
+    public MonitorSample getLastSample() {
+        return lastSample;
+    }
+
+    /**
+     * Takes one sample and gives it to the listener, discovering the MBeans first if needed
+     */
+    private void tick() {
+        try {
+            long now = System.currentTimeMillis();
+            if (monitorMBeans == null || now - discoveredAtMillis >= rediscoveryIntervalMillis) {
+                monitorMBeans = jmxServerManager.discoverMonitorMBeans();
+                discoveredAtMillis = now;
+            }
+            MonitorSample sample = jmxServerManager.sampleMonitorStats(monitorMBeans);
+            if (sample.getMissingCount() > 0) {
+                // Some MBeans were unregistered, find the current ones on the next tick
+                monitorMBeans = null;
+            }
+            lastSample = sample;
+            listener.sampled(sample);
+        } catch (Exception e) {
+            // The server may be restarting, discover again on the next tick
+            logger.debug("Failed to sample the monitor MBeans", e);
+            monitorMBeans = null;
+        }
+    }
+
+    /**
+     * Stops sampling, the listener is not called anymore once this returns
+     */
+    @Override
+    public void close() {
+        logger.debug("Closing monitor sampler");
+        scheduler.shutdown();
+        try {
+            // Let a running tick finish, so the listener is not called after this returns
+            scheduler.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
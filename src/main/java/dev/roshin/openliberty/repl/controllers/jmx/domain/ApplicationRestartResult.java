@@ -0,0 +1,115 @@
+package dev.roshin.openliberty.repl.controllers.jmx.domain;
+
+import dev.roshin.openliberty.repl.TerminalPrintablePojo;
+import org.jline.utils.AttributedStringBuilder;
+import org.jline.utils.AttributedStyle;
+
+/**
+ * The outcome of restarting one application: its final state, or why it did not reach the STARTED state, and how
+ * long it took
+ */
+public class ApplicationRestartResult implements TerminalPrintablePojo {
+    private String applicationName;
+    private int group;
+    private String state;
+    private String error;
+    private long restartMillis;
+    private long totalMillis;
+
+    public String getApplicationName() {
+        return applicationName;
+    }
+
+    public void setApplicationName(String applicationName) {
+        this.applicationName = applicationName;
+    }
+
+    /**
+     * @return The index of the ordering group of the application, applications of a group are restarted once the
+     * previous groups are done
+     */
+    public int getGroup() {
+        return group;
+    }
+
+    public void setGroup(int group) {
+        this.group = group;
+    }
+
+    /**
+     * @return The last state read, STARTED if the restart succeeded
+     */
+    public String getState() {
+        return state;
+    }
+
+    public void setState(String state) {
+        this.state = state;
+    }
+
+    /**
+     * @return Why the application was not restarted, or null if it was
+     */
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    /**
+     * @return Whether the application did not reach the STARTED state
+     */
+    public boolean isFailed() {
+        return error != null;
+    }
+
+    /**
+     * @return How long the restart operation took
+     */
+    public long getRestartMillis() {
+        return restartMillis;
+    }
+
+    public void setRestartMillis(long restartMillis) {
+        this.restartMillis = restartMillis;
+    }
+
+    /**
+     * @return How long it took from the restart operation until the application was STARTED, or failed
+     */
+    public long getTotalMillis() {
+        return totalMillis;
+    }
+
+    public void setTotalMillis(long totalMillis) {
+        this.totalMillis = totalMillis;
+    }
+
+    @Override
+    public String toString() {
+        return "ApplicationRestartResult{" +
+                "applicationName='" + applicationName + '\'' +
+                ", group=" + group +
+                ", state='" + state + '\'' +
+                ", error='" + error + '\'' +
+                ", restartMillis=" + restartMillis +
+                ", totalMillis=" + totalMillis +
+                '}';
+    }
+
+    @Override
+    public String toTerminalString() {
+        AttributedStringBuilder builder = new AttributedStringBuilder()
+                .append(applicationName, AttributedStyle.DEFAULT.foreground(AttributedStyle.CYAN))
+                .append(" ");
+        if (isFailed()) {
+            builder.append("failed", AttributedStyle.BOLD.foreground(AttributedStyle.RED))
+                    .append(": ").append(error);
+        } else {
+            builder.append(state, AttributedStyle.DEFAULT.foreground(AttributedStyle.GREEN));
+        }
+        return builder.append(" in ").append(String.valueOf(totalMillis)).append(" ms").toAnsi();
+    }
+}
@@ -0,0 +1,89 @@
+package dev.roshin.openliberty.repl.controllers.jmx.domain;
+
+import dev.roshin.openliberty.repl.TerminalPrintablePojo;
+import org.jline.utils.AttributedStringBuilder;
+import org.jline.utils.AttributedStyle;
+
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * The outcome of restarting many applications, with the timing of each of them
+ */
+public class ApplicationRestartSummary implements TerminalPrintablePojo {
+    private final List<ApplicationRestartResult> results;
+    private final long elapsedMillis;
+
+    /**
+     * @param results       The result of each application, in restart order
+     * @param elapsedMillis How long the whole restart took
+     */
+    public ApplicationRestartSummary(List<ApplicationRestartResult> results, long elapsedMillis) {
+        this.results = List.copyOf(results);
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public List<ApplicationRestartResult> getResults() {
+        return results;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    /**
+     * @return The number of applications that did not reach the STARTED state
+     */
+    public long getFailedCount() {
+        return results.stream().filter(ApplicationRestartResult::isFailed).count();
+    }
+
+    /**
+     * @return The sum of the restart times of the applications, how long restarting them one by one would take
+     */
+    public long getSequentialMillis() {
+        return results.stream().mapToLong(ApplicationRestartResult::getTotalMillis).sum();
+    }
+
+    @Override
+    public String toString() {
+        return "ApplicationRestartSummary{" +
+                "results=" + results +
+                ", elapsedMillis=" + elapsedMillis +
+                '}';
+    }
+
+    @Override
+    public String toTerminalString() {
+        long failed = getFailedCount();
+        AttributedStringBuilder builder = new AttributedStringBuilder()
+                .append("\n")
+                .append("Restarted ").append(String.valueOf(results.size() - failed), AttributedStyle.DEFAULT.foreground(AttributedStyle.GREEN))
+                .append(" of ").append(String.valueOf(results.size())).append(" applications in ")
+                .append(String.valueOf(elapsedMillis)).append(" ms (")
+                .append(String.valueOf(getSequentialMillis())).append(" ms one by one)");
+        if (failed > 0) {
+            builder.append(", ").append(failed + " failed", AttributedStyle.BOLD.foreground(AttributedStyle.RED));
+        }
+        builder.append("\n\n");
+        if (results.isEmpty()) {
+            return builder.append("No applications\n").toAnsi();
+        }
+        // Slowest applications first
+        builder.append(String.format("%-40s %5s %10s %10s  %s", "application", "group", "restart ms", "total ms", "state"),
+                AttributedStyle.BOLD).append("\n");
+        results.stream()
+                .sorted(Comparator.comparingLong(ApplicationRestartResult::getTotalMillis).reversed())
+                .forEach(result -> {
+                    builder.append(String.format("%-40s %5d %10d %10d  ", result.getApplicationName(), result.getGroup(),
+                            result.getRestartMillis(), result.getTotalMillis()));
+                    if (result.isFailed()) {
+                        builder.append(result.getError(), AttributedStyle.DEFAULT.foreground(AttributedStyle.RED));
+                    } else {
+                        builder.append(result.getState(), AttributedStyle.DEFAULT.foreground(AttributedStyle.GREEN));
+                    }
+                    builder.append("\n");
+                });
+        return builder.toAnsi();
+    }
+}
@@ -0,0 +1,72 @@
+package dev.roshin.openliberty.repl.controllers.jmx.domain;
+
+import dev.roshin.openliberty.repl.TerminalPrintablePojo;
+import org.jline.utils.AttributedStringBuilder;
+import org.jline.utils.AttributedStyle;
+
+/**
+ * A change of the state of one application, seen by comparing two snapshots of the application states
+ */
+public class ApplicationStateChange implements TerminalPrintablePojo {
+    private String applicationName;
+    private String oldState;
+    private String newState;
+
+    public String getApplicationName() {
+        return applicationName;
+    }
+
+    public void setApplicationName(String applicationName) {
+        this.applicationName = applicationName;
+    }
+
+    /**
+     * @return The previous state, null if the application was added
+     */
+    public String getOldState() {
+        return oldState;
+    }
+
+    public void setOldState(String oldState) {
+        this.oldState = oldState;
+    }
+
+    /**
+     * @return The new state, null if the application was removed
+     */
+    public String getNewState() {
+        return newState;
+    }
+
+    public void setNewState(String newState) {
+        this.newState = newState;
+    }
+
+    @Override
+    public String toString() {
+        return "ApplicationStateChange{" +
+                "applicationName='" + applicationName + '\'' +
+                ", oldState='" + oldState + '\'' +
+                ", newState='" + newState + '\'' +
+                '}';
+    }
+
+    @Override
+    public String toTerminalString() {
+        AttributedStringBuilder builder = new AttributedStringBuilder()
+                .append(applicationName, AttributedStyle.DEFAULT.foreground(AttributedStyle.CYAN))
+                .append(" ");
+        if (oldState == null) {
+            builder.append("added ");
+        } else {
+            builder.append(oldState).append(" -> ");
+        }
+        if (newState == null) {
+            builder.append("removed", AttributedStyle.DEFAULT.foreground(AttributedStyle.RED));
+        } else {
+            builder.append(newState, "STARTED".equals(newState) ? AttributedStyle.DEFAULT.foreground(AttributedStyle.GREEN)
+                    : AttributedStyle.DEFAULT.foreground(AttributedStyle.YELLOW));
+        }
+        return builder.toAnsi();
+    }
+}
@@ -7,6 +7,7 @@ import org.jline.utils.AttributedStyle;
 public class ApplicationStatus implements TerminalPrintablePojo {
     private String applicationName;
     private String status;
+    private String error;
 
 
     public String getApplicationName() {
@@ -25,21 +26,45 @@ public class ApplicationStatus implements TerminalPrintablePojo {
         this.status = status;
     }
 
+    /**
+     * @return Why the status of the application could not be read, or null if it was read
+     */
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    /**
+     * @return Whether the status of the application could not be read
+     */
+    public boolean isFailed() {
+        return error != null;
+    }
+
     @Override
     public String toString() {
         return "ApplicationStatus{" +
                 "applicationName='" + applicationName + '\'' +
                 ", status='" + status + '\'' +
+                ", error='" + error + '\'' +
                 '}';
     }
 
     @Override
     public String toTerminalString() {
-        return new AttributedStringBuilder()
+        AttributedStringBuilder builder = new AttributedStringBuilder()
                 .append("\n")
                 .append("applicationName='").append(applicationName, AttributedStyle.DEFAULT.foreground(AttributedStyle.GREEN))
-                .append('\'').append("\n")
-                .append(", status='").append(status, AttributedStyle.DEFAULT.foreground(AttributedStyle.GREEN)).append('\'')
+                .append('\'').append("\n");
+        if (isFailed()) {
+            builder.append(", error='").append(error, AttributedStyle.DEFAULT.foreground(AttributedStyle.RED)).append('\'');
+        } else {
+            builder.append(", status='").append(status, AttributedStyle.DEFAULT.foreground(AttributedStyle.GREEN)).append('\'');
+        }
+        return builder
                 .append("\n")
                 .toAnsi();
     }
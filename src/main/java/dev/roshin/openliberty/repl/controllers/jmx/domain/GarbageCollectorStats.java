@@ -0,0 +1,49 @@
+package dev.roshin.openliberty.repl.controllers.jmx.domain;
+
+/**
+ * The cumulative statistics of one garbage collector of the server JVM
+ */
+public class GarbageCollectorStats {
+    private String name;
+    private long collectionCount;
+    private long collectionTimeMillis;
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    /**
+     * @return The number of collections since the JVM started, -1 if unknown
+     */
+    public long getCollectionCount() {
+        return collectionCount;
+    }
+
+    public void setCollectionCount(long collectionCount) {
+        this.collectionCount = collectionCount;
+    }
+
+    /**
+     * @return The time spent collecting since the JVM started, in milliseconds, -1 if unknown
+     */
+    public long getCollectionTimeMillis() {
+        return collectionTimeMillis;
+    }
+
+    public void setCollectionTimeMillis(long collectionTimeMillis) {
+        this.collectionTimeMillis = collectionTimeMillis;
+    }
+
+    @Override
+    public String toString() {
+        return "GarbageCollectorStats{" +
+                "name='" + name + '\'' +
+                ", collectionCount=" + collectionCount +
+                ", collectionTimeMillis=" + collectionTimeMillis +
+                '}';
+    }
+}
@@ -0,0 +1,283 @@
+package dev.roshin.openliberty.repl.controllers.jmx.domain;
+
+import dev.roshin.openliberty.repl.TerminalPrintablePojo;
+import org.jline.utils.AttributedStringBuilder;
+import org.jline.utils.AttributedStyle;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One sample of the platform MBeans of the server JVM: memory, garbage collectors, threads, class loading and
+ * operating system.
+ * <p>
+ * The counters are cumulative since the JVM started, see {@link JvmTelemetryRates} for the rates between two samples.
+ * Values the JVM does not provide are -1, or NaN for loads.
+ */
+public class JvmTelemetry implements TerminalPrintablePojo {
+    private static final double BYTES_PER_MEGABYTE = 1024 * 1024;
+
+    private long timestamp;
+    private long heapUsed = -1;
+    private long heapCommitted = -1;
+    private long heapMax = -1;
+    private long nonHeapUsed = -1;
+    private long nonHeapCommitted = -1;
+    private List<GarbageCollectorStats> garbageCollectors = new ArrayList<>();
+    private long threadCount = -1;
+    private long peakThreadCount = -1;
+    private long daemonThreadCount = -1;
+    private long totalAllocatedBytes = -1;
+    private long loadedClassCount = -1;
+    private long totalLoadedClassCount = -1;
+    private long unloadedClassCount = -1;
+    private double processCpuLoad = Double.NaN;
+    private double systemCpuLoad = Double.NaN;
+    private long processCpuTimeNanos = -1;
+    private long availableProcessors = -1;
+    private double systemLoadAverage = Double.NaN;
+
+    /**
+     * @return When the sample was taken, in milliseconds since the epoch
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public void setTimestamp(long timestamp) {
+        this.timestamp = timestamp;
+    }
+
+    public long getHeapUsed() {
+        return heapUsed;
+    }
+
+    public void setHeapUsed(long heapUsed) {
+        this.heapUsed = heapUsed;
+    }
+
+    public long getHeapCommitted() {
+        return heapCommitted;
+    }
+
+    public void setHeapCommitted(long heapCommitted) {
+        this.heapCommitted = heapCommitted;
+    }
+
+    /**
+     * @return The maximum heap, -1 if it is not bounded
+     */
+    public long getHeapMax() {
+        return heapMax;
+    }
+
+    public void setHeapMax(long heapMax) {
+        this.heapMax = heapMax;
+    }
+
+    public long getNonHeapUsed() {
+        return nonHeapUsed;
+    }
+
+    public void setNonHeapUsed(long nonHeapUsed) {
+        this.nonHeapUsed = nonHeapUsed;
+    }
+
+    public long getNonHeapCommitted() {
+        return nonHeapCommitted;
+    }
+
+    public void setNonHeapCommitted(long nonHeapCommitted) {
+        this.nonHeapCommitted = nonHeapCommitted;
+    }
+
+    public List<GarbageCollectorStats> getGarbageCollectors() {
+        return garbageCollectors;
+    }
+
+    public void setGarbageCollectors(List<GarbageCollectorStats> garbageCollectors) {
+        this.garbageCollectors = garbageCollectors;
+    }
+
+    public long getThreadCount() {
+        return threadCount;
+    }
+
+    public void setThreadCount(long threadCount) {
+        this.threadCount = threadCount;
+    }
+
+    public long getPeakThreadCount() {
+        return peakThreadCount;
+    }
+
+    public void setPeakThreadCount(long peakThreadCount) {
+        this.peakThreadCount = peakThreadCount;
+    }
+
+    public long getDaemonThreadCount() {
+        return daemonThreadCount;
+    }
+
+    public void setDaemonThreadCount(long daemonThreadCount) {
+        this.daemonThreadCount = daemonThreadCount;
+    }
+
+    /**
+     * @return The bytes allocated by all the threads since the JVM started, -1 if the JVM does not count them
+     */
+    public long getTotalAllocatedBytes() {
+        return totalAllocatedBytes;
+    }
+
+    public void setTotalAllocatedBytes(long totalAllocatedBytes) {
+        this.totalAllocatedBytes = totalAllocatedBytes;
+    }
+
+    public long getLoadedClassCount() {
+        return loadedClassCount;
+    }
+
+    public void setLoadedClassCount(long loadedClassCount) {
+        this.loadedClassCount = loadedClassCount;
+    }
+
+    public long getTotalLoadedClassCount() {
+        return totalLoadedClassCount;
+    }
+
+    public void setTotalLoadedClassCount(long totalLoadedClassCount) {
+        this.totalLoadedClassCount = totalLoadedClassCount;
+    }
+
+    public long getUnloadedClassCount() {
+        return unloadedClassCount;
+    }
+
+    public void setUnloadedClassCount(long unloadedClassCount) {
+        this.unloadedClassCount = unloadedClassCount;
+    }
+
+    /**
+     * @return The recent CPU load of the server process, between 0 and 1, as computed by the JVM
+     */
+    public double getProcessCpuLoad() {
+        return processCpuLoad;
+    }
+
+    public void setProcessCpuLoad(double processCpuLoad) {
+        this.processCpuLoad = processCpuLoad;
+    }
+
+    /**
+     * @return The recent CPU load of the whole system, between 0 and 1
+     */
+    public double getSystemCpuLoad() {
+        return systemCpuLoad;
+    }
+
+    public void setSystemCpuLoad(double systemCpuLoad) {
+        this.systemCpuLoad = systemCpuLoad;
+    }
+
+    /**
+     * @return The CPU time used by the server process since it started, in nanoseconds
+     */
+    public long getProcessCpuTimeNanos() {
+        return processCpuTimeNanos;
+    }
+
+    public void setProcessCpuTimeNanos(long processCpuTimeNanos) {
+        this.processCpuTimeNanos = processCpuTimeNanos;
+    }
+
+    public long getAvailableProcessors() {
+        return availableProcessors;
+    }
+
+    public void setAvailableProcessors(long availableProcessors) {
+        this.availableProcessors = availableProcessors;
+    }
+
+    public double getSystemLoadAverage() {
+        return systemLoadAverage;
+    }
+
+    public void setSystemLoadAverage(double systemLoadAverage) {
+        this.systemLoadAverage = systemLoadAverage;
+    }
+
+    /**
+     * @return The collections of all the garbage collectors, -1 if none is known
+     */
+    public long getGcCollectionCount() {
+        return garbageCollectors.stream().mapToLong(GarbageCollectorStats::getCollectionCount).filter(count -> count >= 0)
+                .reduce(Long::sum).orElse(-1);
+    }
+
+    /**
+     * @return The time spent by all the garbage collectors, in milliseconds, -1 if none is known
+     */
+    public long getGcTimeMillis() {
+        return garbageCollectors.stream().mapToLong(GarbageCollectorStats::getCollectionTimeMillis).filter(time -> time >= 0)
+                .reduce(Long::sum).orElse(-1);
+    }
+
+    @Override
+    public String toString() {
+        return "JvmTelemetry{" +
+                "timestamp=" + timestamp +
+                ", heapUsed=" + heapUsed +
+                ", heapCommitted=" + heapCommitted +
+                ", heapMax=" + heapMax +
+                ", nonHeapUsed=" + nonHeapUsed +
+                ", nonHeapCommitted=" + nonHeapCommitted +
+                ", garbageCollectors=" + garbageCollectors +
+                ", threadCount=" + threadCount +
+                ", peakThreadCount=" + peakThreadCount +
+                ", daemonThreadCount=" + daemonThreadCount +
+                ", totalAllocatedBytes=" + totalAllocatedBytes +
+                ", loadedClassCount=" + loadedClassCount +
+                ", totalLoadedClassCount=" + totalLoadedClassCount +
+                ", unloadedClassCount=" + unloadedClassCount +
+                ", processCpuLoad=" + processCpuLoad +
+                ", systemCpuLoad=" + systemCpuLoad +
+                ", processCpuTimeNanos=" + processCpuTimeNanos +
+                ", availableProcessors=" + availableProcessors +
+                ", systemLoadAverage=" + systemLoadAverage +
+                '}';
+    }
+
+    @Override
+    public String toTerminalString() {
+        AttributedStyle value = AttributedStyle.DEFAULT.foreground(AttributedStyle.GREEN);
+        AttributedStringBuilder builder = new AttributedStringBuilder()
+                .append("heap=").append(megabytes(heapUsed) + " / " + megabytes(heapMax) + " MB", value)
+                .append(" (committed ").append(megabytes(heapCommitted), value).append(" MB)")
+                .append(", nonHeap=").append(megabytes(nonHeapUsed) + " MB", value).append("\n")
+                .append("threads=").append(String.valueOf(threadCount), value)
+                .append(" (peak ").append(String.valueOf(peakThreadCount), value)
+                .append(", daemon ").append(String.valueOf(daemonThreadCount), value).append(")")
+                .append(", classes=").append(String.valueOf(loadedClassCount), value)
+                .append(" (unloaded ").append(String.valueOf(unloadedClassCount), value).append(")").append("\n")
+                .append("processors=").append(String.valueOf(availableProcessors), value)
+                .append(", systemLoadAverage=").append(String.format("%.2f", systemLoadAverage), value)
+                .append(", processCpuLoad=").append(percent(processCpuLoad), value)
+                .append(", systemCpuLoad=").append(percent(systemCpuLoad), value).append("\n");
+        for (GarbageCollectorStats garbageCollector : garbageCollectors) {
+            builder.append("gc ").append(garbageCollector.getName(), AttributedStyle.DEFAULT.foreground(AttributedStyle.CYAN))
+                    .append(": ").append(String.valueOf(garbageCollector.getCollectionCount()), value)
+                    .append(" collections in ").append(String.valueOf(garbageCollector.getCollectionTimeMillis()), value)
+                    .append(" ms").append("\n");
+        }
+        return builder.toAnsi();
+    }
+
+    static String megabytes(double bytes) {
+        return bytes < 0 || Double.isNaN(bytes) ? "-" : String.format("%.1f", bytes / BYTES_PER_MEGABYTE);
+    }
+
+    static String percent(double load) {
+        return load < 0 || Double.isNaN(load) ? "-" : String.format("%.1f%%", load * 100);
+    }
+}
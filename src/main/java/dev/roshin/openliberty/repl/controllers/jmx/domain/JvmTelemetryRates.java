@@ -0,0 +1,146 @@
+package dev.roshin.openliberty.repl.controllers.jmx.domain;
+
+import com.google.common.base.Preconditions;
+import dev.roshin.openliberty.repl.TerminalPrintablePojo;
+import org.jline.utils.AttributedStringBuilder;
+import org.jline.utils.AttributedStyle;
+
+/**
+ * The rates of the JVM between two {@link JvmTelemetry} samples of the same server process.
+ * <p>
+ * Rates that cannot be computed, e.g. because a counter is not provided by the JVM, are NaN.
+ */
+public final class JvmTelemetryRates implements TerminalPrintablePojo {
+    private final long elapsedMillis;
+    private final double gcMillisPerSecond;
+    private final double gcCollectionsPerSecond;
+    private final double allocatedBytesPerSecond;
+    private final double processCpuLoad;
+    private final double classesLoadedPerSecond;
+
+    private JvmTelemetryRates(long elapsedMillis, double gcMillisPerSecond, double gcCollectionsPerSecond,
+                              double allocatedBytesPerSecond, double processCpuLoad, double classesLoadedPerSecond) {
+        this.elapsedMillis = elapsedMillis;
+        this.gcMillisPerSecond = gcMillisPerSecond;
+        this.gcCollectionsPerSecond = gcCollectionsPerSecond;
+        this.allocatedBytesPerSecond = allocatedBytesPerSecond;
+        this.processCpuLoad = processCpuLoad;
+        this.classesLoadedPerSecond = classesLoadedPerSecond;
+    }
+
+    /**
+     * Computes the rates between two samples
+     * <p>
+     * The allocation rate comes from the bytes allocated by all the threads when the JVM counts them. Otherwise it is
+     * the growth of the used heap, only known when no collection happened between the samples. The CPU load comes
+     * from the CPU time used between the samples, or the load computed by the JVM if the CPU time is not provided
+     *
+     * @param previous The earlier sample, cannot be null
+     * @param current  The later sample, cannot be null
+     * @return The rates, all NaN if the samples are not in order
+     */
+    public static JvmTelemetryRates between(JvmTelemetry previous, JvmTelemetry current) {
+        Preconditions.checkNotNull(previous, "previous cannot be null");
+        Preconditions.checkNotNull(current, "current cannot be null");
+        long elapsedMillis = current.getTimestamp() - previous.getTimestamp();
+        if (elapsedMillis <= 0) {
+            return new JvmTelemetryRates(elapsedMillis, Double.NaN, Double.NaN, Double.NaN, Double.NaN, Double.NaN);
+        }
+        double seconds = elapsedMillis / 1000.0;
+
+        double gcMillisPerSecond = perSecond(previous.getGcTimeMillis(), current.getGcTimeMillis(), seconds);
+        double gcCollectionsPerSecond = perSecond(previous.getGcCollectionCount(), current.getGcCollectionCount(), seconds);
+
+        double allocatedBytesPerSecond = perSecond(previous.getTotalAllocatedBytes(), current.getTotalAllocatedBytes(), seconds);
+        if (Double.isNaN(allocatedBytesPerSecond) && gcCollectionsPerSecond == 0
+                && previous.getHeapUsed() >= 0 && current.getHeapUsed() >= previous.getHeapUsed()) {
+            // Without a collection, what was allocated is still in the heap
+            allocatedBytesPerSecond = (current.getHeapUsed() - previous.getHeapUsed()) / seconds;
+        }
+
+        double processCpuLoad = current.getProcessCpuLoad() >= 0 ? current.getProcessCpuLoad() : Double.NaN;
+        double cpuNanosPerSecond = perSecond(previous.getProcessCpuTimeNanos(), current.getProcessCpuTimeNanos(), seconds);
+        if (!Double.isNaN(cpuNanosPerSecond) && current.getAvailableProcessors() > 0) {
+            processCpuLoad = Math.min(1, cpuNanosPerSecond / 1e9 / current.getAvailableProcessors());
+        }
+
+        double classesLoadedPerSecond = perSecond(previous.getTotalLoadedClassCount(), current.getTotalLoadedClassCount(), seconds);
+        return new JvmTelemetryRates(elapsedMillis, gcMillisPerSecond, gcCollectionsPerSecond, allocatedBytesPerSecond,
+                processCpuLoad, classesLoadedPerSecond);
+    }
+
+    /**
+     * @param previous The earlier value of a counter, -1 if unknown
+     * @param current  The later value of the counter, -1 if unknown
+     * @param seconds  The time between them
+     * @return The increase per second, NaN if a value is unknown or the counter went back, e.g. a JVM restart
+     */
+    private static double perSecond(long previous, long current, double seconds) {
+        if (previous < 0 || current < previous) {
+            return Double.NaN;
+        }
+        return (current - previous) / seconds;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    /**
+     * @return The milliseconds spent collecting per second, 1000 would be a JVM doing nothing else
+     */
+    public double getGcMillisPerSecond() {
+        return gcMillisPerSecond;
+    }
+
+    public double getGcCollectionsPerSecond() {
+        return gcCollectionsPerSecond;
+    }
+
+    public double getAllocatedBytesPerSecond() {
+        return allocatedBytesPerSecond;
+    }
+
+    /**
+     * @return The share of the CPU of the machine used by the server process, between 0 and 1
+     */
+    public double getProcessCpuLoad() {
+        return processCpuLoad;
+    }
+
+    public double getClassesLoadedPerSecond() {
+        return classesLoadedPerSecond;
+    }
+
+    @Override
+    public String toString() {
+        return "JvmTelemetryRates{" +
+                "elapsedMillis=" + elapsedMillis +
+                ", gcMillisPerSecond=" + gcMillisPerSecond +
+                ", gcCollectionsPerSecond=" + gcCollectionsPerSecond +
+                ", allocatedBytesPerSecond=" + allocatedBytesPerSecond +
+                ", processCpuLoad=" + processCpuLoad +
+                ", classesLoadedPerSecond=" + classesLoadedPerSecond +
+                '}';
+    }
+
+    @Override
+    public String toTerminalString() {
+        AttributedStyle value = AttributedStyle.DEFAULT.foreground(AttributedStyle.GREEN);
+        // Spending more than a tenth of the time collecting is worth a look
+        AttributedStyle gcStyle = gcMillisPerSecond > 100 ? AttributedStyle.BOLD.foreground(AttributedStyle.RED) : value;
+        return new AttributedStringBuilder()
+                .append("Over ").append(String.valueOf(elapsedMillis)).append(" ms: ")
+                .append("gc=").append(format(gcMillisPerSecond) + " ms/s", gcStyle)
+                .append(" (").append(format(gcCollectionsPerSecond), value).append(" collections/s)")
+                .append(", allocation=").append(JvmTelemetry.megabytes(allocatedBytesPerSecond) + " MB/s", value)
+                .append(", cpu=").append(JvmTelemetry.percent(processCpuLoad), value)
+                .append(", classLoading=").append(format(classesLoadedPerSecond) + " /s", value)
+                .append("\n")
+                .toAnsi();
+    }
+
+    private static String format(double rate) {
+        return Double.isNaN(rate) ? "-" : String.format("%.1f", rate);
+    }
+}
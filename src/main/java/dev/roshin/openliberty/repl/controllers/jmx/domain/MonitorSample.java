@@ -0,0 +1,119 @@
+package dev.roshin.openliberty.repl.controllers.jmx.domain;
+
+import dev.roshin.openliberty.repl.TerminalPrintablePojo;
+import org.jline.utils.AttributedStringBuilder;
+import org.jline.utils.AttributedStyle;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * The statistics of all the monitor MBeans, read in one batch
+ */
+public class MonitorSample implements TerminalPrintablePojo {
+    private final long timestamp;
+    private final long elapsedMillis;
+    private final List<MonitorStats> stats;
+    private final int missingCount;
+
+    /**
+     * @param timestamp     When the sample was taken, in milliseconds since the epoch
+     * @param elapsedMillis How long reading the batch took
+     * @param stats         The statistics of each MBean read
+     * @param missingCount  The number of MBeans that no longer exist
+     */
+    public MonitorSample(long timestamp, long elapsedMillis, List<MonitorStats> stats, int missingCount) {
+        this.timestamp = timestamp;
+        this.elapsedMillis = elapsedMillis;
+        this.stats = List.copyOf(stats);
+        this.missingCount = missingCount;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public List<MonitorStats> getStats() {
+        return stats;
+    }
+
+    /**
+     * @return The number of MBeans that were discovered but no longer exist, the MBeans should be discovered again
+     */
+    public int getMissingCount() {
+        return missingCount;
+    }
+
+    /**
+     * @param type The kind of statistics
+     * @return The statistics of that kind, in discovery order
+     */
+    public List<MonitorStats> getStats(MonitorStatsType type) {
+        return stats.stream().filter(s -> s.getType() == type).collect(Collectors.toList());
+    }
+
+    @Override
+    public String toString() {
+        return "MonitorSample{" +
+                "timestamp=" + timestamp +
+                ", elapsedMillis=" + elapsedMillis +
+                ", stats=" + stats +
+                ", missingCount=" + missingCount +
+                '}';
+    }
+
+    @Override
+    public String toTerminalString() {
+        AttributedStringBuilder builder = new AttributedStringBuilder()
+                .append("\n")
+                .append("Sampled ").append(String.valueOf(stats.size()), AttributedStyle.DEFAULT.foreground(AttributedStyle.GREEN))
+                .append(" monitor MBeans in ").append(String.valueOf(elapsedMillis)).append(" ms\n");
+        if (stats.isEmpty()) {
+            return builder.append("No monitor MBeans, is the monitor-1.0 feature enabled?\n").toAnsi();
+        }
+        for (MonitorStatsType type : MonitorStatsType.values()) {
+            List<MonitorStats> typeStats = getStats(type);
+            if (typeStats.isEmpty()) {
+                continue;
+            }
+            builder.append("\n").append(type.getMBeanType(), AttributedStyle.BOLD.foreground(AttributedStyle.CYAN)).append("\n");
+            builder.append(String.format("%-40s", "name"), AttributedStyle.BOLD);
+            for (String attributeName : type.getAttributeNames()) {
+                builder.append(String.format(" %14s", abbreviate(attributeName)), AttributedStyle.BOLD);
+            }
+            builder.append("\n");
+            for (MonitorStats stat : typeStats) {
+                builder.append(String.format("%-40s", stat.getName()));
+                for (String attributeName : type.getAttributeNames()) {
+                    builder.append(String.format(" %14s", format(stat.getValues().get(attributeName))));
+                }
+                builder.append("\n");
+            }
+        }
+        return builder.toAnsi();
+    }
+
+    /**
+     * @param attributeName The attribute name
+     * @return The name cut to the width of a column
+     */
+    private static String abbreviate(String attributeName) {
+        return attributeName.length() > 14 ? attributeName.substring(0, 14) : attributeName;
+    }
+
+    /**
+     * @param value The value, can be null
+     * @return The value without decimals when it is a whole number, - when it is missing
+     */
+    private static String format(Double value) {
+        if (value == null || value.isNaN()) {
+            return "-";
+        }
+        return value == Math.rint(value) && Math.abs(value) < 1e15 ? String.valueOf(value.longValue())
+                : String.format("%.2f", value);
+    }
+}
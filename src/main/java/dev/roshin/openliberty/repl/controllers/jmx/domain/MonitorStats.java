@@ -0,0 +1,71 @@
+package dev.roshin.openliberty.repl.controllers.jmx.domain;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The numeric attributes of one monitor MBean, read in one sample
+ */
+public class MonitorStats {
+    private MonitorStatsType type;
+    private String objectName;
+    private String name;
+    private Map<String, Double> values = new LinkedHashMap<>();
+
+    public MonitorStatsType getType() {
+        return type;
+    }
+
+    public void setType(MonitorStatsType type) {
+        this.type = type;
+    }
+
+    public String getObjectName() {
+        return objectName;
+    }
+
+    public void setObjectName(String objectName) {
+        this.objectName = objectName;
+    }
+
+    /**
+     * @return The name key of the object name, e.g. Default Executor or sample.HelloServlet
+     */
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    /**
+     * @return The numeric values by attribute name, attributes that are missing or not numeric are left out
+     */
+    public Map<String, Double> getValues() {
+        return values;
+    }
+
+    public void setValues(Map<String, Double> values) {
+        this.values = values;
+    }
+
+    /**
+     * @param attributeName The attribute name
+     * @return The value, or NaN if it is missing
+     */
+    public double getValue(String attributeName) {
+        Double value = values.get(attributeName);
+        return value == null ? Double.NaN : value;
+    }
+
+    @Override
+    public String toString() {
+        return "MonitorStats{" +
+                "type=" + type +
+                ", objectName='" + objectName + '\'' +
+                ", name='" + name + '\'' +
+                ", values=" + values +
+                '}';
+    }
+}
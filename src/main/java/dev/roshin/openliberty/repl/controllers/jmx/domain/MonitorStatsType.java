@@ -0,0 +1,47 @@
+package dev.roshin.openliberty.repl.controllers.jmx.domain;
+
+import dev.roshin.openliberty.repl.controllers.jmx.rest.JMXConstants;
+
+import java.util.List;
+
+/**
+ * The kinds of statistics MBeans registered by the monitor-1.0 feature, with the numeric attributes sampled for each
+ * of them
+ */
+public enum MonitorStatsType {
+    THREAD_POOL(JMXConstants.THREAD_POOL_STATS_MBEAN_TYPE, List.of("ActiveThreads", "PoolSize")),
+    SERVLET(JMXConstants.SERVLET_STATS_MBEAN_TYPE, List.of("RequestCount", "ResponseTime")),
+    SESSION(JMXConstants.SESSION_STATS_MBEAN_TYPE, List.of("ActiveCount", "LiveCount", "CreateCount",
+            "InvalidatedCount", "InvalidatedCountbyTimeout")),
+    CONNECTION_POOL(JMXConstants.CONNECTION_POOL_STATS_MBEAN_TYPE, List.of("ManagedConnectionCount",
+            "FreeConnectionCount", "ConnectionHandleCount", "WaitTime", "InUseTime", "CreateCount", "DestroyCount"));
+
+    private final String mBeanType;
+    private final List<String> attributeNames;
+
+    MonitorStatsType(String mBeanType, List<String> attributeNames) {
+        this.mBeanType = mBeanType;
+        this.attributeNames = attributeNames;
+    }
+
+    /**
+     * @return The type key of the object names, e.g. ThreadPoolStats
+     */
+    public String getMBeanType() {
+        return mBeanType;
+    }
+
+    /**
+     * @return The names of the sampled attributes
+     */
+    public List<String> getAttributeNames() {
+        return attributeNames;
+    }
+
+    /**
+     * @return The object name pattern matching all the MBeans of this kind
+     */
+    public String getObjectNameQuery() {
+        return JMXConstants.MONITOR_MBEAN_DOMAIN + ":type=" + mBeanType + ",*";
+    }
+}
@@ -5,70 +5,114 @@ import org.jline.utils.AttributedStringBuilder;
 import org.jline.utils.AttributedStyle;
 
 import java.nio.file.Path;
-
-public class ServerInfo implements TerminalPrintablePojo {
-    private String serverName;
-    private String defaultHostname;
-    private Path userDirectory;
-    private Path installDirectory;
-    private String libertyVersion;
-    private String javaSpecificationVersion;
-    private String javaRuntimeVersion;
+import java.time.Instant;
+
+/**
+ * The information of one server process, which cannot change while the process lives.
+ * <p>
+ * Instances are immutable, a server process is identified by its PID and start time, see
+ * {@link #isSameProcess(long, long)}
+ */
+public final class ServerInfo implements TerminalPrintablePojo {
+    private final String serverName;
+    private final String defaultHostname;
+    private final Path userDirectory;
+    private final Path installDirectory;
+    private final String productName;
+    private final String libertyVersion;
+    private final String javaSpecificationVersion;
+    private final String javaRuntimeVersion;
+    private final String vmName;
+    private final long pid;
+    private final long startTime;
+
+    /**
+     * @param serverName               The server name
+     * @param defaultHostname          The default hostname
+     * @param userDirectory            The user directory
+     * @param installDirectory         The install directory
+     * @param productName              The product name, e.g. Open Liberty
+     * @param libertyVersion           The Liberty version
+     * @param javaSpecificationVersion The Java specification version
+     * @param javaRuntimeVersion       The Java runtime version
+     * @param vmName                   The name of the JVM
+     * @param pid                      The PID of the server process, -1 if unknown
+     * @param startTime                The start time of the server process, in milliseconds since the epoch
+     */
+    public ServerInfo(String serverName, String defaultHostname, Path userDirectory, Path installDirectory,
+                      String productName, String libertyVersion, String javaSpecificationVersion,
+                      String javaRuntimeVersion, String vmName, long pid, long startTime) {
+        this.serverName = serverName;
+        this.defaultHostname = defaultHostname;
+        this.userDirectory = userDirectory;
+        this.installDirectory = installDirectory;
+        this.productName = productName;
+        this.libertyVersion = libertyVersion;
+        this.javaSpecificationVersion = javaSpecificationVersion;
+        this.javaRuntimeVersion = javaRuntimeVersion;
+        this.vmName = vmName;
+        this.pid = pid;
+        this.startTime = startTime;
+    }
 
     public String getServerName() {
         return serverName;
     }
 
-    public void setServerName(String serverName) {
-        this.serverName = serverName;
-    }
-
     public String getDefaultHostname() {
         return defaultHostname;
     }
 
-    public void setDefaultHostname(String defaultHostname) {
-        this.defaultHostname = defaultHostname;
-    }
-
     public Path getUserDirectory() {
         return userDirectory;
     }
 
-    public void setUserDirectory(Path userDirectory) {
-        this.userDirectory = userDirectory;
-    }
-
     public Path getInstallDirectory() {
         return installDirectory;
     }
 
-    public void setInstallDirectory(Path installDirectory) {
-        this.installDirectory = installDirectory;
+    public String getProductName() {
+        return productName;
     }
 
     public String getLibertyVersion() {
         return libertyVersion;
     }
 
-    public void setLibertyVersion(String libertyVersion) {
-        this.libertyVersion = libertyVersion;
-    }
-
     public String getJavaSpecificationVersion() {
         return javaSpecificationVersion;
     }
 
-    public void setJavaSpecificationVersion(String javaSpecificationVersion) {
-        this.javaSpecificationVersion = javaSpecificationVersion;
-    }
-
     public String getJavaRuntimeVersion() {
         return javaRuntimeVersion;
     }
 
-    public void setJavaRuntimeVersion(String javaRuntimeVersion) {
-        this.javaRuntimeVersion = javaRuntimeVersion;
+    public String getVmName() {
+        return vmName;
+    }
+
+    public long getPid() {
+        return pid;
+    }
+
+    public long getStartTime() {
+        return startTime;
+    }
+
+    /**
+     * @param pid       The PID of a server process
+     * @param startTime The start time of a server process
+     * @return Whether this information is of that server process
+     */
+    public boolean isSameProcess(long pid, long startTime) {
+        return this.pid == pid && this.startTime == startTime;
+    }
+
+    /**
+     * @return The version of the server, like the server version command prints it
+     */
+    public String getVersionDescription() {
+        return productName + " " + libertyVersion + " on " + vmName + ", version " + javaRuntimeVersion;
     }
 
     @Override
@@ -78,9 +122,13 @@ public class ServerInfo implements TerminalPrintablePojo {
                 ", defaultHostname='" + defaultHostname + '\'' +
                 ", userDirectory=" + userDirectory +
                 ", installDirectory=" + installDirectory +
+                ", productName='" + productName + '\'' +
                 ", libertyVersion='" + libertyVersion + '\'' +
                 ", javaSpecificationVersion='" + javaSpecificationVersion + '\'' +
                 ", javaRuntimeVersion='" + javaRuntimeVersion + '\'' +
+                ", vmName='" + vmName + '\'' +
+                ", pid=" + pid +
+                ", startTime=" + startTime +
                 '}';
     }
 
@@ -101,6 +149,9 @@ public class ServerInfo implements TerminalPrintablePojo {
                 .append('\'').append("\n")
                 .append("javaRuntimeVersion='").append(javaRuntimeVersion, AttributedStyle.DEFAULT.foreground(AttributedStyle.GREEN))
                 .append('\'').append("\n")
+                .append("pid=").append(String.valueOf(pid), AttributedStyle.DEFAULT.foreground(AttributedStyle.GREEN))
+                .append(", started at ").append(Instant.ofEpochMilli(startTime).toString(), AttributedStyle.DEFAULT.foreground(AttributedStyle.GREEN))
+                .append("\n")
                 .toAnsi();
     }
 }
@@ -0,0 +1,19 @@
+package dev.roshin.openliberty.repl.controllers.jmx.fleet;
+
+import dev.roshin.openliberty.repl.controllers.jmx.JMXServerManager;
+
+/**
+ * A command run on each server of the fleet
+ *
+ * @param <T> The result of the command on one server
+ */
+@FunctionalInterface
+public interface FleetCommand<T> {
+
+    /**
+     * @param jmxServerManager The manager of one server
+     * @return The result on that server
+     * @throws Exception If the command failed on that server, the other servers are not affected
+     */
+    T run(JMXServerManager jmxServerManager) throws Exception;
+}
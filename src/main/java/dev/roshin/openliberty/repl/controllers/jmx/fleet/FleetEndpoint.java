@@ -0,0 +1,75 @@
+package dev.roshin.openliberty.repl.controllers.jmx.fleet;
+
+import com.google.common.base.Preconditions;
+import com.google.common.base.Strings;
+
+import java.net.URL;
+import java.util.Objects;
+
+/**
+ * The REST connector of one server of the fleet
+ */
+public final class FleetEndpoint {
+    private final String name;
+    private final URL baseURL;
+    private final String username;
+    private final String password;
+
+    /**
+     * @param name     The name of the server, unique in the fleet
+     * @param baseURL  The base URL of its REST connector
+     * @param username The user name
+     * @param password The password
+     */
+    public FleetEndpoint(String name, URL baseURL, String username, String password) {
+        Preconditions.checkArgument(!Strings.isNullOrEmpty(name), "name cannot be null or empty");
+        Preconditions.checkNotNull(baseURL, "baseURL cannot be null");
+        this.name = name;
+        this.baseURL = baseURL;
+        this.username = username;
+        this.password = password;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public URL getBaseURL() {
+        return baseURL;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public String getPassword() {
+        return password;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof FleetEndpoint)) {
+            return false;
+        }
+        FleetEndpoint that = (FleetEndpoint) o;
+        return name.equals(that.name) && baseURL.toString().equals(that.baseURL.toString())
+                && Objects.equals(username, that.username) && Objects.equals(password, that.password);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(name, baseURL.toString(), username);
+    }
+
+    @Override
+    public String toString() {
+        return "FleetEndpoint{" +
+                "name='" + name + '\'' +
+                ", baseURL=" + baseURL +
+                ", username='" + username + '\'' +
+                '}';
+    }
+}
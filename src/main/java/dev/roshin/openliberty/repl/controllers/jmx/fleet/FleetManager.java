@@ -0,0 +1,301 @@
+package dev.roshin.openliberty.repl.controllers.jmx.fleet;
+
+import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import dev.roshin.openliberty.repl.controllers.jmx.JMXServerManager;
+import dev.roshin.openliberty.repl.controllers.jmx.JMXServerManagerImpl;
+import dev.roshin.openliberty.repl.controllers.jmx.domain.ApplicationRestartSummary;
+import dev.roshin.openliberty.repl.controllers.jmx.domain.ApplicationStatus;
+import dev.roshin.openliberty.repl.controllers.jmx.domain.JvmTelemetry;
+import dev.roshin.openliberty.repl.controllers.jmx.rest.JMXUtil;
+import dev.roshin.openliberty.repl.controllers.jmx.rest.JmxHttpClients;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Runs commands on many servers at once: status, application restarts, JVM telemetry, or any {@link FleetCommand}.
+ * <p>
+ * Each server has one manager, created on first use and kept, so its HTTP client and connections, shared per
+ * endpoint by {@link JmxHttpClients}, stay open between commands. A command runs on all the servers concurrently, so
+ * the fleet answers in about the time of its slowest server, each result is given to the listener as soon as it is
+ * known, and a server slower than the per-server timeout is reported as failed without holding up the others. The
+ * command keeps running on that server, the requests it sent cannot be taken back, and is reported as still running.
+ */
+public class FleetManager implements AutoCloseable {
+    public static final Duration DEFAULT_PER_SERVER_TIMEOUT = Duration.ofSeconds(10);
+
+    private final Duration perServerTimeout;
+    // Sorted by server name, so the results are always in the same order
+    private final Map<String, Member> members = new ConcurrentSkipListMap<>();
+    private final ExecutorService executor;
+    private final Logger logger;
+
+    public FleetManager() {
+        this(DEFAULT_PER_SERVER_TIMEOUT);
+    }
+
+    /**
+     * @param perServerTimeout How long a command can take on one server before it is reported as failed
+     */
+    public FleetManager(Duration perServerTimeout) {
+        Preconditions.checkArgument(perServerTimeout != null && !perServerTimeout.isNegative() && !perServerTimeout.isZero(),
+                "perServerTimeout must be positive");
+        this.perServerTimeout = perServerTimeout;
+        // The managers block their caller, one daemon thread per server in flight, they must not keep the REPL alive
+        this.executor = Executors.newCachedThreadPool(new ThreadFactoryBuilder()
+                .setNameFormat("fleet-%d")
+                .setDaemon(true)
+                .build());
+        this.logger = LoggerFactory.getLogger(getClass());
+    }
+
+    /**
+     * Finds the running servers of a servers directory, those that wrote the address of their REST connector
+     *
+     * @param serversDirectory The directory of the servers, e.g. wlp/usr/servers
+     * @param username         The user name of all the servers
+     * @param password         The password of all the servers
+     * @return The endpoints found, by server name
+     * @throws IOException If the directory cannot be listed
+     */
+    public static List<FleetEndpoint> discoverEndpoints(Path serversDirectory, String username, String password) throws IOException {
+        Preconditions.checkNotNull(serversDirectory, "serversDirectory cannot be null");
+        Logger logger = LoggerFactory.getLogger(FleetManager.class);
+        List<FleetEndpoint> endpoints = new ArrayList<>();
+        try (DirectoryStream<Path> servers = Files.newDirectoryStream(serversDirectory, Files::isDirectory)) {
+            for (Path server : servers) {
+                Path addressFile = JMXUtil.getRestConnectorAddressFile(server);
+                if (!Files.isRegularFile(addressFile)) {
+                    continue;
+                }
+                try {
+                    endpoints.add(new FleetEndpoint(server.getFileName().toString(),
+                            JMXUtil.readRestConnectorURL(addressFile), username, password));
+                } catch (IOException e) {
+                    logger.debug("Cannot read the REST connector address of " + server, e);
+                }
+            }
+        }
+        endpoints.sort((first, second) -> first.getName().compareTo(second.getName()));
+        return endpoints;
+    }
+
+    /**
+     * Adds a server to the fleet, or replaces the server of the same name if its endpoint changed, and opens its
+     * connection in the background
+     * <p>
+     * Registering the same endpoint again, e.g. when the fleet is discovered again, keeps the server and its manager
+     *
+     * @param endpoint The endpoint of the server
+     */
+    public void register(FleetEndpoint endpoint) {
+        Preconditions.checkNotNull(endpoint, "endpoint cannot be null");
+        logger.debug("Registering {}", endpoint);
+        Member added = new Member(endpoint);
+        Member previous = members.putIfAbsent(endpoint.getName(), added);
+        while (previous != null) {
+            if (previous.endpoint.equals(endpoint)) {
+                logger.debug("{} is already registered", endpoint.getName());
+                return;
+            }
+            if (members.replace(endpoint.getName(), previous, added)) {
+                previous.close();
+                break;
+            }
+            // Changed meanwhile
+            previous = members.putIfAbsent(endpoint.getName(), added);
+        }
+        // The first command does not pay for the TLS handshake
+        JmxHttpClients.warmUp(endpoint.getBaseURL());
+    }
+
+    /**
+     * @param name The name of the server
+     * @return Whether the server was in the fleet
+     */
+    public boolean unregister(String name) {
+        logger.debug("Unregistering {}", name);
+        Member removed = members.remove(name);
+        if (removed != null) {
+            removed.close();
+        }
+        return removed != null;
+    }
+
+    /**
+     * @return The endpoints of the fleet, by server name
+     */
+    public List<FleetEndpoint> getEndpoints() {
+        List<FleetEndpoint> endpoints = new ArrayList<>(members.size());
+        members.values().forEach(member -> endpoints.add(member.endpoint));
+        return endpoints;
+    }
+
+    public Duration getPerServerTimeout() {
+        return perServerTimeout;
+    }
+
+    /**
+     * Runs a command on all the servers of the fleet at once, each within the per-server timeout
+     *
+     * @see #runAsync(FleetCommand, Duration, FleetResultListener)
+     */
+    public <T> CompletableFuture<List<FleetResult<T>>> runAsync(FleetCommand<T> command, FleetResultListener<T> listener) {
+        return runAsync(command, perServerTimeout, listener);
+    }
+
+    /**
+     * Runs a command on all the servers of the fleet at once, without blocking the calling thread
+     *
+     * @param command  The command, cannot be null
+     * @param timeout  How long the command can take on one server, e.g. longer than the per-server timeout for the
+     *                 restarts
+     * @param listener Receives the result of each server as soon as it is known, cannot be null
+     * @param <T>      The result of the command on one server
+     * @return A future completed with the results of all the servers, by server name, never exceptionally
+     */
+    public <T> CompletableFuture<List<FleetResult<T>>> runAsync(FleetCommand<T> command, Duration timeout,
+                                                                FleetResultListener<T> listener) {
+        Preconditions.checkNotNull(command, "command cannot be null");
+        Preconditions.checkArgument(timeout != null && !timeout.isNegative() && !timeout.isZero(), "timeout must be positive");
+        Preconditions.checkNotNull(listener, "listener cannot be null");
+        List<Member> fleet = new ArrayList<>(members.values());
+        logger.debug("Running a command on {} servers", fleet.size());
+
+        List<CompletableFuture<FleetResult<T>>> futures = new ArrayList<>(fleet.size());
+        for (Member member : fleet) {
+            final long start = System.nanoTime();
+            String serverName = member.endpoint.getName();
+            CompletableFuture<T> running = CompletableFuture.supplyAsync(() -> {
+                try {
+                    return command.run(member.getManager(perServerTimeout));
+                } catch (Exception e) {
+                    throw new CompletionException(e);
+                }
+            }, executor);
+            // The timeout only stops waiting, the requests already sent cannot be taken back, so a command that timed
+            // out is reported as still running and its outcome is logged when it ends
+            CompletableFuture<FleetResult<T>> future = running.copy()
+                    .orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS)
+                    .handle((value, throwable) -> {
+                        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                        if (throwable == null) {
+                            return FleetResult.succeeded(serverName, value, elapsedMillis);
+                        }
+                        return FleetResult.<T>failed(serverName, describe(throwable, timeout), elapsedMillis);
+                    });
+            future.thenAccept(result -> {
+                if (result.isFailed() && !running.isDone()) {
+                    running.whenComplete((value, throwable) -> logger.info("The command that timed out on {} ended {}",
+                            serverName, throwable == null ? "successfully" : "with " + describe(throwable, timeout)));
+                }
+            });
+            // Streamed, a listener failure does not lose the result
+            futures.add(future.whenComplete((result, throwable) -> {
+                try {
+                    listener.completed(result);
+                } catch (RuntimeException e) {
+                    logger.error("Fleet listener failed on the result of " + serverName, e);
+                }
+            }));
+        }
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0]))
+                .thenApply(ignored -> futures.stream().map(CompletableFuture::join).toList());
+    }
+
+    /**
+     * @param listener Receives the status of the applications of each server
+     * @return A future completed with the results of all the servers
+     */
+    public CompletableFuture<List<FleetResult<List<ApplicationStatus>>>> getAllApplicationStatusAsync(
+            FleetResultListener<List<ApplicationStatus>> listener) {
+        return runAsync(JMXServerManager::getAllApplicationStatus, listener);
+    }
+
+    /**
+     * @param timeout  How long the restart of all the applications of one server can take
+     * @param listener Receives the restart summary of each server
+     * @return A future completed with the results of all the servers
+     */
+    public CompletableFuture<List<FleetResult<ApplicationRestartSummary>>> restartAllApplicationsAsync(
+            Duration timeout, FleetResultListener<ApplicationRestartSummary> listener) {
+        return runAsync(JMXServerManager::restartAllApplications, timeout, listener);
+    }
+
+    /**
+     * @param listener Receives the JVM telemetry of each server
+     * @return A future completed with the results of all the servers
+     */
+    public CompletableFuture<List<FleetResult<JvmTelemetry>>> sampleJvmTelemetryAsync(FleetResultListener<JvmTelemetry> listener) {
+        return runAsync(JMXServerManager::sampleJvmTelemetry, listener);
+    }
+
+    /**
+     * @param throwable Why a command failed
+     * @param timeout   The timeout of the command
+     * @return The message of the root cause
+     */
+    private static String describe(Throwable throwable, Duration timeout) {
+        Throwable cause = throwable;
+        while ((cause instanceof CompletionException || cause instanceof ExecutionException) && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        if (cause instanceof TimeoutException) {
+            return "Timed out after " + timeout.toMillis() + " ms, the command is still running";
+        }
+        return cause.getMessage() != null ? cause.getMessage() : cause.toString();
+    }
+
+    @Override
+    public void close() {
+        logger.debug("Closing the fleet manager");
+        members.values().forEach(Member::close);
+        members.clear();
+        executor.shutdownNow();
+    }
+
+    /**
+     * One server of the fleet and its manager, created once
+     */
+    private static final class Member {
+        private final FleetEndpoint endpoint;
+        private JMXServerManager manager;
+
+        private Member(FleetEndpoint endpoint) {
+            this.endpoint = endpoint;
+        }
+
+        private synchronized JMXServerManager getManager(Duration timeout) throws Exception {
+            if (manager == null) {
+                // No retries, the per-server timeout bounds the whole command
+                manager = new JMXServerManagerImpl(endpoint.getBaseURL(), endpoint.getUsername(), endpoint.getPassword(),
+                        timeout, 0);
+            }
+            return manager;
+        }
+
+        private synchronized void close() {
+            if (manager != null) {
+                manager.close();
+                manager = null;
+            }
+        }
+    }
+}
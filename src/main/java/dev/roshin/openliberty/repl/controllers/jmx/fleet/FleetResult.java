@@ -0,0 +1,81 @@
+package dev.roshin.openliberty.repl.controllers.jmx.fleet;
+
+import dev.roshin.openliberty.repl.TerminalPrintablePojo;
+import org.jline.utils.AttributedStringBuilder;
+import org.jline.utils.AttributedStyle;
+
+/**
+ * The outcome of a fleet command on one server, its result or why it failed
+ *
+ * @param <T> The result of the command
+ */
+public final class FleetResult<T> implements TerminalPrintablePojo {
+    private final String serverName;
+    private final T value;
+    private final String error;
+    private final long elapsedMillis;
+
+    private FleetResult(String serverName, T value, String error, long elapsedMillis) {
+        this.serverName = serverName;
+        this.value = value;
+        this.error = error;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public static <T> FleetResult<T> succeeded(String serverName, T value, long elapsedMillis) {
+        return new FleetResult<>(serverName, value, null, elapsedMillis);
+    }
+
+    public static <T> FleetResult<T> failed(String serverName, String error, long elapsedMillis) {
+        return new FleetResult<>(serverName, null, error, elapsedMillis);
+    }
+
+    public String getServerName() {
+        return serverName;
+    }
+
+    /**
+     * @return The result, null if the command failed
+     */
+    public T getValue() {
+        return value;
+    }
+
+    /**
+     * @return Why the command failed, or timed out, null if it succeeded
+     */
+    public String getError() {
+        return error;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public boolean isFailed() {
+        return error != null;
+    }
+
+    @Override
+    public String toString() {
+        return "FleetResult{" +
+                "serverName='" + serverName + '\'' +
+                ", value=" + value +
+                ", error='" + error + '\'' +
+                ", elapsedMillis=" + elapsedMillis +
+                '}';
+    }
+
+    @Override
+    public String toTerminalString() {
+        AttributedStringBuilder builder = new AttributedStringBuilder()
+                .append(serverName, AttributedStyle.BOLD.foreground(AttributedStyle.CYAN))
+                .append(" (").append(String.valueOf(elapsedMillis)).append(" ms) ");
+        if (isFailed()) {
+            return builder.append(error, AttributedStyle.DEFAULT.foreground(AttributedStyle.RED)).append("\n").toAnsi();
+        }
+        builder.append("\n");
+        return builder.toAnsi() + (value instanceof TerminalPrintablePojo
+                ? ((TerminalPrintablePojo) value).toTerminalString() : value + "\n");
+    }
+}
@@ -0,0 +1,12 @@
+package dev.roshin.openliberty.repl.controllers.jmx.fleet;
+
+/**
+ * Receives the result of each server as soon as it is known, on the thread that completed it
+ *
+ * @param <T> The result of the command on one server
+ */
+@FunctionalInterface
+public interface FleetResultListener<T> {
+
+    void completed(FleetResult<T> result);
+}
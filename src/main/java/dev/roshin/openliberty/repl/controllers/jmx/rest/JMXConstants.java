@@ -2,8 +2,46 @@ package dev.roshin.openliberty.repl.controllers.jmx.rest;
 
 public class JMXConstants {
     public static final String SERVER_INFO_MBEAN_OBJECT_QUERY = "WebSphere:feature=kernel,name=ServerInfo";
+    public static final String RUNTIME_MBEAN_OBJECT_NAME = "java.lang:type=Runtime";
+    public static final String RUNTIME_MBEAN_NAME_ATTRIBUTE = "Name";
+    public static final String RUNTIME_MBEAN_START_TIME_ATTRIBUTE = "StartTime";
+    public static final String RUNTIME_MBEAN_VM_NAME_ATTRIBUTE = "VmName";
+    public static final String MEMORY_MBEAN_OBJECT_NAME = "java.lang:type=Memory";
+    public static final String MEMORY_MBEAN_HEAP_MEMORY_USAGE_ATTRIBUTE = "HeapMemoryUsage";
+    public static final String MEMORY_MBEAN_NON_HEAP_MEMORY_USAGE_ATTRIBUTE = "NonHeapMemoryUsage";
+    public static final String THREADING_MBEAN_OBJECT_NAME = "java.lang:type=Threading";
+    public static final String THREADING_MBEAN_THREAD_COUNT_ATTRIBUTE = "ThreadCount";
+    public static final String THREADING_MBEAN_PEAK_THREAD_COUNT_ATTRIBUTE = "PeakThreadCount";
+    public static final String THREADING_MBEAN_DAEMON_THREAD_COUNT_ATTRIBUTE = "DaemonThreadCount";
+    // Only on HotSpot, from Java 14
+    public static final String THREADING_MBEAN_TOTAL_THREAD_ALLOCATED_BYTES_ATTRIBUTE = "TotalThreadAllocatedBytes";
+    public static final String CLASS_LOADING_MBEAN_OBJECT_NAME = "java.lang:type=ClassLoading";
+    public static final String CLASS_LOADING_MBEAN_LOADED_CLASS_COUNT_ATTRIBUTE = "LoadedClassCount";
+    public static final String CLASS_LOADING_MBEAN_TOTAL_LOADED_CLASS_COUNT_ATTRIBUTE = "TotalLoadedClassCount";
+    public static final String CLASS_LOADING_MBEAN_UNLOADED_CLASS_COUNT_ATTRIBUTE = "UnloadedClassCount";
+    public static final String OPERATING_SYSTEM_MBEAN_OBJECT_NAME = "java.lang:type=OperatingSystem";
+    public static final String OPERATING_SYSTEM_MBEAN_PROCESS_CPU_LOAD_ATTRIBUTE = "ProcessCpuLoad";
+    public static final String OPERATING_SYSTEM_MBEAN_PROCESS_CPU_TIME_ATTRIBUTE = "ProcessCpuTime";
+    // CpuLoad replaced SystemCpuLoad in Java 14, both are read
+    public static final String OPERATING_SYSTEM_MBEAN_CPU_LOAD_ATTRIBUTE = "CpuLoad";
+    public static final String OPERATING_SYSTEM_MBEAN_SYSTEM_CPU_LOAD_ATTRIBUTE = "SystemCpuLoad";
+    public static final String OPERATING_SYSTEM_MBEAN_AVAILABLE_PROCESSORS_ATTRIBUTE = "AvailableProcessors";
+    public static final String OPERATING_SYSTEM_MBEAN_SYSTEM_LOAD_AVERAGE_ATTRIBUTE = "SystemLoadAverage";
+    public static final String GARBAGE_COLLECTOR_MBEAN_OBJECT_QUERY = "java.lang:type=GarbageCollector,name=*";
+    public static final String GARBAGE_COLLECTOR_MBEAN_COLLECTION_COUNT_ATTRIBUTE = "CollectionCount";
+    public static final String GARBAGE_COLLECTOR_MBEAN_COLLECTION_TIME_ATTRIBUTE = "CollectionTime";
     public static final String APPLICATION_MBEAN_OBJECT_QUERY = "WebSphere:service=com.ibm.websphere.application.ApplicationMBean,name=*";
     public static final String APPLICATION_MBEAN_RESTART_OPERATION = "restart";
+    public static final String APPLICATION_MBEAN_STATE_ATTRIBUTE = "State";
     public static final String FRAMEWORK_MBEAN_OBJECT_QUERY = "osgi.core:type=framework,version=*,framework=org.eclipse.osgi,uuid=*";
     public static final String FRAMEWORK_MBEAN_SHUTDOWN_OPERATION = "shutdownFramework";
+    public static final String MBEAN_SERVER_DELEGATE_OBJECT_NAME = "JMImplementation:type=MBeanServerDelegate";
+    public static final String MBEAN_REGISTERED_NOTIFICATION_TYPE = "JMX.mbean.registered";
+    // MBeans of the monitor-1.0 feature, the name key tells the pool, servlet, session or data source apart
+    public static final String MONITOR_MBEAN_DOMAIN = "WebSphere";
+    public static final String MONITOR_MBEAN_NAME_KEY = "name";
+    public static final String THREAD_POOL_STATS_MBEAN_TYPE = "ThreadPoolStats";
+    public static final String SERVLET_STATS_MBEAN_TYPE = "ServletStats";
+    public static final String SESSION_STATS_MBEAN_TYPE = "SessionStats";
+    public static final String CONNECTION_POOL_STATS_MBEAN_TYPE = "ConnectionPoolStats";
 }
@@ -19,20 +19,51 @@ public class JMXUtil {
     public static URL findRestConnectorURL(LibertyPluginConfigs libertyPluginConfigs, Terminal terminal) throws MalformedURLException {
         logger.debug("Starting findRestConnectorURL");
 
-        // Get the server output directory from the liberty-plugin-config.xml file
-        Path serverOutputDirectory = libertyPluginConfigs.getServerOutputDirectory();
         // Create path to ${server.output.dir}/logs/state/com.ibm.ws.jmx.rest.address file
-        Path jmxRestAddress = (serverOutputDirectory).resolve("logs/state/com.ibm.ws.jmx.rest.address");
+        Path jmxRestAddress = getRestConnectorAddressFile(libertyPluginConfigs);
         // Load the com.ibm.ws.jmx.rest.address file
-        String restConnectorURL;
         try {
-            restConnectorURL = Files.readString(jmxRestAddress);
+            return readRestConnectorURL(jmxRestAddress);
+        } catch (MalformedURLException e) {
+            throw e;
         } catch (IOException e) {
             // Inform the user that the com.ibm.ws.jmx.rest.address file could not be loaded
             TerminalUtils.printErrorMessages("Error while loading the com.ibm.ws.jmx.rest.address file", terminal);
             logger.debug("Error while loading the com.ibm.ws.jmx.rest.address file", e);
             throw new RuntimeException("Error while loading the com.ibm.ws.jmx.rest.address file", e);
         }
+    }
+
+    /**
+     * Gets the path of the file the server writes the REST connector address to, once the connector is available
+     *
+     * @param libertyPluginConfigs The liberty plugin configuration
+     * @return The path to ${server.output.dir}/logs/state/com.ibm.ws.jmx.rest.address, which may not exist
+     */
+    public static Path getRestConnectorAddressFile(LibertyPluginConfigs libertyPluginConfigs) {
+        // Get the server output directory from the liberty-plugin-config.xml file
+        return getRestConnectorAddressFile(libertyPluginConfigs.getServerOutputDirectory());
+    }
+
+    /**
+     * Gets the path of the file a server writes the REST connector address to, once the connector is available
+     *
+     * @param serverOutputDirectory The output directory of the server, e.g. wlp/usr/servers/defaultServer
+     * @return The path to ${server.output.dir}/logs/state/com.ibm.ws.jmx.rest.address, which may not exist
+     */
+    public static Path getRestConnectorAddressFile(Path serverOutputDirectory) {
+        return serverOutputDirectory.resolve("logs/state/com.ibm.ws.jmx.rest.address");
+    }
+
+    /**
+     * Reads the REST connector URL from the com.ibm.ws.jmx.rest.address file
+     *
+     * @param jmxRestAddress The path to the com.ibm.ws.jmx.rest.address file
+     * @return The https URL of the REST connector
+     * @throws IOException If the file cannot be read or does not contain a valid URL
+     */
+    public static URL readRestConnectorURL(Path jmxRestAddress) throws IOException {
+        String restConnectorURL = Files.readString(jmxRestAddress).trim();
         // The url format will be service:jmx:rest://localhost:9443/IBMJMXConnectorREST, so we need to replace the service:jmx:rest:// with https
         restConnectorURL = restConnectorURL.replace("service:jmx:rest://", "https://");
         // Create a URL object from the restConnectorURL string
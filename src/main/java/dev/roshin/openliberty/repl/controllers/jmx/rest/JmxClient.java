@@ -3,50 +3,103 @@ package dev.roshin.openliberty.repl.controllers.jmx.rest;
 import com.google.common.base.Preconditions;
 import com.google.common.base.Strings;
 import com.google.common.base.Verify;
-import com.google.gson.*;
-import com.google.gson.reflect.TypeToken;
+import com.google.common.io.CountingInputStream;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
+import dev.roshin.openliberty.repl.controllers.jmx.rest.JsonStreamDecoder.ResponseDecoder;
 import dev.roshin.openliberty.repl.controllers.jmx.rest.domain.MBeanInfo;
+import dev.roshin.openliberty.repl.controllers.jmx.rest.domain.MBeanMetadata;
+import dev.roshin.openliberty.repl.controllers.jmx.rest.domain.ProbeResult;
 import dev.roshin.openliberty.repl.controllers.jmx.rest.domain.attributes.Attribute;
+import dev.roshin.openliberty.repl.controllers.jmx.rest.domain.attributes.AttributeValue;
+import dev.roshin.openliberty.repl.controllers.jmx.rest.exceptions.CircuitBreakerOpenException;
+import dev.roshin.openliberty.repl.controllers.jmx.rest.exceptions.JmxRequestException;
+import dev.roshin.openliberty.repl.controllers.jmx.rest.metrics.JmxClientMetrics;
+import dev.roshin.openliberty.repl.controllers.jmx.rest.metrics.JmxEndpoint;
+import dev.roshin.openliberty.repl.controllers.jmx.rest.resilience.CircuitBreaker;
+import dev.roshin.openliberty.repl.controllers.jmx.rest.resilience.ExponentialBackoffRetryPolicy;
+import dev.roshin.openliberty.repl.controllers.jmx.rest.resilience.RetryBudget;
+import dev.roshin.openliberty.repl.controllers.jmx.rest.resilience.RetryPolicy;
+import dev.roshin.openliberty.repl.controllers.utils.ConcurrencyLimiter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import javax.net.ssl.SSLContext;
-import javax.net.ssl.TrustManager;
-import javax.net.ssl.X509TrustManager;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.net.ConnectException;
 import java.net.MalformedURLException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URL;
+import java.net.URLEncoder;
 import java.net.http.HttpClient;
+import java.net.http.HttpConnectTimeoutException;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
 import java.security.KeyManagementException;
 import java.security.NoSuchAlgorithmException;
-import java.security.cert.X509Certificate;
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Base64;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.function.Predicate;
 
 public class JmxClient {
     private final HttpClient client;
     private final URL baseUrl;
     private final String authHeader;
-    private final int retries;
+    private final RetryPolicy retryPolicy;
+    private final RetryBudget retryBudget;
+    private final CircuitBreaker circuitBreaker;
     private final Duration timeout;
+    private final MBeanMetadataCache metadataCache;
+    private final JmxClientMetrics metrics = new JmxClientMetrics();
+    private final ExecutorService executor;
     private final Logger logger;
     private static final String EMPTY_POST_BODY = "{\"params\":[],\"signature\":[]}";
-    private static final Duration DURATION_BETWEEN_REQUESTS = Duration.ofSeconds(1);
     private static final String MBEAN_URL_CONTEXT_ROOT = "/IBMJMXConnectorREST/mbeans";
-
-
-    private final Gson gson = new Gson();
+    private static final Duration DEFAULT_METADATA_TIME_TO_LIVE = Duration.ofMinutes(5);
+    private static final Duration DEFAULT_QUERY_TIME_TO_LIVE = Duration.ofSeconds(30);
+    private static final int MAX_ERROR_BODY_BYTES = 64 * 1024;
+    private static final String ATTRIBUTES_URL_SUFFIX = "/attributes";
+    public static final int DEFAULT_MAX_CONCURRENT_REQUESTS = 16;
+    public static final Duration DEFAULT_NOTIFICATION_DELIVERY_INTERVAL = Duration.ofSeconds(10);
+    public static final Duration DEFAULT_PROBE_TIMEOUT = Duration.ofSeconds(2);
 
     public JmxClient(String host, int port, String username, String password, Duration timeout, int retries) throws Exception {
         this(new URL("https://" + host + ":" + port), username, password, timeout, retries);
     }
 
     public JmxClient(URL baseUrl, String username, String password, Duration timeout, int retries) throws NoSuchAlgorithmException, KeyManagementException, MalformedURLException {
+        this(baseUrl, username, password, timeout, retries, DEFAULT_METADATA_TIME_TO_LIVE, DEFAULT_QUERY_TIME_TO_LIVE);
+    }
+
+    public JmxClient(URL baseUrl, String username, String password, Duration timeout, int retries,
+                     Duration metadataTimeToLive, Duration queryTimeToLive) throws NoSuchAlgorithmException, KeyManagementException, MalformedURLException {
+        this(baseUrl, username, password, timeout, new ExponentialBackoffRetryPolicy(toMaxAttempts(retries)),
+                new CircuitBreaker(), metadataTimeToLive, queryTimeToLive);
+    }
+
+    public JmxClient(URL baseUrl, String username, String password, Duration timeout, RetryPolicy retryPolicy,
+                     CircuitBreaker circuitBreaker, Duration metadataTimeToLive, Duration queryTimeToLive) throws NoSuchAlgorithmException, KeyManagementException, MalformedURLException {
         this.logger = LoggerFactory.getLogger(getClass());
         logger.debug("Starting JmxClient constructor");
 
@@ -54,29 +107,12 @@ public class JmxClient {
         Preconditions.checkArgument(!Strings.isNullOrEmpty(username), "Username cannot be null or empty");
         Preconditions.checkArgument(!Strings.isNullOrEmpty(password), "Password cannot be null or empty");
         Preconditions.checkNotNull(timeout, "Timeout cannot be null");
-        Preconditions.checkArgument(retries >= 0, "Retries cannot be negative");
-
-        // Trust all certificates
-        SSLContext sslContext = SSLContext.getInstance("TLS");
-        TrustManager[] trustAllCerts = new TrustManager[]{
-                new X509TrustManager() {
-                    public java.security.cert.X509Certificate[] getAcceptedIssuers() {
-                        return new X509Certificate[0];
-                    }
-
-                    public void checkClientTrusted(java.security.cert.X509Certificate[] certs, String authType) {
-                    }
+        Preconditions.checkNotNull(retryPolicy, "Retry policy cannot be null");
+        Preconditions.checkNotNull(circuitBreaker, "Circuit breaker cannot be null");
 
-                    public void checkServerTrusted(java.security.cert.X509Certificate[] certs, String authType) {
-                    }
-                }
-        };
-        sslContext.init(null, trustAllCerts, new java.security.SecureRandom());
-        // Create HTTP client, with the SSL context and timeout
-        this.client = HttpClient.newBuilder()
-                .sslContext(sslContext)
-                .connectTimeout(timeout)
-                .build();
+        // Get the HTTP client shared by all the clients of the endpoint, its connections and TLS sessions are reused
+        this.client = JmxHttpClients.forEndpoint(baseUrl, timeout);
+        this.executor = JmxHttpClients.getExecutor();
         // Create base URL, without the context root
         this.baseUrl = new URL(baseUrl.getProtocol(), baseUrl.getHost(), baseUrl.getPort(), "");
 
@@ -86,17 +122,34 @@ public class JmxClient {
         this.authHeader = "Basic " + new String(encodedAuth);
 
         this.timeout = timeout;
-        this.retries = retries;
+        this.retryPolicy = retryPolicy;
+        this.retryBudget = new RetryBudget();
+        this.circuitBreaker = circuitBreaker;
+        this.metadataCache = new MBeanMetadataCache(metadataTimeToLive, queryTimeToLive);
     }
 
 
+    /**
+     * Converts the legacy retries argument, which is the number of attempts, to the maximum number of attempts of a
+     * {@link RetryPolicy}. A request is always attempted at least once
+     *
+     * @param retries The number of attempts, cannot be negative
+     * @return The maximum number of attempts
+     */
+    private static int toMaxAttempts(int retries) {
+        Preconditions.checkArgument(retries >= 0, "Retries cannot be negative");
+        return Math.max(retries, 1);
+    }
+
     /**
      * Sends a GET or POST request to the specified URL
      * <p>
-     * If the request fails, it will retry the request {@link JmxClient#retries} times
-     * If the request fails after {@link JmxClient#retries} times, it will throw an exception
+     * If the request fails, it will be retried as the {@link RetryPolicy} allows
+     * If the request fails after the last attempt, it will throw an exception
      * If the request succeeds, it will return the response body
      * If the response status code is 400 or above, it will throw an exception
+     * <p>
+     * This is the blocking counterpart of {@link #sendRequestAsync(String, boolean)}
      *
      * @param url                     The URL to send the request to
      * @param shouldPostWithEmptyBody Whether the request should be a POST request with an empty body
@@ -107,50 +160,347 @@ public class JmxClient {
      */
     protected String sendRequest(String url, boolean shouldPostWithEmptyBody) throws InterruptedException, IOException, URISyntaxException {
         logger.debug("Starting sendRequest");
+        return await(sendRequestAsync(url, shouldPostWithEmptyBody));
+    }
+
+    /**
+     * Sends a GET or POST request to the specified URL without blocking the calling thread
+     * <p>
+     * The response body is returned as its JSON text, prefer {@link #sendRequestAsync(String, boolean, ResponseDecoder)}
+     * to decode it while it is read
+     *
+     * @param url                     The URL to send the request to
+     * @param shouldPostWithEmptyBody Whether the request should be a POST request with an empty body
+     * @return A future completed with the response body
+     */
+    protected CompletableFuture<String> sendRequestAsync(String url, boolean shouldPostWithEmptyBody) {
+        return sendRequestAsync(url, shouldPostWithEmptyBody, reader -> JsonParser.parseReader(reader).toString());
+    }
+
+    /**
+     * Sends a GET or POST request to the specified URL without blocking the calling thread, and decodes the response
+     * body while it is read from the connection
+     * <p>
+     * If the request fails, it will be retried as the {@link RetryPolicy} allows, within the {@link RetryBudget} of
+     * this client, waiting between attempts without holding a thread
+     * If the response status code is 400 or above, the returned future completes exceptionally
+     * If the {@link CircuitBreaker} is open, the returned future completes exceptionally without sending the request
+     * <p>
+     * The response stream is closed once the decoder returns, so a decoder that stops early does not read the
+     * remaining of the response
+     *
+     * @param url                     The URL to send the request to
+     * @param shouldPostWithEmptyBody Whether the request should be a POST request with an empty body
+     * @param decoder                 The decoder of the response body
+     * @param <T>                     The type of the decoded response
+     * @return A future completed with the decoded response
+     */
+    protected <T> CompletableFuture<T> sendRequestAsync(String url, boolean shouldPostWithEmptyBody, ResponseDecoder<T> decoder) {
+        if (shouldPostWithEmptyBody) {
+            return sendRequestAsync("POST", url, EMPTY_POST_BODY, timeout, decoder);
+        }
+        return sendRequestAsync("GET", url, null, timeout, decoder);
+    }
+
+    /**
+     * Sends a request with any method and body to the specified URL without blocking the calling thread, and decodes
+     * the response body while it is read from the connection
+     * <p>
+     * The request goes through the same retries and circuit breaker as
+     * {@link #sendRequestAsync(String, boolean, ResponseDecoder)}
+     *
+     * @param method         The HTTP method, e.g. GET, POST or DELETE
+     * @param url            The URL to send the request to
+     * @param body           The JSON request body, null to send none
+     * @param requestTimeout The timeout of each attempt, longer than the client timeout for long-polling requests
+     * @param decoder        The decoder of the response body, an empty body is left unread
+     * @param <T>            The type of the decoded response
+     * @return A future completed with the decoded response
+     */
+    protected <T> CompletableFuture<T> sendRequestAsync(String method, String url, String body, Duration requestTimeout,
+                                                        ResponseDecoder<T> decoder) {
+        return sendRequestAsync(method, url, body, requestTimeout, retryPolicy.getMaxAttempts(), decoder);
+    }
+
+    /**
+     * Sends a request with at most the given number of attempts, e.g. a single attempt when the caller bounds the
+     * request by its timeout and reports the failure itself
+     *
+     * @param method         The HTTP method, e.g. GET, POST or DELETE
+     * @param url            The URL to send the request to
+     * @param body           The JSON request body, null to send none
+     * @param requestTimeout The timeout of each attempt
+     * @param maxAttempts    The maximum number of attempts, at most those of the retry policy are made
+     * @param decoder        The decoder of the response body, an empty body is left unread
+     * @param <T>            The type of the decoded response
+     * @return A future completed with the decoded response
+     * @see #sendRequestAsync(String, String, String, Duration, ResponseDecoder)
+     */
+    protected <T> CompletableFuture<T> sendRequestAsync(String method, String url, String body, Duration requestTimeout,
+                                                        int maxAttempts, ResponseDecoder<T> decoder) {
+        logger.debug("Starting sendRequestAsync");
+        Preconditions.checkArgument(!Strings.isNullOrEmpty(method), "Method cannot be null or empty");
         Preconditions.checkArgument(!Strings.isNullOrEmpty(url), "URL cannot be null or empty");
+        Preconditions.checkNotNull(requestTimeout, "Request timeout cannot be null");
+        Preconditions.checkArgument(maxAttempts > 0, "Max attempts must be greater than 0");
+        Preconditions.checkNotNull(decoder, "Decoder cannot be null");
+
+        logger.debug("Sending {} request to {}", method, url);
+        retryBudget.onRequest();
+        final JmxEndpoint endpoint = JmxEndpoint.of(url);
+        final long start = System.nanoTime();
+        metrics.recordRequest(endpoint);
+        // Decode on the client executor, as reading the body blocks until the data arrives
+        int attempts = Math.min(maxAttempts, retryPolicy.getMaxAttempts());
+        return sendRequestAsync(method, url, body, requestTimeout, endpoint, 1, attempts)
+                .thenApplyAsync(response -> decodeResponse(response, endpoint, decoder), executor)
+                .whenComplete((result, throwable) -> {
+                    metrics.recordTotalLatency(endpoint, System.nanoTime() - start);
+                    if (throwable != null) {
+                        metrics.recordFailure(endpoint);
+                    }
+                });
+    }
+
+    /**
+     * Sends one attempt of the request and schedules the next attempt if it fails
+     *
+     * @param method         The HTTP method
+     * @param url            The URL to send the request to
+     * @param body           The JSON request body, can be null
+     * @param requestTimeout The timeout of the attempt
+     * @param endpoint       The kind of URL, to record the metrics under
+     * @param attempt        The attempt number, starting at 1
+     * @param maxAttempts    The maximum number of attempts
+     * @return A future completed with the successful response, its body not read yet
+     */
+    private CompletableFuture<HttpResponse<InputStream>> sendRequestAsync(String method, String url, String body,
+                                                                          Duration requestTimeout, JmxEndpoint endpoint,
+                                                                          int attempt, int maxAttempts) {
+        if (!circuitBreaker.allowRequest()) {
+            logger.debug("Circuit breaker is open, not sending request to " + url);
+            metrics.recordCircuitBreakerRejection();
+            return CompletableFuture.failedFuture(
+                    new CircuitBreakerOpenException("The JMX REST connector is down, not sending request to " + url));
+        }
+
+        final HttpRequest request;
+        try {
+            request = buildRequest(method, url, body, requestTimeout);
+        } catch (URISyntaxException e) {
+            logger.error("Invalid request URL " + url, e);
+            return CompletableFuture.failedFuture(e);
+        }
+
+        final long attemptStart = System.nanoTime();
+        return client.sendAsync(request, HttpResponse.BodyHandlers.ofInputStream())
+                .thenApplyAsync(response -> {
+                    // The headers are received, the body is still to be read
+                    metrics.recordServerLatency(endpoint, System.nanoTime() - attemptStart);
+                    return checkResponse(response);
+                }, executor)
+                .handle((response, throwable) -> {
+                    if (throwable == null) {
+                        circuitBreaker.onSuccess();
+                        return CompletableFuture.completedFuture(response);
+                    }
+                    Throwable cause = unwrap(throwable);
+                    if (isServerUnavailable(cause)) {
+                        circuitBreaker.onFailure();
+                    } else {
+                        // The server answered, it is up
+                        circuitBreaker.onSuccess();
+                    }
+                    if (cause instanceof ConnectException) {
+                        // The server is down or restarting, its MBeans will be registered again
+                        metadataCache.invalidateAll();
+                    }
+                    if (attempt >= maxAttempts || !retryPolicy.isRetryable(method, cause)) {
+                        logger.error("Request to " + url + " failed after " + attempt + " attempt(s)", cause);
+                        return CompletableFuture.<HttpResponse<InputStream>>failedFuture(cause);
+                    }
+                    if (!retryBudget.tryAcquireRetry()) {
+                        logger.error("Request to " + url + " failed, the retry budget is exhausted", cause);
+                        return CompletableFuture.<HttpResponse<InputStream>>failedFuture(cause);
+                    }
+                    Duration delay = retryPolicy.getDelay(attempt);
+                    logger.debug("Request failed, retrying in {} ms", delay.toMillis(), cause);
+                    metrics.recordRetry(endpoint);
+                    Executor delayedExecutor = CompletableFuture.delayedExecutor(delay.toMillis(), TimeUnit.MILLISECONDS, executor);
+                    return CompletableFuture.runAsync(() -> {
+                    }, delayedExecutor).thenCompose(ignored -> sendRequestAsync(method, url, body, requestTimeout, endpoint, attempt + 1, maxAttempts));
+                })
+                .thenCompose(Function.identity());
+    }
+
+    /**
+     * Whether the failure means the server could not be reached or could not answer, as opposed to the server
+     * answering with an error
+     * <p>
+     * The REST connector answers 500 when an MBean throws, e.g. an operation failing in the application, which does
+     * not mean the server is down. Only the gateway and unavailable answers, 502, 503 and 504, do.
+     *
+     * @param cause The failure
+     * @return true if the failure counts against the circuit breaker
+     */
+    private static boolean isServerUnavailable(Throwable cause) {
+        if (cause instanceof JmxRequestException) {
+            int statusCode = ((JmxRequestException) cause).getStatusCode();
+            return statusCode == 502 || statusCode == 503 || statusCode == 504;
+        }
+        return cause instanceof IOException && !(cause instanceof CircuitBreakerOpenException);
+    }
+
+    /**
+     * @return The request metrics of this client
+     */
+    public JmxClientMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * @return The circuit breaker of this client, to check whether the REST connector is known to be down
+     */
+    public CircuitBreaker getCircuitBreaker() {
+        return circuitBreaker;
+    }
+
+    /**
+     * Decodes the body of a successful response, closing the stream afterwards
+     *
+     * @param response The response
+     * @param endpoint The kind of URL, to record the bytes received under
+     * @param decoder  The decoder of the response body
+     * @param <T>      The type of the decoded response
+     * @return The decoded response
+     */
+    private <T> T decodeResponse(HttpResponse<InputStream> response, JmxEndpoint endpoint, ResponseDecoder<T> decoder) {
+        CountingInputStream body = new CountingInputStream(response.body());
+        try (JsonReader reader = new JsonReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            return decoder.decode(reader);
+        } catch (IOException e) {
+            logger.error("Failed to decode the response of " + response.uri(), e);
+            throw new UncheckedIOException("Failed to decode the response of " + response.uri(), e);
+        } finally {
+            // Only what the decoder read, a decoder that stops early does not read the remaining of the response
+            metrics.recordBytesReceived(endpoint, body.getCount());
+        }
+    }
+
+    /**
+     * Builds the HTTP request for the given URL, with the authentication and content type headers
+     *
+     * @param method         The HTTP method
+     * @param url            The URL to send the request to
+     * @param body           The JSON request body, can be null
+     * @param requestTimeout The timeout of the request
+     * @return The request
+     * @throws URISyntaxException If the URL is invalid
+     */
+    private HttpRequest buildRequest(String method, String url, String body, Duration requestTimeout) throws URISyntaxException {
+        HttpRequest.Builder requestBuilder = HttpRequest.newBuilder()
+                .uri(new URI(url))
+                .header("Content-Type", "application/json")
+                .header("Authorization", authHeader)
+                .timeout(requestTimeout);
+        logger.debug("The request is a {} request", method);
+        if (body != null) {
+            logger.debug("Request body: {}", body);
+            requestBuilder.method(method, HttpRequest.BodyPublishers.ofString(body));
+        } else {
+            requestBuilder.method(method, HttpRequest.BodyPublishers.noBody());
+        }
+        return requestBuilder.build();
+    }
 
-        logger.debug("Sending request to " + url);
-        int localRetries = retries;
-        for (int i = 0; i < localRetries; i++) {
+    /**
+     * Checks the response status code, throwing an exception with the server error if it is 400 or above
+     *
+     * @param response The response
+     * @return The response body
+     */
+    private HttpResponse<InputStream> checkResponse(HttpResponse<InputStream> response) {
+        logger.debug("Response status code: {}", response.statusCode());
+        if (response.statusCode() >= 400) {
+            // Read the error response, it is small, unlike successful responses it is not streamed
+            String body;
+            try (InputStream errorStream = response.body()) {
+                body = new String(errorStream.readNBytes(MAX_ERROR_BODY_BYTES), StandardCharsets.UTF_8);
+            } catch (IOException e) {
+                body = "";
+            }
+            // Parse error response
+            String error;
             try {
-                HttpRequest.Builder requestBuilder = HttpRequest.newBuilder()
-                        .uri(new URI(url))
-                        .header("Content-Type", "application/json")
-                        .header("Authorization", authHeader)
-                        .timeout(timeout);
-                if (shouldPostWithEmptyBody) {
-                    logger.debug("The request is a POST request");
-                    logger.debug("Request body: {}", EMPTY_POST_BODY);
-                    requestBuilder.POST(HttpRequest.BodyPublishers.ofString(EMPTY_POST_BODY));
-                } else {
-                    logger.debug("The request is a GET request");
-                    requestBuilder.GET();
-                }
-                HttpRequest request = requestBuilder.build();
-
-                HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
-                logger.debug("Response status code: {}", response.statusCode());
-                logger.debug("Response body: {}", response.body());
-                if (response.statusCode() >= 400) {
-                    // Parse error response
-                    JsonObject errorResponse = JsonParser.parseString(response.body()).getAsJsonObject();
-                    String error = errorResponse.get("error").getAsString();
-                    String throwable = new String(Base64.getDecoder().decode(errorResponse.get("throwable").getAsString()));
-                    logger.error("Request failed with error: " + error + ". Throwable: " + throwable);
-                    throw new RuntimeException("Request failed with error: " + error);
-                }
-                return response.body();
-            } catch (RuntimeException | IOException | URISyntaxException e) {
-                logger.error("Request failed, might retry", e);
-                if (i == localRetries - 1) {
-                    throw e;
-                }
-                logger.debug("Retrying request in {} second(s)", DURATION_BETWEEN_REQUESTS.toSeconds());
-                Thread.sleep(DURATION_BETWEEN_REQUESTS.toMillis());
+                JsonObject errorResponse = JsonParser.parseString(body).getAsJsonObject();
+                error = errorResponse.get("error").getAsString();
+                String throwable = new String(Base64.getDecoder().decode(errorResponse.get("throwable").getAsString()));
+                logger.error("Request failed with error: " + error + ". Throwable: " + throwable);
+            } catch (RuntimeException e) {
+                // Not every error response is a REST connector error, e.g. an authentication failure
+                error = "HTTP " + response.statusCode();
+                logger.error("Request failed with status code: " + response.statusCode() + ". Body: " + body);
             }
+            throw new JmxRequestException("Request failed with error: " + error, response.statusCode());
+        }
+        return response;
+    }
+
+    /**
+     * Unwraps the {@link CompletionException} and {@link ExecutionException} layers added by
+     * {@link CompletableFuture}
+     *
+     * @param throwable The throwable
+     * @return The underlying cause
+     */
+    public static Throwable unwrap(Throwable throwable) {
+        Throwable cause = throwable;
+        while ((cause instanceof CompletionException || cause instanceof ExecutionException) && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause;
+    }
+
+    /**
+     * Waits for the given future, rethrowing its failure with the same checked exceptions as the blocking API
+     * <p>
+     * If the waiting thread is interrupted, the future is cancelled
+     *
+     * @param future The future to wait for
+     * @param <T>    The type of the result
+     * @return The result of the future
+     * @throws IOException          If the request failed
+     * @throws URISyntaxException   If a URL was invalid
+     * @throws InterruptedException If the waiting thread was interrupted
+     */
+    public static <T> T await(CompletableFuture<T> future) throws IOException, URISyntaxException, InterruptedException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            throw e;
+        } catch (ExecutionException e) {
+            Throwable cause = unwrap(e);
+            if (cause instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) cause).getCause();
+            }
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof URISyntaxException) {
+                throw (URISyntaxException) cause;
+            }
+            if (cause instanceof InterruptedException) {
+                throw (InterruptedException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IOException(cause);
         }
-        logger.error("Request failed after " + retries + " retries");
-        throw new RuntimeException("Request failed after " + retries + " retries");
     }
 
     /**
@@ -178,6 +528,116 @@ public class JmxClient {
     }
 
 
+    /**
+     * Probes the REST connector with one small request: the start time attribute of the runtime MBean
+     * <p>
+     * The probe is sent once, with its own timeout, bypassing the retries and the circuit breaker, so it tells the
+     * state of the server at this moment. It never fails, the failure is described by the result
+     *
+     * @param probeTimeout The timeout of the probe, connecting included, cannot be null
+     * @return The result of the probe
+     * @throws InterruptedException If the calling thread is interrupted while waiting
+     */
+    public ProbeResult probe(Duration probeTimeout) throws InterruptedException {
+        logger.debug("Starting probe");
+        CompletableFuture<ProbeResult> future = probeAsync(probeTimeout);
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            throw e;
+        } catch (ExecutionException e) {
+            // The probe future always completes normally
+            throw new IllegalStateException(unwrap(e));
+        }
+    }
+
+    /**
+     * Probes the REST connector without blocking the calling thread
+     *
+     * @param probeTimeout The timeout of the probe, connecting included, cannot be null
+     * @return A future completed with the result of the probe, never exceptionally
+     * @see #probe(Duration)
+     */
+    public CompletableFuture<ProbeResult> probeAsync(Duration probeTimeout) {
+        logger.debug("Starting probeAsync");
+        Preconditions.checkNotNull(probeTimeout, "Probe timeout cannot be null");
+
+        final String url = getRequestUrl(false, toMBeanInfo(JMXConstants.RUNTIME_MBEAN_OBJECT_NAME).getURL(),
+                ATTRIBUTES_URL_SUFFIX, "/", JMXConstants.RUNTIME_MBEAN_START_TIME_ATTRIBUTE);
+        final HttpRequest request;
+        try {
+            request = buildRequest("GET", url, null, probeTimeout);
+        } catch (URISyntaxException e) {
+            logger.error("Invalid probe URL " + url, e);
+            ProbeResult result = new ProbeResult();
+            result.setStatus(ProbeResult.Status.ERROR);
+            result.setMessage(e.getMessage());
+            return CompletableFuture.completedFuture(result);
+        }
+
+        metrics.recordRequest(JmxEndpoint.PROBE);
+        final long start = System.nanoTime();
+        // The request timeout may not cover opening the connection, the future has the same timeout
+        return client.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                .orTimeout(probeTimeout.toMillis(), TimeUnit.MILLISECONDS)
+                .handle((response, throwable) -> {
+                    long latencyNanos = System.nanoTime() - start;
+                    metrics.recordServerLatency(JmxEndpoint.PROBE, latencyNanos);
+                    metrics.recordTotalLatency(JmxEndpoint.PROBE, latencyNanos);
+                    ProbeResult result = new ProbeResult();
+                    result.setLatencyMicros(TimeUnit.NANOSECONDS.toMicros(latencyNanos));
+                    if (throwable != null) {
+                        Throwable cause = unwrap(throwable);
+                        logger.debug("Probe of {} failed", url, cause);
+                        metrics.recordFailure(JmxEndpoint.PROBE);
+                        if (cause instanceof HttpConnectTimeoutException || cause instanceof ConnectException) {
+                            result.setStatus(ProbeResult.Status.UNREACHABLE);
+                        } else if (cause instanceof HttpTimeoutException || cause instanceof TimeoutException) {
+                            result.setStatus(ProbeResult.Status.TIMEOUT);
+                        } else if (cause instanceof IOException) {
+                            result.setStatus(ProbeResult.Status.UNREACHABLE);
+                        } else {
+                            result.setStatus(ProbeResult.Status.ERROR);
+                        }
+                        result.setMessage(cause.getMessage() != null ? cause.getMessage() : cause.toString());
+                        return result;
+                    }
+                    metrics.recordBytesReceived(JmxEndpoint.PROBE, response.body().length());
+                    result.setStatusCode(response.statusCode());
+                    if (response.statusCode() == 401 || response.statusCode() == 403) {
+                        metrics.recordFailure(JmxEndpoint.PROBE);
+                        result.setStatus(ProbeResult.Status.UNAUTHORIZED);
+                        result.setMessage("HTTP " + response.statusCode());
+                    } else if (response.statusCode() >= 400) {
+                        metrics.recordFailure(JmxEndpoint.PROBE);
+                        result.setStatus(ProbeResult.Status.ERROR);
+                        result.setMessage("HTTP " + response.statusCode());
+                    } else {
+                        result.setStatus(ProbeResult.Status.UP);
+                        result.setServerStartTime(parseProbeStartTime(response.body()));
+                    }
+                    return result;
+                });
+    }
+
+    /**
+     * @param body The body of the probe response, the start time encoded as a value and a type
+     * @return The start time, or 0 if it cannot be read
+     */
+    private long parseProbeStartTime(String body) {
+        try {
+            JsonElement element = JsonParser.parseString(body);
+            if (element.isJsonObject() && element.getAsJsonObject().has("value")) {
+                element = element.getAsJsonObject().get("value");
+            }
+            return Long.parseLong(element.getAsString());
+        } catch (RuntimeException e) {
+            logger.debug("Cannot read the start time from the probe response " + body, e);
+            return 0;
+        }
+    }
+
     /**
      * Get the list of MBeans
      *
@@ -188,10 +648,21 @@ public class JmxClient {
      */
     public List<MBeanInfo> getMBeans() throws IOException, URISyntaxException, InterruptedException {
         logger.debug("Starting getMBeans");
-        String response = sendRequest(getRequestUrl(true, ""), false);
-        logger.debug("Response from getMBeans: {}", response);
-        return gson.fromJson(response, new TypeToken<List<MBeanInfo>>() {
-        }.getType());
+        return await(getMBeansAsync());
+    }
+
+    /**
+     * Get the list of MBeans without blocking the calling thread
+     *
+     * @return A future completed with the list of {@link MBeanInfo} objects
+     */
+    public CompletableFuture<List<MBeanInfo>> getMBeansAsync() {
+        logger.debug("Starting getMBeansAsync");
+        return sendRequestAsync(getRequestUrl(true, ""), false, JsonStreamDecoder::readMBeanInfoList)
+                .thenApply(mBeans -> {
+                    logger.debug("Got {} MBeans from getMBeans", mBeans.size());
+                    return mBeans;
+                });
     }
 
     /**
@@ -206,7 +677,107 @@ public class JmxClient {
      */
     public List<MBeanInfo> queryMBeans(String objectNameQuery, String classNameQuery) throws IOException, URISyntaxException, InterruptedException {
         logger.debug("Starting queryMBeans");
+        return await(queryMBeansAsync(objectNameQuery, classNameQuery));
+    }
+
+    /**
+     * Get the list of MBeans matching the given object name or class name without blocking the calling thread
+     *
+     * @param objectNameQuery The object name query, can be null
+     * @param classNameQuery  The class name query, can be null
+     * @return A future completed with the list of {@link MBeanInfo} objects, can be empty
+     */
+    public CompletableFuture<List<MBeanInfo>> queryMBeansAsync(String objectNameQuery, String classNameQuery) {
+        return queryMBeansAsync(objectNameQuery, classNameQuery, false);
+    }
+
+    /**
+     * Get the list of MBeans matching the given object name or class name without blocking the calling thread
+     * <p>
+     * If the cache is used, a result of the same query that has not expired is returned without a request
+     *
+     * @param objectNameQuery The object name query, can be null
+     * @param classNameQuery  The class name query, can be null
+     * @param useCache        Whether a cached result of the same query can be returned
+     * @return A future completed with the list of {@link MBeanInfo} objects, can be empty
+     */
+    public CompletableFuture<List<MBeanInfo>> queryMBeansAsync(String objectNameQuery, String classNameQuery, boolean useCache) {
+        logger.debug("Starting queryMBeansAsync");
+
+        String query = buildQuery(objectNameQuery, classNameQuery);
+
+        if (useCache) {
+            List<MBeanInfo> cachedMBeans = metadataCache.getQueryResult(query);
+            if (cachedMBeans != null) {
+                logger.debug("Using cached result for query: {}", query);
+                return CompletableFuture.completedFuture(cachedMBeans);
+            }
+        }
 
+        return sendRequestAsync(getRequestUrl(true, "?", query), false, JsonStreamDecoder::readMBeanInfoList)
+                .thenApply(mBeans -> {
+                    logger.debug("Got {} MBeans from queryMBeans", mBeans.size());
+                    metadataCache.putQueryResult(query, mBeans);
+                    return mBeans;
+                });
+    }
+
+    /**
+     * Streams the MBeans matching the given object name or class name to the visitor, one at a time, without
+     * blocking the calling thread
+     * <p>
+     * The MBeans are decoded while the response is read, and are not kept, so the memory used does not depend on the
+     * number of MBeans. As soon as the visitor returns false, the remaining of the response is not read
+     *
+     * @param objectNameQuery The object name query, can be null
+     * @param classNameQuery  The class name query, can be null
+     * @param visitor         Called for each MBean, from a client thread, returns false to stop
+     * @return A future completed once the visitor stopped or all the MBeans were visited
+     */
+    public CompletableFuture<Void> scanMBeansAsync(String objectNameQuery, String classNameQuery, Predicate<MBeanInfo> visitor) {
+        logger.debug("Starting scanMBeansAsync");
+        Preconditions.checkNotNull(visitor, "Visitor cannot be null");
+
+        String query = buildQuery(objectNameQuery, classNameQuery);
+        return sendRequestAsync(getRequestUrl(true, "?", query), false, reader -> {
+            JsonStreamDecoder.readMBeanInfos(reader, visitor);
+            return null;
+        });
+    }
+
+    /**
+     * Finds the first MBean matching the given object name or class name, and the predicate, without blocking the
+     * calling thread
+     * <p>
+     * The remaining of the response is not read once a match is found
+     *
+     * @param objectNameQuery The object name query, can be null
+     * @param classNameQuery  The class name query, can be null
+     * @param predicate       The predicate the MBean must match
+     * @return A future completed with the first matching MBean, or empty if none matches
+     */
+    public CompletableFuture<Optional<MBeanInfo>> findMBeanAsync(String objectNameQuery, String classNameQuery, Predicate<MBeanInfo> predicate) {
+        logger.debug("Starting findMBeanAsync");
+        Preconditions.checkNotNull(predicate, "Predicate cannot be null");
+
+        final MBeanInfo[] found = new MBeanInfo[1];
+        return scanMBeansAsync(objectNameQuery, classNameQuery, mBean -> {
+            if (predicate.test(mBean)) {
+                found[0] = mBean;
+                return false;
+            }
+            return true;
+        }).thenApply(ignored -> Optional.ofNullable(found[0]));
+    }
+
+    /**
+     * Builds the query string of the mbeans URL
+     *
+     * @param objectNameQuery The object name query, can be null
+     * @param classNameQuery  The class name query, can be null
+     * @return The query string, can be empty
+     */
+    private String buildQuery(String objectNameQuery, String classNameQuery) {
         // Build the query string
         final StringBuilder queryBuilder = new StringBuilder();
         if (!Strings.isNullOrEmpty(objectNameQuery)) {
@@ -220,11 +791,7 @@ public class JmxClient {
         }
         String query = queryBuilder.toString();
         logger.debug("Query string: {}", query);
-
-        String response = sendRequest(getRequestUrl(true, "?", query), false);
-        logger.debug("Response from queryMBeans: {}", response);
-        return gson.fromJson(response, new TypeToken<List<MBeanInfo>>() {
-        }.getType());
+        return query;
     }
 
     /**
@@ -238,12 +805,22 @@ public class JmxClient {
      */
     protected JsonObject getMBeanInfo(MBeanInfo mBeanInfo) throws IOException, URISyntaxException, InterruptedException {
         logger.debug("Starting getMBeanInfo");
+        return await(getMBeanInfoAsync(mBeanInfo));
+    }
+
+    /**
+     * Get the MBean info for the given MBean without blocking the calling thread
+     *
+     * @param mBeanInfo The {@link MBeanInfo} object, cannot be null
+     * @return A future completed with the MBean info as a {@link JsonObject}
+     */
+    protected CompletableFuture<JsonObject> getMBeanInfoAsync(MBeanInfo mBeanInfo) {
+        logger.debug("Starting getMBeanInfoAsync");
         Preconditions.checkNotNull(mBeanInfo, "mBeanInfo cannot be null");
         Preconditions.checkArgument(!Strings.isNullOrEmpty(mBeanInfo.getURL()), "mBeanInfo URL cannot be null or empty");
 
-        String response = sendRequest(getRequestUrl(false, mBeanInfo.getURL()), false);
-        logger.debug("Response from getMBeanInfo: {}", response);
-        return JsonParser.parseString(response).getAsJsonObject();
+        return sendRequestAsync(getRequestUrl(false, mBeanInfo.getURL()), false,
+                reader -> JsonParser.parseReader(reader).getAsJsonObject());
     }
 
     /**
@@ -257,21 +834,121 @@ public class JmxClient {
      */
     public List<Attribute> getMBeanAttributes(MBeanInfo mBeanInfo) throws IOException, URISyntaxException, InterruptedException {
         logger.debug("Starting getMBeanAttributes");
+        return await(getMBeanAttributesAsync(mBeanInfo));
+    }
+
+    /**
+     * Get the resolved metadata of the given MBean, from the cache if present, without blocking the calling thread
+     *
+     * @param mBeanInfo The {@link MBeanInfo} object, cannot be null
+     * @return A future completed with the {@link MBeanMetadata} of the MBean
+     */
+    public CompletableFuture<MBeanMetadata> getMBeanMetadataAsync(MBeanInfo mBeanInfo) {
+        logger.debug("Starting getMBeanMetadataAsync");
         Preconditions.checkNotNull(mBeanInfo, "mBeanInfo cannot be null");
-        // Get MBean info
-        JsonObject serverInfoMBeanInfo = getMBeanInfo(mBeanInfo);
-        // Get attribute url
-        String attributeUrl = serverInfoMBeanInfo.get("attributes_URL").getAsString();
-        logger.debug("Attribute URL: {}", attributeUrl);
-        Verify.verify(!Strings.isNullOrEmpty(attributeUrl), "Attribute URL cannot be null or empty");
 
-        // Get attributes
-        String response = sendRequest(getRequestUrl(false, attributeUrl), false);
-        logger.debug("Response from getMBeanAttributes: {}", response);
-        return gson.fromJson(response, new TypeToken<List<Attribute>>() {
-        }.getType());
+        MBeanMetadata cachedMetadata = metadataCache.getMetadata(mBeanInfo.getObjectName());
+        if (cachedMetadata != null) {
+            logger.debug("Using cached metadata for {}", mBeanInfo.getObjectName());
+            return CompletableFuture.completedFuture(cachedMetadata);
+        }
+        return getMBeanInfoAsync(mBeanInfo)
+                .thenApply(info -> {
+                    MBeanMetadata metadata = new MBeanMetadata(mBeanInfo.getObjectName(), info);
+                    metadataCache.putMetadata(metadata);
+                    return metadata;
+                });
     }
 
+    /**
+     * Runs the given action with the metadata of the MBean
+     * <p>
+     * If the action fails because the server answered 404, the cached metadata is stale: it is invalidated and the
+     * action is run once more with fresh metadata
+     *
+     * @param mBeanInfo The {@link MBeanInfo} object, cannot be null
+     * @param action    The asynchronous action to run with the metadata
+     * @param <T>       The result type of the action
+     * @return A future completed with the result of the action
+     */
+    private <T> CompletableFuture<T> withMetadataAsync(MBeanInfo mBeanInfo, Function<MBeanMetadata, CompletableFuture<T>> action) {
+        return getMBeanMetadataAsync(mBeanInfo)
+                .thenCompose(action)
+                .handle((result, throwable) -> {
+                    if (throwable == null) {
+                        return CompletableFuture.completedFuture(result);
+                    }
+                    Throwable cause = unwrap(throwable);
+                    if (cause instanceof JmxRequestException && ((JmxRequestException) cause).isNotFound()) {
+                        logger.debug("Got 404 for {}, refreshing its metadata", mBeanInfo.getObjectName());
+                        metadataCache.invalidate(mBeanInfo.getObjectName());
+                        return getMBeanMetadataAsync(mBeanInfo).thenCompose(action);
+                    }
+                    return CompletableFuture.<T>failedFuture(cause);
+                })
+                .thenCompose(Function.identity());
+    }
+
+    /**
+     * Invalidates all the cached MBean metadata and query results, to be used when the server is restarted
+     */
+    public void invalidateMetadataCache() {
+        logger.debug("Starting invalidateMetadataCache");
+        metadataCache.invalidateAll();
+    }
+
+    /**
+     * Get the MBean attributes for the given MBean without blocking the calling thread
+     * <p>
+     * The attributes URL is taken from the cached metadata, so usually only one request is sent
+     *
+     * @param mBeanInfo The {@link MBeanInfo} object, cannot be null
+     * @return A future completed with the list of {@link Attribute} objects
+     */
+    public CompletableFuture<List<Attribute>> getMBeanAttributesAsync(MBeanInfo mBeanInfo) {
+        logger.debug("Starting getMBeanAttributesAsync");
+        Preconditions.checkNotNull(mBeanInfo, "mBeanInfo cannot be null");
+        return withMetadataAsync(mBeanInfo, metadata -> {
+            // Get attribute url
+            String attributeUrl = metadata.getAttributesUrl();
+            logger.debug("Attribute URL: {}", attributeUrl);
+            Verify.verify(!Strings.isNullOrEmpty(attributeUrl), "Attribute URL cannot be null or empty");
+
+            // Get attributes
+            return sendRequestAsync(getRequestUrl(false, attributeUrl), false, JsonStreamDecoder::readAttributeList);
+        });
+    }
+
+
+    /**
+     * Finds one attribute of the given MBean without blocking the calling thread
+     * <p>
+     * The remaining of the attributes response is not read once the attribute is found
+     *
+     * @param mBeanInfo     The {@link MBeanInfo} object, cannot be null
+     * @param attributeName The name of the attribute, cannot be null or empty
+     * @return A future completed with the attribute, or empty if the MBean does not have it
+     */
+    public CompletableFuture<Optional<Attribute>> findMBeanAttributeAsync(MBeanInfo mBeanInfo, String attributeName) {
+        logger.debug("Starting findMBeanAttributeAsync");
+        Preconditions.checkNotNull(mBeanInfo, "mBeanInfo cannot be null");
+        Preconditions.checkArgument(!Strings.isNullOrEmpty(attributeName), "Attribute name cannot be null or empty");
+        return withMetadataAsync(mBeanInfo, metadata -> {
+            String attributeUrl = metadata.getAttributesUrl();
+            Verify.verify(!Strings.isNullOrEmpty(attributeUrl), "Attribute URL cannot be null or empty");
+            return sendRequestAsync(getRequestUrl(false, attributeUrl), false, reader -> {
+                final Attribute[] found = new Attribute[1];
+                JsonStreamDecoder.readAttributes(reader, attribute -> {
+                    if (attributeName.equals(attribute.getName())) {
+                        found[0] = attribute;
+                        return false;
+                    }
+                    return true;
+                });
+                return Optional.ofNullable(found[0]);
+            });
+        });
+    }
 
     /**
      * Invoke an operation on an MBean
@@ -283,39 +960,313 @@ public class JmxClient {
      */
     public boolean invokeOperation(MBeanInfo mBean, String operation) throws Exception {
         logger.debug("Invoking operation " + operation + " on MBean " + mBean);
+        return await(invokeOperationAsync(mBean, operation));
+    }
+
+    /**
+     * Invoke an operation on an MBean without blocking the calling thread
+     * <p>
+     * The operation URL is taken from the cached metadata, so usually only one request is sent
+     *
+     * @param mBean     MBean to invoke the operation on, cannot be null
+     * @param operation Operation to invoke, cannot be null or empty
+     * @return A future completed with true if the operation was invoked, false if the operation was not found or an
+     * error occurred while invoking it. The future completes exceptionally if the MBean info cannot be fetched
+     */
+    public CompletableFuture<Boolean> invokeOperationAsync(MBeanInfo mBean, String operation) {
+        logger.debug("Invoking operation async " + operation + " on MBean " + mBean);
 
         Preconditions.checkNotNull(mBean, "MBean cannot be null");
         Preconditions.checkArgument(!Strings.isNullOrEmpty(operation), "Operation cannot be null or empty");
 
-        // Get the MBean info
-        JsonObject frameworkMBeanInfo = getMBeanInfo(mBean);
-        // Get operations
-        JsonArray operations = frameworkMBeanInfo.get("operations").getAsJsonArray();
-        logger.debug("Operations: " + operations);
+        return withMetadataAsync(mBean, metadata -> {
+            // Find the operation
+            String operationURL = metadata.getOperationUrl(operation);
+            if (operationURL == null) {
+                logger.debug("Operation " + operation + " not found");
+                return CompletableFuture.completedFuture(false);
+            }
+            logger.debug("Operation URL: " + operationURL);
+            return sendRequestAsync(getRequestUrl(false, operationURL), true, reader -> JsonParser.parseReader(reader).toString())
+                    .handle((response, throwable) -> {
+                        if (throwable != null) {
+                            Throwable cause = unwrap(throwable);
+                            // Let a 404 through, so the metadata is refreshed and the operation retried
+                            if (cause instanceof JmxRequestException && ((JmxRequestException) cause).isNotFound()) {
+                                throw new CompletionException(cause);
+                            }
+                            logger.error("Error invoking operation " + operation + " on MBean " + mBean, cause);
+                            return false;
+                        }
+                        logger.debug("Response from " + operation + ": " + response);
+                        return true;
+                    });
+        });
+    }
 
-        // If there are no operations, return false
-        if (operations.size() == 0) {
-            logger.debug("No operations found");
-            return false;
+    /**
+     * Reads the given attributes of many MBeans, with at most maxConcurrency requests in flight, without blocking the
+     * calling thread
+     * <p>
+     * One request is sent per MBean, to its attributes URL filtered on the attribute names, so neither the MBean info
+     * nor the other attributes are fetched. MBeans that no longer exist are left out of the result
+     *
+     * @param mBeans         The MBeans to read, cannot be null
+     * @param attributeNames The names of the attributes to read, all the attributes if empty, cannot be null
+     * @param maxConcurrency The maximum number of requests in flight, must be greater than 0
+     * @return A future completed with the attribute values by attribute name, keyed by object name, in the order of
+     * the given MBeans
+     */
+    public CompletableFuture<Map<String, Map<String, AttributeValue>>> readAttributesAsync(Collection<MBeanInfo> mBeans,
+                                                                                           List<String> attributeNames,
+                                                                                           int maxConcurrency) {
+        Preconditions.checkNotNull(mBeans, "MBeans cannot be null");
+        Preconditions.checkNotNull(attributeNames, "Attribute names cannot be null");
+        logger.debug("Starting readAttributesAsync of {} for {} MBeans", attributeNames, mBeans.size());
+
+        final String attributeFilter = buildAttributeFilter(attributeNames);
+        final ConcurrencyLimiter limiter = new ConcurrencyLimiter(maxConcurrency);
+        final List<MBeanInfo> mBeanList = new ArrayList<>(mBeans);
+        final List<CompletableFuture<Map<String, AttributeValue>>> futures = new ArrayList<>(mBeanList.size());
+        for (MBeanInfo mBean : mBeanList) {
+            futures.add(limiter.submit(() -> readAttributesAsync(mBean, attributeFilter, timeout, retryPolicy.getMaxAttempts())));
         }
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0]))
+                .thenApply(ignored -> {
+                    Map<String, Map<String, AttributeValue>> results = new LinkedHashMap<>();
+                    for (int i = 0; i < mBeanList.size(); i++) {
+                        Map<String, AttributeValue> values = futures.get(i).join();
+                        if (values != null) {
+                            results.put(mBeanList.get(i).getObjectName(), values);
+                        }
+                    }
+                    return results;
+                });
+    }
 
-        // Find the operation
-        for (JsonElement operationElement : operations) {
-            JsonObject operationObject = operationElement.getAsJsonObject();
-            if (operationObject.get("name").getAsString().equals(operation)) {
-                String operationURL = operationObject.get("URL").getAsString();
-                logger.debug("Operation URL: " + operationURL);
-                try {
-                    String response = sendRequest(getRequestUrl(false, operationURL), true);
-                    logger.debug("Response from " + operation + ": " + response);
-                    return true;
-                } catch (Exception e) {
-                    logger.error("Error invoking operation " + operation + " on MBean " + mBean, e);
-                    return false;
-                }
+    /**
+     * Reads the given attributes of all the MBeans matching the object name pattern, with at most maxConcurrency
+     * requests in flight, without blocking the calling thread
+     *
+     * @param objectNamePattern The object name pattern, cannot be null or empty
+     * @param attributeNames    The names of the attributes to read, all the attributes if empty, cannot be null
+     * @param maxConcurrency    The maximum number of requests in flight, must be greater than 0
+     * @return A future completed with the attribute values by attribute name, keyed by object name
+     * @see #readAttributesAsync(Collection, List, int)
+     */
+    public CompletableFuture<Map<String, Map<String, AttributeValue>>> readAttributesAsync(String objectNamePattern,
+                                                                                           List<String> attributeNames,
+                                                                                           int maxConcurrency) {
+        logger.debug("Starting readAttributesAsync for pattern {}", objectNamePattern);
+        Preconditions.checkArgument(!Strings.isNullOrEmpty(objectNamePattern), "Object name pattern cannot be null or empty");
+        return queryMBeansAsync(objectNamePattern, null, true)
+                .thenCompose(mBeans -> readAttributesAsync(mBeans, attributeNames, maxConcurrency));
+    }
+
+    /**
+     * Builds the {@link MBeanInfo} of an MBean whose object name is known, with the URL the connector gives it, so the
+     * MBean can be read without querying it first
+     *
+     * @param objectName The object name, not a pattern, cannot be null or empty
+     * @return The MBean info, without class name
+     */
+    public static MBeanInfo toMBeanInfo(String objectName) {
+        Preconditions.checkArgument(!Strings.isNullOrEmpty(objectName), "Object name cannot be null or empty");
+        MBeanInfo mBeanInfo = new MBeanInfo();
+        mBeanInfo.setObjectName(objectName);
+        mBeanInfo.setURL(MBEAN_URL_CONTEXT_ROOT + "/" + URLEncoder.encode(objectName, StandardCharsets.UTF_8));
+        return mBeanInfo;
+    }
+
+    /**
+     * Reads the given attributes of one MBean, without blocking the calling thread
+     *
+     * @param mBean          The MBean to read, cannot be null
+     * @param attributeNames The names of the attributes to read, all the attributes if empty, cannot be null
+     * @return A future completed with the attribute values by attribute name, or null if the MBean no longer exists
+     * @see #readAttributesAsync(Collection, List, int)
+     */
+    public CompletableFuture<Map<String, AttributeValue>> readAttributesAsync(MBeanInfo mBean, List<String> attributeNames) {
+        Preconditions.checkNotNull(mBean, "MBean cannot be null");
+        Preconditions.checkNotNull(attributeNames, "Attribute names cannot be null");
+        logger.debug("Starting readAttributesAsync of {} for MBean {}", attributeNames, mBean.getObjectName());
+        return readAttributesAsync(mBean, buildAttributeFilter(attributeNames), timeout, retryPolicy.getMaxAttempts());
+    }
+
+    /**
+     * Reads the given attributes of one MBean in a single attempt bounded by the given timeout, without blocking the
+     * calling thread
+     * <p>
+     * The future completes when the exchange ends, so a caller limiting the requests in flight keeps its slot until the
+     * request is really done. A request that times out fails with {@link java.net.http.HttpTimeoutException}.
+     *
+     * @param mBean          The MBean to read, cannot be null
+     * @param attributeNames The names of the attributes to read, all the attributes if empty, cannot be null
+     * @param requestTimeout The timeout of the request, cannot be null
+     * @return A future completed with the attribute values by attribute name, or null if the MBean no longer exists
+     */
+    public CompletableFuture<Map<String, AttributeValue>> readAttributesAsync(MBeanInfo mBean, List<String> attributeNames,
+                                                                              Duration requestTimeout) {
+        Preconditions.checkNotNull(mBean, "MBean cannot be null");
+        Preconditions.checkNotNull(attributeNames, "Attribute names cannot be null");
+        Preconditions.checkNotNull(requestTimeout, "Request timeout cannot be null");
+        logger.debug("Starting readAttributesAsync of {} for MBean {} within {} ms", attributeNames, mBean.getObjectName(),
+                requestTimeout.toMillis());
+        return readAttributesAsync(mBean, buildAttributeFilter(attributeNames), requestTimeout, 1);
+    }
+
+    /**
+     * Reads the filtered attributes of one MBean
+     *
+     * @param mBean           The MBean
+     * @param attributeFilter The attribute filter query string, empty for all the attributes
+     * @param requestTimeout  The timeout of each attempt
+     * @param maxAttempts     The maximum number of attempts
+     * @return A future completed with the attribute values by attribute name, or null if the MBean no longer exists
+     */
+    private CompletableFuture<Map<String, AttributeValue>> readAttributesAsync(MBeanInfo mBean, String attributeFilter,
+                                                                               Duration requestTimeout, int maxAttempts) {
+        // Use the cached attributes URL if there is one, otherwise the connector convention, saving the info request
+        MBeanMetadata cachedMetadata = metadataCache.getMetadata(mBean.getObjectName());
+        String attributesUrl = cachedMetadata != null && cachedMetadata.getAttributesUrl() != null
+                ? cachedMetadata.getAttributesUrl()
+                : mBean.getURL() + ATTRIBUTES_URL_SUFFIX;
+
+        String url = getRequestUrl(false, attributesUrl, attributeFilter);
+        return sendRequestAsync("GET", url, null, requestTimeout, maxAttempts, reader -> {
+            Map<String, AttributeValue> values = new LinkedHashMap<>();
+            JsonStreamDecoder.readAttributes(reader, attribute -> {
+                values.put(attribute.getName(), attribute.getValue());
+                return true;
+            });
+            return values;
+        }).exceptionally(throwable -> {
+            Throwable cause = unwrap(throwable);
+            if (cause instanceof JmxRequestException && ((JmxRequestException) cause).isNotFound()) {
+                // The MBean was unregistered since it was listed, e.g. an application was removed
+                logger.debug("MBean {} no longer exists", mBean.getObjectName());
+                metadataCache.invalidate(mBean.getObjectName());
+                return null;
+            }
+            throw new CompletionException(cause);
+        });
+    }
+
+    /**
+     * Builds the attribute filter query string of the attributes URL
+     *
+     * @param attributeNames The names of the attributes
+     * @return The query string starting with ?, or empty if there are no attribute names
+     */
+    private static String buildAttributeFilter(List<String> attributeNames) {
+        if (attributeNames.isEmpty()) {
+            return "";
+        }
+        StringBuilder filter = new StringBuilder("?");
+        for (String attributeName : attributeNames) {
+            if (filter.length() > 1) {
+                filter.append('&');
             }
+            filter.append("attribute=").append(URLEncoder.encode(attributeName, StandardCharsets.UTF_8));
+        }
+        return filter.toString();
+    }
+
+    /**
+     * Runs the given action for every MBean concurrently, on this client
+     * <p>
+     * The returned future completes when all the actions are complete, or exceptionally as soon as one of them fails
+     *
+     * @param mBeans The MBeans, cannot be null
+     * @param action The asynchronous action to run for each MBean, cannot be null
+     * @param <T>    The result type of the action
+     * @return A future completed with the results keyed by MBean, in the order of the given list
+     */
+    public <T> CompletableFuture<Map<MBeanInfo, T>> forEachMBeanAsync(List<MBeanInfo> mBeans,
+                                                                      Function<MBeanInfo, CompletableFuture<T>> action) {
+        Preconditions.checkNotNull(mBeans, "MBeans cannot be null");
+        Preconditions.checkNotNull(action, "Action cannot be null");
+        logger.debug("Starting forEachMBeanAsync for {} MBeans", mBeans.size());
+
+        // Start all the actions, so they run concurrently
+        List<CompletableFuture<T>> futures = new ArrayList<>(mBeans.size());
+        for (MBeanInfo mBean : mBeans) {
+            futures.add(action.apply(mBean));
         }
-        logger.debug("Operation " + operation + " not found");
-        return false;
+        // Collect the results once all of them are done
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0]))
+                .thenApply(ignored -> {
+                    Map<MBeanInfo, T> results = new LinkedHashMap<>();
+                    for (int i = 0; i < mBeans.size(); i++) {
+                        results.put(mBeans.get(i), futures.get(i).join());
+                    }
+                    return results;
+                });
+    }
+
+    /**
+     * Queries the MBeans matching the given object name or class name and fetches the attributes of all of them
+     * concurrently
+     * <p>
+     * The query result and the MBean metadata are taken from the cache when possible
+     *
+     * @param objectNameQuery The object name query, can be null
+     * @param classNameQuery  The class name query, can be null
+     * @return A future completed with the attributes keyed by MBean
+     */
+    public CompletableFuture<Map<MBeanInfo, List<Attribute>>> queryMBeanAttributesAsync(String objectNameQuery,
+                                                                                        String classNameQuery) {
+        logger.debug("Starting queryMBeanAttributesAsync");
+        return queryMBeansAsync(objectNameQuery, classNameQuery, true)
+                .thenCompose(mBeans -> forEachMBeanAsync(mBeans, this::getMBeanAttributesAsync));
+    }
+
+    /**
+     * Queries the MBeans matching the given object name or class name and invokes the operation on all of them
+     * concurrently
+     * <p>
+     * A failure to invoke the operation on one MBean does not affect the others, it is reported as false
+     * <p>
+     * The query result and the MBean metadata are taken from the cache when possible
+     *
+     * @param objectNameQuery The object name query, can be null
+     * @param classNameQuery  The class name query, can be null
+     * @param operation       Operation to invoke, cannot be null or empty
+     * @return A future completed with the result of {@link #invokeOperationAsync(MBeanInfo, String)} keyed by MBean
+     */
+    public CompletableFuture<Map<MBeanInfo, Boolean>> queryAndInvokeOperationAsync(String objectNameQuery,
+                                                                                   String classNameQuery,
+                                                                                   String operation) {
+        logger.debug("Starting queryAndInvokeOperationAsync");
+        Preconditions.checkArgument(!Strings.isNullOrEmpty(operation), "Operation cannot be null or empty");
+        return queryMBeansAsync(objectNameQuery, classNameQuery, true)
+                .thenCompose(mBeans -> forEachMBeanAsync(mBeans, mBean -> invokeOperationAsync(mBean, operation)
+                        .exceptionally(throwable -> {
+                            logger.error("Error invoking operation " + operation + " on MBean " + mBean, unwrap(throwable));
+                            return false;
+                        })));
+    }
+
+    /**
+     * Creates a client receiving the notifications pushed by the server, with the default delivery interval
+     *
+     * @return The notification client, close it when not needed anymore
+     */
+    public JmxNotificationClient createNotificationClient() {
+        return createNotificationClient(DEFAULT_NOTIFICATION_DELIVERY_INTERVAL);
+    }
+
+    /**
+     * Creates a client receiving the notifications pushed by the server
+     * <p>
+     * Nothing is sent to the server until the first listener is added
+     *
+     * @param deliveryInterval How long the server holds an inbox request when there are no notifications, longer
+     *                         intervals mean fewer requests while the server is quiet
+     * @return The notification client, close it when not needed anymore
+     */
+    public JmxNotificationClient createNotificationClient(Duration deliveryInterval) {
+        logger.debug("Starting createNotificationClient");
+        return new JmxNotificationClient(this, deliveryInterval);
     }
 }
@@ -0,0 +1,171 @@
+package dev.roshin.openliberty.repl.controllers.jmx.rest;
+
+import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLSessionContext;
+import javax.net.ssl.TrustManager;
+import javax.net.ssl.X509TrustManager;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.security.KeyManagementException;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.security.cert.X509Certificate;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Shares one HTTP client per REST connector endpoint between all the {@link JmxClient} instances.
+ * <p>
+ * The clients share one SSL context, whose session cache lets a new connection resume the TLS session instead of
+ * doing a full handshake, and keep their connections alive between requests. HTTP/2 is used when the server offers
+ * it, so concurrent requests are multiplexed on one connection.
+ */
+public class JmxHttpClients {
+    private static final Logger logger = LoggerFactory.getLogger(JmxHttpClients.class);
+
+    private static final int TLS_SESSION_CACHE_SIZE = 64;
+    private static final int TLS_SESSION_TIMEOUT_SECONDS = 24 * 60 * 60;
+    private static final Duration WARM_UP_TIMEOUT = Duration.ofSeconds(10);
+    private static final String WARM_UP_PATH = "/IBMJMXConnectorREST";
+
+    private static final Map<String, HttpClient> clientsByEndpoint = new ConcurrentHashMap<>();
+
+    // Daemon threads used by the HTTP clients and to decode the responses, they must not keep the REPL alive
+    private static final ExecutorService executor = Executors.newCachedThreadPool(new ThreadFactoryBuilder()
+            .setNameFormat("jmx-client-%d")
+            .setDaemon(true)
+            .build());
+
+    private static volatile SSLContext sslContext;
+
+    private JmxHttpClients() {
+    }
+
+    /**
+     * Gets the HTTP client of the endpoint, creating it the first time
+     * <p>
+     * The connect timeout is only used when the client is created
+     *
+     * @param endpoint       The endpoint, only the protocol, host and port are used
+     * @param connectTimeout The connect timeout
+     * @return The shared HTTP client
+     * @throws NoSuchAlgorithmException If TLS is not available
+     * @throws KeyManagementException   If the SSL context cannot be initialized
+     */
+    public static HttpClient forEndpoint(URL endpoint, Duration connectTimeout) throws NoSuchAlgorithmException, KeyManagementException {
+        Preconditions.checkNotNull(endpoint, "endpoint cannot be null");
+        Preconditions.checkNotNull(connectTimeout, "connectTimeout cannot be null");
+
+        final SSLContext context = getSslContext();
+        return clientsByEndpoint.computeIfAbsent(endpointKey(endpoint), key -> {
+            logger.debug("Creating HTTP client for endpoint {}", key);
+            // Create HTTP client, with the SSL context and timeout
+            return HttpClient.newBuilder()
+                    .sslContext(context)
+                    .version(HttpClient.Version.HTTP_2)
+                    .connectTimeout(connectTimeout)
+                    .executor(executor)
+                    .build();
+        });
+    }
+
+    /**
+     * Opens a connection to the endpoint ahead of the first real request, so the TLS handshake is already done and
+     * the connection is kept alive in the pool of the shared client
+     * <p>
+     * The request is not authenticated, its answer does not matter
+     *
+     * @param endpoint The endpoint
+     * @return A future completed once the server answered, or exceptionally if it could not be reached
+     */
+    public static CompletableFuture<Void> warmUp(URL endpoint) {
+        logger.debug("Warming up connection to {}", endpoint);
+        Preconditions.checkNotNull(endpoint, "endpoint cannot be null");
+        try {
+            HttpClient client = forEndpoint(endpoint, WARM_UP_TIMEOUT);
+            HttpRequest request = HttpRequest.newBuilder()
+                    .uri(new URI(endpointKey(endpoint) + WARM_UP_PATH))
+                    .timeout(WARM_UP_TIMEOUT)
+                    .GET()
+                    .build();
+            final long start = System.nanoTime();
+            return client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .thenAccept(response -> logger.debug("Warmed up connection to {} in {} ms with {}", endpoint,
+                            Duration.ofNanos(System.nanoTime() - start).toMillis(), response.version()));
+        } catch (NoSuchAlgorithmException | KeyManagementException | URISyntaxException e) {
+            logger.error("Failed to warm up connection to " + endpoint, e);
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * @return The executor shared by the HTTP clients, to run the work that follows a response
+     */
+    public static ExecutorService getExecutor() {
+        return executor;
+    }
+
+    /**
+     * @param endpoint The endpoint
+     * @return The protocol, host and port of the endpoint
+     */
+    private static String endpointKey(URL endpoint) {
+        return endpoint.getProtocol() + "://" + endpoint.getHost() + ":" + endpoint.getPort();
+    }
+
+    /**
+     * Gets the SSL context shared by all the clients, creating it the first time
+     * <p>
+     * The server uses the default self-signed certificate of the Liberty development server, all certificates are
+     * trusted
+     *
+     * @return The SSL context
+     * @throws NoSuchAlgorithmException If TLS is not available
+     * @throws KeyManagementException   If the SSL context cannot be initialized
+     */
+    private static SSLContext getSslContext() throws NoSuchAlgorithmException, KeyManagementException {
+        SSLContext context = sslContext;
+        if (context != null) {
+            return context;
+        }
+        synchronized (JmxHttpClients.class) {
+            if (sslContext == null) {
+                // Trust all certificates
+                SSLContext newContext = SSLContext.getInstance("TLS");
+                TrustManager[] trustAllCerts = new TrustManager[]{
+                        new X509TrustManager() {
+                            public X509Certificate[] getAcceptedIssuers() {
+                                return new X509Certificate[0];
+                            }
+
+                            public void checkClientTrusted(X509Certificate[] certs, String authType) {
+                            }
+
+                            public void checkServerTrusted(X509Certificate[] certs, String authType) {
+                            }
+                        }
+                };
+                newContext.init(null, trustAllCerts, new SecureRandom());
+                // Keep the TLS sessions, so new connections resume them instead of doing a full handshake
+                SSLSessionContext sessionContext = newContext.getClientSessionContext();
+                sessionContext.setSessionCacheSize(TLS_SESSION_CACHE_SIZE);
+                sessionContext.setSessionTimeout(TLS_SESSION_TIMEOUT_SECONDS);
+                sslContext = newContext;
+            }
+            return sslContext;
+        }
+    }
+}
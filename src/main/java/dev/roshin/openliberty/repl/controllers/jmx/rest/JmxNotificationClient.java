@@ -0,0 +1,518 @@
+package dev.roshin.openliberty.repl.controllers.jmx.rest;
+
+import com.google.common.base.Preconditions;
+import com.google.common.base.Strings;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import dev.roshin.openliberty.repl.controllers.jmx.rest.domain.JmxNotification;
+import dev.roshin.openliberty.repl.controllers.jmx.rest.domain.MBeanInfo;
+import dev.roshin.openliberty.repl.controllers.jmx.rest.exceptions.JmxRequestException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.management.MalformedObjectNameException;
+import javax.management.ObjectName;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Receives MBean notifications pushed by the server, through a notification area of the REST connector.
+ * <p>
+ * The notification area is created on the server when the first listener is added. Its inbox is long-polled on a
+ * daemon thread: the server holds each request until notifications arrive or the delivery interval elapses, and all
+ * the notifications emitted in the meantime are delivered at once, so listeners get batches rather than single
+ * notifications and nothing is requested while the server is quiet.
+ * <p>
+ * JMX listeners are registered on MBeans, not patterns, so the MBeans matching a pattern are registered one by one.
+ * MBeans registered later are picked up from the registration notifications of the MBean server delegate. If the
+ * notification area expires or the server restarts, the area is created again and the MBeans registered again.
+ */
+public class JmxNotificationClient implements AutoCloseable {
+    private static final String NOTIFICATIONS_URL_CONTEXT_ROOT = "/IBMJMXConnectorREST/notifications";
+    private static final Duration INBOX_EXPIRY = Duration.ofMinutes(5);
+    private static final Duration LONG_POLL_GRACE = Duration.ofSeconds(30);
+    private static final Duration MIN_FAILURE_BACKOFF = Duration.ofSeconds(1);
+    private static final Duration MAX_FAILURE_BACKOFF = Duration.ofSeconds(30);
+    private static final int HTTP_GONE = 410;
+
+    private final JmxClient jmxClient;
+    private final Duration deliveryInterval;
+    // Changed under lock, read without it by the polling thread
+    private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+    // Guards the fields below, never held during a request, so closing never waits for the server
+    private final Object lock = new Object();
+    // Serializes creating the area and registering MBeans, which send requests
+    private final Object registrationLock = new Object();
+    private final Logger logger;
+    // Guarded by lock
+    private NotificationArea area;
+    private Thread pollingThread;
+    private volatile boolean closed;
+
+    /**
+     * Created through {@link JmxClient#createNotificationClient(Duration)}
+     *
+     * @param jmxClient        The client used to send the requests
+     * @param deliveryInterval How long the server holds an inbox request when there are no notifications
+     */
+    JmxNotificationClient(JmxClient jmxClient, Duration deliveryInterval) {
+        this.logger = LoggerFactory.getLogger(getClass());
+        Preconditions.checkNotNull(jmxClient, "jmxClient cannot be null");
+        Preconditions.checkNotNull(deliveryInterval, "deliveryInterval cannot be null");
+        Preconditions.checkArgument(!deliveryInterval.isNegative(), "deliveryInterval cannot be negative");
+
+        this.jmxClient = jmxClient;
+        this.deliveryInterval = deliveryInterval;
+    }
+
+    /**
+     * Adds a listener for the notifications of the MBeans matching the object name pattern
+     * <p>
+     * The MBeans currently matching the pattern are registered before this method returns, so no notification
+     * emitted afterwards is missed
+     *
+     * @param objectNamePattern The object name or object name pattern, e.g.
+     *                          {@link JMXConstants#APPLICATION_MBEAN_OBJECT_QUERY}
+     * @param listener          The listener
+     * @return The subscription, close it to remove the listener
+     * @throws IOException          If the notification area cannot be created or the MBeans cannot be registered
+     * @throws URISyntaxException   If a URL is invalid
+     * @throws InterruptedException If the calling thread is interrupted
+     */
+    public Subscription addListener(String objectNamePattern, JmxNotificationListener listener) throws IOException, URISyntaxException, InterruptedException {
+        logger.debug("Starting addListener");
+        Preconditions.checkArgument(!Strings.isNullOrEmpty(objectNamePattern), "objectNamePattern cannot be null or empty");
+        Preconditions.checkNotNull(listener, "listener cannot be null");
+
+        Subscription subscription = new Subscription(toObjectName(objectNamePattern), listener);
+        synchronized (lock) {
+            Preconditions.checkState(!closed, "The notification client is closed");
+            // Added first, so an area created meanwhile registers its MBeans too
+            subscriptions.add(subscription);
+        }
+        boolean registered = false;
+        try {
+            synchronized (registrationLock) {
+                NotificationArea existingArea;
+                synchronized (lock) {
+                    existingArea = area;
+                }
+                NotificationArea currentArea = openArea();
+                Preconditions.checkState(currentArea != null, "The notification client is closed");
+                if (currentArea == existingArea) {
+                    // A new area registered the MBeans of all the subscriptions already
+                    registerMatchingMBeans(currentArea, subscription.pattern);
+                }
+            }
+            synchronized (lock) {
+                if (subscriptions.contains(subscription)) {
+                    startPolling();
+                }
+            }
+            registered = true;
+        } finally {
+            if (!registered) {
+                subscription.close();
+            }
+        }
+        return subscription;
+    }
+
+    /**
+     * Stops polling and deletes the notification area on the server, the listeners are not called anymore
+     */
+    @Override
+    public void close() {
+        logger.debug("Starting close");
+        closed = true;
+        NotificationArea closedArea;
+        synchronized (lock) {
+            stopPolling();
+            closedArea = area;
+            area = null;
+            subscriptions.clear();
+        }
+        deleteArea(closedArea);
+    }
+
+    /**
+     * @return Whether the client has been closed
+     */
+    public boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Removes a subscription, and once none is left stops polling and deletes the notification area, which is
+     * created again by the next listener
+     *
+     * @param subscription The subscription
+     */
+    private void removeSubscription(Subscription subscription) {
+        NotificationArea removedArea;
+        synchronized (lock) {
+            if (!subscriptions.remove(subscription) || !subscriptions.isEmpty()) {
+                return;
+            }
+            logger.debug("No listener left, stopping polling");
+            stopPolling();
+            removedArea = area;
+            area = null;
+        }
+        deleteArea(removedArea);
+    }
+
+    /**
+     * Deletes a notification area on the server, without waiting for the answer
+     *
+     * @param notificationArea The notification area, can be null
+     */
+    private void deleteArea(NotificationArea notificationArea) {
+        if (notificationArea == null) {
+            return;
+        }
+        // Best effort, the server deletes the area anyway once its inbox expires
+        jmxClient.sendRequestAsync("DELETE", jmxClient.getRequestUrl(false, notificationArea.clientUrl), null,
+                        deliveryInterval.plus(LONG_POLL_GRACE), reader -> null)
+                .exceptionally(throwable -> {
+                    logger.debug("Failed to delete the notification area " + notificationArea.clientUrl, throwable);
+                    return null;
+                });
+    }
+
+    /**
+     * Gets the notification area, creating it on the server if there is none
+     * <p>
+     * When the area is created again, the MBeans of the existing subscriptions are registered again. The caller
+     * holds the registration lock, the requests are sent without holding the lock
+     *
+     * @return The notification area, or null if the client is closed or has no subscriptions
+     * @throws IOException          If the area cannot be created
+     * @throws URISyntaxException   If a URL is invalid
+     * @throws InterruptedException If the calling thread is interrupted
+     */
+    private NotificationArea openArea() throws IOException, URISyntaxException, InterruptedException {
+        synchronized (lock) {
+            if (area != null || closed || subscriptions.isEmpty()) {
+                return area;
+            }
+        }
+        logger.debug("Creating notification area");
+
+        // The server holds the inbox requests for the delivery interval, the area expires if its inbox is not read
+        JsonObject settings = new JsonObject();
+        settings.addProperty("deliveryInterval", deliveryInterval.toMillis());
+        settings.addProperty("inboxExpiry", INBOX_EXPIRY.toMillis());
+        JsonObject response = JmxClient.await(jmxClient.sendRequestAsync("POST",
+                jmxClient.getRequestUrl(false, NOTIFICATIONS_URL_CONTEXT_ROOT), settings.toString(),
+                deliveryInterval.plus(LONG_POLL_GRACE), reader -> JsonParser.parseReader(reader).getAsJsonObject()));
+        NotificationArea newArea = new NotificationArea(response);
+        logger.debug("Created notification area {}", newArea.clientUrl);
+
+        boolean opened = false;
+        try {
+            // Follow the MBeans registered from now on, to register the ones matching the patterns
+            register(newArea, JMXConstants.MBEAN_SERVER_DELEGATE_OBJECT_NAME);
+            for (Subscription subscription : subscriptions) {
+                registerMatchingMBeans(newArea, subscription.pattern);
+            }
+            synchronized (lock) {
+                if (!closed && !subscriptions.isEmpty()) {
+                    area = newArea;
+                    opened = true;
+                    return newArea;
+                }
+            }
+            // Closed, or the last listener removed, while the area was created
+            return null;
+        } finally {
+            if (!opened) {
+                deleteArea(newArea);
+            }
+        }
+    }
+
+    /**
+     * Registers all the MBeans matching the pattern with the notification area
+     * <p>
+     * The server keeps one registration per MBean and area, registering an MBean again does not duplicate its
+     * notifications
+     *
+     * @param notificationArea The notification area
+     * @param pattern          The object name pattern
+     * @throws IOException          If the MBeans cannot be queried or registered
+     * @throws URISyntaxException   If a URL is invalid
+     * @throws InterruptedException If the calling thread is interrupted
+     */
+    private void registerMatchingMBeans(NotificationArea notificationArea, ObjectName pattern) throws IOException, URISyntaxException, InterruptedException {
+        List<MBeanInfo> mBeans = JmxClient.await(jmxClient.queryMBeansAsync(pattern.getCanonicalName(), null, false));
+        logger.debug("Registering {} MBeans matching {}", mBeans.size(), pattern);
+        for (MBeanInfo mBean : mBeans) {
+            register(notificationArea, mBean.getObjectName());
+        }
+    }
+
+    /**
+     * Registers one MBean with the notification area
+     *
+     * @param notificationArea The notification area
+     * @param objectName       The object name of the MBean
+     * @throws IOException          If the MBean cannot be registered
+     * @throws URISyntaxException   If a URL is invalid
+     * @throws InterruptedException If the calling thread is interrupted
+     */
+    private void register(NotificationArea notificationArea, String objectName) throws IOException, URISyntaxException, InterruptedException {
+        JsonObject registration = new JsonObject();
+        registration.addProperty("objectName", objectName);
+        JmxClient.await(jmxClient.sendRequestAsync("POST", jmxClient.getRequestUrl(false, notificationArea.registrationsUrl),
+                registration.toString(), deliveryInterval.plus(LONG_POLL_GRACE), reader -> null));
+    }
+
+    /**
+     * Starts the polling thread if it is not running. The caller holds the lock
+     */
+    private void startPolling() {
+        if (pollingThread != null) {
+            return;
+        }
+        pollingThread = new Thread(this::poll, "jmx-notifications");
+        pollingThread.setDaemon(true);
+        pollingThread.start();
+    }
+
+    /**
+     * Stops the polling thread if it is running. The caller holds the lock
+     */
+    private void stopPolling() {
+        if (pollingThread != null) {
+            // The thread stops waiting for the pending inbox request, the request itself is not aborted and ends when
+            // the server answers it, at the latest after the delivery interval
+            pollingThread.interrupt();
+            pollingThread = null;
+        }
+    }
+
+    /**
+     * @return Whether the calling thread is the current polling thread, it stops once it is not
+     */
+    private boolean isPollingThread() {
+        synchronized (lock) {
+            return pollingThread == Thread.currentThread();
+        }
+    }
+
+    /**
+     * Long-polls the inbox until the client is closed or has no subscriptions, delivering the notifications to the
+     * listeners
+     * <p>
+     * Failures are retried with an increasing delay. A missing area is created again
+     */
+    private void poll() {
+        logger.debug("Starting poll");
+        try {
+            Duration backoff = MIN_FAILURE_BACKOFF;
+            while (isPollingThread()) {
+                NotificationArea currentArea = null;
+                try {
+                    synchronized (registrationLock) {
+                        currentArea = openArea();
+                    }
+                    if (currentArea == null) {
+                        // Closed, or no listener left
+                        return;
+                    }
+                    List<JmxNotification> notifications = JmxClient.await(jmxClient.sendRequestAsync("GET",
+                            jmxClient.getRequestUrl(false, currentArea.inboxUrl), null, deliveryInterval.plus(LONG_POLL_GRACE),
+                            JsonStreamDecoder::readNotificationList));
+                    backoff = MIN_FAILURE_BACKOFF;
+                    if (!notifications.isEmpty() && isPollingThread()) {
+                        logger.debug("Received {} notifications", notifications.size());
+                        dispatch(notifications);
+                    }
+                } catch (InterruptedException e) {
+                    // Stopped
+                    return;
+                } catch (IOException | URISyntaxException | RuntimeException e) {
+                    if (!isPollingThread()) {
+                        return;
+                    }
+                    if (e instanceof JmxRequestException && isAreaGone((JmxRequestException) e)) {
+                        // The area expired, or the server restarted and lost it
+                        logger.debug("Notification area is gone, creating it again");
+                        synchronized (lock) {
+                            if (area == currentArea) {
+                                area = null;
+                            }
+                        }
+                        continue;
+                    }
+                    logger.debug("Failed to poll the notification inbox, retrying in {} ms", backoff.toMillis(), e);
+                    try {
+                        Thread.sleep(backoff.toMillis());
+                    } catch (InterruptedException interruptedException) {
+                        return;
+                    }
+                    backoff = backoff.multipliedBy(2).compareTo(MAX_FAILURE_BACKOFF) > 0 ? MAX_FAILURE_BACKOFF : backoff.multipliedBy(2);
+                }
+            }
+        } finally {
+            synchronized (lock) {
+                // The next listener starts a new thread
+                if (pollingThread == Thread.currentThread()) {
+                    pollingThread = null;
+                }
+            }
+        }
+    }
+
+    /**
+     * Delivers the notifications to the listeners whose pattern matches their source, each listener gets its
+     * matching notifications at once
+     *
+     * @param notifications The notifications of one inbox delivery
+     */
+    private void dispatch(List<JmxNotification> notifications) {
+        for (Subscription subscription : subscriptions) {
+            List<JmxNotification> matching = new ArrayList<>();
+            for (JmxNotification notification : notifications) {
+                if (subscription.matches(notification.getSource())) {
+                    matching.add(notification);
+                }
+            }
+            if (!matching.isEmpty()) {
+                try {
+                    subscription.listener.handleNotifications(matching);
+                } catch (RuntimeException e) {
+                    logger.error("Notification listener failed", e);
+                }
+            }
+        }
+        boolean mBeanRegistered = false;
+        for (JmxNotification notification : notifications) {
+            if (JMXConstants.MBEAN_REGISTERED_NOTIFICATION_TYPE.equals(notification.getType())) {
+                mBeanRegistered = true;
+                break;
+            }
+        }
+        if (mBeanRegistered) {
+            registerNewMBeans();
+        }
+    }
+
+    /**
+     * Registers the MBeans matching the patterns, after new MBeans were registered on the server
+     */
+    private void registerNewMBeans() {
+        logger.debug("Starting registerNewMBeans");
+        try {
+            synchronized (registrationLock) {
+                NotificationArea currentArea;
+                synchronized (lock) {
+                    currentArea = area;
+                }
+                if (currentArea == null) {
+                    // Registered when the area is created again
+                    return;
+                }
+                for (Subscription subscription : subscriptions) {
+                    registerMatchingMBeans(currentArea, subscription.pattern);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException | URISyntaxException | RuntimeException e) {
+            logger.error("Failed to register the new MBeans", e);
+        }
+    }
+
+    /**
+     * @param e The failure of an inbox request
+     * @return Whether the notification area does not exist on the server anymore
+     */
+    private static boolean isAreaGone(JmxRequestException e) {
+        return e.isNotFound() || e.getStatusCode() == HTTP_GONE;
+    }
+
+    /**
+     * @param objectNamePattern The object name or object name pattern
+     * @return The parsed object name
+     */
+    private static ObjectName toObjectName(String objectNamePattern) {
+        try {
+            return ObjectName.getInstance(objectNamePattern);
+        } catch (MalformedObjectNameException e) {
+            throw new IllegalArgumentException("Invalid object name pattern: " + objectNamePattern, e);
+        }
+    }
+
+    /**
+     * A listener added to the notification client, close it to remove the listener
+     */
+    public class Subscription implements AutoCloseable {
+        private final ObjectName pattern;
+        private final JmxNotificationListener listener;
+
+        private Subscription(ObjectName pattern, JmxNotificationListener listener) {
+            this.pattern = pattern;
+            this.listener = listener;
+        }
+
+        /**
+         * @return The object name pattern of the subscription
+         */
+        public String getObjectNamePattern() {
+            return pattern.getCanonicalName();
+        }
+
+        /**
+         * @param source The object name of the MBean that emitted a notification, can be null
+         * @return Whether the MBean matches the pattern of the subscription
+         */
+        private boolean matches(String source) {
+            if (source == null) {
+                return false;
+            }
+            try {
+                return pattern.apply(ObjectName.getInstance(source));
+            } catch (MalformedObjectNameException e) {
+                return false;
+            }
+        }
+
+        /**
+         * Removes the listener, once no listener is left the polling stops and the notification area is deleted
+         */
+        @Override
+        public void close() {
+            removeSubscription(this);
+        }
+    }
+
+    /**
+     * The URLs of a notification area created on the server
+     */
+    private static class NotificationArea {
+        private final String registrationsUrl;
+        private final String inboxUrl;
+        private final String clientUrl;
+
+        private NotificationArea(JsonObject response) {
+            this.registrationsUrl = getUrl(response, "registrations");
+            this.inboxUrl = getUrl(response, "inbox");
+            this.clientUrl = getUrl(response, "clientURL");
+        }
+
+        private static String getUrl(JsonObject response, String name) {
+            JsonElement element = response.get(name);
+            if (element == null || element.isJsonNull()) {
+                throw new IllegalStateException("The notification area has no " + name + " URL: " + response);
+            }
+            return element.getAsString();
+        }
+    }
+}
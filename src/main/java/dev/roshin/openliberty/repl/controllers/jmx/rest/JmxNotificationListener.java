@@ -0,0 +1,20 @@
+package dev.roshin.openliberty.repl.controllers.jmx.rest;
+
+import dev.roshin.openliberty.repl.controllers.jmx.rest.domain.JmxNotification;
+
+import java.util.List;
+
+/**
+ * Receives the notifications of the MBeans matching the object name pattern it was registered with.
+ * <p>
+ * Called on the polling thread of the {@link JmxNotificationClient}, with all the matching notifications of one
+ * inbox delivery at once, in the order they were emitted. It should return quickly, the next delivery waits for it.
+ */
+@FunctionalInterface
+public interface JmxNotificationListener {
+
+    /**
+     * @param notifications The notifications of one delivery, never empty
+     */
+    void handleNotifications(List<JmxNotification> notifications);
+}
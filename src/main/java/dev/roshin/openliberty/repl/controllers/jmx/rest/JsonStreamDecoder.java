@@ -0,0 +1,259 @@
+package dev.roshin.openliberty.repl.controllers.jmx.rest;
+
+import com.google.common.base.Preconditions;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import dev.roshin.openliberty.repl.controllers.jmx.rest.domain.JmxNotification;
+import dev.roshin.openliberty.repl.controllers.jmx.rest.domain.MBeanInfo;
+import dev.roshin.openliberty.repl.controllers.jmx.rest.domain.attributes.Attribute;
+import dev.roshin.openliberty.repl.controllers.jmx.rest.domain.attributes.AttributeValue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Decodes the REST connector responses straight from a {@link JsonReader}, one entry at a time.
+ * <p>
+ * Only the current entry is held in memory, and the visiting methods stop reading as soon as the visitor returns
+ * false, so the remaining of the response is never decoded.
+ */
+public class JsonStreamDecoder {
+
+    private JsonStreamDecoder() {
+    }
+
+    /**
+     * Decodes a response body
+     *
+     * @param <T> The type of the decoded value
+     */
+    @FunctionalInterface
+    public interface ResponseDecoder<T> {
+        T decode(JsonReader reader) throws IOException;
+    }
+
+    /**
+     * Reads a list of MBeans, as returned by the mbeans URL, calling the visitor for each of them
+     *
+     * @param reader  The reader positioned at the start of the array
+     * @param visitor Called for each MBean, returns false to stop reading
+     * @throws IOException If the response cannot be read or is malformed
+     */
+    public static void readMBeanInfos(JsonReader reader, Predicate<MBeanInfo> visitor) throws IOException {
+        Preconditions.checkNotNull(visitor, "visitor cannot be null");
+        reader.beginArray();
+        while (reader.hasNext()) {
+            if (!visitor.test(readMBeanInfo(reader))) {
+                // Stop here, the caller closes the stream
+                return;
+            }
+        }
+        reader.endArray();
+    }
+
+    /**
+     * Reads a list of MBeans, as returned by the mbeans URL
+     *
+     * @param reader The reader positioned at the start of the array
+     * @return The list of {@link MBeanInfo} objects
+     * @throws IOException If the response cannot be read or is malformed
+     */
+    public static List<MBeanInfo> readMBeanInfoList(JsonReader reader) throws IOException {
+        List<MBeanInfo> mBeans = new ArrayList<>();
+        readMBeanInfos(reader, mBeans::add);
+        return mBeans;
+    }
+
+    /**
+     * Reads one MBean object
+     *
+     * @param reader The reader positioned at the start of the object
+     * @return The {@link MBeanInfo}
+     * @throws IOException If the response cannot be read or is malformed
+     */
+    public static MBeanInfo readMBeanInfo(JsonReader reader) throws IOException {
+        MBeanInfo mBeanInfo = new MBeanInfo();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "objectName" -> mBeanInfo.setObjectName(readString(reader));
+                case "className" -> mBeanInfo.setClassName(readString(reader));
+                case "URL" -> mBeanInfo.setURL(readString(reader));
+                default -> reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return mBeanInfo;
+    }
+
+    /**
+     * Reads a list of attributes, as returned by the attributes URL, calling the visitor for each of them
+     *
+     * @param reader  The reader positioned at the start of the array
+     * @param visitor Called for each attribute, returns false to stop reading
+     * @throws IOException If the response cannot be read or is malformed
+     */
+    public static void readAttributes(JsonReader reader, Predicate<Attribute> visitor) throws IOException {
+        Preconditions.checkNotNull(visitor, "visitor cannot be null");
+        reader.beginArray();
+        while (reader.hasNext()) {
+            if (!visitor.test(readAttribute(reader))) {
+                // Stop here, the caller closes the stream
+                return;
+            }
+        }
+        reader.endArray();
+    }
+
+    /**
+     * Reads a list of attributes, as returned by the attributes URL
+     *
+     * @param reader The reader positioned at the start of the array
+     * @return The list of {@link Attribute} objects
+     * @throws IOException If the response cannot be read or is malformed
+     */
+    public static List<Attribute> readAttributeList(JsonReader reader) throws IOException {
+        List<Attribute> attributes = new ArrayList<>();
+        readAttributes(reader, attributes::add);
+        return attributes;
+    }
+
+    /**
+     * Reads one attribute object, with its name and value
+     *
+     * @param reader The reader positioned at the start of the object
+     * @return The {@link Attribute}
+     * @throws IOException If the response cannot be read or is malformed
+     */
+    public static Attribute readAttribute(JsonReader reader) throws IOException {
+        Attribute attribute = new Attribute();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "name" -> attribute.setName(readString(reader));
+                case "value" -> attribute.setValue(readAttributeValue(reader));
+                default -> reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return attribute;
+    }
+
+    /**
+     * Reads an attribute value object, with its value and type
+     * <p>
+     * Simple values are kept as they are, composite values and arrays are kept as their JSON text
+     *
+     * @param reader The reader positioned at the start of the object
+     * @return The {@link AttributeValue}, or null if the value is null
+     * @throws IOException If the response cannot be read or is malformed
+     */
+    public static AttributeValue readAttributeValue(JsonReader reader) throws IOException {
+        if (reader.peek() == JsonToken.NULL) {
+            reader.nextNull();
+            return null;
+        }
+        AttributeValue attributeValue = new AttributeValue();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "value" -> attributeValue.setValue(readString(reader));
+                case "type" -> attributeValue.setType(readString(reader));
+                default -> reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return attributeValue;
+    }
+
+    /**
+     * Reads a list of notifications, as returned by the inbox URL of a notification area
+     * <p>
+     * Notifications wrapped in a record object are unwrapped
+     *
+     * @param reader The reader positioned at the start of the array
+     * @return The list of {@link JmxNotification} objects, can be empty
+     * @throws IOException If the response cannot be read or is malformed
+     */
+    public static List<JmxNotification> readNotificationList(JsonReader reader) throws IOException {
+        List<JmxNotification> notifications = new ArrayList<>();
+        if (reader.peek() == JsonToken.NULL) {
+            reader.nextNull();
+            return notifications;
+        }
+        reader.beginArray();
+        while (reader.hasNext()) {
+            JsonObject element = JsonParser.parseReader(reader).getAsJsonObject();
+            JsonElement notification = element.get("notification");
+            notifications.add(toNotification(notification != null && notification.isJsonObject()
+                    ? notification.getAsJsonObject() : element));
+        }
+        reader.endArray();
+        return notifications;
+    }
+
+    /**
+     * Converts one notification object, encoded values are unwrapped to their value
+     *
+     * @param object The notification object
+     * @return The {@link JmxNotification}
+     */
+    private static JmxNotification toNotification(JsonObject object) {
+        JmxNotification notification = new JmxNotification();
+        notification.setClassName(getEncodedString(object, "className"));
+        notification.setType(getEncodedString(object, "type"));
+        notification.setSource(getEncodedString(object, "source"));
+        notification.setMessage(getEncodedString(object, "message"));
+        notification.setUserData(getEncodedString(object, "userData"));
+        notification.setAttributeName(getEncodedString(object, "attributeName"));
+        notification.setOldValue(getEncodedString(object, "oldValue"));
+        notification.setNewValue(getEncodedString(object, "newValue"));
+        String sequenceNumber = getEncodedString(object, "sequenceNumber");
+        notification.setSequenceNumber(sequenceNumber == null ? 0 : Long.parseLong(sequenceNumber));
+        String timeStamp = getEncodedString(object, "timeStamp");
+        notification.setTimeStamp(timeStamp == null ? 0 : Long.parseLong(timeStamp));
+        return notification;
+    }
+
+    /**
+     * Gets a field as a string, unwrapping values encoded as an object with a value and a type
+     *
+     * @param object The object
+     * @param name   The name of the field
+     * @return The value as a string, objects and arrays as their JSON text, or null if missing or null
+     */
+    private static String getEncodedString(JsonObject object, String name) {
+        JsonElement element = object.get(name);
+        if (element != null && element.isJsonObject() && element.getAsJsonObject().has("value")) {
+            element = element.getAsJsonObject().get("value");
+        }
+        if (element == null || element.isJsonNull()) {
+            return null;
+        }
+        return element.isJsonPrimitive() ? element.getAsString() : element.toString();
+    }
+
+    /**
+     * Reads any value as a string: strings, numbers and booleans as their text, objects and arrays as their JSON text
+     *
+     * @param reader The reader positioned at the value
+     * @return The value as a string, or null if the value is null
+     * @throws IOException If the response cannot be read or is malformed
+     */
+    public static String readString(JsonReader reader) throws IOException {
+        return switch (reader.peek()) {
+            case NULL -> {
+                reader.nextNull();
+                yield null;
+            }
+            case STRING, NUMBER -> reader.nextString();
+            case BOOLEAN -> String.valueOf(reader.nextBoolean());
+            default -> JsonParser.parseReader(reader).toString();
+        };
+    }
+}
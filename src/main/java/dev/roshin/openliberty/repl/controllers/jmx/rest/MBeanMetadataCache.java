@@ -0,0 +1,88 @@
+package dev.roshin.openliberty.repl.controllers.jmx.rest;
+
+import com.google.common.base.Preconditions;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import dev.roshin.openliberty.repl.controllers.jmx.rest.domain.MBeanInfo;
+import dev.roshin.openliberty.repl.controllers.jmx.rest.domain.MBeanMetadata;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Caches the MBean metadata and query results of a {@link JmxClient}, so the info URL is not requested every time an
+ * attribute is read or an operation is invoked.
+ * <p>
+ * Entries expire after the configured time to live, query results usually get a shorter one as applications can be
+ * added while the server runs. An MBean entry is invalidated when the server answers 404 for it,
+ * and everything is invalidated when the server restarts, as the MBeans are registered again.
+ */
+public class MBeanMetadataCache {
+    private final Cache<String, MBeanMetadata> metadataByObjectName;
+    private final Cache<String, List<MBeanInfo>> mBeansByQuery;
+    private final Logger logger;
+
+    public MBeanMetadataCache(Duration metadataTimeToLive, Duration queryTimeToLive) {
+        Preconditions.checkNotNull(metadataTimeToLive, "metadataTimeToLive cannot be null");
+        Preconditions.checkNotNull(queryTimeToLive, "queryTimeToLive cannot be null");
+        Preconditions.checkArgument(!metadataTimeToLive.isNegative(), "metadataTimeToLive cannot be negative");
+        Preconditions.checkArgument(!queryTimeToLive.isNegative(), "queryTimeToLive cannot be negative");
+
+        this.logger = LoggerFactory.getLogger(getClass());
+        this.metadataByObjectName = CacheBuilder.newBuilder()
+                .expireAfterWrite(metadataTimeToLive)
+                .build();
+        this.mBeansByQuery = CacheBuilder.newBuilder()
+                .expireAfterWrite(queryTimeToLive)
+                .build();
+    }
+
+    /**
+     * @param objectName The object name of the MBean
+     * @return The cached metadata, or null if it is not cached or has expired
+     */
+    public MBeanMetadata getMetadata(String objectName) {
+        return metadataByObjectName.getIfPresent(objectName);
+    }
+
+    public void putMetadata(MBeanMetadata metadata) {
+        Preconditions.checkNotNull(metadata, "metadata cannot be null");
+        metadataByObjectName.put(metadata.getObjectName(), metadata);
+    }
+
+    /**
+     * @param query The query string sent to the REST connector
+     * @return The cached MBeans matching the query, or null if it is not cached or has expired
+     */
+    public List<MBeanInfo> getQueryResult(String query) {
+        return mBeansByQuery.getIfPresent(query);
+    }
+
+    public void putQueryResult(String query, List<MBeanInfo> mBeans) {
+        Preconditions.checkNotNull(query, "query cannot be null");
+        Preconditions.checkNotNull(mBeans, "mBeans cannot be null");
+        mBeansByQuery.put(query, List.copyOf(mBeans));
+    }
+
+    /**
+     * Invalidates the metadata of the given MBean, and the query results as they may still list it
+     *
+     * @param objectName The object name of the MBean
+     */
+    public void invalidate(String objectName) {
+        logger.debug("Invalidating cached metadata for {}", objectName);
+        metadataByObjectName.invalidate(objectName);
+        mBeansByQuery.invalidateAll();
+    }
+
+    /**
+     * Invalidates everything, to be used when the server is restarted
+     */
+    public void invalidateAll() {
+        logger.debug("Invalidating all cached metadata");
+        metadataByObjectName.invalidateAll();
+        mBeansByQuery.invalidateAll();
+    }
+}
@@ -0,0 +1,127 @@
+package dev.roshin.openliberty.repl.controllers.jmx.rest.domain;
+
+/**
+ * A JMX notification, as delivered by the notification inbox of the REST connector.
+ * <p>
+ * Encoded values, such as the user data or the old and new values of an attribute change, are kept as their JSON
+ * text.
+ */
+public class JmxNotification {
+    private String className;
+    private String type;
+    private String source;
+    private long sequenceNumber;
+    private long timeStamp;
+    private String message;
+    private String userData;
+    private String attributeName;
+    private String oldValue;
+    private String newValue;
+
+
+    // Getter Methods
+
+    public String getClassName() {
+        return className;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    /**
+     * @return The object name of the MBean that emitted the notification
+     */
+    public String getSource() {
+        return source;
+    }
+
+    public long getSequenceNumber() {
+        return sequenceNumber;
+    }
+
+    public long getTimeStamp() {
+        return timeStamp;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public String getUserData() {
+        return userData;
+    }
+
+    /**
+     * @return The name of the changed attribute, only set for attribute change notifications
+     */
+    public String getAttributeName() {
+        return attributeName;
+    }
+
+    public String getOldValue() {
+        return oldValue;
+    }
+
+    public String getNewValue() {
+        return newValue;
+    }
+
+    // Setter Methods
+
+    public void setClassName(String className) {
+        this.className = className;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public void setSource(String source) {
+        this.source = source;
+    }
+
+    public void setSequenceNumber(long sequenceNumber) {
+        this.sequenceNumber = sequenceNumber;
+    }
+
+    public void setTimeStamp(long timeStamp) {
+        this.timeStamp = timeStamp;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    public void setUserData(String userData) {
+        this.userData = userData;
+    }
+
+    public void setAttributeName(String attributeName) {
+        this.attributeName = attributeName;
+    }
+
+    public void setOldValue(String oldValue) {
+        this.oldValue = oldValue;
+    }
+
+    public void setNewValue(String newValue) {
+        this.newValue = newValue;
+    }
+
+    @Override
+    public String toString() {
+        return "JmxNotification{" +
+                "className='" + className + '\'' +
+                ", type='" + type + '\'' +
+                ", source='" + source + '\'' +
+                ", sequenceNumber=" + sequenceNumber +
+                ", timeStamp=" + timeStamp +
+                ", message='" + message + '\'' +
+                ", userData='" + userData + '\'' +
+                ", attributeName='" + attributeName + '\'' +
+                ", oldValue='" + oldValue + '\'' +
+                ", newValue='" + newValue + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,76 @@
+package dev.roshin.openliberty.repl.controllers.jmx.rest.domain;
+
+import com.google.common.base.Preconditions;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The resolved metadata of an MBean, as returned by the info URL of the REST connector.
+ * <p>
+ * Keeps the attributes URL and the operation URLs so they do not have to be looked up on every request.
+ */
+public class MBeanMetadata {
+    private final String objectName;
+    private final JsonObject info;
+    private final String attributesUrl;
+    private final Map<String, String> operationUrls;
+
+    public MBeanMetadata(String objectName, JsonObject info) {
+        Preconditions.checkNotNull(objectName, "objectName cannot be null");
+        Preconditions.checkNotNull(info, "info cannot be null");
+
+        this.objectName = objectName;
+        this.info = info;
+
+        JsonElement attributesUrlElement = info.get("attributes_URL");
+        this.attributesUrl = attributesUrlElement == null || attributesUrlElement.isJsonNull() ? null : attributesUrlElement.getAsString();
+
+        Map<String, String> operations = new HashMap<>();
+        JsonElement operationsElement = info.get("operations");
+        if (operationsElement != null && operationsElement.isJsonArray()) {
+            for (JsonElement operationElement : operationsElement.getAsJsonArray()) {
+                JsonObject operationObject = operationElement.getAsJsonObject();
+                // Keep the first URL for overloaded operations, this is the one found when looking up by name
+                operations.putIfAbsent(operationObject.get("name").getAsString(), operationObject.get("URL").getAsString());
+            }
+        }
+        this.operationUrls = Collections.unmodifiableMap(operations);
+    }
+
+    public String getObjectName() {
+        return objectName;
+    }
+
+    public JsonObject getInfo() {
+        return info;
+    }
+
+    public String getAttributesUrl() {
+        return attributesUrl;
+    }
+
+    public Map<String, String> getOperationUrls() {
+        return operationUrls;
+    }
+
+    /**
+     * @param operation The name of the operation
+     * @return The URL of the operation, or null if the MBean does not have it
+     */
+    public String getOperationUrl(String operation) {
+        return operationUrls.get(operation);
+    }
+
+    @Override
+    public String toString() {
+        return "MBeanMetadata{" +
+                "objectName='" + objectName + '\'' +
+                ", attributesUrl='" + attributesUrl + '\'' +
+                ", operationUrls=" + operationUrls +
+                '}';
+    }
+}
@@ -0,0 +1,140 @@
+package dev.roshin.openliberty.repl.controllers.jmx.rest.domain;
+
+import dev.roshin.openliberty.repl.TerminalPrintablePojo;
+import org.jline.utils.AttributedStringBuilder;
+import org.jline.utils.AttributedStyle;
+
+/**
+ * The outcome of one health probe of the REST connector, telling apart a server that cannot be reached, one that
+ * rejects the credentials and one that answers
+ */
+public class ProbeResult implements TerminalPrintablePojo {
+
+    public enum Status {
+        /**
+         * The server answered the probe
+         */
+        UP,
+        /**
+         * The server answered, but rejected the credentials
+         */
+        UNAUTHORIZED,
+        /**
+         * The server answered with another error
+         */
+        ERROR,
+        /**
+         * The server did not answer within the probe timeout
+         */
+        TIMEOUT,
+        /**
+         * No connection could be opened to the server
+         */
+        UNREACHABLE
+    }
+
+    private Status status;
+    private int statusCode;
+    private long latencyMicros;
+    private long serverStartTime;
+    private String message;
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    /**
+     * @return The HTTP status code, 0 if there was no response
+     */
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    public void setStatusCode(int statusCode) {
+        this.statusCode = statusCode;
+    }
+
+    /**
+     * @return How long the probe took, until the response or the failure
+     */
+    public long getLatencyMicros() {
+        return latencyMicros;
+    }
+
+    public void setLatencyMicros(long latencyMicros) {
+        this.latencyMicros = latencyMicros;
+    }
+
+    /**
+     * @return The start time of the server process, in milliseconds since the epoch, 0 if the server did not answer
+     */
+    public long getServerStartTime() {
+        return serverStartTime;
+    }
+
+    public void setServerStartTime(long serverStartTime) {
+        this.serverStartTime = serverStartTime;
+    }
+
+    /**
+     * @return Why the probe failed, null if it succeeded
+     */
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    /**
+     * @return Whether the server answered, whatever the answer
+     */
+    public boolean isConnected() {
+        return statusCode > 0;
+    }
+
+    /**
+     * @return Whether the server accepted the credentials
+     */
+    public boolean isAuthenticated() {
+        return status == Status.UP;
+    }
+
+    /**
+     * @return Whether the server answered the probe successfully
+     */
+    public boolean isUp() {
+        return status == Status.UP;
+    }
+
+    @Override
+    public String toString() {
+        return "ProbeResult{" +
+                "status=" + status +
+                ", statusCode=" + statusCode +
+                ", latencyMicros=" + latencyMicros +
+                ", serverStartTime=" + serverStartTime +
+                ", message='" + message + '\'' +
+                '}';
+    }
+
+    @Override
+    public String toTerminalString() {
+        AttributedStringBuilder builder = new AttributedStringBuilder()
+                .append("JMX connector ")
+                .append(String.valueOf(status), isUp() ? AttributedStyle.BOLD.foreground(AttributedStyle.GREEN)
+                        : AttributedStyle.BOLD.foreground(AttributedStyle.RED))
+                .append(" (connected: ").append(String.valueOf(isConnected()))
+                .append(", authenticated: ").append(String.valueOf(isAuthenticated()))
+                .append(", latency: ").append(String.format("%.1f", latencyMicros / 1000.0)).append(" ms)");
+        if (message != null) {
+            builder.append(" ").append(message, AttributedStyle.DEFAULT.foreground(AttributedStyle.RED));
+        }
+        return builder.toAnsi();
+    }
+}
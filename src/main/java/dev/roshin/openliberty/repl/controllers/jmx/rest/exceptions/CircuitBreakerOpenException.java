@@ -0,0 +1,12 @@
+package dev.roshin.openliberty.repl.controllers.jmx.rest.exceptions;
+
+import java.io.IOException;
+
+/**
+ * Thrown without sending the request when the circuit breaker knows the REST connector is down.
+ */
+public class CircuitBreakerOpenException extends IOException {
+    public CircuitBreakerOpenException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,24 @@
+package dev.roshin.openliberty.repl.controllers.jmx.rest.exceptions;
+
+/**
+ * Thrown when the REST connector answers a request with an HTTP error status code.
+ */
+public class JmxRequestException extends RuntimeException {
+    private final int statusCode;
+
+    public JmxRequestException(String message, int statusCode) {
+        super(message);
+        this.statusCode = statusCode;
+    }
+
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    /**
+     * @return true if the server answered that the requested resource does not exist
+     */
+    public boolean isNotFound() {
+        return statusCode == 404;
+    }
+}
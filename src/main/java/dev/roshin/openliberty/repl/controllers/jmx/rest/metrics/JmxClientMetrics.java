@@ -0,0 +1,135 @@
+package dev.roshin.openliberty.repl.controllers.jmx.rest.metrics;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The request metrics of a JMX client, per kind of REST connector URL.
+ * <p>
+ * Two latencies are recorded: the server latency, from sending an attempt to receiving the response headers, and
+ * the total latency of the request, including the retries, the waits between them and decoding the response. A
+ * high total latency with a low server latency points at the client rather than the server.
+ * <p>
+ * All the recording methods are lock free and do not allocate.
+ */
+public class JmxClientMetrics {
+    private final Map<JmxEndpoint, EndpointMetrics> endpoints = new EnumMap<>(JmxEndpoint.class);
+    private final LongAdder circuitBreakerRejections = new LongAdder();
+    private volatile long sinceMillis = System.currentTimeMillis();
+
+    public JmxClientMetrics() {
+        // Created up front, the map is never modified afterwards so it can be read without locking
+        for (JmxEndpoint endpoint : JmxEndpoint.values()) {
+            endpoints.put(endpoint, new EndpointMetrics());
+        }
+    }
+
+    /**
+     * Records a request, counted once however many attempts it takes
+     *
+     * @param endpoint The kind of URL
+     */
+    public void recordRequest(JmxEndpoint endpoint) {
+        endpoints.get(endpoint).requests.increment();
+    }
+
+    /**
+     * Records the time from sending an attempt to receiving the response headers
+     *
+     * @param endpoint The kind of URL
+     * @param nanos    The latency in nanoseconds
+     */
+    public void recordServerLatency(JmxEndpoint endpoint, long nanos) {
+        endpoints.get(endpoint).serverLatency.recordNanos(nanos);
+    }
+
+    /**
+     * Records the time of a whole request, successful or not
+     *
+     * @param endpoint The kind of URL
+     * @param nanos    The latency in nanoseconds
+     */
+    public void recordTotalLatency(JmxEndpoint endpoint, long nanos) {
+        endpoints.get(endpoint).totalLatency.recordNanos(nanos);
+    }
+
+    /**
+     * @param endpoint The kind of URL
+     */
+    public void recordRetry(JmxEndpoint endpoint) {
+        endpoints.get(endpoint).retries.increment();
+    }
+
+    /**
+     * Records a request that failed after its last attempt
+     *
+     * @param endpoint The kind of URL
+     */
+    public void recordFailure(JmxEndpoint endpoint) {
+        endpoints.get(endpoint).failures.increment();
+    }
+
+    /**
+     * @param endpoint The kind of URL
+     * @param bytes    The number of response body bytes read
+     */
+    public void recordBytesReceived(JmxEndpoint endpoint, long bytes) {
+        endpoints.get(endpoint).bytesReceived.add(bytes);
+    }
+
+    /**
+     * Records an attempt that was not sent because the circuit breaker was open
+     */
+    public void recordCircuitBreakerRejection() {
+        circuitBreakerRejections.increment();
+    }
+
+    /**
+     * Clears all the metrics
+     */
+    public void reset() {
+        for (EndpointMetrics metrics : endpoints.values()) {
+            metrics.reset();
+        }
+        circuitBreakerRejections.reset();
+        sinceMillis = System.currentTimeMillis();
+    }
+
+    /**
+     * @return A copy of the metrics, with the latency percentiles computed
+     */
+    public JmxClientMetricsSnapshot snapshot() {
+        Map<JmxEndpoint, JmxClientMetricsSnapshot.EndpointSnapshot> snapshots = new EnumMap<>(JmxEndpoint.class);
+        endpoints.forEach((endpoint, metrics) -> {
+            long requests = metrics.requests.sum();
+            if (requests > 0) {
+                snapshots.put(endpoint, new JmxClientMetricsSnapshot.EndpointSnapshot(requests, metrics.retries.sum(),
+                        metrics.failures.sum(), metrics.bytesReceived.sum(), metrics.serverLatency.snapshot(),
+                        metrics.totalLatency.snapshot()));
+            }
+        });
+        return new JmxClientMetricsSnapshot(sinceMillis, System.currentTimeMillis(), circuitBreakerRejections.sum(), snapshots);
+    }
+
+    /**
+     * The metrics of one kind of URL
+     */
+    private static class EndpointMetrics {
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder retries = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+        private final LongAdder bytesReceived = new LongAdder();
+        private final LatencyHistogram serverLatency = new LatencyHistogram();
+        private final LatencyHistogram totalLatency = new LatencyHistogram();
+
+        private void reset() {
+            requests.reset();
+            retries.reset();
+            failures.reset();
+            bytesReceived.reset();
+            serverLatency.reset();
+            totalLatency.reset();
+        }
+    }
+}
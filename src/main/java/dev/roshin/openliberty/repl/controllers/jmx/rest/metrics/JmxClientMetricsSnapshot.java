@@ -0,0 +1,174 @@
+package dev.roshin.openliberty.repl.controllers.jmx.rest.metrics;
+
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import dev.roshin.openliberty.repl.TerminalPrintablePojo;
+import org.jline.utils.AttributedStringBuilder;
+import org.jline.utils.AttributedStyle;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * A copy of the {@link JmxClientMetrics} at one point in time, printable on the terminal or as JSON.
+ */
+public class JmxClientMetricsSnapshot implements TerminalPrintablePojo {
+    private static final double[] PERCENTILES = {50, 90, 99};
+
+    private final long sinceMillis;
+    private final long takenMillis;
+    private final long circuitBreakerRejections;
+    private final Map<JmxEndpoint, EndpointSnapshot> endpoints;
+
+    public JmxClientMetricsSnapshot(long sinceMillis, long takenMillis, long circuitBreakerRejections,
+                                    Map<JmxEndpoint, EndpointSnapshot> endpoints) {
+        this.sinceMillis = sinceMillis;
+        this.takenMillis = takenMillis;
+        this.circuitBreakerRejections = circuitBreakerRejections;
+        this.endpoints = Collections.unmodifiableMap(endpoints);
+    }
+
+    /**
+     * @return The time the metrics were created or last reset
+     */
+    public long getSinceMillis() {
+        return sinceMillis;
+    }
+
+    public long getTakenMillis() {
+        return takenMillis;
+    }
+
+    public long getCircuitBreakerRejections() {
+        return circuitBreakerRejections;
+    }
+
+    /**
+     * @return The metrics of the kinds of URL that received at least one request
+     */
+    public Map<JmxEndpoint, EndpointSnapshot> getEndpoints() {
+        return endpoints;
+    }
+
+    @Override
+    public String toTerminalString() {
+        AttributedStringBuilder builder = new AttributedStringBuilder()
+                .append("\n")
+                .append("JMX requests since ").append(Instant.ofEpochMilli(sinceMillis).toString(), AttributedStyle.DEFAULT.foreground(AttributedStyle.GREEN))
+                .append("\n\n");
+        if (endpoints.isEmpty()) {
+            return builder.append("No requests yet\n").toAnsi();
+        }
+        // Server is the time to the response headers, total includes the retries and decoding the response
+        builder.append(String.format("%-26s %8s %7s %8s %10s  %-26s %-26s", "endpoint", "requests", "retries",
+                        "failures", "bytes", "server ms p50/p90/p99", "total ms p50/p90/p99"),
+                AttributedStyle.BOLD).append("\n");
+        endpoints.forEach((endpoint, snapshot) -> {
+            builder.append(String.format("%-26s %8d %7d ", endpoint, snapshot.requests, snapshot.retries));
+            builder.append(String.format("%8d", snapshot.failures), snapshot.failures > 0
+                    ? AttributedStyle.DEFAULT.foreground(AttributedStyle.RED) : AttributedStyle.DEFAULT);
+            builder.append(String.format(" %10d  %-26s %-26s%n", snapshot.bytesReceived,
+                    formatPercentiles(snapshot.serverLatency), formatPercentiles(snapshot.totalLatency)));
+        });
+        builder.append("\n").append("Circuit breaker rejections: ")
+                .append(String.valueOf(circuitBreakerRejections), circuitBreakerRejections > 0
+                        ? AttributedStyle.DEFAULT.foreground(AttributedStyle.RED) : AttributedStyle.DEFAULT.foreground(AttributedStyle.GREEN))
+                .append("\n");
+        return builder.toAnsi();
+    }
+
+    /**
+     * @return The metrics as pretty printed JSON, latencies in microseconds
+     */
+    public String toJson() {
+        JsonObject root = new JsonObject();
+        root.addProperty("since", sinceMillis);
+        root.addProperty("taken", takenMillis);
+        root.addProperty("circuitBreakerRejections", circuitBreakerRejections);
+        JsonArray endpointsArray = new JsonArray();
+        endpoints.forEach((endpoint, snapshot) -> {
+            JsonObject endpointObject = new JsonObject();
+            endpointObject.addProperty("endpoint", endpoint.name());
+            endpointObject.addProperty("requests", snapshot.requests);
+            endpointObject.addProperty("retries", snapshot.retries);
+            endpointObject.addProperty("failures", snapshot.failures);
+            endpointObject.addProperty("bytesReceived", snapshot.bytesReceived);
+            endpointObject.add("serverLatencyMicros", toJson(snapshot.serverLatency));
+            endpointObject.add("totalLatencyMicros", toJson(snapshot.totalLatency));
+            endpointsArray.add(endpointObject);
+        });
+        root.add("endpoints", endpointsArray);
+        return new GsonBuilder().setPrettyPrinting().create().toJson(root);
+    }
+
+    private static JsonObject toJson(LatencyHistogram.Snapshot latency) {
+        JsonObject latencyObject = new JsonObject();
+        latencyObject.addProperty("count", latency.getCount());
+        latencyObject.addProperty("min", latency.getMinMicros());
+        latencyObject.addProperty("mean", latency.getMeanMicros());
+        latencyObject.addProperty("max", latency.getMaxMicros());
+        for (double percentile : PERCENTILES) {
+            latencyObject.addProperty("p" + (int) percentile, latency.getValueAtPercentile(percentile));
+        }
+        return latencyObject;
+    }
+
+    private static String formatPercentiles(LatencyHistogram.Snapshot latency) {
+        StringBuilder builder = new StringBuilder();
+        for (double percentile : PERCENTILES) {
+            if (builder.length() > 0) {
+                builder.append('/');
+            }
+            builder.append(String.format("%.1f", latency.getValueAtPercentile(percentile) / 1000.0));
+        }
+        return builder.toString();
+    }
+
+    /**
+     * The metrics of one kind of URL
+     */
+    public static class EndpointSnapshot {
+        private final long requests;
+        private final long retries;
+        private final long failures;
+        private final long bytesReceived;
+        private final LatencyHistogram.Snapshot serverLatency;
+        private final LatencyHistogram.Snapshot totalLatency;
+
+        public EndpointSnapshot(long requests, long retries, long failures, long bytesReceived,
+                                LatencyHistogram.Snapshot serverLatency, LatencyHistogram.Snapshot totalLatency) {
+            this.requests = requests;
+            this.retries = retries;
+            this.failures = failures;
+            this.bytesReceived = bytesReceived;
+            this.serverLatency = serverLatency;
+            this.totalLatency = totalLatency;
+        }
+
+        public long getRequests() {
+            return requests;
+        }
+
+        public long getRetries() {
+            return retries;
+        }
+
+        public long getFailures() {
+            return failures;
+        }
+
+        public long getBytesReceived() {
+            return bytesReceived;
+        }
+
+        public LatencyHistogram.Snapshot getServerLatency() {
+            return serverLatency;
+        }
+
+        public LatencyHistogram.Snapshot getTotalLatency() {
+            return totalLatency;
+        }
+    }
+}
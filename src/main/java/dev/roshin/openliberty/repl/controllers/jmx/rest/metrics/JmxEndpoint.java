@@ -0,0 +1,61 @@
+package dev.roshin.openliberty.repl.controllers.jmx.rest.metrics;
+
+import java.net.URI;
+
+/**
+ * The kinds of REST connector URLs, the metrics are kept per kind rather than per URL so their number is bounded.
+ */
+public enum JmxEndpoint {
+    QUERY,
+    INFO,
+    ATTRIBUTES,
+    OPERATION,
+    NOTIFICATION_AREA,
+    NOTIFICATION_REGISTRATION,
+    NOTIFICATION_INBOX,
+    PROBE,
+    OTHER;
+
+    private static final String MBEANS_PATH = "/IBMJMXConnectorREST/mbeans";
+    private static final String NOTIFICATIONS_PATH = "/IBMJMXConnectorREST/notifications";
+
+    /**
+     * Finds the kind of the URL from its path
+     * <p>
+     * Health probes are never found this way, they are recorded as {@link #PROBE} by the client
+     *
+     * @param url The request URL
+     * @return The kind of URL, {@link #OTHER} if it is not known
+     */
+    public static JmxEndpoint of(String url) {
+        String path;
+        try {
+            path = URI.create(url).getRawPath();
+        } catch (IllegalArgumentException e) {
+            return OTHER;
+        }
+        if (path == null) {
+            return OTHER;
+        }
+        if (path.startsWith(NOTIFICATIONS_PATH)) {
+            if (path.endsWith("/inbox")) {
+                return NOTIFICATION_INBOX;
+            }
+            return path.contains("/registrations") ? NOTIFICATION_REGISTRATION : NOTIFICATION_AREA;
+        }
+        if (path.startsWith(MBEANS_PATH)) {
+            if (path.contains("/operations/")) {
+                return OPERATION;
+            }
+            if (path.endsWith("/attributes") || path.contains("/attributes/")) {
+                return ATTRIBUTES;
+            }
+            // The list and query URL, the query is in the query string
+            if (path.length() <= MBEANS_PATH.length() + 1) {
+                return QUERY;
+            }
+            return INFO;
+        }
+        return OTHER;
+    }
+}
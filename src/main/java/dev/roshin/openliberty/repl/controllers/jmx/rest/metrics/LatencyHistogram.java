@@ -0,0 +1,157 @@
+package dev.roshin.openliberty.repl.controllers.jmx.rest.metrics;
+
+import com.google.common.base.Preconditions;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A fixed-size latency histogram, with log-linear buckets in the manner of HdrHistogram.
+ * <p>
+ * Latencies are recorded in microseconds. Values below 64 have their own bucket, above that each power of two is
+ * split in 32 buckets, so any recorded value is known within about 3%. Latencies above one hour are recorded as one
+ * hour.
+ * <p>
+ * Recording is thread safe, lock free and does not allocate, so it can be called on every request.
+ */
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final long MAX_VALUE = TimeUnit.HOURS.toMicros(1);
+    private static final int BUCKET_COUNT = bucketIndex(MAX_VALUE) + 1;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+    private final AtomicLong totalCount = new AtomicLong();
+    private final AtomicLong totalMicros = new AtomicLong();
+    private final AtomicLong maxMicros = new AtomicLong();
+    private final AtomicLong minMicros = new AtomicLong(Long.MAX_VALUE);
+
+    /**
+     * Records a latency
+     *
+     * @param nanos The latency in nanoseconds, negative values are recorded as 0
+     */
+    public void recordNanos(long nanos) {
+        long micros = Math.min(Math.max(nanos, 0) / 1000, MAX_VALUE);
+        counts.incrementAndGet(bucketIndex(micros));
+        totalCount.incrementAndGet();
+        totalMicros.addAndGet(micros);
+        maxMicros.accumulateAndGet(micros, Math::max);
+        minMicros.accumulateAndGet(micros, Math::min);
+    }
+
+    /**
+     * Clears all the recorded values
+     * <p>
+     * Values recorded while resetting may be partially kept
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts.set(i, 0);
+        }
+        totalCount.set(0);
+        totalMicros.set(0);
+        maxMicros.set(0);
+        minMicros.set(Long.MAX_VALUE);
+    }
+
+    /**
+     * Takes a consistent enough copy of the histogram, to compute the percentiles from
+     *
+     * @return The snapshot
+     */
+    public Snapshot snapshot() {
+        long[] copy = new long[BUCKET_COUNT];
+        long count = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            copy[i] = counts.get(i);
+            count += copy[i];
+        }
+        long min = minMicros.get();
+        return new Snapshot(copy, count, count == 0 ? 0 : min, maxMicros.get(), count == 0 ? 0 : (double) totalMicros.get() / totalCount.get());
+    }
+
+    /**
+     * @param micros The value, between 0 and {@link #MAX_VALUE}
+     * @return The index of the bucket of the value
+     */
+    private static int bucketIndex(long micros) {
+        if (micros < 2 * SUB_BUCKET_COUNT) {
+            return (int) micros;
+        }
+        // Keep the SUB_BUCKET_BITS bits below the most significant bit
+        int shift = 63 - Long.numberOfLeadingZeros(micros) - SUB_BUCKET_BITS;
+        return (shift + 1) * SUB_BUCKET_COUNT + (int) (micros >>> shift) - SUB_BUCKET_COUNT;
+    }
+
+    /**
+     * @param index The index of a bucket
+     * @return The highest value recorded in the bucket
+     */
+    private static long bucketUpperBound(int index) {
+        if (index < 2 * SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int shift = index / SUB_BUCKET_COUNT - 1;
+        long subBucket = index % SUB_BUCKET_COUNT + SUB_BUCKET_COUNT;
+        return ((subBucket + 1) << shift) - 1;
+    }
+
+    /**
+     * A copy of the histogram at one point in time
+     */
+    public static class Snapshot {
+        private final long[] counts;
+        private final long count;
+        private final long minMicros;
+        private final long maxMicros;
+        private final double meanMicros;
+
+        private Snapshot(long[] counts, long count, long minMicros, long maxMicros, double meanMicros) {
+            this.counts = counts;
+            this.count = count;
+            this.minMicros = minMicros;
+            this.maxMicros = maxMicros;
+            this.meanMicros = meanMicros;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getMinMicros() {
+            return minMicros;
+        }
+
+        public long getMaxMicros() {
+            return maxMicros;
+        }
+
+        public double getMeanMicros() {
+            return meanMicros;
+        }
+
+        /**
+         * Gets the value below which the given percentage of the recorded values fall
+         *
+         * @param percentile The percentile, between 0 and 100
+         * @return The value in microseconds, never above the maximum recorded, or 0 if nothing was recorded
+         */
+        public long getValueAtPercentile(double percentile) {
+            Preconditions.checkArgument(percentile >= 0 && percentile <= 100, "percentile must be between 0 and 100");
+            if (count == 0) {
+                return 0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return Math.min(bucketUpperBound(i), maxMicros);
+                }
+            }
+            return maxMicros;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package dev.roshin.openliberty.repl.controllers.jmx.rest.resilience;
+
+import com.google.common.base.Preconditions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+
+/**
+ * Short-circuits requests while the REST connector is known to be down.
+ * <p>
+ * After failureThreshold consecutive failures the circuit opens, and requests fail immediately for openDuration.
+ * Then one trial request is let through: if it succeeds the circuit closes, otherwise it opens again.
+ */
+public class CircuitBreaker {
+    public static final int DEFAULT_FAILURE_THRESHOLD = 3;
+    public static final Duration DEFAULT_OPEN_DURATION = Duration.ofSeconds(5);
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final int failureThreshold;
+    private final long openDurationNanos;
+    private final Logger logger;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAtNanos;
+
+    public CircuitBreaker() {
+        this(DEFAULT_FAILURE_THRESHOLD, DEFAULT_OPEN_DURATION);
+    }
+
+    public CircuitBreaker(int failureThreshold, Duration openDuration) {
+        Preconditions.checkArgument(failureThreshold >= 1, "failureThreshold must be at least 1");
+        Preconditions.checkNotNull(openDuration, "openDuration cannot be null");
+        Preconditions.checkArgument(!openDuration.isNegative(), "openDuration cannot be negative");
+
+        this.failureThreshold = failureThreshold;
+        this.openDurationNanos = openDuration.toNanos();
+        this.logger = LoggerFactory.getLogger(getClass());
+    }
+
+    /**
+     * @return true if the request can be sent, false if it must fail without being sent
+     */
+    public synchronized boolean allowRequest() {
+        switch (state) {
+            case CLOSED:
+                return true;
+            case OPEN:
+            case HALF_OPEN:
+            default:
+                // In half open state, the trial request is still in flight, unless it got lost
+                if (System.nanoTime() - openedAtNanos >= openDurationNanos) {
+                    // Let one trial request through
+                    logger.debug("Circuit half open, sending a trial request");
+                    state = State.HALF_OPEN;
+                    openedAtNanos = System.nanoTime();
+                    return true;
+                }
+                return false;
+        }
+    }
+
+    /**
+     * Records a request that reached the server
+     */
+    public synchronized void onSuccess() {
+        if (state != State.CLOSED) {
+            logger.debug("Circuit closed");
+        }
+        state = State.CLOSED;
+        consecutiveFailures = 0;
+    }
+
+    /**
+     * Records a request that could not reach the server, or that the server could not answer
+     */
+    public synchronized void onFailure() {
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+            if (state != State.OPEN) {
+                logger.debug("Circuit opened after {} consecutive failures", consecutiveFailures);
+            }
+            state = State.OPEN;
+            openedAtNanos = System.nanoTime();
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+}
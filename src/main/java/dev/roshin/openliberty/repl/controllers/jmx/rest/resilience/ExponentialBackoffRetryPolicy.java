@@ -0,0 +1,105 @@
+package dev.roshin.openliberty.repl.controllers.jmx.rest.resilience;
+
+import com.google.common.base.Preconditions;
+import dev.roshin.openliberty.repl.controllers.jmx.rest.exceptions.CircuitBreakerOpenException;
+import dev.roshin.openliberty.repl.controllers.jmx.rest.exceptions.JmxRequestException;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.http.HttpConnectTimeoutException;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Retries with an exponentially growing delay, with jitter so concurrent requests do not retry in lockstep.
+ * <p>
+ * Only failures that can go away are retried: I/O errors, timeouts, HTTP 5xx, 408 and 429. Other HTTP 4xx answers
+ * mean the server is up and refused the request, sending it again gives the same answer.
+ * <p>
+ * Only the reads, GET and HEAD, are retried on any of these failures. Another request, e.g. the POST invoking an
+ * operation, may have run on the server even if it timed out or failed, so it is only sent again when the connection
+ * could not be opened and the request was never sent.
+ */
+public class ExponentialBackoffRetryPolicy implements RetryPolicy {
+    public static final Duration DEFAULT_BASE_DELAY = Duration.ofMillis(100);
+    public static final Duration DEFAULT_MAX_DELAY = Duration.ofSeconds(2);
+    public static final double DEFAULT_JITTER = 0.5;
+
+    private final int maxAttempts;
+    private final Duration baseDelay;
+    private final Duration maxDelay;
+    private final double jitter;
+
+    public ExponentialBackoffRetryPolicy(int maxAttempts) {
+        this(maxAttempts, DEFAULT_BASE_DELAY, DEFAULT_MAX_DELAY, DEFAULT_JITTER);
+    }
+
+    /**
+     * @param maxAttempts The maximum number of attempts, including the first one, at least 1
+     * @param baseDelay   The delay after the first failed attempt, doubled after every failed attempt
+     * @param maxDelay    The maximum delay
+     * @param jitter      The part of the delay that is random, between 0 (no jitter) and 1 (full jitter)
+     */
+    public ExponentialBackoffRetryPolicy(int maxAttempts, Duration baseDelay, Duration maxDelay, double jitter) {
+        Preconditions.checkArgument(maxAttempts >= 1, "maxAttempts must be at least 1");
+        Preconditions.checkNotNull(baseDelay, "baseDelay cannot be null");
+        Preconditions.checkNotNull(maxDelay, "maxDelay cannot be null");
+        Preconditions.checkArgument(!baseDelay.isNegative(), "baseDelay cannot be negative");
+        Preconditions.checkArgument(maxDelay.compareTo(baseDelay) >= 0, "maxDelay cannot be less than baseDelay");
+        Preconditions.checkArgument(jitter >= 0 && jitter <= 1, "jitter must be between 0 and 1");
+
+        this.maxAttempts = maxAttempts;
+        this.baseDelay = baseDelay;
+        this.maxDelay = maxDelay;
+        this.jitter = jitter;
+    }
+
+    @Override
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    @Override
+    public boolean isRetryable(String method, Throwable cause) {
+        if (cause instanceof CircuitBreakerOpenException) {
+            return false;
+        }
+        if (!isIdempotent(method)) {
+            return cause instanceof ConnectException || cause instanceof HttpConnectTimeoutException;
+        }
+        if (cause instanceof JmxRequestException) {
+            int statusCode = ((JmxRequestException) cause).getStatusCode();
+            return statusCode >= 500 || statusCode == 408 || statusCode == 429;
+        }
+        // Connection refused or reset, timeouts, truncated responses
+        return cause instanceof IOException;
+    }
+
+    /**
+     * @param method The HTTP method
+     * @return true if the request only reads, sending it twice does no more than sending it once
+     */
+    private static boolean isIdempotent(String method) {
+        return "GET".equalsIgnoreCase(method) || "HEAD".equalsIgnoreCase(method);
+    }
+
+    @Override
+    public Duration getDelay(int failedAttempts) {
+        Preconditions.checkArgument(failedAttempts >= 1, "failedAttempts must be at least 1");
+        // Double the delay for every failed attempt, the shift is bounded so it does not overflow
+        long exponentialMillis = baseDelay.toMillis() << Math.min(failedAttempts - 1, 30);
+        long cappedMillis = Math.min(Math.max(exponentialMillis, 0), maxDelay.toMillis());
+        long jitterMillis = (long) (cappedMillis * jitter * ThreadLocalRandom.current().nextDouble());
+        return Duration.ofMillis(cappedMillis - jitterMillis);
+    }
+
+    @Override
+    public String toString() {
+        return "ExponentialBackoffRetryPolicy{" +
+                "maxAttempts=" + maxAttempts +
+                ", baseDelay=" + baseDelay +
+                ", maxDelay=" + maxDelay +
+                ", jitter=" + jitter +
+                '}';
+    }
+}
@@ -0,0 +1,70 @@
+package dev.roshin.openliberty.repl.controllers.jmx.rest.resilience;
+
+import com.google.common.base.Preconditions;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Limits the retries of a client to a ratio of its requests, so a failing server does not get several times the
+ * normal load.
+ * <p>
+ * Every request deposits a fraction of a token, every retry withdraws a whole token. The budget starts full, so a
+ * client that just started can still retry.
+ */
+public class RetryBudget {
+    public static final double DEFAULT_RETRY_RATIO = 0.2;
+    public static final int DEFAULT_MAX_TOKENS = 10;
+
+    // Tokens are kept in thousandths, so fractions can be deposited atomically
+    private static final long TOKEN_UNIT = 1000;
+
+    private final long depositPerRequest;
+    private final long maxBalance;
+    private final AtomicLong balance;
+
+    public RetryBudget() {
+        this(DEFAULT_RETRY_RATIO, DEFAULT_MAX_TOKENS);
+    }
+
+    /**
+     * @param retryRatio The number of retries allowed per request, once the initial tokens are spent
+     * @param maxTokens  The maximum number of retries that can be saved up, also the initial balance
+     */
+    public RetryBudget(double retryRatio, int maxTokens) {
+        Preconditions.checkArgument(retryRatio >= 0, "retryRatio cannot be negative");
+        Preconditions.checkArgument(maxTokens >= 0, "maxTokens cannot be negative");
+
+        this.depositPerRequest = Math.round(retryRatio * TOKEN_UNIT);
+        this.maxBalance = maxTokens * TOKEN_UNIT;
+        this.balance = new AtomicLong(maxBalance);
+    }
+
+    /**
+     * Deposits the share of a new request
+     */
+    public void onRequest() {
+        balance.updateAndGet(current -> Math.min(maxBalance, current + depositPerRequest));
+    }
+
+    /**
+     * @return true if a retry is allowed, the token is then withdrawn
+     */
+    public boolean tryAcquireRetry() {
+        while (true) {
+            long current = balance.get();
+            if (current < TOKEN_UNIT) {
+                return false;
+            }
+            if (balance.compareAndSet(current, current - TOKEN_UNIT)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * @return The number of whole retries left
+     */
+    public long getAvailableRetries() {
+        return balance.get() / TOKEN_UNIT;
+    }
+}
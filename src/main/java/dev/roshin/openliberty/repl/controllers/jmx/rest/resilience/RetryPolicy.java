@@ -0,0 +1,27 @@
+package dev.roshin.openliberty.repl.controllers.jmx.rest.resilience;
+
+import java.time.Duration;
+
+/**
+ * Decides whether a failed request to the REST connector is retried, and how long to wait before the next attempt.
+ */
+public interface RetryPolicy {
+
+    /**
+     * @return The maximum number of attempts of a request, including the first one, at least 1
+     */
+    public int getMaxAttempts();
+
+    /**
+     * @param method The HTTP method of the request, e.g. GET or POST
+     * @param cause  The failure of the last attempt
+     * @return true if the request may succeed when sent again, and sending it again cannot do its work twice
+     */
+    public boolean isRetryable(String method, Throwable cause);
+
+    /**
+     * @param failedAttempts The number of attempts that failed so far, starting at 1
+     * @return The time to wait before the next attempt
+     */
+    public Duration getDelay(int failedAttempts);
+}
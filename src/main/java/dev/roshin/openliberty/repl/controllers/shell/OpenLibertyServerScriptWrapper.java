@@ -2,29 +2,45 @@ package dev.roshin.openliberty.repl.controllers.shell;
 
 import com.google.common.base.Preconditions;
 import com.google.common.base.Strings;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import dev.roshin.openliberty.repl.config.exceptions.ConfigurationReaderException;
 import dev.roshin.openliberty.repl.config.generated.LibertyPluginConfigs;
 import dev.roshin.openliberty.repl.controllers.shell.exceptions.OpenLibertyScriptExecutionException;
+import dev.roshin.openliberty.repl.controllers.utils.ProcessOutputListener;
+import dev.roshin.openliberty.repl.controllers.utils.ProcessRunner;
 import dev.roshin.openliberty.repl.controllers.utils.ProcessUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.BufferedReader;
 import java.io.File;
-import java.io.FileReader;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.Duration;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * This class provides a Java wrapper around the Open Liberty server shell/batch script.
  * It allows to execute the script commands from Java code.
+ * The asynchronous commands return futures, so independent commands can run concurrently, and a command that is
+ * cancelled or times out is terminated with the processes it started.
  *
  * @see <a href="https://openliberty.io/docs/latest/reference/command/server-commands.html">Open Liberty commands</a>
  */
 public class OpenLibertyServerScriptWrapper {
+    // How long the script and its children have to exit when terminated before they are destroyed forcibly
+    private static final Duration TERMINATION_GRACE_PERIOD = Duration.ofSeconds(5);
+
+    // Daemon threads waiting for the scripts, independent commands run concurrently, they must not keep the REPL alive
+    private static final ExecutorService executor = Executors.newCachedThreadPool(new ThreadFactoryBuilder()
+            .setNameFormat("server-script-%d")
+            .setDaemon(true)
+            .build());
 
     private File binPath;
     private String serverName;
@@ -33,6 +49,7 @@ public class OpenLibertyServerScriptWrapper {
     private final Duration timeout;
 
     private final LibertyPluginConfigs libertyPluginConfig;
+    private ServerLivenessChecker livenessChecker;
 
     private final Logger logger;
 
@@ -68,6 +85,8 @@ public class OpenLibertyServerScriptWrapper {
         // The server script is located in the bin directory of the Open Liberty installation directory
         this.binPath = libertyPluginConfig.getInstallDirectory().resolve("bin").toFile();
         logger.debug("Server script bin path: {}", binPath);
+
+        this.livenessChecker = new ServerLivenessChecker(libertyPluginConfig.getServerOutputDirectory(), serverName);
     }
 
     /**
@@ -81,6 +100,22 @@ public class OpenLibertyServerScriptWrapper {
     }
 
     private String runCommand(final String command) throws IOException, OpenLibertyScriptExecutionException {
+        return await(runCommandAsync(command, null));
+    }
+
+    /**
+     * Starts a command of the server script and waits for it on another thread
+     * <p>
+     * If the command times out, or the returned future is cancelled, the script and all the processes it started are
+     * terminated, see {@link ProcessUtils#destroyProcessTree(ProcessHandle, Duration)}.
+     *
+     * @param command  The command and its arguments
+     * @param listener Receives the lines of the output as the script writes them, may be null
+     * @return The output of the command, or completed exceptionally with an
+     * {@link OpenLibertyScriptExecutionException} if it fails or times out
+     * @throws IOException If the script cannot be started
+     */
+    private CompletableFuture<String> runCommandAsync(final String command, final ProcessOutputListener listener) throws IOException {
         logger.debug("Running command: {}", command);
 
         Preconditions.checkArgument(!Strings.isNullOrEmpty(command), "Command must not be null or empty");
@@ -98,37 +133,51 @@ public class OpenLibertyServerScriptWrapper {
         }
 
         String timestamp = String.valueOf(System.currentTimeMillis());
-        File logFile = logPath.resolve(logFilePrefix + "_" + timestamp + ".log").toFile();
+        Path logFile = logPath.resolve(logFilePrefix + "_" + timestamp + ".log");
 
-        processBuilder = ProcessUtils.createProcessBuilder(scriptName, command, isWindows, binPath, logFile);
+        processBuilder = ProcessUtils.createProcessBuilder(scriptName, command, isWindows, binPath);
+        // The output is read from the pipe, the log file is written in the background
+        ProcessRunner processRunner = new ProcessRunner(processBuilder, logFile);
+        if (listener != null) {
+            processRunner.addListener(listener);
+        }
         logger.debug("Starting process");
-        Process process = processBuilder.start();
+        Process process = processRunner.start();
 
+        CompletableFuture<String> future = CompletableFuture.supplyAsync(() -> {
+            try {
+                return waitForCommand(processRunner);
+            } catch (OpenLibertyScriptExecutionException e) {
+                throw new CompletionException(e);
+            }
+        }, executor);
+        future.whenComplete((output, throwable) -> {
+            if (future.isCancelled()) {
+                logger.debug("Command {} cancelled", command);
+                executor.execute(() -> destroyProcessTree(process));
+            }
+        });
+        return future;
+    }
+
+    /**
+     * @param processRunner The runner of the started script
+     * @return The output of the script
+     * @throws OpenLibertyScriptExecutionException If the script fails, times out or the wait is interrupted
+     */
+    private String waitForCommand(ProcessRunner processRunner) throws OpenLibertyScriptExecutionException {
+        Process process = processRunner.getProcess();
         try {
             logger.debug("Waiting for process with timeout: {}s", timeout.getSeconds());
-            boolean finished = process.waitFor(timeout.getSeconds(), TimeUnit.SECONDS);
+            boolean finished = processRunner.waitFor(timeout);
             if (!finished) {
-                process.destroy();
+                destroyProcessTree(process);
                 logger.error("Command execution timed out");
                 throw new OpenLibertyScriptExecutionException("Command execution timed out");
             }
             int exitCode = process.exitValue();
 
-            StringBuilder output = new StringBuilder();
-            try (BufferedReader reader = new BufferedReader(new FileReader(logFile))) {
-                String line;
-                while ((line = reader.readLine()) != null) {
-                    //If the line is empty, skip it
-                    if (line.trim().isEmpty()) {
-                        continue;
-                    }
-                    output.append(line.trim().strip()).append("\n");
-                }
-            }
-            // Remove the last newline character
-            output.deleteCharAt(output.length() - 1);
-
-            String outputString = output.toString();
+            String outputString = processRunner.getOutput();
 
             if (exitCode != 0) {
                 logger.error("Command execution failed with exit code {} with message {}", exitCode, outputString);
@@ -141,11 +190,59 @@ public class OpenLibertyServerScriptWrapper {
             return outputString;
 
         } catch (InterruptedException e) {
+            destroyProcessTree(process);
             logger.error("Command execution interrupted", e);
             throw new OpenLibertyScriptExecutionException("Command execution interrupted", e);
         }
     }
 
+    /**
+     * Terminates the script and the processes it started, waiting at most twice the grace period
+     *
+     * @param process The script
+     */
+    private void destroyProcessTree(Process process) {
+        try {
+            if (!ProcessUtils.destroyProcessTree(process.toHandle(), TERMINATION_GRACE_PERIOD)) {
+                logger.error("Process {} or one of its descendants is still running", process.pid());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Waits for a command started by {@link #runCommandAsync(String, ProcessOutputListener)}, cancelling it if the
+     * calling thread is interrupted
+     *
+     * @param future The future of the command
+     * @param <T>    The result of the command
+     * @return The result of the command
+     * @throws IOException                         If an I/O error occurs.
+     * @throws OpenLibertyScriptExecutionException If the command execution fails, is cancelled or interrupted.
+     */
+    public static <T> T await(CompletableFuture<T> future) throws IOException, OpenLibertyScriptExecutionException {
+        Preconditions.checkNotNull(future, "future cannot be null");
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new OpenLibertyScriptExecutionException("Command execution interrupted", e);
+        } catch (CancellationException e) {
+            throw new OpenLibertyScriptExecutionException("Command execution cancelled", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof OpenLibertyScriptExecutionException scriptExecutionException) {
+                throw scriptExecutionException;
+            }
+            if (cause instanceof IOException ioException) {
+                throw ioException;
+            }
+            throw new OpenLibertyScriptExecutionException("Command execution failed", cause);
+        }
+    }
+
     /**
      * Creates a snapshot of a server and saves the result into an archive file for further tuning and diagnosis.
      *
@@ -322,24 +419,60 @@ public class OpenLibertyServerScriptWrapper {
     }
 
     /**
-     * Uses {@link #status()} to determine if the server is running.
+     * Displays the status of the server, without blocking the calling thread.
+     *
+     * @return The status of the server, cancel it to terminate the script.
+     * @throws IOException If the script cannot be started.
+     */
+    public CompletableFuture<String> statusAsync() throws IOException {
+        return runCommandAsync("status " + serverName, null);
+    }
+
+    /**
+     * Determines if the server is running from its process ID and lock files, see {@link ServerLivenessChecker}, and
+     * uses {@link #status()} only when the files cannot tell.
      *
      * @return true if the server is running, false otherwise.
      * @throws IOException                         If an I/O error occurs.
      * @throws OpenLibertyScriptExecutionException If the command execution fails or is interrupted.
      */
     public boolean isTheServerRunning() throws IOException, OpenLibertyScriptExecutionException {
-        try {
-            String status = status(serverName);
-            return status.contains("is running");
-        } catch (OpenLibertyScriptExecutionException e) {
+        return await(isTheServerRunningAsync());
+    }
+
+    /**
+     * Determines if the server is running like {@link #isTheServerRunning()}, without blocking the calling thread when
+     * the server script has to be asked.
+     *
+     * @return true if the server is running, false otherwise.
+     * @throws IOException If the script cannot be started.
+     */
+    public CompletableFuture<Boolean> isTheServerRunningAsync() throws IOException {
+        ServerLivenessChecker.Liveness liveness = livenessChecker.check();
+        if (liveness != ServerLivenessChecker.Liveness.UNKNOWN) {
+            return CompletableFuture.completedFuture(liveness == ServerLivenessChecker.Liveness.RUNNING);
+        }
+        logger.debug("The server files cannot tell if the server is running, asking the server script");
+        CompletableFuture<String> status = statusAsync();
+        CompletableFuture<Boolean> running = status.handle((output, throwable) -> {
+            if (throwable == null) {
+                return output.contains("is running");
+            }
+            Throwable cause = throwable instanceof CompletionException && throwable.getCause() != null
+                    ? throwable.getCause() : throwable;
             // If the message contains "is not running", then the server is not running.
-            if (e.getMessage().contains("is not running")) {
+            if (cause instanceof OpenLibertyScriptExecutionException && cause.getMessage().contains("is not running")) {
                 return false;
-            } else {
-                throw e;
             }
-        }
+            throw new CompletionException(cause);
+        });
+        // Cancelling the answer cancels the script
+        running.whenComplete((value, throwable) -> {
+            if (running.isCancelled()) {
+                status.cancel(true);
+            }
+        });
+        return running;
     }
 
     /**
@@ -363,6 +496,17 @@ public class OpenLibertyServerScriptWrapper {
         stop(serverName);
     }
 
+    /**
+     * Stops the server, without blocking the calling thread.
+     *
+     * @param listener Receives the lines of the output as the script writes them, may be null
+     * @return The output of the script, cancel it to terminate the script.
+     * @throws IOException If the script cannot be started.
+     */
+    public CompletableFuture<String> stopAsync(ProcessOutputListener listener) throws IOException {
+        return runCommandAsync("stop " + serverName, listener);
+    }
+
     /**
      * Displays the version of the server named serverName.
      *
@@ -386,6 +530,16 @@ public class OpenLibertyServerScriptWrapper {
         return version(serverName);
     }
 
+    /**
+     * Displays the version of the server, without blocking the calling thread, e.g. while another command runs.
+     *
+     * @return The version of the server, cancel it to terminate the script.
+     * @throws IOException If the script cannot be started.
+     */
+    public CompletableFuture<String> versionAsync() throws IOException {
+        return runCommandAsync("version " + serverName, null);
+    }
+
     public LibertyPluginConfigs getLibertyPluginConfig() {
         return libertyPluginConfig;
     }
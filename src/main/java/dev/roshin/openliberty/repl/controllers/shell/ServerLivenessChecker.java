@@ -0,0 +1,141 @@
+package dev.roshin.openliberty.repl.controllers.shell;
+
+import com.google.common.base.Preconditions;
+import com.google.common.base.Strings;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Tells whether the server is running from the files it leaves behind, without running the server script.
+ * <p>
+ * The server script writes the process ID of a server started in the background to
+ * ${wlp.output.dir}/.pid/serverName.pid, and a running server holds a lock on workarea/.sLock in its output
+ * directory, which is how the status command of the script knows. A live process with that ID, started before the
+ * file was written, is the server. Otherwise the lock tells, a server started in the foreground has no process ID
+ * file. Each check reads one small file and asks the operating system about one process, instead of starting a JVM
+ * for the script.
+ */
+public class ServerLivenessChecker {
+
+    public enum Liveness {
+        /**
+         * The server process is alive
+         */
+        RUNNING,
+        /**
+         * There is no server process
+         */
+        STOPPED,
+        /**
+         * The files cannot tell, e.g. they cannot be read, the server script has to be asked
+         */
+        UNKNOWN
+    }
+
+    private static final String LOCK_FILE = "workarea/.sLock";
+    private static final String PID_DIRECTORY = ".pid";
+    private static final String PID_FILE_EXTENSION = ".pid";
+    // The process starts a little before the script writes its ID, file times can also be coarse
+    private static final Duration PROCESS_START_TOLERANCE = Duration.ofSeconds(2);
+
+    private final Path lockFile;
+    private final Path pidFile;
+    private final Logger logger;
+
+    /**
+     * @param serverOutputDirectory The output directory of the server, e.g. wlp/usr/servers/defaultServer
+     * @param serverName            The name of the server
+     */
+    public ServerLivenessChecker(Path serverOutputDirectory, String serverName) {
+        Preconditions.checkNotNull(serverOutputDirectory, "serverOutputDirectory cannot be null");
+        Preconditions.checkArgument(!Strings.isNullOrEmpty(serverName), "serverName cannot be null or empty");
+        this.lockFile = serverOutputDirectory.resolve(LOCK_FILE);
+        // The output directory of all the servers, where the script keeps the process IDs
+        Path outputDirectory = serverOutputDirectory.toAbsolutePath().getParent();
+        this.pidFile = outputDirectory.resolve(PID_DIRECTORY).resolve(serverName + PID_FILE_EXTENSION);
+        this.logger = LoggerFactory.getLogger(getClass());
+    }
+
+    /**
+     * @return Whether the server is running, {@link Liveness#UNKNOWN} if the script has to be asked
+     */
+    public Liveness check() {
+        logger.debug("Starting check");
+        Optional<ProcessHandle> process = findServerProcess();
+        if (process.isPresent()) {
+            logger.debug("Server process {} is alive", process.get().pid());
+            return Liveness.RUNNING;
+        }
+        return checkLock();
+    }
+
+    /**
+     * @return The server process, if the process ID file names a live process that started before it was written
+     */
+    public Optional<ProcessHandle> findServerProcess() {
+        long pid;
+        Instant written;
+        try {
+            written = Files.getLastModifiedTime(pidFile).toInstant();
+            pid = Long.parseLong(Files.readString(pidFile).trim());
+        } catch (NoSuchFileException e) {
+            return Optional.empty();
+        } catch (IOException | NumberFormatException e) {
+            logger.debug("Cannot read the process ID file " + pidFile, e);
+            return Optional.empty();
+        }
+        Optional<ProcessHandle> process = ProcessHandle.of(pid).filter(ProcessHandle::isAlive);
+        if (process.isEmpty()) {
+            logger.debug("Process {} of {} is not alive", pid, pidFile);
+            return Optional.empty();
+        }
+        // A process started after the file was written reuses the ID of the stopped server
+        Optional<Instant> started = process.get().info().startInstant();
+        if (started.isPresent() && started.get().isAfter(written.plus(PROCESS_START_TOLERANCE))) {
+            logger.debug("Process {} started at {}, after {} was written", pid, started.get(), pidFile);
+            return Optional.empty();
+        }
+        return process;
+    }
+
+    /**
+     * Tries the lock the server holds while it runs, released at once if it could be taken
+     *
+     * @return Whether the server holds its lock
+     */
+    private Liveness checkLock() {
+        if (!Files.exists(lockFile)) {
+            // The server creates it when it starts and never deletes it
+            logger.debug("No lock file {}, the server never ran", lockFile);
+            return Liveness.STOPPED;
+        }
+        try (FileChannel channel = FileChannel.open(lockFile, StandardOpenOption.WRITE)) {
+            FileLock lock = channel.tryLock();
+            if (lock == null) {
+                logger.debug("The lock {} is held by the server", lockFile);
+                return Liveness.RUNNING;
+            }
+            lock.release();
+            logger.debug("The lock {} is free", lockFile);
+            return Liveness.STOPPED;
+        } catch (OverlappingFileLockException e) {
+            // Held by this JVM, the server runs in it
+            return Liveness.RUNNING;
+        } catch (IOException e) {
+            logger.debug("Cannot check the lock " + lockFile, e);
+            return Liveness.UNKNOWN;
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package dev.roshin.openliberty.repl.controllers.utils;
+
+import com.google.common.base.Preconditions;
+
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Limits how many asynchronous tasks run at the same time, without blocking any thread.
+ * <p>
+ * Tasks submitted while the limit is reached are queued, and started in submission order as the running ones
+ * complete. One thread at a time starts the queued tasks, a task completing while they are started, e.g. failing at
+ * once, asks that thread to look again instead of starting the next one on its own stack.
+ */
+public class ConcurrencyLimiter {
+    private final int maxConcurrency;
+    private final Queue<Runnable> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    // The requests to drain not yet served, only the thread that raised it from 0 drains
+    private final AtomicInteger draining = new AtomicInteger();
+
+    public ConcurrencyLimiter(int maxConcurrency) {
+        Preconditions.checkArgument(maxConcurrency > 0, "maxConcurrency must be greater than 0");
+        this.maxConcurrency = maxConcurrency;
+    }
+
+    /**
+     * Submits a task, started now if the limit allows it, or later otherwise
+     *
+     * @param task Starts the task and returns its future, cannot be null
+     * @param <T>  The result type of the task
+     * @return A future completed with the result of the task
+     */
+    public <T> CompletableFuture<T> submit(Supplier<CompletableFuture<T>> task) {
+        Preconditions.checkNotNull(task, "task cannot be null");
+
+        CompletableFuture<T> result = new CompletableFuture<>();
+        pending.add(() -> {
+            CompletableFuture<T> started;
+            try {
+                started = task.get();
+            } catch (RuntimeException e) {
+                started = CompletableFuture.failedFuture(e);
+            }
+            started.whenComplete((value, throwable) -> {
+                // Free the slot before completing, so the next task can start
+                inFlight.decrementAndGet();
+                drain();
+                if (throwable != null) {
+                    result.completeExceptionally(throwable);
+                } else {
+                    result.complete(value);
+                }
+            });
+        });
+        drain();
+        return result;
+    }
+
+    /**
+     * Starts pending tasks while there are free slots, or has the thread already doing it look again
+     */
+    private void drain() {
+        if (draining.getAndIncrement() != 0) {
+            return;
+        }
+        int requests = 1;
+        do {
+            startPending();
+            // The requests made while starting the tasks, e.g. by tasks that completed at once
+            requests = draining.addAndGet(-requests);
+        } while (requests != 0);
+    }
+
+    private void startPending() {
+        while (!pending.isEmpty()) {
+            int current = inFlight.get();
+            if (current >= maxConcurrency) {
+                return;
+            }
+            if (!inFlight.compareAndSet(current, current + 1)) {
+                continue;
+            }
+            Runnable next = pending.poll();
+            if (next == null) {
+                // Another thread took the task, give the slot back
+                inFlight.decrementAndGet();
+                continue;
+            }
+            next.run();
+        }
+    }
+
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    /**
+     * @return The number of tasks running at the moment
+     */
+    public int getInFlight() {
+        return inFlight.get();
+    }
+}
@@ -0,0 +1,15 @@
+package dev.roshin.openliberty.repl.controllers.utils;
+
+/**
+ * Receives the output of a process run by a {@link ProcessRunner}, line by line as the process writes it
+ */
+@FunctionalInterface
+public interface ProcessOutputListener {
+
+    /**
+     * Called on the thread reading the output of the process, it should not block
+     *
+     * @param line The line, without its line terminator
+     */
+    void line(String line);
+}
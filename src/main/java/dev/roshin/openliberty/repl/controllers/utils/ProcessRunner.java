@@ -0,0 +1,235 @@
+package dev.roshin.openliberty.repl.controllers.utils;
+
+import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Runs a process and reads its output from the pipe while it runs, instead of redirecting it to a file and reading the
+ * file back once the process exited.
+ * <p>
+ * The standard output and error are merged, as they were in the log file. Each line is kept in a bounded buffer, the
+ * oldest lines are dropped past {@link #DEFAULT_MAX_BUFFERED_CHARS} since the end of the output tells why a command
+ * failed, given to the listeners as it arrives, and written to the log file by another thread, so a caller waiting for
+ * the output never waits for the disk.
+ */
+public class ProcessRunner {
+    public static final int DEFAULT_MAX_BUFFERED_CHARS = 1024 * 1024;
+    // A process that exited may have left a child holding its pipe, e.g. a server started in the background
+    private static final Duration OUTPUT_DRAIN_TIMEOUT = Duration.ofSeconds(2);
+    private static final String END_OF_LOG = new String("END_OF_LOG");
+
+    // Daemon threads blocked on the pipes and the log files, they must not keep the REPL alive
+    private static final ExecutorService executor = Executors.newCachedThreadPool(new ThreadFactoryBuilder()
+            .setNameFormat("process-output-%d")
+            .setDaemon(true)
+            .build());
+
+    private final ProcessBuilder processBuilder;
+    private final Path logFile;
+    private final int maxBufferedChars;
+    private final List<ProcessOutputListener> listeners = new CopyOnWriteArrayList<>();
+    private final Deque<String> lines = new ArrayDeque<>();
+    private final BlockingQueue<String> logQueue = new LinkedBlockingQueue<>();
+    private final Logger logger;
+
+    private int bufferedChars;
+    private boolean truncated;
+    private Process process;
+    private CompletableFuture<Void> outputRead;
+    private CompletableFuture<Path> logWritten;
+
+    /**
+     * @param processBuilder The process to run, its output is read from the pipe whatever its redirects
+     * @param logFile        Where the output is mirrored, null for none
+     */
+    public ProcessRunner(ProcessBuilder processBuilder, Path logFile) {
+        this(processBuilder, logFile, DEFAULT_MAX_BUFFERED_CHARS);
+    }
+
+    /**
+     * @param processBuilder   The process to run, its output is read from the pipe whatever its redirects
+     * @param logFile          Where the output is mirrored, null for none
+     * @param maxBufferedChars How much of the output is kept in memory
+     */
+    public ProcessRunner(ProcessBuilder processBuilder, Path logFile, int maxBufferedChars) {
+        Preconditions.checkNotNull(processBuilder, "processBuilder cannot be null");
+        Preconditions.checkArgument(maxBufferedChars > 0, "maxBufferedChars must be greater than 0");
+        this.processBuilder = processBuilder;
+        this.logFile = logFile;
+        this.maxBufferedChars = maxBufferedChars;
+        this.logger = LoggerFactory.getLogger(getClass());
+    }
+
+    /**
+     * @param listener Receives each line of the output, added before {@link #start()} to receive all of them
+     * @return This runner
+     */
+    public ProcessRunner addListener(ProcessOutputListener listener) {
+        Preconditions.checkNotNull(listener, "listener cannot be null");
+        listeners.add(listener);
+        return this;
+    }
+
+    /**
+     * Starts the process and the threads reading its output and writing the log file
+     *
+     * @return The started process
+     * @throws IOException If the process cannot be started
+     */
+    public synchronized Process start() throws IOException {
+        Preconditions.checkState(process == null, "The process was already started");
+        logger.debug("Starting process: {}", processBuilder.command());
+        processBuilder.redirectErrorStream(true);
+        processBuilder.redirectOutput(ProcessBuilder.Redirect.PIPE);
+        process = processBuilder.start();
+        logWritten = logFile == null ? CompletableFuture.completedFuture(null)
+                : CompletableFuture.supplyAsync(this::writeLog, executor);
+        outputRead = CompletableFuture.runAsync(this::readOutput, executor);
+        return process;
+    }
+
+    /**
+     * Waits for the process to exit and its output to be read
+     *
+     * @param timeout How long to wait for the process
+     * @return false if the process is still running after the timeout
+     * @throws InterruptedException If interrupted while waiting
+     */
+    public boolean waitFor(Duration timeout) throws InterruptedException {
+        Preconditions.checkNotNull(timeout, "timeout cannot be null");
+        Process started = getProcess();
+        if (!started.waitFor(timeout.toNanos(), TimeUnit.NANOSECONDS)) {
+            return false;
+        }
+        try {
+            outputRead.get(OUTPUT_DRAIN_TIMEOUT.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            logger.debug("The output of process {} is still open after it exited, returning what was read", started.pid());
+        } catch (ExecutionException e) {
+            logger.debug("Failed to read the output of process " + started.pid(), e.getCause());
+        }
+        return true;
+    }
+
+    private void readOutput() {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(),
+                Charset.defaultCharset()))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                buffer(line);
+                if (logFile != null) {
+                    logQueue.add(line);
+                }
+                for (ProcessOutputListener listener : listeners) {
+                    try {
+                        listener.line(line);
+                    } catch (RuntimeException e) {
+                        logger.error("Process output listener failed", e);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            // The pipe is closed when the process is destroyed
+            logger.debug("Stopped reading the output of process {}", process.pid(), e);
+        } finally {
+            logQueue.add(END_OF_LOG);
+        }
+    }
+
+    private synchronized void buffer(String line) {
+        lines.addLast(line);
+        bufferedChars += line.length();
+        while (bufferedChars > maxBufferedChars && lines.size() > 1) {
+            bufferedChars -= lines.removeFirst().length();
+            truncated = true;
+        }
+    }
+
+    private Path writeLog() {
+        try (BufferedWriter writer = Files.newBufferedWriter(logFile, Charset.defaultCharset())) {
+            String line;
+            // Compared by reference, a line of the output cannot be the marker
+            while ((line = logQueue.take()) != END_OF_LOG) {
+                writer.write(line);
+                writer.newLine();
+                if (logQueue.isEmpty()) {
+                    writer.flush();
+                }
+            }
+        } catch (IOException e) {
+            logger.error("Failed to write the log file " + logFile, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return logFile;
+    }
+
+    public synchronized Process getProcess() {
+        Preconditions.checkState(process != null, "The process was not started");
+        return process;
+    }
+
+    /**
+     * @return The lines read so far, the oldest ones dropped if the output is larger than the buffer
+     */
+    public synchronized List<String> getLines() {
+        return new ArrayList<>(lines);
+    }
+
+    /**
+     * @return The lines read so far without their surrounding spaces, the blank lines skipped, one per line
+     */
+    public String getOutput() {
+        StringBuilder output = new StringBuilder();
+        for (String line : getLines()) {
+            String stripped = line.strip();
+            if (stripped.isEmpty()) {
+                continue;
+            }
+            if (!output.isEmpty()) {
+                output.append('\n');
+            }
+            output.append(stripped);
+        }
+        return output.toString();
+    }
+
+    /**
+     * @return Whether lines were dropped from the buffer
+     */
+    public synchronized boolean isTruncated() {
+        return truncated;
+    }
+
+    /**
+     * @return Completed with the log file once all the output read was written to it, or null without a log file
+     */
+    public synchronized CompletableFuture<Path> getLogWritten() {
+        Preconditions.checkState(process != null, "The process was not started");
+        return logWritten;
+    }
+}
@@ -11,10 +11,16 @@ import java.io.UncheckedIOException;
 import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 public class ProcessUtils {
     private static final Logger logger = LoggerFactory.getLogger(ProcessUtils.class);
@@ -97,12 +103,34 @@ public class ProcessUtils {
      */
     public static ProcessBuilder createProcessBuilder(String command, String commandArguments, boolean isWindows, File executionPath,
                                                       File logFile) {
-        logger.debug("Creating process builder for command: {}, command arguments: {}, execution path: {}, log file: {}"
-                , command, commandArguments, executionPath, logFile);
+        Preconditions.checkNotNull(logFile, "logFile cannot be null");
+        ProcessBuilder processBuilder = createProcessBuilder(command, commandArguments, isWindows, executionPath);
+
+        logger.debug("Log file: {}", logFile);
+        processBuilder.redirectOutput(logFile);
+        processBuilder.redirectError(logFile);
+
+        return processBuilder;
+    }
+
+    /**
+     * Creates a process builder for the given command and command arguments, its output read from the pipes, e.g. by
+     * a {@link ProcessRunner}
+     * <p>
+     * The process builder will execute the command in the given execution path
+     *
+     * @param command          The command to run
+     * @param commandArguments The command arguments
+     * @param isWindows        Whether the current OS is Windows
+     * @param executionPath    The path to execute the command in
+     * @return The process builder
+     */
+    public static ProcessBuilder createProcessBuilder(String command, String commandArguments, boolean isWindows, File executionPath) {
+        logger.debug("Creating process builder for command: {}, command arguments: {}, execution path: {}"
+                , command, commandArguments, executionPath);
         Preconditions.checkArgument(!Strings.isNullOrEmpty(command), "command cannot be null or empty");
         Preconditions.checkArgument(!Strings.isNullOrEmpty(commandArguments), "command cannot be null or empty");
         Preconditions.checkNotNull(executionPath, "executionPath cannot be null");
-        Preconditions.checkNotNull(logFile, "logFile cannot be null");
 
         //Split command arguments
         final String[] argsParts = commandArguments.split("\\s+");
@@ -123,10 +151,62 @@ public class ProcessUtils {
         logger.debug("Process builder directory: {}", processBuilder.directory());
         logger.debug("Process builder commandArguments: {}", processBuilder.command());
 
-        logger.debug("Log file: {}", logFile);
-        processBuilder.redirectOutput(logFile);
-        processBuilder.redirectError(logFile);
-
         return processBuilder;
     }
+
+    /**
+     * Terminates a process and all its descendants, politely first, e.g. SIGTERM, then forcibly those still alive after
+     * the grace period
+     * <p>
+     * The descendants are listed before the process is terminated, once it exits its children are no longer its
+     * descendants and would keep running, e.g. the JVM started by a script.
+     *
+     * @param process     The process
+     * @param gracePeriod How long the processes have to exit before they are destroyed forcibly
+     * @return true if all the processes exited
+     * @throws InterruptedException If interrupted while waiting for the processes to exit
+     */
+    public static boolean destroyProcessTree(ProcessHandle process, Duration gracePeriod) throws InterruptedException {
+        Preconditions.checkNotNull(process, "process cannot be null");
+        Preconditions.checkArgument(gracePeriod != null && !gracePeriod.isNegative(), "gracePeriod cannot be negative");
+        // The deepest first, their parents are still alive to reap them
+        List<ProcessHandle> descendants = new ArrayList<>(process.descendants().toList());
+        Collections.reverse(descendants);
+        List<ProcessHandle> tree = new ArrayList<>(descendants);
+        tree.add(process);
+        logger.debug("Destroying process {} and its {} descendants", process.pid(), descendants.size());
+
+        tree.forEach(ProcessHandle::destroy);
+        if (awaitExit(tree, gracePeriod)) {
+            return true;
+        }
+        List<ProcessHandle> aliveDescendants = descendants.stream().filter(ProcessHandle::isAlive).toList();
+        aliveDescendants.forEach(handle -> {
+            logger.debug("Destroying process {} forcibly", handle.pid());
+            handle.destroyForcibly();
+        });
+        awaitExit(aliveDescendants, gracePeriod);
+        logger.debug("Destroying process {} forcibly", process.pid());
+        process.destroyForcibly();
+        return awaitExit(tree, gracePeriod);
+    }
+
+    /**
+     * @param processes The processes
+     * @param timeout   How long to wait
+     * @return true if all the processes exited within the timeout
+     * @throws InterruptedException If interrupted while waiting
+     */
+    private static boolean awaitExit(List<ProcessHandle> processes, Duration timeout) throws InterruptedException {
+        CompletableFuture<?>[] exits = processes.stream().map(ProcessHandle::onExit).toArray(CompletableFuture<?>[]::new);
+        try {
+            CompletableFuture.allOf(exits).get(timeout.toNanos(), TimeUnit.NANOSECONDS);
+            return true;
+        } catch (TimeoutException e) {
+            return false;
+        } catch (ExecutionException e) {
+            // Not thrown by onExit
+            return processes.stream().noneMatch(ProcessHandle::isAlive);
+        }
+    }
 }
@@ -0,0 +1,97 @@
+package dev.roshin.openliberty.repl.metrics;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * The statistics of the values of a time series over a range
+ */
+public class RangeStats {
+    private final long count;
+    private final double min;
+    private final double max;
+    private final double average;
+    private final double[] sortedValues;
+    private final int[] weights;
+
+    /**
+     * @param count        The number of values
+     * @param min          The minimum value
+     * @param max          The maximum value
+     * @param average      The average value
+     * @param sortedValues The values, or bucket averages, in ascending order
+     * @param weights      The number of values of each bucket average, null if each one is a single value
+     */
+    RangeStats(long count, double min, double max, double average, double[] sortedValues, int[] weights) {
+        this.count = count;
+        this.min = min;
+        this.max = max;
+        this.average = average;
+        this.sortedValues = sortedValues;
+        this.weights = weights;
+    }
+
+    /**
+     * @return The number of values in the range, 0 if it is empty
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * @return The minimum value, NaN if the range is empty
+     */
+    public double getMin() {
+        return min;
+    }
+
+    /**
+     * @return The maximum value, NaN if the range is empty
+     */
+    public double getMax() {
+        return max;
+    }
+
+    /**
+     * @return The average value, NaN if the range is empty
+     */
+    public double getAverage() {
+        return average;
+    }
+
+    /**
+     * Gets the value below which the given percentage of the values fall, with the nearest rank method
+     *
+     * @param percentile The percentile, between 0 and 100
+     * @return The value at the percentile, NaN if the range is empty
+     */
+    public double getPercentile(double percentile) {
+        Preconditions.checkArgument(percentile >= 0 && percentile <= 100, "percentile must be between 0 and 100");
+        if (count == 0) {
+            return Double.NaN;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+        if (weights == null) {
+            return sortedValues[(int) (rank - 1)];
+        }
+        long seen = 0;
+        for (int i = 0; i < sortedValues.length; i++) {
+            seen += weights[i];
+            if (seen >= rank) {
+                return sortedValues[i];
+            }
+        }
+        return sortedValues[sortedValues.length - 1];
+    }
+
+    @Override
+    public String toString() {
+        return "RangeStats{" +
+                "count=" + count +
+                ", min=" + min +
+                ", max=" + max +
+                ", average=" + average +
+                ", p50=" + getPercentile(50) +
+                ", p99=" + getPercentile(99) +
+                '}';
+    }
+}
@@ -0,0 +1,23 @@
+package dev.roshin.openliberty.repl.metrics;
+
+/**
+ * The resolutions a {@link TimeSeries} keeps its points at
+ */
+public enum Resolution {
+    RAW(0),
+    TEN_SECONDS(10_000),
+    ONE_MINUTE(60_000);
+
+    private final long bucketMillis;
+
+    Resolution(long bucketMillis) {
+        this.bucketMillis = bucketMillis;
+    }
+
+    /**
+     * @return The width of a rollup bucket, 0 for the raw points
+     */
+    public long getBucketMillis() {
+        return bucketMillis;
+    }
+}
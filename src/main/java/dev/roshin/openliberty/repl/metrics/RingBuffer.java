@@ -0,0 +1,157 @@
+package dev.roshin.openliberty.repl.metrics;
+
+import com.google.common.base.Preconditions;
+
+import java.lang.invoke.VarHandle;
+
+/**
+ * A fixed-capacity ring of points, each one the minimum, maximum, sum and count of the values of a time bucket.
+ * <p>
+ * There is one writer and any number of readers, none of them lock. The writer fills a slot then publishes it by
+ * incrementing a volatile counter, a store-store fence keeps the next slot from being filled before that. A reader copies the slots, then reads the counter again and drops the slots the
+ * writer may have overwritten meanwhile. One spare slot keeps the slot being written out of the copied window.
+ * <p>
+ * Raw points have no minimum, maximum or count arrays, the value is kept as the sum.
+ */
+class RingBuffer {
+    private final int capacity;
+    private final int length;
+    private final long[] timestamps;
+    private final double[] sums;
+    private final double[] mins;
+    private final double[] maxs;
+    private final int[] counts;
+
+    // The number of points ever appended, the last published one is written - 1
+    private volatile long written;
+
+    /**
+     * @param capacity The number of points kept, the oldest are overwritten
+     * @param raw      Whether the points are single values, without minimum, maximum and count
+     */
+    RingBuffer(int capacity, boolean raw) {
+        Preconditions.checkArgument(capacity > 0, "capacity must be greater than 0");
+        this.capacity = capacity;
+        this.length = capacity + 1;
+        this.timestamps = new long[length];
+        this.sums = new double[length];
+        this.mins = raw ? null : new double[length];
+        this.maxs = raw ? null : new double[length];
+        this.counts = raw ? null : new int[length];
+    }
+
+    /**
+     * Appends a point, only ever called by the writer thread
+     *
+     * @param timestamp The start of the bucket, or the time of the raw value
+     * @param min       The minimum value, ignored for raw points
+     * @param max       The maximum value, ignored for raw points
+     * @param sum       The sum of the values, the value for raw points
+     * @param count     The number of values, ignored for raw points
+     */
+    void append(long timestamp, double min, double max, double sum, int count) {
+        long index = written;
+        // The volatile store of the previous append only keeps the stores before it in place, the stores below could
+        // become visible before it, and a reader would then take an overwritten slot for a valid one
+        VarHandle.storeStoreFence();
+        int slot = (int) (index % length);
+        timestamps[slot] = timestamp;
+        sums[slot] = sum;
+        if (counts != null) {
+            mins[slot] = min;
+            maxs[slot] = max;
+            counts[slot] = count;
+        }
+        // Publish the point
+        written = index + 1;
+    }
+
+    /**
+     * @return The time of the oldest point kept, or Long.MAX_VALUE if there is none
+     */
+    long getOldestTimestamp() {
+        while (true) {
+            long end = written;
+            if (end == 0) {
+                return Long.MAX_VALUE;
+            }
+            long first = Math.max(0, end - capacity);
+            long timestamp = timestamps[(int) (first % length)];
+            VarHandle.acquireFence();
+            // Still valid if the writer did not overwrite it meanwhile
+            if (written - capacity <= first) {
+                return timestamp;
+            }
+        }
+    }
+
+    /**
+     * @return Whether points were overwritten
+     */
+    boolean hasWrapped() {
+        return written > capacity;
+    }
+
+    /**
+     * Copies the points whose timestamp is in the range
+     *
+     * @param fromMillis The start of the range, inclusive
+     * @param toMillis   The end of the range, inclusive
+     * @return The points, oldest first
+     */
+    TimeSeriesPoints copy(long fromMillis, long toMillis) {
+        long end = written;
+        long start = Math.max(0, end - capacity);
+        int size = (int) (end - start);
+        long[] copiedTimestamps = new long[size];
+        double[] copiedSums = new double[size];
+        double[] copiedMins = new double[size];
+        double[] copiedMaxs = new double[size];
+        int[] copiedCounts = new int[size];
+        for (int i = 0; i < size; i++) {
+            int slot = (int) ((start + i) % length);
+            copiedTimestamps[i] = timestamps[slot];
+            copiedSums[i] = sums[slot];
+            if (counts != null) {
+                copiedMins[i] = mins[slot];
+                copiedMaxs[i] = maxs[slot];
+                copiedCounts[i] = counts[slot];
+            }
+        }
+        // Order the copy before reading the counter again, then skip what the writer overwrote meanwhile
+        VarHandle.acquireFence();
+        int firstValid = (int) Math.max(0, written - capacity - start);
+
+        // Keep the valid points in the range, in place
+        int kept = 0;
+        for (int i = firstValid; i < size; i++) {
+            if (copiedTimestamps[i] < fromMillis || copiedTimestamps[i] > toMillis) {
+                continue;
+            }
+            copiedTimestamps[kept] = copiedTimestamps[i];
+            copiedSums[kept] = copiedSums[i];
+            if (counts != null) {
+                copiedMins[kept] = copiedMins[i];
+                copiedMaxs[kept] = copiedMaxs[i];
+                copiedCounts[kept] = copiedCounts[i];
+            } else {
+                copiedMins[kept] = copiedSums[i];
+                copiedMaxs[kept] = copiedSums[i];
+                copiedCounts[kept] = 1;
+            }
+            kept++;
+        }
+        return new TimeSeriesPoints(copiedTimestamps, copiedMins, copiedMaxs, copiedSums, copiedCounts, kept);
+    }
+
+    /**
+     * @return The bytes taken by the arrays, which never grow
+     */
+    long getFootprintBytes() {
+        long perPoint = Long.BYTES + Double.BYTES;
+        if (counts != null) {
+            perPoint += 2L * Double.BYTES + Integer.BYTES;
+        }
+        return perPoint * length;
+    }
+}
@@ -0,0 +1,176 @@
+package dev.roshin.openliberty.repl.metrics;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * The values of one metric over time, kept at three resolutions in fixed-capacity rings: the raw values, and 10 second
+ * and 1 minute rollups of their minimum, maximum, sum and count.
+ * <p>
+ * The memory taken is allocated once, recording does not allocate, so the footprint stays flat however long values
+ * are recorded. Recording must only be done by one thread, reading can be done by any thread at the same time,
+ * without locking.
+ * <p>
+ * A rollup bucket is only visible once a value of a later bucket is recorded, the raw values cover the recent past.
+ */
+public class TimeSeries {
+    private final String name;
+    private final RingBuffer raw;
+    private final Rollup tenSeconds;
+    private final Rollup oneMinute;
+
+    // Only used by the writer thread
+    private long lastTimestamp = Long.MIN_VALUE;
+
+    private volatile double lastValue = Double.NaN;
+
+    /**
+     * @param name               The name of the metric
+     * @param rawCapacity        The number of raw values kept
+     * @param tenSecondsCapacity The number of 10 second buckets kept
+     * @param oneMinuteCapacity  The number of 1 minute buckets kept
+     */
+    public TimeSeries(String name, int rawCapacity, int tenSecondsCapacity, int oneMinuteCapacity) {
+        Preconditions.checkNotNull(name, "name cannot be null");
+        this.name = name;
+        this.raw = new RingBuffer(rawCapacity, true);
+        this.tenSeconds = new Rollup(Resolution.TEN_SECONDS, tenSecondsCapacity);
+        this.oneMinute = new Rollup(Resolution.ONE_MINUTE, oneMinuteCapacity);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Records a value, only ever called by the same thread
+     * <p>
+     * NaN values and values older than the last one recorded are ignored
+     *
+     * @param timestampMillis The time of the value, in milliseconds since the epoch
+     * @param value           The value
+     */
+    public void record(long timestampMillis, double value) {
+        if (Double.isNaN(value) || timestampMillis < lastTimestamp) {
+            return;
+        }
+        lastTimestamp = timestampMillis;
+        raw.append(timestampMillis, value, value, value, 1);
+        tenSeconds.add(timestampMillis, value);
+        oneMinute.add(timestampMillis, value);
+        lastValue = value;
+    }
+
+    /**
+     * @return The last value recorded, NaN if there is none
+     */
+    public double getLastValue() {
+        return lastValue;
+    }
+
+    /**
+     * Copies the points over a range, at the finest resolution still covering the start of the range
+     *
+     * @param fromMillis The start of the range, inclusive
+     * @param toMillis   The end of the range, inclusive
+     * @return The points, oldest first
+     */
+    public TimeSeriesPoints getPoints(long fromMillis, long toMillis) {
+        return getPoints(getResolution(fromMillis), fromMillis, toMillis);
+    }
+
+    /**
+     * Copies the points over a range
+     *
+     * @param resolution The resolution to read
+     * @param fromMillis The start of the range, inclusive
+     * @param toMillis   The end of the range, inclusive
+     * @return The points, oldest first
+     */
+    public TimeSeriesPoints getPoints(Resolution resolution, long fromMillis, long toMillis) {
+        Preconditions.checkNotNull(resolution, "resolution cannot be null");
+        return getRing(resolution).copy(fromMillis, toMillis);
+    }
+
+    /**
+     * Computes the minimum, maximum, average and percentiles over a range, at the finest resolution still covering
+     * the start of the range
+     *
+     * @param fromMillis The start of the range, inclusive
+     * @param toMillis   The end of the range, inclusive
+     * @return The statistics
+     */
+    public RangeStats getStats(long fromMillis, long toMillis) {
+        return getPoints(fromMillis, toMillis).stats();
+    }
+
+    /**
+     * @param fromMillis The start of a range
+     * @return The finest resolution whose oldest point is not after the start of the range, or the coarsest one
+     */
+    public Resolution getResolution(long fromMillis) {
+        // A ring that never wrapped still has all the history
+        if (!raw.hasWrapped() || raw.getOldestTimestamp() <= fromMillis) {
+            return Resolution.RAW;
+        }
+        if (!tenSeconds.ring.hasWrapped() || tenSeconds.ring.getOldestTimestamp() <= fromMillis) {
+            return Resolution.TEN_SECONDS;
+        }
+        return Resolution.ONE_MINUTE;
+    }
+
+    /**
+     * @return The bytes taken by the points of all the resolutions, allocated once
+     */
+    public long getFootprintBytes() {
+        return raw.getFootprintBytes() + tenSeconds.ring.getFootprintBytes() + oneMinute.ring.getFootprintBytes();
+    }
+
+    private RingBuffer getRing(Resolution resolution) {
+        return switch (resolution) {
+            case RAW -> raw;
+            case TEN_SECONDS -> tenSeconds.ring;
+            case ONE_MINUTE -> oneMinute.ring;
+        };
+    }
+
+    /**
+     * Aggregates the values of the current bucket, and appends it to its ring when a value of the next bucket comes
+     */
+    private static class Rollup {
+        private final long bucketMillis;
+        private final RingBuffer ring;
+
+        // Only used by the writer thread
+        private long bucketStart;
+        private double min;
+        private double max;
+        private double sum;
+        private int count;
+
+        private Rollup(Resolution resolution, int capacity) {
+            this.bucketMillis = resolution.getBucketMillis();
+            this.ring = new RingBuffer(capacity, false);
+        }
+
+        private void add(long timestampMillis, double value) {
+            long start = timestampMillis - Math.floorMod(timestampMillis, bucketMillis);
+            if (count > 0 && start != bucketStart) {
+                // The bucket is complete
+                ring.append(bucketStart, min, max, sum, count);
+                count = 0;
+            }
+            if (count == 0) {
+                bucketStart = start;
+                min = value;
+                max = value;
+                sum = value;
+                count = 1;
+            } else {
+                min = Math.min(min, value);
+                max = Math.max(max, value);
+                sum += value;
+                count++;
+            }
+        }
+    }
+}
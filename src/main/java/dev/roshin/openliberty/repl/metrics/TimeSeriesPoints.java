@@ -0,0 +1,117 @@
+package dev.roshin.openliberty.repl.metrics;
+
+import java.util.Arrays;
+
+/**
+ * A copy of the points of a {@link TimeSeries} over a range, oldest first.
+ * <p>
+ * Each point is a bucket of values: a raw point is a bucket of one value.
+ */
+public class TimeSeriesPoints {
+    private final long[] timestamps;
+    private final double[] mins;
+    private final double[] maxs;
+    private final double[] sums;
+    private final int[] counts;
+    private final int size;
+
+    TimeSeriesPoints(long[] timestamps, double[] mins, double[] maxs, double[] sums, int[] counts, int size) {
+        this.timestamps = timestamps;
+        this.mins = mins;
+        this.maxs = maxs;
+        this.sums = sums;
+        this.counts = counts;
+        this.size = size;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @param index The index of the point, 0 is the oldest
+     * @return The time of the value, or the start of the bucket
+     */
+    public long getTimestamp(int index) {
+        checkIndex(index);
+        return timestamps[index];
+    }
+
+    public double getMin(int index) {
+        checkIndex(index);
+        return mins[index];
+    }
+
+    public double getMax(int index) {
+        checkIndex(index);
+        return maxs[index];
+    }
+
+    /**
+     * @param index The index of the point
+     * @return The average of the values of the bucket, the value of a raw point
+     */
+    public double getAverage(int index) {
+        checkIndex(index);
+        return sums[index] / counts[index];
+    }
+
+    public int getCount(int index) {
+        checkIndex(index);
+        return counts[index];
+    }
+
+    /**
+     * Computes the statistics of all the values of the points
+     * <p>
+     * The minimum, maximum and average are exact. The percentiles are exact for raw points, and computed from the
+     * bucket averages, weighted by their count, for rollups
+     *
+     * @return The statistics, with a count of 0 if there are no points
+     */
+    public RangeStats stats() {
+        long count = 0;
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+        double sum = 0;
+        for (int i = 0; i < size; i++) {
+            count += counts[i];
+            min = Math.min(min, mins[i]);
+            max = Math.max(max, maxs[i]);
+            sum += sums[i];
+        }
+        if (count == 0) {
+            return new RangeStats(0, Double.NaN, Double.NaN, Double.NaN, new double[0], null);
+        }
+        double[] averages = new double[size];
+        boolean raw = true;
+        for (int i = 0; i < size; i++) {
+            averages[i] = sums[i] / counts[i];
+            raw &= counts[i] == 1;
+        }
+        if (raw) {
+            // Every value has the same weight
+            Arrays.sort(averages);
+            return new RangeStats(count, min, max, sum / count, averages, null);
+        }
+        // Sort the bucket averages along with their counts
+        Integer[] order = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Double.compare(averages[a], averages[b]));
+        double[] sortedAverages = new double[size];
+        int[] weights = new int[size];
+        for (int i = 0; i < size; i++) {
+            sortedAverages[i] = averages[order[i]];
+            weights[i] = counts[order[i]];
+        }
+        return new RangeStats(count, min, max, sum / count, sortedAverages, weights);
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of " + size + " points");
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package dev.roshin.openliberty.repl.metrics;
+
+import com.google.common.base.Preconditions;
+
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps the {@link TimeSeries} of the sampled metrics, by name.
+ * <p>
+ * Every series has the same capacities and the number of series is bounded, so the memory taken has a known upper
+ * bound. Like the series, values are recorded by one thread and read by any thread.
+ */
+public class TimeSeriesStore {
+    // 15 minutes of values sampled every second, 6 hours of 10 second buckets and 2 days of 1 minute buckets, about
+    // 200 KB per series
+    public static final int DEFAULT_RAW_CAPACITY = 900;
+    public static final int DEFAULT_TEN_SECONDS_CAPACITY = 6 * 360;
+    public static final int DEFAULT_ONE_MINUTE_CAPACITY = 2 * 1440;
+    public static final int DEFAULT_MAX_SERIES = 256;
+
+    private final int rawCapacity;
+    private final int tenSecondsCapacity;
+    private final int oneMinuteCapacity;
+    private final int maxSeries;
+    private final Map<String, TimeSeries> series = new ConcurrentHashMap<>();
+
+    public TimeSeriesStore() {
+        this(DEFAULT_RAW_CAPACITY, DEFAULT_TEN_SECONDS_CAPACITY, DEFAULT_ONE_MINUTE_CAPACITY, DEFAULT_MAX_SERIES);
+    }
+
+    /**
+     * @param rawCapacity        The number of raw values kept per series
+     * @param tenSecondsCapacity The number of 10 second buckets kept per series
+     * @param oneMinuteCapacity  The number of 1 minute buckets kept per series
+     * @param maxSeries          The maximum number of series, values of new series are dropped past it
+     */
+    public TimeSeriesStore(int rawCapacity, int tenSecondsCapacity, int oneMinuteCapacity, int maxSeries) {
+        Preconditions.checkArgument(rawCapacity > 0, "rawCapacity must be greater than 0");
+        Preconditions.checkArgument(tenSecondsCapacity > 0, "tenSecondsCapacity must be greater than 0");
+        Preconditions.checkArgument(oneMinuteCapacity > 0, "oneMinuteCapacity must be greater than 0");
+        Preconditions.checkArgument(maxSeries > 0, "maxSeries must be greater than 0");
+        this.rawCapacity = rawCapacity;
+        this.tenSecondsCapacity = tenSecondsCapacity;
+        this.oneMinuteCapacity = oneMinuteCapacity;
+        this.maxSeries = maxSeries;
+    }
+
+    /**
+     * Records a value, creating its series the first time, only ever called by the same thread
+     *
+     * @param name            The name of the series
+     * @param timestampMillis The time of the value
+     * @param value           The value
+     * @return Whether the value was recorded, false if the series is new and the maximum number of series is reached
+     */
+    public boolean record(String name, long timestampMillis, double value) {
+        TimeSeries timeSeries = series.get(name);
+        if (timeSeries == null) {
+            if (series.size() >= maxSeries) {
+                return false;
+            }
+            timeSeries = series.computeIfAbsent(name,
+                    key -> new TimeSeries(key, rawCapacity, tenSecondsCapacity, oneMinuteCapacity));
+        }
+        timeSeries.record(timestampMillis, value);
+        return true;
+    }
+
+    /**
+     * @param name The name of the series
+     * @return The series, or null if no value was recorded for it
+     */
+    public TimeSeries getSeries(String name) {
+        return series.get(name);
+    }
+
+    /**
+     * @return The names of the series, sorted
+     */
+    public SortedSet<String> getNames() {
+        return new TreeSet<>(series.keySet());
+    }
+
+    /**
+     * @return The bytes taken by the points of all the series
+     */
+    public long getFootprintBytes() {
+        return series.values().stream().mapToLong(TimeSeries::getFootprintBytes).sum();
+    }
+
+    /**
+     * Removes all the series
+     */
+    public void clear() {
+        series.clear();
+    }
+}
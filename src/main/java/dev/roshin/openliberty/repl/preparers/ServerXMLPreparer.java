@@ -8,6 +8,7 @@ import org.jdom2.output.XMLOutputter;
 import org.jline.terminal.Terminal;
 
 import java.io.IOException;
+import java.io.OutputStream;
 import java.net.ServerSocket;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -46,6 +47,10 @@ public class ServerXMLPreparer {
         // Add the needed features, if they are not already present
         addFeatureIfNotPresent(featuresElement, "restConnector-2.0", terminal);
         addFeatureIfNotPresent(featuresElement, "adminCenter-1.0", terminal);
+        // The local connector, faster than the REST connector for the frequent reads
+        addFeatureIfNotPresent(featuresElement, "localConnector-1.0", terminal);
+        // Registers the thread pool, servlet, session and connection pool statistics MBeans
+        addFeatureIfNotPresent(featuresElement, "monitor-1.0", terminal);
 
         //== Basic registry configuration ==
 
@@ -92,8 +97,8 @@ public class ServerXMLPreparer {
         terminal.writer().println("Using httpsPort: " + httpsPort);
 
         // Save the server.xml file
-        try {
-            new XMLOutputter().output(serverXmlDocument, Files.newOutputStream(serverXml));
+        try (OutputStream outputStream = Files.newOutputStream(serverXml)) {
+            new XMLOutputter().output(serverXmlDocument, outputStream);
         } catch (IOException e) {
             throw new RuntimeException("Error while saving the server.xml file", e);
         }
@@ -0,0 +1,45 @@
+package dev.roshin.openliberty.repl.top;
+
+import dev.roshin.openliberty.repl.metrics.TimeSeriesPoints;
+
+/**
+ * Draws the recent values of a series as a line of block characters, one character per value
+ */
+public class Sparkline {
+    private static final char[] BLOCKS = {'▁', '▂', '▃', '▄', '▅', '▆', '▇', '█'};
+
+    private Sparkline() {
+    }
+
+    /**
+     * Draws the averages of the last points, scaled between their minimum and maximum
+     * <p>
+     * The line is right aligned: when there are fewer points than the width, it starts with spaces
+     *
+     * @param points The points, oldest first
+     * @param width  The number of characters
+     * @return The sparkline, exactly width characters long
+     */
+    public static String render(TimeSeriesPoints points, int width) {
+        if (width <= 0) {
+            return "";
+        }
+        int count = Math.min(width, points.size());
+        int first = points.size() - count;
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+        for (int i = first; i < points.size(); i++) {
+            min = Math.min(min, points.getAverage(i));
+            max = Math.max(max, points.getAverage(i));
+        }
+        StringBuilder builder = new StringBuilder(width);
+        builder.append(" ".repeat(width - count));
+        for (int i = first; i < points.size(); i++) {
+            double value = points.getAverage(i);
+            // A flat line is drawn at the bottom
+            int level = max > min ? (int) Math.round((value - min) / (max - min) * (BLOCKS.length - 1)) : 0;
+            builder.append(BLOCKS[level]);
+        }
+        return builder.toString();
+    }
+}
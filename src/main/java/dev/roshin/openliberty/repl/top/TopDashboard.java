@@ -0,0 +1,254 @@
+package dev.roshin.openliberty.repl.top;
+
+import com.google.common.base.Preconditions;
+import dev.roshin.openliberty.repl.controllers.jmx.domain.MonitorStatsType;
+import dev.roshin.openliberty.repl.metrics.Resolution;
+import dev.roshin.openliberty.repl.metrics.TimeSeries;
+import dev.roshin.openliberty.repl.metrics.TimeSeriesPoints;
+import dev.roshin.openliberty.repl.metrics.TimeSeriesStore;
+import org.jline.terminal.Attributes;
+import org.jline.terminal.Size;
+import org.jline.terminal.Terminal;
+import org.jline.utils.AttributedString;
+import org.jline.utils.AttributedStringBuilder;
+import org.jline.utils.AttributedStyle;
+import org.jline.utils.Display;
+import org.jline.utils.InfoCmp;
+import org.jline.utils.NonBlockingReader;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * A full screen, live view of the server in the manner of top: heap, GC, allocation, CPU, threads, request rate and
+ * latency, thread pools, servlets and applications, with a sparkline of the recent values.
+ * <p>
+ * The screen is drawn with the jline {@link Display}, which compares each frame with the previous one and only
+ * writes the characters that changed, so refreshing often stays cheap, even on a slow link.
+ */
+public class TopDashboard {
+    public static final Duration DEFAULT_REFRESH_INTERVAL = Duration.ofSeconds(1);
+    public static final Duration MIN_REFRESH_INTERVAL = Duration.ofMillis(100);
+
+    private static final int LABEL_WIDTH = 32;
+    private static final int VALUE_WIDTH = 24;
+    private static final int MAX_SPARKLINE_WIDTH = 60;
+    private static final double BYTES_PER_MEGABYTE = 1024 * 1024;
+    private static final String THREAD_POOL_PREFIX = MonitorStatsType.THREAD_POOL.getMBeanType() + "/";
+    private static final String SERVLET_PREFIX = MonitorStatsType.SERVLET.getMBeanType() + "/";
+
+    private final Terminal terminal;
+    private final TimeSeriesStore store;
+    private final Map<String, String> applicationStates;
+    private final String title;
+    private final long refreshMillis;
+    private final long sampleIntervalMillis;
+
+    /**
+     * @param terminal          The terminal to draw on
+     * @param store             The sampled metrics
+     * @param applicationStates The state of each application, kept up to date by another thread
+     * @param title             The name of the server
+     * @param refreshInterval   The time between two frames
+     * @param sampleInterval    The time between two samples, the time span of a sparkline character
+     */
+    public TopDashboard(Terminal terminal, TimeSeriesStore store, Map<String, String> applicationStates, String title,
+                        Duration refreshInterval, Duration sampleInterval) {
+        Preconditions.checkNotNull(terminal, "terminal cannot be null");
+        Preconditions.checkNotNull(store, "store cannot be null");
+        Preconditions.checkNotNull(applicationStates, "applicationStates cannot be null");
+        Preconditions.checkArgument(refreshInterval != null && refreshInterval.compareTo(MIN_REFRESH_INTERVAL) >= 0,
+                "refreshInterval must be at least " + MIN_REFRESH_INTERVAL.toMillis() + " ms");
+        Preconditions.checkArgument(sampleInterval != null && !sampleInterval.isNegative() && !sampleInterval.isZero(),
+                "sampleInterval must be positive");
+        this.terminal = terminal;
+        this.store = store;
+        this.applicationStates = applicationStates;
+        this.title = title;
+        this.refreshMillis = refreshInterval.toMillis();
+        this.sampleIntervalMillis = sampleInterval.toMillis();
+    }
+
+    /**
+     * Shows the dashboard until q, escape or ctrl-c is pressed, then gives the screen back as it was
+     *
+     * @throws IOException If the terminal cannot be read
+     */
+    public void run() throws IOException {
+        Attributes originalAttributes = terminal.enterRawMode();
+        terminal.puts(InfoCmp.Capability.enter_ca_mode);
+        terminal.puts(InfoCmp.Capability.cursor_invisible);
+        terminal.flush();
+        try {
+            Display display = new Display(terminal, true);
+            NonBlockingReader reader = terminal.reader();
+            while (true) {
+                Size size = terminal.getSize();
+                display.resize(size.getRows(), size.getColumns());
+                // Only the changed characters are written
+                display.update(render(size.getRows(), size.getColumns(), System.currentTimeMillis()), 0);
+
+                // Wait for a key until the next frame
+                long deadline = System.currentTimeMillis() + refreshMillis;
+                long remaining;
+                while ((remaining = deadline - System.currentTimeMillis()) > 0) {
+                    int key = reader.read(remaining);
+                    if (key == NonBlockingReader.READ_EXPIRED) {
+                        break;
+                    }
+                    if (key == NonBlockingReader.EOF || key == 'q' || key == 'Q' || key == 27 || key == 3) {
+                        return;
+                    }
+                }
+            }
+        } finally {
+            terminal.puts(InfoCmp.Capability.cursor_normal);
+            terminal.puts(InfoCmp.Capability.exit_ca_mode);
+            terminal.setAttributes(originalAttributes);
+            terminal.flush();
+        }
+    }
+
+    /**
+     * Draws one frame
+     *
+     * @param rows    The height of the screen
+     * @param columns The width of the screen
+     * @param now     The current time
+     * @return The lines of the frame, at most rows lines narrower than the screen
+     */
+    List<AttributedString> render(int rows, int columns, long now) {
+        int width = Math.max(1, columns - 1);
+        int sparklineWidth = Math.max(0, Math.min(MAX_SPARKLINE_WIDTH, width - LABEL_WIDTH - VALUE_WIDTH - 2));
+        List<AttributedString> lines = new ArrayList<>();
+
+        String header = String.format(" top - %s - every %d ms - q to quit", title, refreshMillis);
+        lines.add(new AttributedStringBuilder()
+                .append(String.format("%-" + width + "s", header), AttributedStyle.INVERSE)
+                .toAttributedString());
+        lines.add(AttributedString.EMPTY);
+
+        // Server wide rows
+        double heapUsed = getLastValue(TopMetricsRecorder.HEAP_USED_SERIES);
+        double heapMax = getLastValue(TopMetricsRecorder.HEAP_MAX_SERIES);
+        lines.add(row("Heap", formatNumber(heapUsed / BYTES_PER_MEGABYTE) + " / " + formatNumber(heapMax / BYTES_PER_MEGABYTE) + " MB",
+                heapMax > 0 && heapUsed / heapMax > 0.9, TopMetricsRecorder.HEAP_USED_SERIES, sparklineWidth, now));
+        double gcMillisPerSecond = getLastValue(TopMetricsRecorder.GC_MILLIS_PER_SECOND_SERIES);
+        lines.add(row("GC", formatNumber(gcMillisPerSecond) + " ms/s", gcMillisPerSecond > 100,
+                TopMetricsRecorder.GC_MILLIS_PER_SECOND_SERIES, sparklineWidth, now));
+        lines.add(row("Allocation", formatNumber(getLastValue(TopMetricsRecorder.ALLOCATION_RATE_SERIES) / BYTES_PER_MEGABYTE) + " MB/s",
+                false, TopMetricsRecorder.ALLOCATION_RATE_SERIES, sparklineWidth, now));
+        double processCpu = getLastValue(TopMetricsRecorder.PROCESS_CPU_SERIES);
+        lines.add(row("CPU", formatNumber(processCpu * 100) + " %", processCpu > 0.9,
+                TopMetricsRecorder.PROCESS_CPU_SERIES, sparklineWidth, now));
+        lines.add(row("Threads", formatNumber(getLastValue(TopMetricsRecorder.THREAD_COUNT_SERIES)) + " ("
+                        + formatNumber(getLastValue(TopMetricsRecorder.LOADED_CLASSES_SERIES)) + " classes)",
+                false, TopMetricsRecorder.THREAD_COUNT_SERIES, sparklineWidth, now));
+        lines.add(row("Requests", formatNumber(getLastValue(TopMetricsRecorder.REQUEST_RATE_SERIES)) + " /s", false,
+                TopMetricsRecorder.REQUEST_RATE_SERIES, sparklineWidth, now));
+        lines.add(row("Latency", formatNumber(getLastValue(TopMetricsRecorder.REQUEST_LATENCY_SERIES)) + " ms", false,
+                TopMetricsRecorder.REQUEST_LATENCY_SERIES, sparklineWidth, now));
+
+        // One row per thread pool, saturated when all its threads are active
+        List<String> names = new ArrayList<>(store.getNames());
+        List<String> threadPools = names.stream()
+                .filter(name -> name.startsWith(THREAD_POOL_PREFIX) && name.endsWith("/ActiveThreads"))
+                .toList();
+        if (!threadPools.isEmpty()) {
+            lines.add(AttributedString.EMPTY);
+            lines.add(section("Thread pools", width));
+            for (String activeSeries : threadPools) {
+                String poolName = activeSeries.substring(THREAD_POOL_PREFIX.length(), activeSeries.length() - "/ActiveThreads".length());
+                double active = getLastValue(activeSeries);
+                double size = getLastValue(THREAD_POOL_PREFIX + poolName + "/PoolSize");
+                lines.add(row("  " + poolName, formatNumber(active) + " / " + formatNumber(size) + " active",
+                        size > 0 && active >= size, activeSeries, sparklineWidth, now));
+            }
+        }
+
+        // The busiest servlets first
+        List<String> servlets = names.stream()
+                .filter(name -> name.startsWith(SERVLET_PREFIX) && name.endsWith(TopMetricsRecorder.RATE_SUFFIX))
+                .sorted(Comparator.comparingDouble((String name) -> getLastValue(name)).reversed())
+                .toList();
+        if (!servlets.isEmpty()) {
+            lines.add(AttributedString.EMPTY);
+            lines.add(section("Servlets", width));
+            for (String rateSeries : servlets) {
+                String prefix = rateSeries.substring(0, rateSeries.length() - TopMetricsRecorder.RATE_SUFFIX.length());
+                lines.add(row("  " + prefix.substring(SERVLET_PREFIX.length()),
+                        formatNumber(getLastValue(rateSeries)) + " /s "
+                                + formatNumber(getLastValue(prefix + TopMetricsRecorder.LATENCY_SUFFIX)) + " ms",
+                        false, rateSeries, sparklineWidth, now));
+            }
+        }
+
+        if (!applicationStates.isEmpty()) {
+            lines.add(AttributedString.EMPTY);
+            lines.add(section("Applications", width));
+            new TreeMap<>(applicationStates).forEach((applicationName, state) -> lines.add(new AttributedStringBuilder()
+                    .append(String.format("  %-" + (LABEL_WIDTH - 2) + "s ", applicationName))
+                    .append(String.valueOf(state), "STARTED".equals(state)
+                            ? AttributedStyle.DEFAULT.foreground(AttributedStyle.GREEN)
+                            : AttributedStyle.DEFAULT.foreground(AttributedStyle.YELLOW))
+                    .toAttributedString()));
+        }
+
+        // Cut what does not fit, the display must not scroll or wrap
+        List<AttributedString> frame = new ArrayList<>(Math.min(rows, lines.size()));
+        for (int i = 0; i < lines.size() && i < rows; i++) {
+            AttributedString line = lines.get(i);
+            frame.add(line.columnLength() > width ? line.columnSubSequence(0, width) : line);
+        }
+        return frame;
+    }
+
+    /**
+     * @param label           The label
+     * @param value           The formatted value
+     * @param alert           Whether to highlight the value
+     * @param sparklineSeries The series drawn as a sparkline
+     * @param sparklineWidth  The width of the sparkline
+     * @param now             The current time
+     * @return The row
+     */
+    private AttributedString row(String label, String value, boolean alert, String sparklineSeries, int sparklineWidth, long now) {
+        AttributedStringBuilder builder = new AttributedStringBuilder()
+                .append(String.format("%-" + LABEL_WIDTH + "s ", label))
+                .append(String.format("%-" + VALUE_WIDTH + "s ", value),
+                        alert ? AttributedStyle.BOLD.foreground(AttributedStyle.RED) : AttributedStyle.DEFAULT);
+        TimeSeries series = store.getSeries(sparklineSeries);
+        if (series != null && sparklineWidth > 0) {
+            // A little more than the sparkline width, in case samples were late
+            TimeSeriesPoints points = series.getPoints(Resolution.RAW, now - 2L * sparklineWidth * sampleIntervalMillis, now);
+            builder.append(Sparkline.render(points, sparklineWidth), AttributedStyle.DEFAULT.foreground(AttributedStyle.CYAN));
+        }
+        return builder.toAttributedString();
+    }
+
+    private static AttributedString section(String title, int width) {
+        return new AttributedStringBuilder().append(title, AttributedStyle.BOLD.underline()).toAttributedString()
+                .columnSubSequence(0, Math.min(title.length(), width));
+    }
+
+    private double getLastValue(String seriesName) {
+        TimeSeries series = store.getSeries(seriesName);
+        return series == null ? Double.NaN : series.getLastValue();
+    }
+
+    /**
+     * @param value The value
+     * @return The value with at most one decimal, - when it is not known
+     */
+    private static String formatNumber(double value) {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            return "-";
+        }
+        return value == Math.rint(value) ? String.valueOf((long) value) : String.format("%.1f", value);
+    }
+}
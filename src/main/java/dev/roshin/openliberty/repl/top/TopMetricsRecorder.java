@@ -0,0 +1,156 @@
+package dev.roshin.openliberty.repl.top;
+
+import com.google.common.base.Preconditions;
+import dev.roshin.openliberty.repl.controllers.jmx.JMXServerManager;
+import dev.roshin.openliberty.repl.controllers.jmx.MonitorSampleListener;
+import dev.roshin.openliberty.repl.controllers.jmx.domain.JvmTelemetry;
+import dev.roshin.openliberty.repl.controllers.jmx.domain.JvmTelemetryRates;
+import dev.roshin.openliberty.repl.controllers.jmx.domain.MonitorSample;
+import dev.roshin.openliberty.repl.controllers.jmx.domain.MonitorStats;
+import dev.roshin.openliberty.repl.controllers.jmx.domain.MonitorStatsType;
+import dev.roshin.openliberty.repl.metrics.TimeSeriesStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Records the monitor samples in a {@link TimeSeriesStore}, with the JVM telemetry and the request rates and latencies
+ * derived from the servlet statistics.
+ * <p>
+ * Called on the sampler thread, which is the only writer of the store.
+ */
+public class TopMetricsRecorder implements MonitorSampleListener {
+    public static final String HEAP_USED_SERIES = "jvm/heap/used";
+    public static final String HEAP_MAX_SERIES = "jvm/heap/max";
+    public static final String THREAD_COUNT_SERIES = "jvm/threads/count";
+    public static final String LOADED_CLASSES_SERIES = "jvm/classes/loaded";
+    public static final String GC_MILLIS_PER_SECOND_SERIES = "jvm/gc/millisPerSecond";
+    public static final String ALLOCATION_RATE_SERIES = "jvm/allocation/bytesPerSecond";
+    public static final String PROCESS_CPU_SERIES = "jvm/cpu/process";
+    public static final String REQUEST_RATE_SERIES = "requests/rate";
+    public static final String REQUEST_LATENCY_SERIES = "requests/latencyMillis";
+    public static final String RATE_SUFFIX = "/rate";
+    public static final String LATENCY_SUFFIX = "/latencyMillis";
+
+    private static final String REQUEST_COUNT_ATTRIBUTE = "RequestCount";
+    private static final String RESPONSE_TIME_ATTRIBUTE = "ResponseTime";
+    private static final double NANOS_PER_MILLI = 1_000_000;
+
+    private final TimeSeriesStore store;
+    private final JMXServerManager jmxServerManager;
+    private final Logger logger;
+
+    // Only used by the sampler thread, the servlet statistics of the previous sample, by object name
+    private final Map<String, double[]> previousServlets = new HashMap<>();
+    private long previousTimestamp;
+    private JvmTelemetry previousTelemetry;
+
+    /**
+     * @param store            The store to record in
+     * @param jmxServerManager The manager of the server, to sample the JVM telemetry
+     */
+    public TopMetricsRecorder(TimeSeriesStore store, JMXServerManager jmxServerManager) {
+        Preconditions.checkNotNull(store, "store cannot be null");
+        Preconditions.checkNotNull(jmxServerManager, "jmxServerManager cannot be null");
+        this.store = store;
+        this.jmxServerManager = jmxServerManager;
+        this.logger = LoggerFactory.getLogger(getClass());
+    }
+
+    /**
+     * @param stats         The statistics of an MBean
+     * @param attributeName The attribute name
+     * @return The name of the series of the attribute, e.g. ThreadPoolStats/Default Executor/ActiveThreads
+     */
+    public static String seriesName(MonitorStats stats, String attributeName) {
+        return stats.getType().getMBeanType() + "/" + stats.getName() + "/" + attributeName;
+    }
+
+    @Override
+    public void sampled(MonitorSample sample) {
+        long timestamp = sample.getTimestamp();
+        for (MonitorStats stats : sample.getStats()) {
+            stats.getValues().forEach((attributeName, value) -> store.record(seriesName(stats, attributeName), timestamp, value));
+        }
+        recordRequests(sample);
+        recordJvm(timestamp);
+    }
+
+    /**
+     * Records the request rate and the average latency since the previous sample, of each servlet and in total
+     *
+     * @param sample The sample
+     */
+    private void recordRequests(MonitorSample sample) {
+        long timestamp = sample.getTimestamp();
+        double seconds = (timestamp - previousTimestamp) / 1000.0;
+        boolean hasPrevious = previousTimestamp > 0 && seconds > 0;
+        double totalRequests = 0;
+        double totalNanos = 0;
+        for (MonitorStats servlet : sample.getStats(MonitorStatsType.SERVLET)) {
+            double count = servlet.getValue(REQUEST_COUNT_ATTRIBUTE);
+            double responseTime = servlet.getValue(RESPONSE_TIME_ATTRIBUTE);
+            if (Double.isNaN(count)) {
+                continue;
+            }
+            double[] previous = previousServlets.put(servlet.getObjectName(), new double[]{count, responseTime});
+            if (!hasPrevious || previous == null || count < previous[0]) {
+                // First sample of the servlet, or its statistics were reset by a restart
+                continue;
+            }
+            double requests = count - previous[0];
+            String prefix = MonitorStatsType.SERVLET.getMBeanType() + "/" + servlet.getName();
+            store.record(prefix + RATE_SUFFIX, timestamp, requests / seconds);
+            if (requests > 0 && !Double.isNaN(responseTime) && !Double.isNaN(previous[1])) {
+                // The response time is the mean since the start, the mean of the new requests is what changed
+                double nanos = Math.max(0, responseTime * count - previous[1] * previous[0]);
+                store.record(prefix + LATENCY_SUFFIX, timestamp, nanos / requests / NANOS_PER_MILLI);
+                totalNanos += nanos;
+            }
+            totalRequests += requests;
+        }
+        if (hasPrevious) {
+            store.record(REQUEST_RATE_SERIES, timestamp, totalRequests / seconds);
+            if (totalRequests > 0) {
+                store.record(REQUEST_LATENCY_SERIES, timestamp, totalNanos / totalRequests / NANOS_PER_MILLI);
+            }
+        }
+        previousTimestamp = timestamp;
+    }
+
+    /**
+     * Records the heap, threads and classes of the server JVM, and the collection, allocation and CPU rates since the
+     * previous sample
+     *
+     * @param timestamp The time of the monitor sample, the JVM sample has its own
+     */
+    private void recordJvm(long timestamp) {
+        JvmTelemetry telemetry;
+        try {
+            telemetry = jmxServerManager.sampleJvmTelemetry();
+        } catch (Exception e) {
+            logger.debug("Failed to sample the JVM telemetry", e);
+            previousTelemetry = null;
+            return;
+        }
+        recordIfKnown(HEAP_USED_SERIES, timestamp, telemetry.getHeapUsed());
+        recordIfKnown(HEAP_MAX_SERIES, timestamp, telemetry.getHeapMax());
+        recordIfKnown(THREAD_COUNT_SERIES, timestamp, telemetry.getThreadCount());
+        recordIfKnown(LOADED_CLASSES_SERIES, timestamp, telemetry.getLoadedClassCount());
+        if (previousTelemetry != null) {
+            JvmTelemetryRates rates = JvmTelemetryRates.between(previousTelemetry, telemetry);
+            store.record(GC_MILLIS_PER_SECOND_SERIES, timestamp, rates.getGcMillisPerSecond());
+            store.record(ALLOCATION_RATE_SERIES, timestamp, rates.getAllocatedBytesPerSecond());
+            store.record(PROCESS_CPU_SERIES, timestamp, rates.getProcessCpuLoad());
+        }
+        previousTelemetry = telemetry;
+    }
+
+    private void recordIfKnown(String seriesName, long timestamp, long value) {
+        if (value >= 0) {
+            store.record(seriesName, timestamp, value);
+        }
+    }
+}
@@ -2,10 +2,13 @@ package dev.roshin.openliberty.repl.util;
 
 import com.google.common.base.Preconditions;
 import dev.roshin.openliberty.repl.Repl;
+import dev.roshin.openliberty.repl.config.exceptions.ConfigurationReaderException;
 import dev.roshin.openliberty.repl.config.generated.LibertyPluginConfigs;
 import dev.roshin.openliberty.repl.controllers.jmx.JMXServerManager;
 import dev.roshin.openliberty.repl.controllers.jmx.JMXServerManagerImpl;
+import dev.roshin.openliberty.repl.controllers.jmx.LocalJMXServerManager;
 import dev.roshin.openliberty.repl.controllers.jmx.rest.JMXUtil;
+import dev.roshin.openliberty.repl.controllers.jmx.rest.JmxHttpClients;
 import dev.roshin.openliberty.repl.controllers.maven.OpenLibertyMavenWrapper;
 import dev.roshin.openliberty.repl.controllers.maven.domain.MavenAndLogFileResponse;
 import dev.roshin.openliberty.repl.controllers.shell.OpenLibertyServerScriptWrapper;
@@ -23,11 +26,14 @@ import java.io.RandomAccessFile;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 
 public class StartStopUtil {
     private static final Logger logger = LoggerFactory.getLogger(StartStopUtil.class);
     private static volatile boolean serverReady = false;
+    private static final Duration WARM_UP_WAIT = Duration.ofSeconds(90);
+    private static final Duration WARM_UP_POLL_INTERVAL = Duration.ofMillis(250);
 
     private StartStopUtil() {
     }
@@ -55,8 +61,23 @@ public class StartStopUtil {
         printWriter.println(stoppingServerStringBuilder.toAnsi());
         printWriter.flush();
         logger.debug("Stopping the server");
-        // Stop the server
-        openLibertyServerScriptWrapper.stop();
+        // Stop the server, printing the script output as it comes, Ctrl+C terminates the script
+        CompletableFuture<String> stopping = openLibertyServerScriptWrapper.stopAsync(line -> {
+            printWriter.println(new AttributedStringBuilder().append(line, AttributedStyle.DEFAULT.faint()).toAnsi());
+            printWriter.flush();
+        });
+        Terminal.SignalHandler previousHandler = terminal.handle(Terminal.Signal.INT, signal -> stopping.cancel(true));
+        try {
+            OpenLibertyServerScriptWrapper.await(stopping);
+        } catch (OpenLibertyScriptExecutionException e) {
+            if (!stopping.isCancelled()) {
+                throw e;
+            }
+            // Terminated by the user, the checks below tell if the server stopped anyway
+            logger.debug("Server script stop cancelled");
+        } finally {
+            terminal.handle(Terminal.Signal.INT, previousHandler);
+        }
         // Check if the server is stopped
         if (openLibertyServerScriptWrapper.isTheServerRunning()) {
             // Inform the user that the server could not be stopped, with the word "could not" in yellow
@@ -125,9 +146,15 @@ public class StartStopUtil {
         Process mavenProcess = null;
         try {
             // Start the Maven process
+            final long startTimeMillis = System.currentTimeMillis();
             final MavenAndLogFileResponse mavenAndLogFileResponse = openLibertyMavenWrapper.startServerMavenProcess();
             mavenProcess = mavenAndLogFileResponse.getMavenProcess();
 
+            // Warm up the connection to the REST connector as soon as it is available, while the server finishes starting
+            Thread warmUpThread = new Thread(() -> warmUpRestConnector(libertyPluginFile, startTimeMillis), "rest-connector-warm-up");
+            warmUpThread.setDaemon(true);
+            warmUpThread.start();
+
             // Inform the user we are waiting for 30 seconds, with the word "waiting" in yellow
             AttributedStringBuilder attributedStringBuilder = new AttributedStringBuilder();
             attributedStringBuilder.append("Waiting standard ");
@@ -185,8 +212,10 @@ public class StartStopUtil {
                 possibleOpenLibertyServerScriptWrapper.reloadLibertyPluginConfig();
                 libertyPluginConfigs = possibleOpenLibertyServerScriptWrapper.getLibertyPluginConfig();
             }
-            // Create JMX manager
-            JMXServerManager jmxServerManager = new JMXServerManagerImpl(JMXUtil.findRestConnectorURL(libertyPluginConfigs, terminal), "todd", "toddpassword");
+            // Create JMX manager, over the local connector when the server has one, the REST connector otherwise
+            JMXServerManager restServerManager = new JMXServerManagerImpl(JMXUtil.findRestConnectorURL(libertyPluginConfigs, terminal), "todd", "toddpassword");
+            JMXServerManager jmxServerManager = LocalJMXServerManager.createPreferringLocal(
+                    LocalJMXServerManager.getLocalConnectorAddressFile(libertyPluginConfigs), restServerManager);
 
             logger.debug("Server is running");
             logger.debug("Shell script wrapper says server is running: " + possibleOpenLibertyServerScriptWrapper.isTheServerRunning());
@@ -217,6 +246,38 @@ public class StartStopUtil {
         return mavenProcess;
     }
 
+    /**
+     * Waits for the server to write the REST connector address, then opens a connection to it, so the first JMX
+     * request after the server is ready does not pay for the TLS handshake
+     *
+     * @param libertyPluginFile The liberty plugin file, which may not exist yet
+     * @param notBeforeMillis   The address file must be written after this time, an older one is from a previous run
+     */
+    private static void warmUpRestConnector(Path libertyPluginFile, long notBeforeMillis) {
+        logger.debug("Waiting for the REST connector address to warm up the connection");
+        long deadline = System.currentTimeMillis() + WARM_UP_WAIT.toMillis();
+        try {
+            while (System.currentTimeMillis() < deadline) {
+                if (Files.exists(libertyPluginFile)) {
+                    try {
+                        Path jmxRestAddress = JMXUtil.getRestConnectorAddressFile(new LibertyPluginConfigs(libertyPluginFile));
+                        if (Files.exists(jmxRestAddress) && Files.getLastModifiedTime(jmxRestAddress).toMillis() >= notBeforeMillis) {
+                            JmxHttpClients.warmUp(JMXUtil.readRestConnectorURL(jmxRestAddress));
+                            return;
+                        }
+                    } catch (ConfigurationReaderException | IOException e) {
+                        // The files may be in the middle of being written, try again
+                        logger.debug("REST connector address not readable yet", e);
+                    }
+                }
+                TimeUnit.MILLISECONDS.sleep(WARM_UP_POLL_INTERVAL.toMillis());
+            }
+            logger.debug("REST connector address did not appear, not warming up the connection");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
     /**
      * Monitors the log file for the server ready message
      *
@@ -226,23 +287,37 @@ public class StartStopUtil {
         long lastReadPosition = 0;
         while (!serverReady) {
             try {
-                RandomAccessFile logFileReader = new RandomAccessFile(logFile, "r");
-                logFileReader.seek(lastReadPosition);
-                String logLine;
-                while ((logLine = logFileReader.readLine()) != null) {
-                    if (logLine.contains("[INFO] [AUDIT   ] CWWKF0011I:") && logLine.contains("The defaultServer server is ready to run a smarter planet")) {
-                        serverReady = true;
-                        break;
-                    }
-                }
-                lastReadPosition = logFileReader.getFilePointer();
-                logFileReader.close();
-                if (!serverReady) {
-                    TimeUnit.SECONDS.sleep(1); // Wait a bit before next read attempt to not over-utilize CPU
+                lastReadPosition = scanForServerReady(logFile, lastReadPosition);
+                if (lastReadPosition < 0) {
+                    serverReady = true;
+                    break;
                 }
+                TimeUnit.SECONDS.sleep(1); // Wait a bit before next read attempt to not over-utilize CPU
             } catch (IOException | InterruptedException e) {
                 e.printStackTrace();
             }
         }
     }
+
+    /**
+     * Reads the log file from the given position, looking for the server ready message
+     *
+     * @param logFile      The log file
+     * @param fromPosition The position to read from, the value returned by the previous call or 0
+     * @return The position after the last line read, to continue from on the next call, or -1 if the server ready
+     * message was found
+     * @throws IOException If the log file cannot be read
+     */
+    public static long scanForServerReady(File logFile, long fromPosition) throws IOException {
+        try (RandomAccessFile logFileReader = new RandomAccessFile(logFile, "r")) {
+            logFileReader.seek(fromPosition);
+            String logLine;
+            while ((logLine = logFileReader.readLine()) != null) {
+                if (logLine.contains("[INFO] [AUDIT   ] CWWKF0011I:") && logLine.contains("The defaultServer server is ready to run a smarter planet")) {
+                    return -1;
+                }
+            }
+            return logFileReader.getFilePointer();
+        }
+    }
 }
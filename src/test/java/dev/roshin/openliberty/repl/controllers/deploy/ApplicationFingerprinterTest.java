@@ -0,0 +1,53 @@
+package dev.roshin.openliberty.repl.controllers.deploy;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ApplicationFingerprinterTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void onlyChangedApplicationsAreFound() throws Exception {
+        Path apps = Files.createDirectories(directory.resolve("apps"));
+        Path classes = Files.createDirectories(directory.resolve("first/classes"));
+        Files.writeString(classes.resolve("Hello.class"), "hello");
+        Files.writeString(apps.resolve("first.war.xml"), "<archive><dir targetInArchive=\"/WEB-INF/classes\" sourceOnDisk=\""
+                + classes + "\"/></archive>");
+        Files.writeString(apps.resolve("second.war"), "second");
+        Path cacheFile = directory.resolve(ApplicationFingerprinter.CACHE_FILE_NAME);
+
+        ApplicationFingerprinter fingerprinter = new ApplicationFingerprinter(apps, true, cacheFile);
+        assertFalse(fingerprinter.hasDeployedFingerprints());
+        Map<String, String> fingerprints = fingerprinter.fingerprintApplications();
+        assertEquals(Set.of("first", "second"), fingerprints.keySet());
+        assertEquals(Set.of("first", "second"), fingerprinter.findChangedApplications(fingerprints));
+        fingerprinter.recordDeployed(fingerprints);
+
+        // Nothing changed, read again from the cache file
+        fingerprinter = new ApplicationFingerprinter(apps, true, cacheFile);
+        assertTrue(fingerprinter.hasDeployedFingerprints());
+        assertTrue(fingerprinter.findChangedApplications(fingerprinter.fingerprintApplications()).isEmpty());
+
+        // A file of the loose application changes
+        Files.writeString(classes.resolve("Hello.class"), "hello again");
+        assertEquals(Set.of("first"), fingerprinter.findChangedApplications(fingerprinter.fingerprintApplications()));
+    }
+
+    @Test
+    void toApplicationName() {
+        assertEquals("sample", ApplicationFingerprinter.toApplicationName("sample.war"));
+        assertEquals("sample", ApplicationFingerprinter.toApplicationName("sample.war.xml"));
+        assertEquals("sample", ApplicationFingerprinter.toApplicationName("sample"));
+    }
+}
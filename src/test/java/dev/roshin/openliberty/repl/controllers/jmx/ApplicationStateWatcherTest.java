@@ -0,0 +1,71 @@
+package dev.roshin.openliberty.repl.controllers.jmx;
+
+import dev.roshin.openliberty.repl.controllers.jmx.domain.ApplicationStateChange;
+import dev.roshin.openliberty.repl.testing.FakeRestConnectorServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ApplicationStateWatcherTest {
+    private FakeRestConnectorServer server;
+    private JMXServerManager manager;
+
+    @BeforeEach
+    void beforeEach() throws Exception {
+        server = new FakeRestConnectorServer(10).start();
+        manager = new JMXServerManagerImpl(server.getBaseUrl(), server.getUsername(), server.getPassword(),
+                Duration.ofSeconds(30), 3);
+    }
+
+    @AfterEach
+    void afterEach() {
+        server.close();
+    }
+
+    @Test
+    void onlyChangesAreReported() throws Exception {
+        BlockingQueue<ApplicationStateChange> changes = new LinkedBlockingQueue<>();
+        try (ApplicationStateWatcher watcher = new ApplicationStateWatcher(manager, changes::addAll,
+                Duration.ofMillis(50), Duration.ofMillis(400))) {
+            Map<String, String> states = watcher.start();
+            assertEquals(10, states.size());
+
+            server.setApplicationState("app3", FakeRestConnectorServer.APPLICATION_STATE_STOPPED);
+            ApplicationStateChange change = changes.poll(10, TimeUnit.SECONDS);
+            assertNotNull(change);
+            assertEquals("app3", change.getApplicationName());
+            assertEquals(FakeRestConnectorServer.APPLICATION_STATE_STARTED, change.getOldState());
+            assertEquals(FakeRestConnectorServer.APPLICATION_STATE_STOPPED, change.getNewState());
+
+            // Nothing changes, the interval grows up to the maximum
+            Thread.sleep(1500);
+            assertTrue(changes.isEmpty());
+            assertEquals(400, watcher.getIntervalMillis());
+        }
+    }
+
+    @Test
+    void diff() {
+        List<ApplicationStateChange> changes = ApplicationStateWatcher.diff(
+                Map.of("a", "STARTED", "b", "STARTED"), Map.of("a", "STOPPED", "c", "STARTING"));
+        assertEquals(3, changes.size());
+        ApplicationStateChange removed = changes.stream().filter(change -> change.getApplicationName().equals("b"))
+                .findFirst().orElseThrow();
+        assertNull(removed.getNewState());
+        ApplicationStateChange added = changes.stream().filter(change -> change.getApplicationName().equals("c"))
+                .findFirst().orElseThrow();
+        assertNull(added.getOldState());
+    }
+}
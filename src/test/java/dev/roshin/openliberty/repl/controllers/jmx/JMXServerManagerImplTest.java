@@ -0,0 +1,203 @@
+package dev.roshin.openliberty.repl.controllers.jmx;
+
+import dev.roshin.openliberty.repl.controllers.jmx.domain.ApplicationRestartResult;
+import dev.roshin.openliberty.repl.controllers.jmx.domain.ApplicationRestartSummary;
+import dev.roshin.openliberty.repl.controllers.jmx.domain.ApplicationStatus;
+import dev.roshin.openliberty.repl.controllers.jmx.domain.JvmTelemetry;
+import dev.roshin.openliberty.repl.controllers.jmx.domain.JvmTelemetryRates;
+import dev.roshin.openliberty.repl.controllers.jmx.domain.ServerInfo;
+import dev.roshin.openliberty.repl.controllers.jmx.rest.JMXConstants;
+import dev.roshin.openliberty.repl.testing.FakeMBean;
+import dev.roshin.openliberty.repl.testing.FakeRestConnectorServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JMXServerManagerImplTest {
+    private static final int APPLICATION_COUNT = 100;
+    private static final String YOUNG_COLLECTOR_OBJECT_NAME = "java.lang:type=GarbageCollector,name=G1 Young Generation";
+    private FakeRestConnectorServer server;
+
+    @BeforeEach
+    void beforeEach() throws Exception {
+        server = new FakeRestConnectorServer(APPLICATION_COUNT).start();
+    }
+
+    @AfterEach
+    void afterEach() {
+        server.close();
+    }
+
+    private JMXServerManager createManager(Duration applicationStatusTimeout) throws Exception {
+        return new JMXServerManagerImpl(server.getBaseUrl(), server.getUsername(), server.getPassword(),
+                Duration.ofSeconds(30), 3, 8, applicationStatusTimeout);
+    }
+
+    @Test
+    void getAllApplicationStatus() throws Exception {
+        server.setApplicationState("app7", FakeRestConnectorServer.APPLICATION_STATE_STOPPED);
+        List<ApplicationStatus> applicationStatusList = createManager(Duration.ofSeconds(10)).getAllApplicationStatus();
+        assertEquals(APPLICATION_COUNT, applicationStatusList.size());
+        for (ApplicationStatus applicationStatus : applicationStatusList) {
+            assertFalse(applicationStatus.isFailed());
+            String expected = applicationStatus.getApplicationName().equals("app7")
+                    ? FakeRestConnectorServer.APPLICATION_STATE_STOPPED : FakeRestConnectorServer.APPLICATION_STATE_STARTED;
+            assertEquals(expected, applicationStatus.getStatus());
+        }
+    }
+
+    @Test
+    void slowApplicationsAreReportedAsFailed() throws Exception {
+        JMXServerManager manager = createManager(Duration.ofMillis(100));
+        // Every response is much slower than the timeout of one application, the listing itself is not limited. Reads
+        // that were not cut by their own timeout would hold the limiter for 13 rounds of a second and overrun the
+        // overall bound
+        server.setLatency(Duration.ofSeconds(1), Duration.ZERO);
+        List<ApplicationStatus> applicationStatusList = manager.getAllApplicationStatus();
+        assertEquals(APPLICATION_COUNT, applicationStatusList.size());
+        for (ApplicationStatus applicationStatus : applicationStatusList) {
+            assertTrue(applicationStatus.isFailed());
+            assertNull(applicationStatus.getStatus());
+        }
+    }
+
+    @Test
+    void restartAllApplicationsInGroups() throws Exception {
+        List<String> restartOrder = Collections.synchronizedList(new ArrayList<>());
+        ApplicationRestartSummary summary = createManager(Duration.ofSeconds(10)).restartAllApplications(4,
+                List.of(List.of("app3", "app5"), List.of("app1")), new ApplicationRestartListener() {
+                    @Override
+                    public void restarting(String applicationName, int group) {
+                        restartOrder.add(applicationName);
+                    }
+                });
+        assertEquals(APPLICATION_COUNT, summary.getResults().size());
+        assertEquals(0, summary.getFailedCount());
+        // The first group is restarted first, then the second one, then the others
+        assertEquals(Set.of("app3", "app5"), Set.copyOf(restartOrder.subList(0, 2)));
+        assertEquals("app1", restartOrder.get(2));
+        for (ApplicationRestartResult result : summary.getResults()) {
+            assertEquals(FakeRestConnectorServer.APPLICATION_STATE_STARTED, result.getState());
+        }
+    }
+
+    @Test
+    void failingRestartListenerDoesNotStopTheRestarts() throws Exception {
+        ApplicationRestartSummary summary = createManager(Duration.ofSeconds(10)).restartAllApplications(4,
+                List.of(List.of("app3"), List.of("app1")), new ApplicationRestartListener() {
+                    @Override
+                    public void restarting(String applicationName, int group) {
+                        throw new IllegalStateException("restarting " + applicationName);
+                    }
+
+                    @Override
+                    public void restarted(ApplicationRestartResult result, int completed, int total) {
+                        throw new IllegalStateException("restarted " + result.getApplicationName());
+                    }
+                });
+        // Every group is restarted, and every result is kept
+        assertEquals(APPLICATION_COUNT, summary.getResults().size());
+        assertEquals(0, summary.getFailedCount());
+    }
+
+    @Test
+    void getServerInfoIsCachedUntilTheProcessChanges() throws Exception {
+        JMXServerManager manager = createManager(Duration.ofSeconds(10));
+        ServerInfo first = manager.getServerInfo();
+        assertNotNull(first);
+        assertEquals(FakeRestConnectorServer.SERVER_NAME, first.getServerName());
+        assertEquals(FakeRestConnectorServer.LIBERTY_VERSION, first.getLibertyVersion());
+
+        // Only the PID and start time are read again
+        server.resetRequestCount();
+        assertSame(first, manager.getServerInfo());
+        assertEquals(1, server.getRequestCount());
+
+        server.restartProcess();
+        ServerInfo second = manager.getServerInfo();
+        assertNotSame(first, second);
+        assertEquals(first.getPid() + 1, second.getPid());
+    }
+
+    @Test
+    void sampleJvmTelemetryAndRates() throws Exception {
+        server.addMBean(new FakeMBean(JMXConstants.MEMORY_MBEAN_OBJECT_NAME, "sun.management.MemoryImpl")
+                .setAttribute(JMXConstants.MEMORY_MBEAN_HEAP_MEMORY_USAGE_ATTRIBUTE,
+                        Map.of("used", 100L * 1024 * 1024, "committed", 200L * 1024 * 1024, "max", 400L * 1024 * 1024))
+                .setAttribute(JMXConstants.MEMORY_MBEAN_NON_HEAP_MEMORY_USAGE_ATTRIBUTE,
+                        Map.of("used", 50L * 1024 * 1024, "committed", 60L * 1024 * 1024, "max", -1L)));
+        server.addMBean(new FakeMBean(JMXConstants.THREADING_MBEAN_OBJECT_NAME, "sun.management.ThreadImpl")
+                .setAttribute(JMXConstants.THREADING_MBEAN_THREAD_COUNT_ATTRIBUTE, 40)
+                .setAttribute(JMXConstants.THREADING_MBEAN_PEAK_THREAD_COUNT_ATTRIBUTE, 45)
+                .setAttribute(JMXConstants.THREADING_MBEAN_DAEMON_THREAD_COUNT_ATTRIBUTE, 30)
+                .setAttribute(JMXConstants.THREADING_MBEAN_TOTAL_THREAD_ALLOCATED_BYTES_ATTRIBUTE, 1_000_000L));
+        server.addMBean(new FakeMBean(JMXConstants.CLASS_LOADING_MBEAN_OBJECT_NAME, "sun.management.ClassLoadingImpl")
+                .setAttribute(JMXConstants.CLASS_LOADING_MBEAN_LOADED_CLASS_COUNT_ATTRIBUTE, 9000)
+                .setAttribute(JMXConstants.CLASS_LOADING_MBEAN_TOTAL_LOADED_CLASS_COUNT_ATTRIBUTE, 9500L)
+                .setAttribute(JMXConstants.CLASS_LOADING_MBEAN_UNLOADED_CLASS_COUNT_ATTRIBUTE, 500L));
+        // No CpuLoad, like the JVMs before 14
+        server.addMBean(new FakeMBean(JMXConstants.OPERATING_SYSTEM_MBEAN_OBJECT_NAME, "com.sun.management.internal.OperatingSystemImpl")
+                .setAttribute(JMXConstants.OPERATING_SYSTEM_MBEAN_PROCESS_CPU_LOAD_ATTRIBUTE, 0.25)
+                .setAttribute(JMXConstants.OPERATING_SYSTEM_MBEAN_PROCESS_CPU_TIME_ATTRIBUTE, 10_000_000_000L)
+                .setAttribute(JMXConstants.OPERATING_SYSTEM_MBEAN_SYSTEM_CPU_LOAD_ATTRIBUTE, 0.5)
+                .setAttribute(JMXConstants.OPERATING_SYSTEM_MBEAN_AVAILABLE_PROCESSORS_ATTRIBUTE, 4)
+                .setAttribute(JMXConstants.OPERATING_SYSTEM_MBEAN_SYSTEM_LOAD_AVERAGE_ATTRIBUTE, 1.5));
+        server.addMBean(new FakeMBean(YOUNG_COLLECTOR_OBJECT_NAME, "com.sun.management.internal.GarbageCollectorExtImpl")
+                .setAttribute(JMXConstants.GARBAGE_COLLECTOR_MBEAN_COLLECTION_COUNT_ATTRIBUTE, 10L)
+                .setAttribute(JMXConstants.GARBAGE_COLLECTOR_MBEAN_COLLECTION_TIME_ATTRIBUTE, 100L));
+        server.addMBean(new FakeMBean("java.lang:type=GarbageCollector,name=G1 Old Generation", "com.sun.management.internal.GarbageCollectorExtImpl")
+                .setAttribute(JMXConstants.GARBAGE_COLLECTOR_MBEAN_COLLECTION_COUNT_ATTRIBUTE, 1L)
+                .setAttribute(JMXConstants.GARBAGE_COLLECTOR_MBEAN_COLLECTION_TIME_ATTRIBUTE, 50L));
+
+        JMXServerManager manager = createManager(Duration.ofSeconds(10));
+        JvmTelemetry first = manager.sampleJvmTelemetry();
+        assertEquals(100L * 1024 * 1024, first.getHeapUsed());
+        assertEquals(200L * 1024 * 1024, first.getHeapCommitted());
+        assertEquals(400L * 1024 * 1024, first.getHeapMax());
+        assertEquals(50L * 1024 * 1024, first.getNonHeapUsed());
+        assertEquals(40, first.getThreadCount());
+        assertEquals(9000, first.getLoadedClassCount());
+        assertEquals(0.5, first.getSystemCpuLoad());
+        assertEquals(4, first.getAvailableProcessors());
+        assertEquals(2, first.getGarbageCollectors().size());
+        assertEquals(11, first.getGcCollectionCount());
+        assertEquals(150, first.getGcTimeMillis());
+
+        // Two collections of 100 ms, 2 MB allocated and one CPU busy
+        server.getMBean(YOUNG_COLLECTOR_OBJECT_NAME)
+                .setAttribute(JMXConstants.GARBAGE_COLLECTOR_MBEAN_COLLECTION_COUNT_ATTRIBUTE, 12L)
+                .setAttribute(JMXConstants.GARBAGE_COLLECTOR_MBEAN_COLLECTION_TIME_ATTRIBUTE, 300L);
+        server.getMBean(JMXConstants.THREADING_MBEAN_OBJECT_NAME)
+                .setAttribute(JMXConstants.THREADING_MBEAN_TOTAL_THREAD_ALLOCATED_BYTES_ATTRIBUTE, 3_000_000L);
+        server.getMBean(JMXConstants.OPERATING_SYSTEM_MBEAN_OBJECT_NAME)
+                .setAttribute(JMXConstants.OPERATING_SYSTEM_MBEAN_PROCESS_CPU_TIME_ATTRIBUTE, 11_000_000_000L);
+        JvmTelemetry second = manager.sampleJvmTelemetry();
+        // The rates are per second of the time between the samples, set it for exact values
+        second.setTimestamp(first.getTimestamp() + 1000);
+
+        JvmTelemetryRates rates = JvmTelemetryRates.between(first, second);
+        assertEquals(200, rates.getGcMillisPerSecond(), 0.001);
+        assertEquals(2, rates.getGcCollectionsPerSecond(), 0.001);
+        assertEquals(2_000_000, rates.getAllocatedBytesPerSecond(), 0.001);
+        assertEquals(0.25, rates.getProcessCpuLoad(), 0.001);
+        assertEquals(0, rates.getClassesLoadedPerSecond(), 0.001);
+
+        // Samples out of order give no rates
+        assertTrue(Double.isNaN(JvmTelemetryRates.between(second, first).getGcMillisPerSecond()));
+    }
+}
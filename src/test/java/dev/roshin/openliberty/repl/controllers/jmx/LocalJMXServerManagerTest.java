@@ -0,0 +1,206 @@
+package dev.roshin.openliberty.repl.controllers.jmx;
+
+import dev.roshin.openliberty.repl.controllers.jmx.domain.ApplicationStatus;
+import dev.roshin.openliberty.repl.controllers.jmx.domain.JvmTelemetry;
+import dev.roshin.openliberty.repl.controllers.jmx.domain.MonitorSample;
+import dev.roshin.openliberty.repl.controllers.jmx.domain.MonitorStats;
+import dev.roshin.openliberty.repl.controllers.jmx.domain.MonitorStatsType;
+import dev.roshin.openliberty.repl.controllers.jmx.rest.JMXConstants;
+import dev.roshin.openliberty.repl.controllers.jmx.rest.JmxClient;
+import dev.roshin.openliberty.repl.controllers.jmx.rest.domain.MBeanInfo;
+import dev.roshin.openliberty.repl.controllers.jmx.rest.domain.attributes.AttributeValue;
+import dev.roshin.openliberty.repl.testing.FakeRestConnectorServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.StandardMBean;
+import javax.management.remote.JMXConnectorServer;
+import javax.management.remote.JMXConnectorServerFactory;
+import javax.management.remote.JMXServiceURL;
+import java.lang.management.ManagementFactory;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LocalJMXServerManagerTest {
+    private static final String SERVLET_OBJECT_NAME = "WebSphere:type=ServletStats,name=local.HelloServlet";
+    private static final String APPLICATION_OBJECT_NAME = "WebSphere:service=com.ibm.websphere.application.ApplicationMBean,name=local";
+
+    @TempDir
+    Path stateDirectory;
+
+    private final MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+    private FakeRestConnectorServer restServer;
+    private JMXServerManager restServerManager;
+    private JMXConnectorServer connectorServer;
+    private Path addressFile;
+
+    public interface ServletStats {
+        long getRequestCount();
+
+        double getResponseTime();
+    }
+
+    public interface Application {
+        String getState();
+    }
+
+    @BeforeEach
+    void beforeEach() throws Exception {
+        restServer = new FakeRestConnectorServer(1).start();
+        restServerManager = new JMXServerManagerImpl(restServer.getBaseUrl(), restServer.getUsername(),
+                restServer.getPassword(), Duration.ofSeconds(30), 3);
+
+        mBeanServer.registerMBean(new StandardMBean(new ServletStats() {
+            @Override
+            public long getRequestCount() {
+                return 42;
+            }
+
+            @Override
+            public double getResponseTime() {
+                return 1250000.5;
+            }
+        }, ServletStats.class), new ObjectName(SERVLET_OBJECT_NAME));
+        mBeanServer.registerMBean(new StandardMBean((Application) () -> "STARTED", Application.class),
+                new ObjectName(APPLICATION_OBJECT_NAME));
+
+        // The RMI connector of the JVM on the loopback interface, as localConnector-1.0 starts it
+        connectorServer = JMXConnectorServerFactory.newJMXConnectorServer(
+                new JMXServiceURL("service:jmx:rmi://127.0.0.1"), null, mBeanServer);
+        connectorServer.start();
+        addressFile = stateDirectory.resolve("com.ibm.ws.jmx.local.address");
+        Files.writeString(addressFile, connectorServer.getAddress().toString());
+    }
+
+    @AfterEach
+    void afterEach() throws Exception {
+        if (connectorServer.isActive()) {
+            connectorServer.stop();
+        }
+        mBeanServer.unregisterMBean(new ObjectName(SERVLET_OBJECT_NAME));
+        mBeanServer.unregisterMBean(new ObjectName(APPLICATION_OBJECT_NAME));
+        restServer.close();
+    }
+
+    @Test
+    void readsThroughTheLocalConnector() throws Exception {
+        JMXServerManager manager = LocalJMXServerManager.createPreferringLocal(addressFile, restServerManager);
+        assertInstanceOf(LocalJMXServerManager.class, manager);
+        assertTrue(manager.isConnectable());
+
+        Map<MonitorStatsType, List<MBeanInfo>> monitorMBeans = manager.discoverMonitorMBeans();
+        assertEquals(1, monitorMBeans.get(MonitorStatsType.SERVLET).size());
+        MonitorSample sample = manager.sampleMonitorStats(monitorMBeans);
+        MonitorStats servlet = sample.getStats(MonitorStatsType.SERVLET).get(0);
+        assertEquals("local.HelloServlet", servlet.getName());
+        assertEquals(42, servlet.getValue("RequestCount"));
+        assertEquals(1250000.5, servlet.getValue("ResponseTime"));
+
+        JvmTelemetry telemetry = manager.sampleJvmTelemetry();
+        assertTrue(telemetry.getHeapUsed() > 0);
+        assertTrue(telemetry.getThreadCount() > 0);
+        assertFalse(telemetry.getGarbageCollectors().isEmpty());
+
+        // Composite values are described as the REST connector would
+        Map<String, Map<String, AttributeValue>> memory = manager.readAttributes(JMXConstants.MEMORY_MBEAN_OBJECT_NAME,
+                List.of(JMXConstants.MEMORY_MBEAN_HEAP_MEMORY_USAGE_ATTRIBUTE));
+        assertTrue(memory.get(JMXConstants.MEMORY_MBEAN_OBJECT_NAME).get(JMXConstants.MEMORY_MBEAN_HEAP_MEMORY_USAGE_ATTRIBUTE)
+                .getValue().contains("\"used\":"));
+
+        List<ApplicationStatus> applicationStatusList = manager.getAllApplicationStatus();
+        assertEquals(1, applicationStatusList.size());
+        assertEquals("local", applicationStatusList.get(0).getApplicationName());
+        assertEquals("STARTED", applicationStatusList.get(0).getStatus());
+    }
+
+    @Test
+    void fallsBackToRest() throws Exception {
+        // No local connector, the REST manager is used as is
+        assertSame(restServerManager, LocalJMXServerManager.createPreferringLocal(
+                stateDirectory.resolve("missing.address"), restServerManager));
+
+        // The local connector goes away, e.g. the server restarts, the calls go over REST
+        JMXServerManager manager = LocalJMXServerManager.createPreferringLocal(addressFile, restServerManager);
+        assertEquals("local", manager.getAllApplicationStatus().get(0).getApplicationName());
+        connectorServer.stop();
+        List<ApplicationStatus> applicationStatusList = manager.getAllApplicationStatus();
+        assertEquals(1, applicationStatusList.size());
+        assertEquals("app0", applicationStatusList.get(0).getApplicationName());
+    }
+
+    @Test
+    void unresponsiveConnectorFallsBackToRestInTime() throws Exception {
+        // Accepts the connection but never answers, as a hung server would
+        try (ServerSocket serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress())) {
+            Files.writeString(addressFile, "service:jmx:rmi:///jndi/rmi://127.0.0.1:" + serverSocket.getLocalPort() + "/jmxrmi");
+            long start = System.nanoTime();
+            assertSame(restServerManager, LocalJMXServerManager.createPreferringLocal(addressFile, restServerManager));
+            Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+            assertTrue(elapsed.compareTo(LocalJMXServerManager.CONNECT_TIMEOUT.plusSeconds(2)) < 0, "Took " + elapsed);
+
+            // The probe gives up on the local connector sooner than the connection, the REST connector answers
+            try (LocalJMXServerManager manager = new LocalJMXServerManager(addressFile, restServerManager)) {
+                assertTrue(manager.probe(JmxClient.DEFAULT_PROBE_TIMEOUT).isUp());
+                assertTrue(manager.isConnectable());
+            }
+        }
+    }
+
+    @Test
+    void readsTheApplicationStatusConcurrently() throws Exception {
+        // 32 applications answering in 300 ms, and one that answers too late
+        List<ObjectName> slowApplications = new ArrayList<>();
+        for (int i = 0; i < 32; i++) {
+            slowApplications.add(registerApplication("slow" + i, Duration.ofMillis(300)));
+        }
+        slowApplications.add(registerApplication("stuck", Duration.ofSeconds(3)));
+        try (LocalJMXServerManager manager = new LocalJMXServerManager(addressFile, restServerManager, Duration.ofSeconds(1))) {
+            long start = System.nanoTime();
+            List<ApplicationStatus> applicationStatusList = manager.getAllApplicationStatus();
+            Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+            // Read one after the other they would take 12.6 s
+            assertTrue(elapsed.compareTo(Duration.ofSeconds(3)) < 0, "Took " + elapsed);
+            assertEquals(34, applicationStatusList.size());
+            for (ApplicationStatus applicationStatus : applicationStatusList) {
+                if (applicationStatus.getApplicationName().equals("stuck")) {
+                    assertTrue(applicationStatus.isFailed());
+                } else {
+                    assertEquals("STARTED", applicationStatus.getStatus());
+                }
+            }
+        } finally {
+            for (ObjectName slowApplication : slowApplications) {
+                mBeanServer.unregisterMBean(slowApplication);
+            }
+        }
+    }
+
+    private ObjectName registerApplication(String name, Duration latency) throws Exception {
+        ObjectName objectName = new ObjectName("WebSphere:service=com.ibm.websphere.application.ApplicationMBean,name=" + name);
+        mBeanServer.registerMBean(new StandardMBean((Application) () -> {
+            try {
+                Thread.sleep(latency.toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "STARTED";
+        }, Application.class), objectName);
+        return objectName;
+    }
+}
@@ -0,0 +1,103 @@
+package dev.roshin.openliberty.repl.controllers.jmx;
+
+import dev.roshin.openliberty.repl.controllers.jmx.domain.MonitorSample;
+import dev.roshin.openliberty.repl.controllers.jmx.domain.MonitorStats;
+import dev.roshin.openliberty.repl.controllers.jmx.domain.MonitorStatsType;
+import dev.roshin.openliberty.repl.testing.FakeMBean;
+import dev.roshin.openliberty.repl.testing.FakeRestConnectorServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MonitorSamplerTest {
+    private static final String THREAD_POOL_OBJECT_NAME = "WebSphere:type=ThreadPoolStats,name=Default Executor";
+    private static final String SERVLET_OBJECT_NAME = "WebSphere:type=ServletStats,name=app1.HelloServlet";
+
+    private FakeRestConnectorServer server;
+    private JMXServerManager manager;
+
+    @BeforeEach
+    void beforeEach() throws Exception {
+        server = new FakeRestConnectorServer(1).start();
+        server.addMBean(new FakeMBean(THREAD_POOL_OBJECT_NAME, "com.ibm.ws.monitors.helper.ThreadPoolStats")
+                .setAttribute("PoolName", "Default Executor")
+                .setAttribute("ActiveThreads", 3)
+                .setAttribute("PoolSize", 8));
+        server.addMBean(new FakeMBean(SERVLET_OBJECT_NAME, "com.ibm.ws.webcontainer.monitor.ServletStats")
+                .setAttribute("RequestCount", 42L)
+                .setAttribute("ResponseTime", 1250000.5));
+        manager = new JMXServerManagerImpl(server.getBaseUrl(), server.getUsername(), server.getPassword(),
+                Duration.ofSeconds(30), 3);
+    }
+
+    @AfterEach
+    void afterEach() {
+        server.close();
+    }
+
+    @Test
+    void discoverAndSample() throws Exception {
+        MonitorSample sample = manager.sampleMonitorStats(manager.discoverMonitorMBeans());
+        assertEquals(0, sample.getMissingCount());
+        assertEquals(2, sample.getStats().size());
+
+        MonitorStats threadPool = sample.getStats(MonitorStatsType.THREAD_POOL).get(0);
+        assertEquals("Default Executor", threadPool.getName());
+        assertEquals(3, threadPool.getValue("ActiveThreads"));
+        assertEquals(8, threadPool.getValue("PoolSize"));
+        // Only the sampled attributes are read
+        assertEquals(2, threadPool.getValues().size());
+
+        MonitorStats servlet = sample.getStats(MonitorStatsType.SERVLET).get(0);
+        assertEquals("app1.HelloServlet", servlet.getName());
+        assertEquals(42, servlet.getValue("RequestCount"));
+        assertEquals(1250000.5, servlet.getValue("ResponseTime"));
+        assertTrue(sample.getStats(MonitorStatsType.SESSION).isEmpty());
+    }
+
+    @Test
+    void unregisteredMBeansAreDiscoveredAgain() throws Exception {
+        BlockingQueue<MonitorSample> samples = new LinkedBlockingQueue<>();
+        try (MonitorSampler sampler = new MonitorSampler(manager, samples::add, Duration.ofMillis(50),
+                Duration.ofMinutes(10))) {
+            sampler.start();
+            MonitorSample first = samples.poll(10, TimeUnit.SECONDS);
+            assertNotNull(first);
+            assertEquals(2, first.getStats().size());
+
+            // Discovery is not repeated while all the MBeans are there
+            server.resetRequestCount();
+            samples.clear();
+            assertNotNull(samples.poll(10, TimeUnit.SECONDS));
+            assertNotNull(samples.poll(10, TimeUnit.SECONDS));
+            assertTrue(server.getRequestCount() <= 3 * 2, "Only the attributes are read on each tick");
+
+            server.removeMBean(SERVLET_OBJECT_NAME);
+            MonitorSample sample = waitFor(samples, s -> s.getStats().size() == 1 && s.getMissingCount() == 0);
+            assertEquals(List.of("Default Executor"), sample.getStats().stream().map(MonitorStats::getName).toList());
+        }
+    }
+
+    private static MonitorSample waitFor(BlockingQueue<MonitorSample> samples,
+                                         Predicate<MonitorSample> condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (System.nanoTime() < deadline) {
+            MonitorSample sample = samples.poll(100, TimeUnit.MILLISECONDS);
+            if (sample != null && condition.test(sample)) {
+                return sample;
+            }
+        }
+        throw new AssertionError("No matching sample");
+    }
+}
@@ -0,0 +1,96 @@
+package dev.roshin.openliberty.repl.controllers.jmx.fleet;
+
+import dev.roshin.openliberty.repl.controllers.jmx.domain.ApplicationStatus;
+import dev.roshin.openliberty.repl.testing.FakeRestConnectorServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FleetManagerTest {
+    private static final int SERVER_COUNT = 4;
+    private static final Duration LATENCY = Duration.ofMillis(300);
+
+    private final List<FakeRestConnectorServer> servers = new ArrayList<>();
+    private FleetManager fleetManager;
+
+    @BeforeEach
+    void beforeEach() throws Exception {
+        fleetManager = new FleetManager(Duration.ofSeconds(2));
+        for (int i = 0; i < SERVER_COUNT; i++) {
+            FakeRestConnectorServer server = new FakeRestConnectorServer(3).start();
+            server.setLatency(LATENCY, Duration.ZERO);
+            servers.add(server);
+            fleetManager.register(new FleetEndpoint("server" + i, server.getBaseUrl(), server.getUsername(), server.getPassword()));
+        }
+    }
+
+    @AfterEach
+    void afterEach() {
+        fleetManager.close();
+        servers.forEach(FakeRestConnectorServer::close);
+    }
+
+    @Test
+    void serversAreQueriedConcurrently() {
+        List<String> streamed = new CopyOnWriteArrayList<>();
+        long start = System.nanoTime();
+        List<FleetResult<List<ApplicationStatus>>> results = fleetManager
+                .getAllApplicationStatusAsync(result -> streamed.add(result.getServerName())).join();
+        long elapsedMillis = Duration.ofNanos(System.nanoTime() - start).toMillis();
+
+        assertEquals(SERVER_COUNT, results.size());
+        assertEquals(SERVER_COUNT, streamed.size());
+        for (int i = 0; i < SERVER_COUNT; i++) {
+            FleetResult<List<ApplicationStatus>> result = results.get(i);
+            assertEquals("server" + i, result.getServerName());
+            assertFalse(result.isFailed(), result::getError);
+            assertEquals(3, result.getValue().size());
+        }
+        // The list and status requests of all the servers overlap, one after the other would take twice as long
+        long sequentialMillis = SERVER_COUNT * 2 * LATENCY.toMillis();
+        assertTrue(elapsedMillis < sequentialMillis / 2, "Took " + elapsedMillis + " ms");
+    }
+
+    @Test
+    void slowServersTimeOutAlone() {
+        servers.get(2).setLatency(Duration.ofSeconds(5), Duration.ZERO);
+        List<String> streamed = new CopyOnWriteArrayList<>();
+        List<FleetResult<List<ApplicationStatus>>> results = fleetManager
+                .getAllApplicationStatusAsync(result -> streamed.add(result.getServerName())).join();
+
+        // The slow server is the last one known, the others are not held up
+        assertEquals("server2", streamed.get(SERVER_COUNT - 1));
+        assertTrue(results.get(2).isFailed());
+        assertTrue(results.get(2).getError().startsWith("Timed out"), results.get(2).getError());
+        // It is not stopped, its requests were sent
+        assertTrue(results.get(2).getError().endsWith("still running"), results.get(2).getError());
+        assertEquals(SERVER_COUNT - 1, results.stream().filter(result -> !result.isFailed()).count());
+    }
+
+    @Test
+    void discoverEndpoints(@TempDir Path serversDirectory) throws Exception {
+        for (int i = 0; i < 2; i++) {
+            Path stateDirectory = Files.createDirectories(serversDirectory.resolve("server" + i).resolve("logs/state"));
+            Files.writeString(stateDirectory.resolve("com.ibm.ws.jmx.rest.address"), servers.get(i).getRestConnectorAddress());
+        }
+        // A stopped server without an address is left out
+        Files.createDirectories(serversDirectory.resolve("stopped"));
+
+        List<FleetEndpoint> endpoints = FleetManager.discoverEndpoints(serversDirectory, "user", "password");
+        assertEquals(2, endpoints.size());
+        assertEquals("server0", endpoints.get(0).getName());
+        assertEquals(servers.get(0).getBaseUrl().getPort(), endpoints.get(0).getBaseURL().getPort());
+    }
+}
@@ -0,0 +1,255 @@
+package dev.roshin.openliberty.repl.controllers.jmx.rest;
+
+import dev.roshin.openliberty.repl.controllers.jmx.rest.domain.JmxNotification;
+import dev.roshin.openliberty.repl.controllers.jmx.rest.domain.MBeanInfo;
+import dev.roshin.openliberty.repl.controllers.jmx.rest.domain.ProbeResult;
+import dev.roshin.openliberty.repl.controllers.jmx.rest.domain.attributes.AttributeValue;
+import dev.roshin.openliberty.repl.controllers.jmx.rest.exceptions.JmxRequestException;
+import dev.roshin.openliberty.repl.controllers.jmx.rest.metrics.JmxEndpoint;
+import dev.roshin.openliberty.repl.controllers.jmx.rest.resilience.CircuitBreaker;
+import dev.roshin.openliberty.repl.controllers.jmx.rest.resilience.ExponentialBackoffRetryPolicy;
+import dev.roshin.openliberty.repl.testing.FakeRestConnectorServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.URL;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JmxClientTest {
+    private static final int APPLICATION_COUNT = 2000;
+    private static FakeRestConnectorServer server;
+
+    @BeforeAll
+    static void beforeAll() throws Exception {
+        server = new FakeRestConnectorServer(APPLICATION_COUNT).start();
+    }
+
+    @AfterAll
+    static void afterAll() {
+        server.close();
+    }
+
+    private static JmxClient createClient() throws Exception {
+        return new JmxClient(server.getBaseUrl(), server.getUsername(), server.getPassword(), Duration.ofSeconds(30), 3);
+    }
+
+    @Test
+    void queryMBeans() throws Exception {
+        List<MBeanInfo> applications = createClient().queryMBeans(JMXConstants.APPLICATION_MBEAN_OBJECT_QUERY, null);
+        assertEquals(APPLICATION_COUNT, applications.size());
+    }
+
+    @Test
+    void readAttributes() throws Exception {
+        Map<String, Map<String, AttributeValue>> states = JmxClient.await(createClient().readAttributesAsync(
+                JMXConstants.APPLICATION_MBEAN_OBJECT_QUERY, List.of(JMXConstants.APPLICATION_MBEAN_STATE_ATTRIBUTE),
+                JmxClient.DEFAULT_MAX_CONCURRENT_REQUESTS));
+        assertEquals(APPLICATION_COUNT, states.size());
+        states.values().forEach(attributes -> {
+            // Only the requested attribute is returned
+            assertEquals(1, attributes.size());
+            assertEquals(FakeRestConnectorServer.APPLICATION_STATE_STARTED,
+                    attributes.get(JMXConstants.APPLICATION_MBEAN_STATE_ATTRIBUTE).getValue());
+        });
+    }
+
+    @Test
+    void wrongPassword() throws Exception {
+        JmxClient client = new JmxClient(server.getBaseUrl(), server.getUsername(), "wrong", Duration.ofSeconds(30), 3);
+        JmxRequestException exception = assertThrows(JmxRequestException.class, client::getMBeans);
+        assertEquals(401, exception.getStatusCode());
+    }
+
+    @Test
+    void retriesServerErrors() throws Exception {
+        JmxClient client = createClient();
+        server.failNextRequests(2, 503);
+        List<MBeanInfo> serverInfo = client.queryMBeans(JMXConstants.SERVER_INFO_MBEAN_OBJECT_QUERY, null);
+        assertEquals(1, serverInfo.size());
+        assertEquals(2, client.getMetrics().snapshot().getEndpoints().get(JmxEndpoint.QUERY).getRetries());
+    }
+
+    @Test
+    void doesNotRetryFailedInvokes() throws Exception {
+        JmxClient client = createClient();
+        MBeanInfo application = JmxClient.toMBeanInfo(server.getApplication("app2").getObjectName());
+        // The operation URL comes from the metadata, read it before counting
+        assertTrue(client.invokeOperation(application, JMXConstants.APPLICATION_MBEAN_RESTART_OPERATION));
+
+        // The restart may have run, sending it again could restart the application twice
+        server.failNextRequests(1, 503);
+        server.resetRequestCount();
+        assertFalse(client.invokeOperation(application, JMXConstants.APPLICATION_MBEAN_RESTART_OPERATION));
+        assertEquals(1, server.getRequestCount());
+    }
+
+    @Test
+    void serverErrorsDoNotOpenTheCircuitBreaker() throws Exception {
+        JmxClient client = new JmxClient(server.getBaseUrl(), server.getUsername(), server.getPassword(),
+                Duration.ofSeconds(30), 0);
+        // An MBean throwing, the server is up
+        server.failNextRequests(CircuitBreaker.DEFAULT_FAILURE_THRESHOLD + 1, 500);
+        for (int i = 0; i <= CircuitBreaker.DEFAULT_FAILURE_THRESHOLD; i++) {
+            assertThrows(JmxRequestException.class,
+                    () -> client.queryMBeans(JMXConstants.SERVER_INFO_MBEAN_OBJECT_QUERY, null));
+        }
+        assertEquals(CircuitBreaker.State.CLOSED, client.getCircuitBreaker().getState());
+        assertEquals(1, client.queryMBeans(JMXConstants.SERVER_INFO_MBEAN_OBJECT_QUERY, null).size());
+
+        // The server unavailable, the requests stop
+        server.failNextRequests(CircuitBreaker.DEFAULT_FAILURE_THRESHOLD, 503);
+        for (int i = 0; i < CircuitBreaker.DEFAULT_FAILURE_THRESHOLD; i++) {
+            assertThrows(JmxRequestException.class,
+                    () -> client.queryMBeans(JMXConstants.SERVER_INFO_MBEAN_OBJECT_QUERY, null));
+        }
+        assertEquals(CircuitBreaker.State.OPEN, client.getCircuitBreaker().getState());
+    }
+
+    @Test
+    void retriesReadsButNotWritesAfterTheRequestWasSent() {
+        ExponentialBackoffRetryPolicy retryPolicy = new ExponentialBackoffRetryPolicy(3);
+        JmxRequestException serverError = new JmxRequestException("Internal Server Error", 500);
+        assertTrue(retryPolicy.isRetryable("GET", serverError));
+        assertTrue(retryPolicy.isRetryable("GET", new HttpTimeoutException("timed out")));
+        assertFalse(retryPolicy.isRetryable("POST", serverError));
+        assertFalse(retryPolicy.isRetryable("POST", new HttpTimeoutException("timed out")));
+        assertFalse(retryPolicy.isRetryable("DELETE", new IOException("connection reset")));
+        // Never sent
+        assertTrue(retryPolicy.isRetryable("POST", new ConnectException("Connection refused")));
+        assertTrue(retryPolicy.isRetryable("DELETE", new ConnectException("Connection refused")));
+    }
+
+    @Test
+    void notifications() throws Exception {
+        JmxClient client = createClient();
+        BlockingQueue<JmxNotification> received = new LinkedBlockingQueue<>();
+        try (JmxNotificationClient notificationClient = client.createNotificationClient(Duration.ofSeconds(1))) {
+            notificationClient.addListener("WebSphere:service=com.ibm.websphere.application.ApplicationMBean,name=app1",
+                    received::addAll);
+            server.setApplicationState("app1", FakeRestConnectorServer.APPLICATION_STATE_STOPPED);
+            JmxNotification notification = received.poll(10, TimeUnit.SECONDS);
+            assertNotNull(notification);
+            assertEquals(JMXConstants.APPLICATION_MBEAN_STATE_ATTRIBUTE, notification.getAttributeName());
+            assertEquals(FakeRestConnectorServer.APPLICATION_STATE_STOPPED, notification.getNewValue());
+        } finally {
+            server.setApplicationState("app1", FakeRestConnectorServer.APPLICATION_STATE_STARTED);
+        }
+        assertTrue(received.stream().allMatch(notification -> notification.getSource().endsWith("name=app1")));
+    }
+
+    @Test
+    void removingTheLastListenerDeletesTheNotificationArea() throws Exception {
+        JmxClient client = createClient();
+        try (JmxNotificationClient notificationClient = client.createNotificationClient(Duration.ofSeconds(1))) {
+            JmxNotificationClient.Subscription first = notificationClient.addListener(
+                    "WebSphere:service=com.ibm.websphere.application.ApplicationMBean,name=app1", notifications -> {
+                    });
+            JmxNotificationClient.Subscription second = notificationClient.addListener(
+                    "WebSphere:service=com.ibm.websphere.application.ApplicationMBean,name=app2", notifications -> {
+                    });
+            assertEquals(1, server.getNotificationAreaCount());
+            first.close();
+            assertEquals(1, server.getNotificationAreaCount());
+            second.close();
+            awaitNotificationAreaCount(0);
+
+            // The next listener creates an area again
+            BlockingQueue<JmxNotification> received = new LinkedBlockingQueue<>();
+            notificationClient.addListener("WebSphere:service=com.ibm.websphere.application.ApplicationMBean,name=app1",
+                    received::addAll);
+            assertEquals(1, server.getNotificationAreaCount());
+            server.setApplicationState("app1", FakeRestConnectorServer.APPLICATION_STATE_STOPPED);
+            assertNotNull(received.poll(10, TimeUnit.SECONDS));
+        } finally {
+            server.setApplicationState("app1", FakeRestConnectorServer.APPLICATION_STATE_STARTED);
+        }
+        awaitNotificationAreaCount(0);
+    }
+
+    @Test
+    void closeDoesNotWaitForPendingRegistrations() throws Exception {
+        JmxClient client = createClient();
+        JmxNotificationClient notificationClient = client.createNotificationClient(Duration.ofSeconds(1));
+        server.setLatency(Duration.ofSeconds(2), Duration.ZERO);
+        try {
+            CompletableFuture<JmxNotificationClient.Subscription> adding = CompletableFuture.supplyAsync(() -> {
+                try {
+                    return notificationClient.addListener(JMXConstants.APPLICATION_MBEAN_OBJECT_QUERY, notifications -> {
+                    });
+                } catch (Exception e) {
+                    throw new CompletionException(e);
+                }
+            });
+            // The area is being created
+            Thread.sleep(200);
+            long start = System.nanoTime();
+            notificationClient.close();
+            assertTrue(Duration.ofNanos(System.nanoTime() - start).compareTo(Duration.ofMillis(500)) < 0);
+            // The listener is not added, the area created meanwhile is deleted
+            assertThrows(CompletionException.class, adding::join);
+        } finally {
+            server.setLatency(Duration.ZERO, Duration.ZERO);
+        }
+        awaitNotificationAreaCount(0);
+    }
+
+    private static void awaitNotificationAreaCount(int count) throws InterruptedException {
+        // The areas are deleted asynchronously
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (server.getNotificationAreaCount() != count && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        assertEquals(count, server.getNotificationAreaCount());
+    }
+
+    @Test
+    void probe() throws Exception {
+        JmxClient client = createClient();
+        ProbeResult up = client.probe(JmxClient.DEFAULT_PROBE_TIMEOUT);
+        assertEquals(ProbeResult.Status.UP, up.getStatus());
+        assertTrue(up.isConnected());
+        assertTrue(up.getServerStartTime() > 0);
+
+        JmxClient wrongPassword = new JmxClient(server.getBaseUrl(), server.getUsername(), "wrong", Duration.ofSeconds(30), 3);
+        ProbeResult unauthorized = wrongPassword.probe(JmxClient.DEFAULT_PROBE_TIMEOUT);
+        assertEquals(ProbeResult.Status.UNAUTHORIZED, unauthorized.getStatus());
+        assertTrue(unauthorized.isConnected());
+        assertFalse(unauthorized.isAuthenticated());
+
+        server.setLatency(Duration.ofMillis(500), Duration.ZERO);
+        try {
+            assertEquals(ProbeResult.Status.TIMEOUT, client.probe(Duration.ofMillis(100)).getStatus());
+        } finally {
+            server.setLatency(Duration.ZERO, Duration.ZERO);
+        }
+    }
+
+    @Test
+    void probeUnreachableServer() throws Exception {
+        URL baseUrl;
+        try (FakeRestConnectorServer stopped = new FakeRestConnectorServer(0).start()) {
+            baseUrl = stopped.getBaseUrl();
+        }
+        JmxClient client = new JmxClient(baseUrl, server.getUsername(), server.getPassword(), Duration.ofSeconds(30), 3);
+        ProbeResult unreachable = client.probe(JmxClient.DEFAULT_PROBE_TIMEOUT);
+        assertEquals(ProbeResult.Status.UNREACHABLE, unreachable.getStatus());
+        assertFalse(unreachable.isConnected());
+    }
+}
@@ -0,0 +1,108 @@
+package dev.roshin.openliberty.repl.controllers.shell;
+
+import dev.roshin.openliberty.repl.controllers.shell.exceptions.OpenLibertyScriptExecutionException;
+import dev.roshin.openliberty.repl.testing.FakeLibertyInstallation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OpenLibertyServerScriptWrapperAsyncTest {
+    private static final Duration COMMAND_DELAY = Duration.ofSeconds(1);
+
+    @TempDir
+    Path projectDirectory;
+
+    private FakeLibertyInstallation installation;
+
+    @BeforeEach
+    void beforeEach() throws Exception {
+        installation = new FakeLibertyInstallation(projectDirectory);
+    }
+
+    private OpenLibertyServerScriptWrapper createWrapper(Duration timeout) throws Exception {
+        return new OpenLibertyServerScriptWrapper(installation.loadLibertyPluginConfigs(),
+                projectDirectory.resolve("logs"), timeout);
+    }
+
+    @Test
+    void runsIndependentCommandsConcurrently() throws Exception {
+        installation.setRunning(true);
+        installation.setCommandDelay(COMMAND_DELAY);
+        OpenLibertyServerScriptWrapper wrapper = createWrapper(Duration.ofSeconds(30));
+
+        long start = System.nanoTime();
+        CompletableFuture<String> version = wrapper.versionAsync();
+        CompletableFuture<String> status = wrapper.statusAsync();
+        assertEquals(FakeLibertyInstallation.VERSION_OUTPUT, OpenLibertyServerScriptWrapper.await(version));
+        assertTrue(OpenLibertyServerScriptWrapper.await(status).contains("is running"));
+        // One delay for both, not one each
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).compareTo(COMMAND_DELAY.multipliedBy(2)) < 0);
+    }
+
+    @Test
+    void timeoutTerminatesTheScriptAndItsChildren() throws Exception {
+        installation.setCommandDelay(Duration.ofMinutes(5));
+        OpenLibertyServerScriptWrapper wrapper = createWrapper(Duration.ofSeconds(1));
+
+        CompletableFuture<String> version = wrapper.versionAsync();
+        List<ProcessHandle> scriptTree = awaitScriptTree();
+        OpenLibertyScriptExecutionException exception = assertThrows(OpenLibertyScriptExecutionException.class,
+                () -> OpenLibertyServerScriptWrapper.await(version));
+        assertEquals("Command execution timed out", exception.getMessage());
+        assertTrue(scriptTree.stream().noneMatch(ProcessHandle::isAlive));
+    }
+
+    @Test
+    void cancelTerminatesTheScriptAndItsChildren() throws Exception {
+        installation.setCommandDelay(Duration.ofMinutes(5));
+        OpenLibertyServerScriptWrapper wrapper = createWrapper(Duration.ofMinutes(5));
+
+        CompletableFuture<String> version = wrapper.versionAsync();
+        List<ProcessHandle> scriptTree = awaitScriptTree();
+        assertTrue(version.cancel(true));
+        for (ProcessHandle process : scriptTree) {
+            process.onExit().get(30, TimeUnit.SECONDS);
+        }
+        assertThrows(OpenLibertyScriptExecutionException.class, () -> OpenLibertyServerScriptWrapper.await(version));
+    }
+
+    @Test
+    void answersWithoutTheScriptWhenTheFilesTell() throws Exception {
+        installation.setCommandDelay(Duration.ofMinutes(5));
+        OpenLibertyServerScriptWrapper wrapper = createWrapper(Duration.ofSeconds(30));
+
+        CompletableFuture<Boolean> running = wrapper.isTheServerRunningAsync();
+        assertTrue(running.isDone());
+        assertFalse(running.get());
+    }
+
+    /**
+     * @return The script started by the test and its sleeping child, once the child is started
+     */
+    private static List<ProcessHandle> awaitScriptTree() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (System.nanoTime() < deadline) {
+            List<ProcessHandle> tree = ProcessHandle.current().children()
+                    .filter(process -> process.descendants().findAny().isPresent())
+                    .flatMap(process -> Stream.concat(Stream.of(process), process.descendants()))
+                    .toList();
+            if (!tree.isEmpty()) {
+                return tree;
+            }
+            Thread.sleep(20);
+        }
+        throw new AssertionError("The script did not start its child");
+    }
+}
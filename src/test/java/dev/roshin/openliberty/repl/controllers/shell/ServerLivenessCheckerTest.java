@@ -0,0 +1,90 @@
+package dev.roshin.openliberty.repl.controllers.shell;
+
+import dev.roshin.openliberty.repl.config.generated.LibertyPluginConfigs;
+import dev.roshin.openliberty.repl.testing.FakeLibertyInstallation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ServerLivenessCheckerTest {
+
+    @TempDir
+    Path projectDirectory;
+
+    private FakeLibertyInstallation installation;
+    private ServerLivenessChecker checker;
+
+    @BeforeEach
+    void beforeEach() throws Exception {
+        installation = new FakeLibertyInstallation(projectDirectory);
+        checker = new ServerLivenessChecker(installation.getServerDirectory(), installation.getServerName());
+    }
+
+    @Test
+    void stoppedWithoutFiles() {
+        assertEquals(ServerLivenessChecker.Liveness.STOPPED, checker.check());
+    }
+
+    @Test
+    void runningFromThePidFile() throws Exception {
+        installation.setRunning(true);
+        assertEquals(ServerLivenessChecker.Liveness.RUNNING, checker.check());
+        assertEquals(ProcessHandle.current().pid(), checker.findServerProcess().orElseThrow().pid());
+
+        installation.setRunning(false);
+        assertEquals(ServerLivenessChecker.Liveness.STOPPED, checker.check());
+    }
+
+    @Test
+    void stoppedWhenTheProcessExited() throws Exception {
+        Process process = new ProcessBuilder("true").start();
+        process.waitFor();
+        Files.createDirectories(installation.getPidFile().getParent());
+        Files.writeString(installation.getPidFile(), String.valueOf(process.pid()));
+        assertEquals(ServerLivenessChecker.Liveness.STOPPED, checker.check());
+    }
+
+    @Test
+    void ignoresAReusedProcessId() throws Exception {
+        installation.setRunning(true);
+        // Written long before this JVM started, the ID now belongs to another process
+        Files.setLastModifiedTime(installation.getPidFile(), FileTime.from(Instant.now().minus(Duration.ofDays(365))));
+        assertFalse(checker.findServerProcess().isPresent());
+    }
+
+    @Test
+    void runningWhileTheLockIsHeld() throws Exception {
+        Path lockFile = installation.getServerDirectory().resolve("workarea").resolve(".sLock");
+        Files.createDirectories(lockFile.getParent());
+        Files.createFile(lockFile);
+        // A server started in the foreground, only its lock tells
+        try (FileChannel channel = FileChannel.open(lockFile, StandardOpenOption.WRITE);
+             FileLock ignored = channel.lock()) {
+            assertEquals(ServerLivenessChecker.Liveness.RUNNING, checker.check());
+        }
+        assertEquals(ServerLivenessChecker.Liveness.STOPPED, checker.check());
+    }
+
+    @Test
+    void usedByTheScriptWrapper() throws Exception {
+        LibertyPluginConfigs libertyPluginConfigs = installation.loadLibertyPluginConfigs();
+        OpenLibertyServerScriptWrapper wrapper = new OpenLibertyServerScriptWrapper(libertyPluginConfigs,
+                projectDirectory.resolve("logs"), Duration.ofSeconds(30));
+        assertFalse(wrapper.isTheServerRunning());
+        installation.setRunning(true);
+        assertTrue(wrapper.isTheServerRunning());
+    }
+}
@@ -0,0 +1,59 @@
+package dev.roshin.openliberty.repl.controllers.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConcurrencyLimiterTest {
+    private static final int MAX_CONCURRENCY = 16;
+    private static final int QUEUED_TASKS = 5000;
+
+    @Test
+    void completesQueuedTasksThatFailAtOnce() throws Exception {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(MAX_CONCURRENCY);
+        List<CompletableFuture<Void>> gates = new ArrayList<>();
+        for (int i = 0; i < MAX_CONCURRENCY; i++) {
+            CompletableFuture<Void> gate = new CompletableFuture<>();
+            gates.add(gate);
+            limiter.submit(() -> gate);
+        }
+        // Queued behind the gates, they fail as soon as they are started, e.g. while a circuit breaker is open
+        List<CompletableFuture<Object>> queued = new ArrayList<>();
+        for (int i = 0; i < QUEUED_TASKS; i++) {
+            queued.add(limiter.submit(() -> CompletableFuture.failedFuture(new IllegalStateException("open"))));
+        }
+        assertEquals(MAX_CONCURRENCY, limiter.getInFlight());
+
+        gates.forEach(gate -> gate.complete(null));
+        CompletableFuture.allOf(queued.toArray(new CompletableFuture<?>[0]))
+                .handle((value, throwable) -> null)
+                .get(30, TimeUnit.SECONDS);
+        assertTrue(queued.stream().allMatch(CompletableFuture::isCompletedExceptionally));
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    void neverRunsMoreThanTheLimit() throws Exception {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(2);
+        List<CompletableFuture<Void>> gates = new ArrayList<>();
+        List<CompletableFuture<Void>> results = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            CompletableFuture<Void> gate = new CompletableFuture<>();
+            gates.add(gate);
+            results.add(limiter.submit(() -> gate));
+        }
+        assertEquals(2, limiter.getInFlight());
+        for (CompletableFuture<Void> gate : gates) {
+            gate.complete(null);
+            assertTrue(limiter.getInFlight() <= 2);
+        }
+        CompletableFuture.allOf(results.toArray(new CompletableFuture<?>[0])).get(30, TimeUnit.SECONDS);
+        assertEquals(0, limiter.getInFlight());
+    }
+}
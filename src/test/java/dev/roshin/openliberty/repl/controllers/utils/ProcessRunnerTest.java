@@ -0,0 +1,92 @@
+package dev.roshin.openliberty.repl.controllers.utils;
+
+import dev.roshin.openliberty.repl.controllers.shell.OpenLibertyServerScriptWrapper;
+import dev.roshin.openliberty.repl.controllers.shell.exceptions.OpenLibertyScriptExecutionException;
+import dev.roshin.openliberty.repl.testing.FakeLibertyInstallation;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ProcessRunnerTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void readsTheOutputAndMirrorsItToTheLog() throws Exception {
+        Path logFile = directory.resolve("command.log");
+        List<String> received = new CopyOnWriteArrayList<>();
+        ProcessRunner processRunner = new ProcessRunner(
+                new ProcessBuilder("sh", "-c", "echo '  first  '; echo; echo second >&2"), logFile)
+                .addListener(received::add);
+        processRunner.start();
+
+        assertTrue(processRunner.waitFor(Duration.ofSeconds(30)));
+        assertEquals(0, processRunner.getProcess().exitValue());
+        assertEquals("first\nsecond", processRunner.getOutput());
+        assertEquals(List.of("  first  ", "", "second"), received);
+        assertFalse(processRunner.isTruncated());
+
+        assertEquals(logFile, processRunner.getLogWritten().get(30, TimeUnit.SECONDS));
+        assertEquals(List.of("  first  ", "", "second"), Files.readAllLines(logFile));
+    }
+
+    @Test
+    void givesTheLinesAsTheyArrive() throws Exception {
+        CountDownLatch firstLine = new CountDownLatch(1);
+        // The second line is only written once the first one was received
+        Path gate = directory.resolve("gate");
+        ProcessRunner processRunner = new ProcessRunner(new ProcessBuilder("sh", "-c",
+                "echo started; while [ ! -f '" + gate + "' ]; do sleep 0.05; done; echo done"), null)
+                .addListener(line -> {
+                    if (line.equals("started")) {
+                        firstLine.countDown();
+                    }
+                });
+        processRunner.start();
+
+        assertTrue(firstLine.await(30, TimeUnit.SECONDS));
+        assertFalse(processRunner.getProcess().waitFor(0, TimeUnit.SECONDS));
+        Files.createFile(gate);
+        assertTrue(processRunner.waitFor(Duration.ofSeconds(30)));
+        assertEquals("started\ndone", processRunner.getOutput());
+    }
+
+    @Test
+    void keepsTheEndOfALargeOutput() throws Exception {
+        ProcessRunner processRunner = new ProcessRunner(new ProcessBuilder("sh", "-c",
+                "i=0; while [ $i -lt 1000 ]; do echo line$i; i=$((i+1)); done"), null, 100);
+        processRunner.start();
+
+        assertTrue(processRunner.waitFor(Duration.ofSeconds(30)));
+        assertTrue(processRunner.isTruncated());
+        List<String> lines = processRunner.getLines();
+        assertTrue(lines.size() < 20);
+        assertEquals("line999", lines.get(lines.size() - 1));
+    }
+
+    @Test
+    void runsTheServerScript() throws Exception {
+        FakeLibertyInstallation installation = new FakeLibertyInstallation(directory);
+        OpenLibertyServerScriptWrapper wrapper = new OpenLibertyServerScriptWrapper(
+                installation.loadLibertyPluginConfigs(), directory.resolve("logs"), Duration.ofSeconds(30));
+
+        assertEquals(FakeLibertyInstallation.VERSION_OUTPUT, wrapper.version());
+        // The message of a failed command is the output of the script
+        OpenLibertyScriptExecutionException exception = assertThrows(OpenLibertyScriptExecutionException.class,
+                wrapper::stop);
+        assertTrue(exception.getMessage().contains("is not running"));
+    }
+}
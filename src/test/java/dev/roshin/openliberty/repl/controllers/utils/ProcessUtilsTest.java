@@ -0,0 +1,29 @@
+package dev.roshin.openliberty.repl.controllers.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ProcessUtilsTest {
+
+    @Test
+    void destroysForciblyAProcessTreeIgnoringTheTermination() throws Exception {
+        // The ignored SIGTERM is inherited by the child
+        Process process = new ProcessBuilder("sh", "-c", "trap '' TERM; sleep 300 & wait").start();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (process.descendants().findAny().isEmpty() && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        List<ProcessHandle> descendants = process.descendants().toList();
+        assertFalse(descendants.isEmpty());
+
+        assertTrue(ProcessUtils.destroyProcessTree(process.toHandle(), Duration.ofMillis(500)));
+        assertFalse(process.isAlive());
+        assertTrue(descendants.stream().noneMatch(ProcessHandle::isAlive));
+    }
+}
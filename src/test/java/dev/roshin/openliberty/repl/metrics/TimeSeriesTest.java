@@ -0,0 +1,118 @@
+package dev.roshin.openliberty.repl.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TimeSeriesTest {
+
+    @Test
+    void rawValuesWrapAround() {
+        TimeSeries series = new TimeSeries("test", 10, 10, 10);
+        for (int i = 0; i < 25; i++) {
+            series.record(i * 1000L, i);
+        }
+        TimeSeriesPoints points = series.getPoints(Resolution.RAW, 0, Long.MAX_VALUE);
+        // Only the last 10 values are kept
+        assertEquals(10, points.size());
+        assertEquals(15, points.getAverage(0));
+        assertEquals(24, points.getAverage(9));
+        assertEquals(24, series.getLastValue());
+
+        RangeStats stats = series.getStats(18_000, 22_000);
+        assertEquals(5, stats.getCount());
+        assertEquals(18, stats.getMin());
+        assertEquals(22, stats.getMax());
+        assertEquals(20, stats.getAverage());
+        assertEquals(20, stats.getPercentile(50));
+        assertEquals(22, stats.getPercentile(99));
+    }
+
+    @Test
+    void rollups() {
+        TimeSeries series = new TimeSeries("test", 5, 100, 100);
+        // One value per second for two minutes and a half
+        for (int i = 0; i < 150; i++) {
+            series.record(i * 1000L, i % 10);
+        }
+        // The raw values no longer cover the start, the 10 second rollups do
+        assertEquals(Resolution.TEN_SECONDS, series.getResolution(0));
+        TimeSeriesPoints tenSeconds = series.getPoints(0, Long.MAX_VALUE);
+        // The bucket in progress is not visible yet
+        assertEquals(14, tenSeconds.size());
+        assertEquals(0, tenSeconds.getMin(0));
+        assertEquals(9, tenSeconds.getMax(0));
+        assertEquals(4.5, tenSeconds.getAverage(0));
+        assertEquals(10, tenSeconds.getCount(0));
+
+        TimeSeriesPoints oneMinute = series.getPoints(Resolution.ONE_MINUTE, 0, Long.MAX_VALUE);
+        assertEquals(2, oneMinute.size());
+        assertEquals(60_000, oneMinute.getTimestamp(1));
+        assertEquals(60, oneMinute.getCount(1));
+
+        RangeStats stats = series.getStats(0, Long.MAX_VALUE);
+        assertEquals(140, stats.getCount());
+        assertEquals(4.5, stats.getAverage());
+        assertEquals(0, stats.getMin());
+        assertEquals(9, stats.getMax());
+    }
+
+    @Test
+    void emptyRange() {
+        TimeSeries series = new TimeSeries("test", 10, 10, 10);
+        series.record(1000, Double.NaN);
+        RangeStats stats = series.getStats(0, Long.MAX_VALUE);
+        assertEquals(0, stats.getCount());
+        assertTrue(Double.isNaN(stats.getAverage()));
+        assertTrue(Double.isNaN(stats.getPercentile(50)));
+    }
+
+    @Test
+    void readersNeverSeeTornPoints() throws Exception {
+        TimeSeries series = new TimeSeries("test", 64, 16, 16);
+        AtomicBoolean done = new AtomicBoolean();
+        AtomicReference<String> failure = new AtomicReference<>();
+        Thread reader = new Thread(() -> {
+            while (!done.get()) {
+                TimeSeriesPoints points = series.getPoints(Resolution.RAW, 0, Long.MAX_VALUE);
+                for (int i = 0; i < points.size(); i++) {
+                    // The writer records the timestamp as the value
+                    if (points.getAverage(i) != points.getTimestamp(i)) {
+                        failure.set("Torn point " + points.getTimestamp(i) + " " + points.getAverage(i));
+                    }
+                    if (i > 0 && points.getTimestamp(i) != points.getTimestamp(i - 1) + 1) {
+                        failure.set("Out of order point " + points.getTimestamp(i));
+                    }
+                }
+            }
+        });
+        reader.start();
+        for (long i = 0; i < 2_000_000; i++) {
+            series.record(i, i);
+        }
+        done.set(true);
+        reader.join();
+        assertNull(failure.get());
+    }
+
+    @Test
+    void storeIsBounded() {
+        TimeSeriesStore store = new TimeSeriesStore(10, 10, 10, 2);
+        assertTrue(store.record("a", 0, 1));
+        assertTrue(store.record("b", 0, 1));
+        assertFalse(store.record("c", 0, 1));
+        assertTrue(store.record("a", 1, 2));
+        assertEquals(2, store.getNames().size());
+        long footprint = store.getFootprintBytes();
+        for (int i = 2; i < 1000; i++) {
+            store.record("a", i, i);
+        }
+        assertEquals(footprint, store.getFootprintBytes());
+    }
+}
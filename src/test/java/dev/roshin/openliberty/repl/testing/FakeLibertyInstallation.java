@@ -0,0 +1,218 @@
+package dev.roshin.openliberty.repl.testing;
+
+import com.google.common.base.Preconditions;
+import dev.roshin.openliberty.repl.config.exceptions.ConfigurationReaderException;
+import dev.roshin.openliberty.repl.config.generated.LibertyPluginConfigs;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * A fake Liberty project on disk, for tests and benchmarks that need the files a real server source has, without a
+ * Liberty installation.
+ * <p>
+ * It has a target/liberty-plugin-config.xml pointing at a fake installation, whose bin/server script answers the
+ * start, stop, status and version commands with the messages of the real script. Like the real script, it writes the
+ * process ID of the started server to usr/servers/.pid, the process ID of the JVM that ran it, so that it is alive,
+ * and keeps its own running state in the workarea of the server. Each command can be made slow, run by a child process
+ * of the script. The REST connector address of a {@link FakeRestConnectorServer} can be written where the server
+ * writes it.
+ * <p>
+ * The server script is a POSIX shell script, there is no server.bat.
+ */
+public class FakeLibertyInstallation {
+    public static final String VERSION_OUTPUT = "Open Liberty " + FakeRestConnectorServer.LIBERTY_VERSION
+            + " (1.0.78.cl230620230612-1100) on OpenJDK 64-Bit Server VM, version 17.0.8+7 (en_US)";
+
+    private final Path projectDirectory;
+    private final Path installDirectory;
+    private final Path serverDirectory;
+    private final Path libertyPluginConfigFile;
+    private final String serverName;
+    private final Logger logger;
+
+    /**
+     * Creates the fake project under the given directory
+     *
+     * @param projectDirectory The project directory, created if it does not exist
+     * @throws IOException If the files cannot be written
+     */
+    public FakeLibertyInstallation(Path projectDirectory) throws IOException {
+        this.logger = LoggerFactory.getLogger(getClass());
+        Preconditions.checkNotNull(projectDirectory, "projectDirectory cannot be null");
+
+        this.projectDirectory = projectDirectory.toAbsolutePath();
+        this.serverName = FakeRestConnectorServer.SERVER_NAME;
+        Path targetDirectory = this.projectDirectory.resolve("target");
+        this.installDirectory = targetDirectory.resolve("liberty").resolve("wlp");
+        this.serverDirectory = installDirectory.resolve("usr").resolve("servers").resolve(serverName);
+        this.libertyPluginConfigFile = targetDirectory.resolve("liberty-plugin-config.xml");
+
+        Files.createDirectories(serverDirectory.resolve("logs").resolve("state"));
+        Files.createDirectories(serverDirectory.resolve("workarea"));
+        Files.createDirectories(serverDirectory.resolve("apps"));
+        writeServerScript();
+        writeLibertyPluginConfig();
+        logger.debug("Created fake Liberty installation in {}", this.projectDirectory);
+    }
+
+    /**
+     * Writes the address of the fake REST connector where the server writes the address of the real one
+     *
+     * @param restConnectorServer The started fake REST connector
+     * @throws IOException If the file cannot be written
+     */
+    public void writeRestConnectorAddress(FakeRestConnectorServer restConnectorServer) throws IOException {
+        Files.writeString(serverDirectory.resolve("logs/state/com.ibm.ws.jmx.rest.address"),
+                restConnectorServer.getRestConnectorAddress());
+    }
+
+    /**
+     * @param running Whether the server script reports the server as running
+     * @throws IOException If the state cannot be changed
+     */
+    public void setRunning(boolean running) throws IOException {
+        Path runningFile = serverDirectory.resolve("workarea").resolve(".running");
+        Path pidFile = getPidFile();
+        if (running) {
+            Files.writeString(runningFile, String.valueOf(ProcessHandle.current().pid()));
+            Files.createDirectories(pidFile.getParent());
+            Files.writeString(pidFile, String.valueOf(ProcessHandle.current().pid()));
+        } else {
+            Files.deleteIfExists(runningFile);
+            Files.deleteIfExists(pidFile);
+        }
+    }
+
+    /**
+     * @param delay How long each command of the server script sleeps, in a child process, before it runs, null for none
+     * @throws IOException If the delay cannot be changed
+     */
+    public void setCommandDelay(Duration delay) throws IOException {
+        Path delayFile = installDirectory.resolve("bin").resolve(".delay");
+        if (delay != null) {
+            Files.writeString(delayFile, String.format(Locale.ROOT, "%.3f", delay.toMillis() / 1000.0));
+        } else {
+            Files.deleteIfExists(delayFile);
+        }
+    }
+
+    /**
+     * @return The loaded configuration of the fake project
+     * @throws ConfigurationReaderException If it cannot be loaded
+     */
+    public LibertyPluginConfigs loadLibertyPluginConfigs() throws ConfigurationReaderException {
+        return new LibertyPluginConfigs(libertyPluginConfigFile);
+    }
+
+    public Path getProjectDirectory() {
+        return projectDirectory;
+    }
+
+    public Path getInstallDirectory() {
+        return installDirectory;
+    }
+
+    public Path getServerDirectory() {
+        return serverDirectory;
+    }
+
+    public Path getLibertyPluginConfigFile() {
+        return libertyPluginConfigFile;
+    }
+
+    /**
+     * @return Where the server script writes the process ID of the started server
+     */
+    public Path getPidFile() {
+        return serverDirectory.getParent().resolve(".pid").resolve(serverName + ".pid");
+    }
+
+    public String getServerName() {
+        return serverName;
+    }
+
+    private void writeServerScript() throws IOException {
+        Path binDirectory = installDirectory.resolve("bin");
+        Files.createDirectories(binDirectory);
+        Path script = binDirectory.resolve("server");
+        // Same messages and exit codes as the real script, the running state is a file with the process ID
+        Files.writeString(script, String.join("\n",
+                "#!/bin/sh",
+                "SERVER_DIR=\"$(cd \"$(dirname \"$0\")/..\" && pwd)/usr/servers/$2\"",
+                "RUNNING=\"$SERVER_DIR/workarea/.running\"",
+                "PID_FILE=\"$SERVER_DIR/../.pid/$2.pid\"",
+                "DELAY_FILE=\"$(dirname \"$0\")/.delay\"",
+                "if [ -f \"$DELAY_FILE\" ]; then sleep \"$(cat \"$DELAY_FILE\")\"; fi",
+                "case \"$1\" in",
+                "  start)",
+                "    echo \"Starting server $2.\"",
+                "    mkdir -p \"$(dirname \"$PID_FILE\")\"",
+                "    echo $PPID > \"$RUNNING\"",
+                "    echo $PPID > \"$PID_FILE\"",
+                "    echo \"Server $2 started with process ID $PPID.\"",
+                "    ;;",
+                "  stop)",
+                "    echo \"Stopping server $2.\"",
+                "    if [ ! -f \"$RUNNING\" ]; then echo \"Server $2 is not running.\"; exit 1; fi",
+                "    rm -f \"$RUNNING\" \"$PID_FILE\"",
+                "    echo \"Server $2 stopped.\"",
+                "    ;;",
+                "  status)",
+                "    if [ -f \"$RUNNING\" ]; then",
+                "      echo \"Server $2 is running with process ID $(cat \"$RUNNING\").\"",
+                "    else",
+                "      echo \"Server $2 is not running.\"",
+                "      exit 1",
+                "    fi",
+                "    ;;",
+                "  version)",
+                "    echo \"" + VERSION_OUTPUT + "\"",
+                "    ;;",
+                "  *)",
+                "    echo \"Usage: server {start|stop|status|version} serverName\"",
+                "    exit 2",
+                "    ;;",
+                "esac",
+                ""));
+        Files.setPosixFilePermissions(script, PosixFilePermissions.fromString("rwxr-xr-x"));
+    }
+
+    private void writeLibertyPluginConfig() throws IOException {
+        Path targetDirectory = libertyPluginConfigFile.getParent();
+        Files.writeString(libertyPluginConfigFile, String.join("\n",
+                "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"no\"?>",
+                "<liberty-plugin-config version=\"2.0\">",
+                "    <installDirectory>" + installDirectory + "</installDirectory>",
+                "    <serverDirectory>" + serverDirectory + "</serverDirectory>",
+                "    <userDirectory>" + installDirectory.resolve("usr") + "</userDirectory>",
+                "    <serverOutputDirectory>" + serverDirectory + "</serverOutputDirectory>",
+                "    <serverName>" + serverName + "</serverName>",
+                "    <configDirectory>" + projectDirectory.resolve("src/main/liberty/config") + "</configDirectory>",
+                "    <configFile>" + projectDirectory.resolve("src/main/liberty/config/server.xml") + "</configFile>",
+                "    <appsDirectory>apps</appsDirectory>",
+                "    <looseApplication>true</looseApplication>",
+                "    <stripVersion>false</stripVersion>",
+                "    <installAppPackages>project</installAppPackages>",
+                "    <applicationFilename>fake.war</applicationFilename>",
+                "    <assemblyArtifact>",
+                "        <groupId>io.openliberty</groupId>",
+                "        <artifactId>openliberty-kernel</artifactId>",
+                "        <version>" + FakeRestConnectorServer.LIBERTY_VERSION + "</version>",
+                "        <type>zip</type>",
+                "    </assemblyArtifact>",
+                "    <assemblyArchive>" + targetDirectory.resolve("openliberty-kernel.zip") + "</assemblyArchive>",
+                "    <assemblyInstallDirectory>" + targetDirectory.resolve("liberty") + "</assemblyInstallDirectory>",
+                "    <refresh>false</refresh>",
+                "    <installAppsConfigDropins>" + serverDirectory.resolve("configDropins/defaults/install_apps_configuration_1491924271.xml") + "</installAppsConfigDropins>",
+                "    <projectType>war</projectType>",
+                "</liberty-plugin-config>",
+                ""));
+    }
+}
@@ -0,0 +1,64 @@
+package dev.roshin.openliberty.repl.testing;
+
+import com.google.common.base.Preconditions;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * An MBean served by the {@link FakeRestConnectorServer}, with simple attribute values and operations.
+ */
+public class FakeMBean {
+    private final String objectName;
+    private final String className;
+    private final Map<String, Object> attributes = new ConcurrentHashMap<>();
+    private final Map<String, Function<FakeMBean, Object>> operations = new ConcurrentHashMap<>();
+
+    public FakeMBean(String objectName, String className) {
+        Preconditions.checkNotNull(objectName, "objectName cannot be null");
+        Preconditions.checkNotNull(className, "className cannot be null");
+        this.objectName = objectName;
+        this.className = className;
+    }
+
+    public String getObjectName() {
+        return objectName;
+    }
+
+    public String getClassName() {
+        return className;
+    }
+
+    public Map<String, Object> getAttributes() {
+        return attributes;
+    }
+
+    public Object getAttribute(String name) {
+        return attributes.get(name);
+    }
+
+    /**
+     * @param name  The attribute name
+     * @param value A string, number or boolean
+     * @return This MBean
+     */
+    public FakeMBean setAttribute(String name, Object value) {
+        attributes.put(name, value);
+        return this;
+    }
+
+    public Map<String, Function<FakeMBean, Object>> getOperations() {
+        return operations;
+    }
+
+    /**
+     * @param name      The operation name
+     * @param operation Called with this MBean when the operation is invoked, returns the result, can be null
+     * @return This MBean
+     */
+    public FakeMBean addOperation(String name, Function<FakeMBean, Object> operation) {
+        operations.put(name, operation);
+        return this;
+    }
+}
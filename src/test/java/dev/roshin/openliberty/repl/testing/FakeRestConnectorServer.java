@@ -0,0 +1,770 @@
+package dev.roshin.openliberty.repl.testing;
+
+import com.google.common.base.Preconditions;
+import com.google.common.base.Strings;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonPrimitive;
+import com.sun.net.httpserver.BasicAuthenticator;
+import com.sun.net.httpserver.HttpContext;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import com.sun.net.httpserver.HttpsConfigurator;
+import com.sun.net.httpserver.HttpsServer;
+import dev.roshin.openliberty.repl.controllers.jmx.rest.JMXConstants;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.management.MalformedObjectNameException;
+import javax.management.ObjectName;
+import javax.net.ssl.KeyManagerFactory;
+import javax.net.ssl.SSLContext;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyStore;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A stand-in for the IBMJMXConnectorREST connector of a Liberty server, built on the JDK HTTP server, for tests and
+ * benchmarks that exercise the JMX client without a real server.
+ * <p>
+ * It serves the mbeans, attributes, operations and notifications URLs, over TLS with a self-signed certificate and
+ * basic authentication, like the development server. The MBean population is configurable, from a handful of
+ * applications to many thousands, and latency and errors can be injected while it runs.
+ * <p>
+ * The self-signed certificate is created with the keytool of the running JDK.
+ */
+public class FakeRestConnectorServer implements AutoCloseable {
+    public static final String DEFAULT_USERNAME = "admin";
+    public static final String DEFAULT_PASSWORD = "adminpwd";
+    public static final String SERVER_NAME = "defaultServer";
+    public static final String LIBERTY_VERSION = "23.0.0.6";
+    public static final String APPLICATION_STATE_STARTED = "STARTED";
+    public static final String APPLICATION_STATE_STOPPED = "STOPPED";
+
+    private static final String CONTEXT_ROOT = "/IBMJMXConnectorREST";
+    private static final String MBEANS_PATH = CONTEXT_ROOT + "/mbeans";
+    private static final long FIRST_PID = 4242;
+    private static final String NOTIFICATIONS_PATH = CONTEXT_ROOT + "/notifications";
+    private static final String APPLICATION_OBJECT_NAME_PREFIX = "WebSphere:service=com.ibm.websphere.application.ApplicationMBean,name=";
+    private static final String KEYSTORE_PASSWORD = "fakeServerPassword";
+    private static final Duration MAX_INBOX_WAIT = Duration.ofSeconds(30);
+
+    private final boolean tls;
+    private final String username;
+    private final String password;
+    private final Map<String, FakeMBean> mBeans = new ConcurrentSkipListMap<>();
+    private final Map<Integer, NotificationArea> notificationAreas = new ConcurrentHashMap<>();
+    private final AtomicInteger nextNotificationAreaId = new AtomicInteger(1);
+    private final AtomicLong nextSequenceNumber = new AtomicLong(1);
+    private final AtomicInteger requestCount = new AtomicInteger();
+    private final AtomicInteger failNextRequests = new AtomicInteger();
+    private final AtomicBoolean frameworkShutdown = new AtomicBoolean();
+    private final Logger logger;
+    private volatile Duration latency = Duration.ZERO;
+    private volatile Duration latencyJitter = Duration.ZERO;
+    private volatile double errorRate;
+    private volatile int errorStatusCode = 500;
+    private HttpServer server;
+    private ExecutorService executor;
+
+    /**
+     * Creates a server with TLS, the default credentials and the given number of applications
+     *
+     * @param applicationCount The number of ApplicationMBeans
+     */
+    public FakeRestConnectorServer(int applicationCount) {
+        this(applicationCount, true, DEFAULT_USERNAME, DEFAULT_PASSWORD);
+    }
+
+    /**
+     * @param applicationCount The number of ApplicationMBeans, named app0, app1 and so on
+     * @param tls              Whether to serve https rather than http
+     * @param username         The basic authentication user name
+     * @param password         The basic authentication password
+     */
+    public FakeRestConnectorServer(int applicationCount, boolean tls, String username, String password) {
+        this.logger = LoggerFactory.getLogger(getClass());
+        Preconditions.checkArgument(applicationCount >= 0, "applicationCount cannot be negative");
+        Preconditions.checkArgument(!Strings.isNullOrEmpty(username), "username cannot be null or empty");
+        Preconditions.checkArgument(!Strings.isNullOrEmpty(password), "password cannot be null or empty");
+
+        this.tls = tls;
+        this.username = username;
+        this.password = password;
+
+        // The MBeans every server has
+        putMBean(new FakeMBean(JMXConstants.MBEAN_SERVER_DELEGATE_OBJECT_NAME, "javax.management.MBeanServerDelegate"));
+        putMBean(new FakeMBean(JMXConstants.SERVER_INFO_MBEAN_OBJECT_QUERY, "com.ibm.ws.kernel.server.internal.ServerInfoMBeanImpl")
+                .setAttribute("Name", SERVER_NAME)
+                .setAttribute("DefaultHostname", "localhost")
+                .setAttribute("UserDirectory", "/opt/wlp/usr/")
+                .setAttribute("InstallDirectory", "/opt/wlp/")
+                .setAttribute("LibertyVersion", LIBERTY_VERSION)
+                .setAttribute("JavaSpecVersion", "17")
+                .setAttribute("JavaRuntimeVersion", "17.0.8+7"));
+        putMBean(new FakeMBean(JMXConstants.RUNTIME_MBEAN_OBJECT_NAME, "sun.management.RuntimeImpl")
+                .setAttribute(JMXConstants.RUNTIME_MBEAN_NAME_ATTRIBUTE, FIRST_PID + "@localhost")
+                .setAttribute(JMXConstants.RUNTIME_MBEAN_START_TIME_ATTRIBUTE, System.currentTimeMillis())
+                .setAttribute(JMXConstants.RUNTIME_MBEAN_VM_NAME_ATTRIBUTE, "OpenJDK 64-Bit Server VM"));
+        putMBean(new FakeMBean("osgi.core:type=framework,version=1.7,framework=org.eclipse.osgi,uuid=" + UUID.randomUUID(),
+                "org.apache.aries.jmx.framework.Framework")
+                .addOperation(JMXConstants.FRAMEWORK_MBEAN_SHUTDOWN_OPERATION, mBean -> {
+                    frameworkShutdown.set(true);
+                    return null;
+                }));
+        addApplications(0, applicationCount);
+    }
+
+    /**
+     * Starts serving on a free port of the loopback address
+     *
+     * @return This server
+     * @throws IOException If the server cannot be started
+     */
+    public FakeRestConnectorServer start() throws IOException {
+        logger.debug("Starting fake REST connector server");
+        InetSocketAddress address = new InetSocketAddress(InetAddress.getLoopbackAddress(), 0);
+        if (tls) {
+            HttpsServer httpsServer = HttpsServer.create(address, 0);
+            httpsServer.setHttpsConfigurator(new HttpsConfigurator(createSslContext()));
+            server = httpsServer;
+        } else {
+            server = HttpServer.create(address, 0);
+        }
+        // Enough threads for long-polling requests and concurrent clients
+        executor = Executors.newCachedThreadPool(new ThreadFactoryBuilder()
+                .setNameFormat("fake-rest-connector-%d")
+                .setDaemon(true)
+                .build());
+        server.setExecutor(executor);
+        HttpContext context = server.createContext(CONTEXT_ROOT, this::handle);
+        context.setAuthenticator(new BasicAuthenticator("jmx") {
+            @Override
+            public boolean checkCredentials(String user, String pwd) {
+                return username.equals(user) && password.equals(pwd);
+            }
+        });
+        server.start();
+        logger.debug("Fake REST connector server listening on {}", getBaseUrl());
+        return this;
+    }
+
+    /**
+     * Stops the server, the pending long-polling requests are dropped
+     */
+    @Override
+    public void close() {
+        if (server != null) {
+            server.stop(0);
+            executor.shutdownNow();
+            server = null;
+        }
+    }
+
+    /**
+     * @return The base URL of the server, without the context root
+     */
+    public URL getBaseUrl() {
+        Preconditions.checkState(server != null, "The server is not started");
+        try {
+            return new URL(tls ? "https" : "http", "localhost", server.getAddress().getPort(), "");
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * @return The URL the server would write to logs/state/com.ibm.ws.jmx.rest.address
+     */
+    public String getRestConnectorAddress() {
+        return "service:jmx:rest://localhost:" + server.getAddress().getPort() + CONTEXT_ROOT;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public String getPassword() {
+        return password;
+    }
+
+    // Population
+
+    /**
+     * Adds ApplicationMBeans named app{first} to app{first + count - 1}, in the STARTED state
+     *
+     * @param first The number of the first application
+     * @param count The number of applications
+     */
+    public void addApplications(int first, int count) {
+        for (int i = first; i < first + count; i++) {
+            addMBean(createApplication("app" + i));
+        }
+    }
+
+    /**
+     * Adds an MBean, registration listeners are notified
+     *
+     * @param mBean The MBean
+     */
+    public void addMBean(FakeMBean mBean) {
+        putMBean(mBean);
+        emitNotification(JMXConstants.MBEAN_SERVER_DELEGATE_OBJECT_NAME, JMXConstants.MBEAN_REGISTERED_NOTIFICATION_TYPE,
+                mBean.getObjectName(), null, null, null);
+    }
+
+    /**
+     * Removes an MBean, registration listeners are notified
+     *
+     * @param objectName The object name of the MBean
+     */
+    public void removeMBean(String objectName) {
+        if (mBeans.remove(objectName) != null) {
+            emitNotification(JMXConstants.MBEAN_SERVER_DELEGATE_OBJECT_NAME, "JMX.mbean.unregistered",
+                    objectName, null, null, null);
+        }
+    }
+
+    /**
+     * @param objectName The object name
+     * @return The MBean, or null if there is none
+     */
+    public FakeMBean getMBean(String objectName) {
+        return mBeans.get(objectName);
+    }
+
+    /**
+     * @param applicationName The application name
+     * @return The ApplicationMBean, or null if there is none
+     */
+    public FakeMBean getApplication(String applicationName) {
+        return mBeans.get(APPLICATION_OBJECT_NAME_PREFIX + applicationName);
+    }
+
+    /**
+     * Changes the state of an application, attribute change listeners are notified
+     *
+     * @param applicationName The application name
+     * @param state           The new state, e.g. {@link #APPLICATION_STATE_STOPPED}
+     */
+    public void setApplicationState(String applicationName, String state) {
+        FakeMBean application = getApplication(applicationName);
+        Preconditions.checkArgument(application != null, "No application named " + applicationName);
+        Object oldState = application.getAttribute(JMXConstants.APPLICATION_MBEAN_STATE_ATTRIBUTE);
+        application.setAttribute(JMXConstants.APPLICATION_MBEAN_STATE_ATTRIBUTE, state);
+        emitNotification(application.getObjectName(), "jmx.attribute.change", "State changed",
+                JMXConstants.APPLICATION_MBEAN_STATE_ATTRIBUTE, oldState, state);
+    }
+
+    /**
+     * Makes the server look like another server process, with a new PID and start time
+     */
+    public void restartProcess() {
+        FakeMBean runtime = mBeans.get(JMXConstants.RUNTIME_MBEAN_OBJECT_NAME);
+        String name = (String) runtime.getAttribute(JMXConstants.RUNTIME_MBEAN_NAME_ATTRIBUTE);
+        long pid = Long.parseLong(name.substring(0, name.indexOf('@')));
+        long startTime = (Long) runtime.getAttribute(JMXConstants.RUNTIME_MBEAN_START_TIME_ATTRIBUTE);
+        runtime.setAttribute(JMXConstants.RUNTIME_MBEAN_NAME_ATTRIBUTE, (pid + 1) + "@localhost")
+                .setAttribute(JMXConstants.RUNTIME_MBEAN_START_TIME_ATTRIBUTE, Math.max(startTime + 1, System.currentTimeMillis()));
+    }
+
+    /**
+     * @return Whether the shutdown operation of the framework MBean was invoked
+     */
+    public boolean isFrameworkShutdown() {
+        return frameworkShutdown.get();
+    }
+
+    // Fault injection
+
+    /**
+     * Delays every response
+     *
+     * @param latency The fixed delay
+     * @param jitter  A random delay added to the fixed one, between 0 and this value
+     */
+    public void setLatency(Duration latency, Duration jitter) {
+        Preconditions.checkNotNull(latency, "latency cannot be null");
+        Preconditions.checkNotNull(jitter, "jitter cannot be null");
+        this.latency = latency;
+        this.latencyJitter = jitter;
+    }
+
+    /**
+     * Fails a random share of the requests
+     *
+     * @param errorRate  The share of failed requests, between 0 and 1
+     * @param statusCode The status code of the failed requests
+     */
+    public void setErrorRate(double errorRate, int statusCode) {
+        Preconditions.checkArgument(errorRate >= 0 && errorRate <= 1, "errorRate must be between 0 and 1");
+        this.errorRate = errorRate;
+        this.errorStatusCode = statusCode;
+    }
+
+    /**
+     * Fails the next requests, whatever the error rate
+     *
+     * @param count      The number of requests to fail
+     * @param statusCode The status code of the failed requests
+     */
+    public void failNextRequests(int count, int statusCode) {
+        this.errorStatusCode = statusCode;
+        failNextRequests.set(count);
+    }
+
+    /**
+     * @return The number of authenticated requests received
+     */
+    public int getRequestCount() {
+        return requestCount.get();
+    }
+
+    public void resetRequestCount() {
+        requestCount.set(0);
+    }
+
+    // Notifications
+
+    /**
+     * Sends a notification to the notification areas that registered its source
+     *
+     * @param source        The object name of the emitting MBean
+     * @param type          The notification type
+     * @param message       The message, can be null
+     * @param attributeName The changed attribute of an attribute change notification, can be null
+     * @param oldValue      The old value of the attribute, can be null
+     * @param newValue      The new value of the attribute, can be null
+     */
+    public void emitNotification(String source, String type, String message, String attributeName, Object oldValue, Object newValue) {
+        JsonObject notification = new JsonObject();
+        notification.addProperty("className", attributeName != null
+                ? "javax.management.AttributeChangeNotification" : "javax.management.Notification");
+        notification.addProperty("type", type);
+        notification.addProperty("source", source);
+        notification.addProperty("sequenceNumber", nextSequenceNumber.getAndIncrement());
+        notification.addProperty("timeStamp", System.currentTimeMillis());
+        notification.addProperty("message", message);
+        if (attributeName != null) {
+            notification.addProperty("attributeName", attributeName);
+            notification.add("oldValue", encodeValue(oldValue));
+            notification.add("newValue", encodeValue(newValue));
+        }
+        for (NotificationArea area : notificationAreas.values()) {
+            if (area.registrations.contains(source)) {
+                area.inbox.add(notification);
+            }
+        }
+    }
+
+    /**
+     * @return The number of notification areas created and not deleted
+     */
+    public int getNotificationAreaCount() {
+        return notificationAreas.size();
+    }
+
+    /**
+     * Drops all the notification areas, as a server restart would
+     */
+    public void dropNotificationAreas() {
+        notificationAreas.clear();
+    }
+
+    // Request handling
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            requestCount.incrementAndGet();
+            injectLatency();
+            if (shouldFail()) {
+                sendError(exchange, errorStatusCode, "Injected error");
+                return;
+            }
+            String path = exchange.getRequestURI().getRawPath();
+            if (path.equals(CONTEXT_ROOT) || path.equals(CONTEXT_ROOT + "/")) {
+                JsonObject root = new JsonObject();
+                root.addProperty("mbeans", MBEANS_PATH);
+                root.addProperty("notifications", NOTIFICATIONS_PATH);
+                sendJson(exchange, 200, root);
+            } else if (path.startsWith(MBEANS_PATH)) {
+                handleMBeans(exchange, path.substring(MBEANS_PATH.length()));
+            } else if (path.startsWith(NOTIFICATIONS_PATH)) {
+                handleNotifications(exchange, path.substring(NOTIFICATIONS_PATH.length()));
+            } else {
+                sendError(exchange, 404, "Not found: " + path);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            logger.debug("Fake REST connector server failed", e);
+            sendError(exchange, 500, e.toString());
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void handleMBeans(HttpExchange exchange, String path) throws IOException {
+        if (path.isEmpty() || path.equals("/")) {
+            sendJson(exchange, 200, queryMBeans(parseQuery(exchange.getRequestURI().getRawQuery())));
+            return;
+        }
+        // /{objectName}[/attributes[/{name}] | /operations/{name}]
+        String[] parts = path.substring(1).split("/", 3);
+        FakeMBean mBean = mBeans.get(URLDecoder.decode(parts[0], StandardCharsets.UTF_8));
+        if (mBean == null) {
+            sendError(exchange, 404, "javax.management.InstanceNotFoundException: " + parts[0]);
+            return;
+        }
+        String mBeanUrl = mBeanUrl(mBean);
+        if (parts.length == 1) {
+            sendJson(exchange, 200, mBeanInfo(mBean, mBeanUrl));
+        } else if (parts[1].equals("attributes") && parts.length == 2) {
+            List<String> names = parseQuery(exchange.getRequestURI().getRawQuery()).getOrDefault("attribute", List.of());
+            JsonArray attributes = new JsonArray();
+            mBean.getAttributes().forEach((name, value) -> {
+                if (names.isEmpty() || names.contains(name)) {
+                    JsonObject attribute = new JsonObject();
+                    attribute.addProperty("name", name);
+                    attribute.add("value", encodeValue(value));
+                    attributes.add(attribute);
+                }
+            });
+            sendJson(exchange, 200, attributes);
+        } else if (parts[1].equals("attributes")) {
+            String name = URLDecoder.decode(parts[2], StandardCharsets.UTF_8);
+            if (!mBean.getAttributes().containsKey(name)) {
+                sendError(exchange, 404, "javax.management.AttributeNotFoundException: " + name);
+                return;
+            }
+            sendJson(exchange, 200, encodeValue(mBean.getAttribute(name)));
+        } else if (parts[1].equals("operations") && parts.length == 3 && exchange.getRequestMethod().equals("POST")) {
+            readBody(exchange);
+            String operationName = URLDecoder.decode(parts[2], StandardCharsets.UTF_8);
+            var operation = mBean.getOperations().get(operationName);
+            if (operation == null) {
+                sendError(exchange, 404, "javax.management.ReflectionException: no operation " + operationName);
+                return;
+            }
+            sendJson(exchange, 200, encodeValue(operation.apply(mBean)));
+        } else {
+            sendError(exchange, 404, "Not found: " + path);
+        }
+    }
+
+    private void handleNotifications(HttpExchange exchange, String path) throws IOException, InterruptedException {
+        String method = exchange.getRequestMethod();
+        if ((path.isEmpty() || path.equals("/")) && method.equals("POST")) {
+            JsonObject settings = JsonParser.parseString(readBody(exchange)).getAsJsonObject();
+            long deliveryInterval = settings.has("deliveryInterval") ? settings.get("deliveryInterval").getAsLong() : 0;
+            int id = nextNotificationAreaId.getAndIncrement();
+            notificationAreas.put(id, new NotificationArea(deliveryInterval));
+            String areaUrl = NOTIFICATIONS_PATH + "/" + id;
+            JsonObject area = new JsonObject();
+            area.addProperty("registrations", areaUrl + "/registrations");
+            area.addProperty("serverRegistrations", areaUrl + "/serverRegistrations");
+            area.addProperty("inbox", areaUrl + "/inbox");
+            area.addProperty("clientURL", areaUrl);
+            sendJson(exchange, 200, area);
+            return;
+        }
+        // /{id}[/registrations | /inbox]
+        String[] parts = path.substring(1).split("/", 2);
+        NotificationArea area;
+        try {
+            area = notificationAreas.get(Integer.parseInt(parts[0]));
+        } catch (NumberFormatException e) {
+            area = null;
+        }
+        if (area == null) {
+            sendError(exchange, 404, "No notification area " + parts[0]);
+            return;
+        }
+        if (parts.length == 1 && method.equals("DELETE")) {
+            notificationAreas.remove(Integer.parseInt(parts[0]));
+            exchange.sendResponseHeaders(204, -1);
+        } else if (parts.length == 2 && parts[1].equals("registrations") && method.equals("POST")) {
+            String objectName = JsonParser.parseString(readBody(exchange)).getAsJsonObject().get("objectName").getAsString();
+            if (!mBeans.containsKey(objectName)) {
+                sendError(exchange, 404, "javax.management.InstanceNotFoundException: " + objectName);
+                return;
+            }
+            area.registrations.add(objectName);
+            sendJson(exchange, 200, new JsonPrimitive(path + "/" + URLEncoder.encode(objectName, StandardCharsets.UTF_8)));
+        } else if (parts.length == 2 && parts[1].equals("inbox") && method.equals("GET")) {
+            // Hold the request until there are notifications or the delivery interval elapses
+            long wait = Math.min(area.deliveryInterval, MAX_INBOX_WAIT.toMillis());
+            JsonArray notifications = new JsonArray();
+            JsonObject first = area.inbox.poll(wait, TimeUnit.MILLISECONDS);
+            if (first != null) {
+                List<JsonObject> rest = new ArrayList<>();
+                area.inbox.drainTo(rest);
+                notifications.add(first);
+                rest.forEach(notifications::add);
+            }
+            sendJson(exchange, 200, notifications);
+        } else {
+            sendError(exchange, 404, "Not found: " + path);
+        }
+    }
+
+    private JsonArray queryMBeans(Map<String, List<String>> query) {
+        ObjectName pattern = null;
+        List<String> objectNames = query.get("objectName");
+        if (objectNames != null && !objectNames.isEmpty()) {
+            try {
+                pattern = ObjectName.getInstance(objectNames.get(0));
+            } catch (MalformedObjectNameException e) {
+                throw new IllegalArgumentException("Invalid object name " + objectNames.get(0), e);
+            }
+        }
+        List<String> classNames = query.get("className");
+        String className = classNames == null || classNames.isEmpty() ? null : classNames.get(0);
+
+        JsonArray result = new JsonArray();
+        for (FakeMBean mBean : mBeans.values()) {
+            if (className != null && !className.equals(mBean.getClassName())) {
+                continue;
+            }
+            if (pattern != null && !matches(pattern, mBean.getObjectName())) {
+                continue;
+            }
+            JsonObject info = new JsonObject();
+            info.addProperty("objectName", mBean.getObjectName());
+            info.addProperty("className", mBean.getClassName());
+            info.addProperty("URL", mBeanUrl(mBean));
+            result.add(info);
+        }
+        return result;
+    }
+
+    private static JsonObject mBeanInfo(FakeMBean mBean, String mBeanUrl) {
+        JsonObject info = new JsonObject();
+        info.addProperty("className", mBean.getClassName());
+        info.addProperty("description", "Fake " + mBean.getClassName());
+        JsonArray attributes = new JsonArray();
+        mBean.getAttributes().forEach((name, value) -> {
+            JsonObject attribute = new JsonObject();
+            attribute.addProperty("name", name);
+            attribute.addProperty("type", typeOf(value));
+            attribute.addProperty("URL", mBeanUrl + "/attributes/" + URLEncoder.encode(name, StandardCharsets.UTF_8));
+            attributes.add(attribute);
+        });
+        info.add("attributes", attributes);
+        info.addProperty("attributes_URL", mBeanUrl + "/attributes");
+        JsonArray operations = new JsonArray();
+        mBean.getOperations().keySet().forEach(name -> {
+            JsonObject operation = new JsonObject();
+            operation.addProperty("name", name);
+            operation.add("signature", new JsonArray());
+            operation.addProperty("URL", mBeanUrl + "/operations/" + URLEncoder.encode(name, StandardCharsets.UTF_8));
+            operations.add(operation);
+        });
+        info.add("operations", operations);
+        return info;
+    }
+
+    private FakeMBean createApplication(String applicationName) {
+        return new FakeMBean(APPLICATION_OBJECT_NAME_PREFIX + applicationName,
+                "com.ibm.ws.app.manager.internal.ApplicationMBeanImpl")
+                .setAttribute(JMXConstants.APPLICATION_MBEAN_STATE_ATTRIBUTE, APPLICATION_STATE_STARTED)
+                .setAttribute("Pid", applicationName)
+                .addOperation(JMXConstants.APPLICATION_MBEAN_RESTART_OPERATION, mBean -> {
+                    setApplicationState(applicationName, APPLICATION_STATE_STOPPED);
+                    setApplicationState(applicationName, APPLICATION_STATE_STARTED);
+                    return null;
+                })
+                .addOperation("start", mBean -> {
+                    setApplicationState(applicationName, APPLICATION_STATE_STARTED);
+                    return null;
+                })
+                .addOperation("stop", mBean -> {
+                    setApplicationState(applicationName, APPLICATION_STATE_STOPPED);
+                    return null;
+                });
+    }
+
+    private void putMBean(FakeMBean mBean) {
+        mBeans.put(mBean.getObjectName(), mBean);
+    }
+
+    private static String mBeanUrl(FakeMBean mBean) {
+        return MBEANS_PATH + "/" + URLEncoder.encode(mBean.getObjectName(), StandardCharsets.UTF_8);
+    }
+
+    private static boolean matches(ObjectName pattern, String objectName) {
+        try {
+            return pattern.apply(ObjectName.getInstance(objectName));
+        } catch (MalformedObjectNameException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Encodes a value the way the REST connector does, with its value and type
+     */
+    private static JsonElement encodeValue(Object value) {
+        if (value == null) {
+            return JsonNull.INSTANCE;
+        }
+        JsonObject encoded = new JsonObject();
+        if (value instanceof Number) {
+            encoded.addProperty("value", (Number) value);
+        } else if (value instanceof Boolean) {
+            encoded.addProperty("value", (Boolean) value);
+        } else if (value instanceof Map) {
+            // Composite data, its items as plain values
+            JsonObject items = new JsonObject();
+            ((Map<?, ?>) value).forEach((key, item) -> items.add(String.valueOf(key), new Gson().toJsonTree(item)));
+            encoded.add("value", items);
+            encoded.addProperty("type", "javax.management.openmbean.CompositeDataSupport");
+            return encoded;
+        } else {
+            encoded.addProperty("value", value.toString());
+        }
+        encoded.addProperty("type", typeOf(value));
+        return encoded;
+    }
+
+    private static String typeOf(Object value) {
+        return value == null ? "java.lang.String" : value.getClass().getName();
+    }
+
+    private static Map<String, List<String>> parseQuery(String rawQuery) {
+        Map<String, List<String>> query = new ConcurrentHashMap<>();
+        if (Strings.isNullOrEmpty(rawQuery)) {
+            return query;
+        }
+        for (String parameter : rawQuery.split("&")) {
+            // Split on the first equals sign only, object names contain some
+            int equals = parameter.indexOf('=');
+            String name = equals < 0 ? parameter : parameter.substring(0, equals);
+            String value = equals < 0 ? "" : URLDecoder.decode(parameter.substring(equals + 1), StandardCharsets.UTF_8);
+            query.computeIfAbsent(name, key -> new ArrayList<>()).add(value);
+        }
+        return query;
+    }
+
+    private void injectLatency() throws InterruptedException {
+        long delay = latency.toMillis();
+        long jitter = latencyJitter.toMillis();
+        if (jitter > 0) {
+            delay += ThreadLocalRandom.current().nextLong(jitter + 1);
+        }
+        if (delay > 0) {
+            Thread.sleep(delay);
+        }
+    }
+
+    private boolean shouldFail() {
+        if (failNextRequests.getAndUpdate(count -> Math.max(count - 1, 0)) > 0) {
+            return true;
+        }
+        return errorRate > 0 && ThreadLocalRandom.current().nextDouble() < errorRate;
+    }
+
+    private static String readBody(HttpExchange exchange) throws IOException {
+        try (InputStream body = exchange.getRequestBody()) {
+            return new String(body.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static void sendJson(HttpExchange exchange, int statusCode, JsonElement json) throws IOException {
+        byte[] body = json.toString().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(statusCode, body.length);
+        exchange.getResponseBody().write(body);
+    }
+
+    /**
+     * Sends an error in the format of the REST connector, with the error message and the serialized throwable
+     */
+    private static void sendError(HttpExchange exchange, int statusCode, String message) throws IOException {
+        JsonObject error = new JsonObject();
+        error.addProperty("error", message);
+        error.addProperty("throwable", Base64.getEncoder().encodeToString(message.getBytes(StandardCharsets.UTF_8)));
+        sendJson(exchange, statusCode, error);
+    }
+
+    /**
+     * Creates a self-signed certificate for localhost with keytool, and an SSL context serving it
+     */
+    private static SSLContext createSslContext() throws IOException {
+        Path directory = Files.createTempDirectory("fake-rest-connector");
+        Path keyStoreFile = directory.resolve("key.p12");
+        Path keytool = Path.of(System.getProperty("java.home"), "bin", "keytool");
+        ProcessBuilder processBuilder = new ProcessBuilder(keytool.toString(), "-genkeypair", "-alias", "fake",
+                "-keyalg", "RSA", "-keysize", "2048", "-validity", "2", "-dname", "CN=localhost",
+                "-ext", "SAN=dns:localhost,ip:127.0.0.1", "-storetype", "PKCS12",
+                "-keystore", keyStoreFile.toString(), "-storepass", KEYSTORE_PASSWORD, "-keypass", KEYSTORE_PASSWORD)
+                .redirectErrorStream(true)
+                .redirectOutput(directory.resolve("keytool.log").toFile());
+        try {
+            Process process = processBuilder.start();
+            if (!process.waitFor(60, TimeUnit.SECONDS) || process.exitValue() != 0) {
+                process.destroyForcibly();
+                throw new IOException("keytool failed: " + Files.readString(directory.resolve("keytool.log")));
+            }
+            KeyStore keyStore = KeyStore.getInstance("PKCS12");
+            try (InputStream keyStoreStream = Files.newInputStream(keyStoreFile)) {
+                keyStore.load(keyStoreStream, KEYSTORE_PASSWORD.toCharArray());
+            }
+            KeyManagerFactory keyManagerFactory = KeyManagerFactory.getInstance(KeyManagerFactory.getDefaultAlgorithm());
+            keyManagerFactory.init(keyStore, KEYSTORE_PASSWORD.toCharArray());
+            SSLContext sslContext = SSLContext.getInstance("TLS");
+            sslContext.init(keyManagerFactory.getKeyManagers(), null, null);
+            return sslContext;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while creating the certificate", e);
+        } catch (IOException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException("Failed to create the SSL context", e);
+        }
+    }
+
+    /**
+     * A notification area created by a client
+     */
+    private static class NotificationArea {
+        private final long deliveryInterval;
+        private final Set<String> registrations = ConcurrentHashMap.newKeySet();
+        private final BlockingQueue<JsonObject> inbox = new LinkedBlockingQueue<>();
+
+        private NotificationArea(long deliveryInterval) {
+            this.deliveryInterval = deliveryInterval;
+        }
+    }
+}
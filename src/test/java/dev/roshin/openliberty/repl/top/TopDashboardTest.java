@@ -0,0 +1,84 @@
+package dev.roshin.openliberty.repl.top;
+
+import dev.roshin.openliberty.repl.controllers.jmx.JMXServerManager;
+import dev.roshin.openliberty.repl.controllers.jmx.JMXServerManagerImpl;
+import dev.roshin.openliberty.repl.controllers.jmx.rest.JMXConstants;
+import dev.roshin.openliberty.repl.metrics.TimeSeriesStore;
+import dev.roshin.openliberty.repl.testing.FakeMBean;
+import dev.roshin.openliberty.repl.testing.FakeRestConnectorServer;
+import org.jline.terminal.Terminal;
+import org.jline.terminal.TerminalBuilder;
+import org.jline.utils.AttributedString;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TopDashboardTest {
+    private static final String SERVLET_OBJECT_NAME = "WebSphere:type=ServletStats,name=app1.HelloServlet";
+
+    private FakeRestConnectorServer server;
+    private JMXServerManager manager;
+
+    @BeforeEach
+    void beforeEach() throws Exception {
+        server = new FakeRestConnectorServer(1).start();
+        server.addMBean(new FakeMBean(JMXConstants.MEMORY_MBEAN_OBJECT_NAME, "sun.management.MemoryImpl")
+                .setAttribute(JMXConstants.MEMORY_MBEAN_HEAP_MEMORY_USAGE_ATTRIBUTE,
+                        Map.of("used", 256L * 1024 * 1024, "max", 1024L * 1024 * 1024, "committed", 512L * 1024 * 1024)));
+        server.addMBean(new FakeMBean("WebSphere:type=ThreadPoolStats,name=Default Executor", "com.ibm.ws.monitors.helper.ThreadPoolStats")
+                .setAttribute("ActiveThreads", 8)
+                .setAttribute("PoolSize", 8));
+        server.addMBean(new FakeMBean(SERVLET_OBJECT_NAME, "com.ibm.ws.webcontainer.monitor.ServletStats")
+                .setAttribute("RequestCount", 100L)
+                .setAttribute("ResponseTime", 2_000_000.0));
+        manager = new JMXServerManagerImpl(server.getBaseUrl(), server.getUsername(), server.getPassword(),
+                Duration.ofSeconds(30), 3);
+    }
+
+    @AfterEach
+    void afterEach() {
+        server.close();
+    }
+
+    @Test
+    void recordsDerivedRatesAndRendersThem() throws Exception {
+        TimeSeriesStore store = new TimeSeriesStore();
+        TopMetricsRecorder recorder = new TopMetricsRecorder(store, manager);
+        recorder.sampled(manager.sampleMonitorStats(manager.discoverMonitorMBeans()));
+
+        // 50 more requests of 5 ms, the mean since the start goes from 2 ms to 3 ms
+        server.getMBean(SERVLET_OBJECT_NAME).setAttribute("RequestCount", 150L).setAttribute("ResponseTime", 3_000_000.0);
+        Thread.sleep(100);
+        recorder.sampled(manager.sampleMonitorStats(manager.discoverMonitorMBeans()));
+
+        assertEquals(256.0 * 1024 * 1024, store.getSeries(TopMetricsRecorder.HEAP_USED_SERIES).getLastValue());
+        assertEquals(5.0, store.getSeries(TopMetricsRecorder.REQUEST_LATENCY_SERIES).getLastValue(), 0.001);
+        double rate = store.getSeries(TopMetricsRecorder.REQUEST_RATE_SERIES).getLastValue();
+        assertTrue(rate > 0 && rate <= 500, "50 requests in at least 100 ms: " + rate);
+
+        try (Terminal terminal = TerminalBuilder.builder().dumb(true)
+                .streams(new ByteArrayInputStream(new byte[0]), new ByteArrayOutputStream()).build()) {
+            TopDashboard dashboard = new TopDashboard(terminal, store, Map.of("app1", "STARTED"), "defaultServer",
+                    TopDashboard.DEFAULT_REFRESH_INTERVAL, Duration.ofMillis(100));
+            List<AttributedString> frame = dashboard.render(40, 120, System.currentTimeMillis());
+            String text = String.join("\n", frame.stream().map(AttributedString::toString).toList());
+            assertTrue(text.contains("256 / 1024 MB"), text);
+            assertTrue(text.contains("8 / 8 active"), text);
+            assertTrue(text.contains("app1.HelloServlet"), text);
+            assertTrue(text.contains("STARTED"), text);
+            assertTrue(frame.stream().allMatch(line -> line.columnLength() < 120));
+
+            // A small screen gets the first rows only
+            assertEquals(3, dashboard.render(3, 20, System.currentTimeMillis()).size());
+        }
+    }
+}